@@ -0,0 +1,93 @@
+package io.burt.jmespath.contrib.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import io.burt.jmespath.Adapter;
+import io.burt.jmespath.Expression;
+import io.burt.jmespath.contrib.BatchSearch;
+
+/**
+ * Measures searching ten thousand documents with an expression that uses
+ * <code>matches</code>, <code>replace</code> and <code>concat</code>, one by
+ * one on one thread, and with {@link BatchSearch} on a fork/join pool and on
+ * a fixed thread pool, both from a list and from an iterator.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BatchSearchBenchmark {
+  private static final int SIZE = 10000;
+
+  @Param({"jackson", "gson"})
+  public String runtime;
+
+  private List<Object> documents;
+  private Expression<Object> expression;
+  private ExecutorService executor;
+  private BatchSearch forkJoinSearch;
+  private BatchSearch executorSearch;
+
+  @Setup
+  public void setUp() {
+    Adapter<Object> adapter = Runtimes.create(runtime, true);
+    documents = new ArrayList<>(SIZE);
+    for (int i = 0; i < SIZE; i++) {
+      String word = Inputs.ASCII_WORDS[i % Inputs.ASCII_WORDS.length];
+      documents.add(adapter.parseString(String.format("{\"name\": %s, \"path\": \"/a/%d/b/%s\"}", Inputs.quote(word), i, word)));
+    }
+    expression = adapter.compile("{admin: matches(name, '^[a-m]', 'i'), path: replace(path, '/[0-9]+/', '/:id/'), label: concat(name, ':', path)}");
+    int parallelism = Runtime.getRuntime().availableProcessors();
+    executor = Executors.newFixedThreadPool(parallelism);
+    forkJoinSearch = new BatchSearch();
+    executorSearch = new BatchSearch(executor, parallelism);
+  }
+
+  @TearDown
+  public void tearDown() {
+    executor.shutdown();
+  }
+
+  @Benchmark
+  public Object sequential() {
+    List<Object> results = new ArrayList<>(SIZE);
+    for (Object document : documents) {
+      results.add(expression.search(document));
+    }
+    return results;
+  }
+
+  @Benchmark
+  public Object forkJoinPool() {
+    return forkJoinSearch.search(expression, documents);
+  }
+
+  @Benchmark
+  public Object executor() {
+    return executorSearch.search(expression, documents);
+  }
+
+  @Benchmark
+  public Object executorFromIterator() {
+    return executorSearch.search(expression, documents.iterator());
+  }
+}
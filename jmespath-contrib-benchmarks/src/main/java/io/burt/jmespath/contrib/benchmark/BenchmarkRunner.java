@@ -0,0 +1,32 @@
+package io.burt.jmespath.contrib.benchmark;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs the benchmarks with the GC profiler, to report allocation rates next
+ * to throughput, and writes the results as JSON to {@code jmh-result.json}.
+ * <p>
+ * Takes the same command line options as JMH, which override the defaults,
+ * for example {@code -rf csv -rff results.csv} to write CSV to another file,
+ * or {@code StringFunctionBenchmark.translate} to run a single benchmark.
+ */
+public class BenchmarkRunner {
+  public static void main(String[] args) throws Exception {
+    CommandLineOptions commandLineOptions = new CommandLineOptions(args);
+    ChainedOptionsBuilder options = new OptionsBuilder()
+      .parent(commandLineOptions)
+      .addProfiler(GCProfiler.class);
+    if (!commandLineOptions.getResultFormat().hasValue()) {
+      options.resultFormat(ResultFormatType.JSON);
+    }
+    if (!commandLineOptions.getResult().hasValue()) {
+      options.result("jmh-result.json");
+    }
+    new Runner(options.build()).run();
+  }
+}
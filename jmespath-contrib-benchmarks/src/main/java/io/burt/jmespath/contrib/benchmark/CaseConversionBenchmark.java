@@ -0,0 +1,119 @@
+package io.burt.jmespath.contrib.benchmark;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import io.burt.jmespath.Adapter;
+import io.burt.jmespath.Expression;
+
+/**
+ * Measures <code>lower_case</code> on a thousand words, of which a varying
+ * share already are lower case ASCII, and the rest are either mixed case
+ * ASCII or contain non-ASCII characters.
+ * <p>
+ * Next to the throughput the benchmark reports how many of the words were
+ * returned as they were, without creating new strings, and how many were
+ * ASCII, as rates of words per second. Divided by the sum of the ASCII and
+ * non-ASCII rates they give the hit rates of the identity and ASCII fast
+ * paths.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CaseConversionBenchmark {
+  private static final int SIZE = 1000;
+
+  @Param({"jackson", "gson"})
+  public String runtime;
+
+  @Param({"0", "50", "90", "100"})
+  public int lowerCasePercent;
+
+  private Object input;
+  private Expression<Object> lowerCaseArray;
+  private int unchangedWords;
+  private int asciiWords;
+
+  @AuxCounters(AuxCounters.Type.OPERATIONS)
+  @State(Scope.Thread)
+  public static class Words {
+    public long unchanged;
+    public long ascii;
+    public long nonAscii;
+
+    @Setup(Level.Iteration)
+    public void reset() {
+      unchanged = 0;
+      ascii = 0;
+      nonAscii = 0;
+    }
+  }
+
+  @Setup
+  public void setUp() {
+    Adapter<Object> adapter = Runtimes.create(runtime, false);
+    Random random = new Random(lowerCasePercent);
+    StringBuilder words = new StringBuilder("[");
+    asciiWords = 0;
+    for (int i = 0; i < SIZE; i++) {
+      String word;
+      if (random.nextInt(100) < lowerCasePercent) {
+        word = Inputs.ASCII_WORDS[random.nextInt(Inputs.ASCII_WORDS.length)].toLowerCase(Locale.ROOT);
+      } else if (random.nextBoolean()) {
+        word = Inputs.ASCII_WORDS[random.nextInt(Inputs.ASCII_WORDS.length)].toUpperCase(Locale.ROOT);
+      } else {
+        word = Inputs.NON_ASCII_WORDS[random.nextInt(Inputs.NON_ASCII_WORDS.length)];
+      }
+      if (isAscii(word)) {
+        asciiWords++;
+      }
+      words.append(i > 0 ? "," : "").append(Inputs.quote(word));
+    }
+    input = adapter.parseString(String.format("{\"words\": %s]}", words));
+    lowerCaseArray = adapter.compile("map(&lower_case(@), words)");
+    List<Object> before = adapter.toList(adapter.compile("words").search(input));
+    List<Object> after = adapter.toList(lowerCaseArray.search(input));
+    unchangedWords = 0;
+    for (int i = 0; i < SIZE; i++) {
+      if (before.get(i) == after.get(i)) {
+        unchangedWords++;
+      }
+    }
+  }
+
+  private static boolean isAscii(String str) {
+    for (int i = 0; i < str.length(); i++) {
+      if (str.charAt(i) >= 128) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  @Benchmark
+  public Object lowerCaseArray(Words words) {
+    words.unchanged += unchangedWords;
+    words.ascii += asciiWords;
+    words.nonAscii += SIZE - asciiWords;
+    return lowerCaseArray.search(input);
+  }
+}
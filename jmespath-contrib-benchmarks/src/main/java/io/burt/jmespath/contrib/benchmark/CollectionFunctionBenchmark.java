@@ -0,0 +1,138 @@
+package io.burt.jmespath.contrib.benchmark;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import io.burt.jmespath.Adapter;
+import io.burt.jmespath.Expression;
+
+/**
+ * Measures grouping a large array of objects by string, number and object
+ * keys, next to sorting it by the same key, which is what grouping takes
+ * without the grouping functions, and finding the distinct strings, numbers
+ * and objects of the array, next to sorting the strings.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CollectionFunctionBenchmark {
+  @Param({"jackson", "gson", "tape"})
+  public String runtime;
+
+  @Param({"10000"})
+  public int size;
+
+  private Object input;
+  private Expression<Object> sortBy;
+  private Expression<Object> groupBy;
+  private Expression<Object> indexBy;
+  private Expression<Object> countBy;
+  private Expression<Object> countByNumber;
+  private Expression<Object> countByObject;
+  private Expression<Object> sortStrings;
+  private Expression<Object> distinctStrings;
+  private Expression<Object> distinctNumbers;
+  private Expression<Object> distinctObjects;
+  private Expression<Object> distinctBy;
+
+  @Setup
+  public void setUp() {
+    Adapter<Object> adapter = Runtimes.create(runtime, false);
+    Random random = new Random(1);
+    StringBuilder records = new StringBuilder("[");
+    for (int i = 0; i < size; i++) {
+      if (i > 0) {
+        records.append(',');
+      }
+      records.append(String.format(
+        "{\"id\": \"id-%d\", \"team\": \"team-%d\", \"score\": %d}",
+        i,
+        random.nextInt(100),
+        random.nextInt(50)
+      ));
+    }
+    records.append(']');
+    input = adapter.parseString(records.toString());
+    sortBy = adapter.compile("sort_by(@, &team)");
+    groupBy = adapter.compile("group_by(@, &team)");
+    indexBy = adapter.compile("index_by(@, &id)");
+    countBy = adapter.compile("count_by(@, &team)");
+    countByNumber = adapter.compile("count_by(@, &score)");
+    countByObject = adapter.compile("count_by(@, &{team: team, score: score})");
+    sortStrings = adapter.compile("sort([*].team)");
+    distinctStrings = adapter.compile("distinct([*].team)");
+    distinctNumbers = adapter.compile("distinct([*].score)");
+    distinctObjects = adapter.compile("distinct([*].{team: team, score: score})");
+    distinctBy = adapter.compile("distinct_by(@, &team)");
+  }
+
+  @Benchmark
+  public Object sortBy() {
+    return sortBy.search(input);
+  }
+
+  @Benchmark
+  public Object groupBy() {
+    return groupBy.search(input);
+  }
+
+  @Benchmark
+  public Object indexBy() {
+    return indexBy.search(input);
+  }
+
+  @Benchmark
+  public Object countBy() {
+    return countBy.search(input);
+  }
+
+  @Benchmark
+  public Object countByNumber() {
+    return countByNumber.search(input);
+  }
+
+  @Benchmark
+  public Object countByObject() {
+    return countByObject.search(input);
+  }
+
+  @Benchmark
+  public Object sortStrings() {
+    return sortStrings.search(input);
+  }
+
+  @Benchmark
+  public Object distinctStrings() {
+    return distinctStrings.search(input);
+  }
+
+  @Benchmark
+  public Object distinctNumbers() {
+    return distinctNumbers.search(input);
+  }
+
+  @Benchmark
+  public Object distinctObjects() {
+    return distinctObjects.search(input);
+  }
+
+  @Benchmark
+  public Object distinctBy() {
+    return distinctBy.search(input);
+  }
+}
@@ -0,0 +1,54 @@
+package io.burt.jmespath.contrib.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import io.burt.jmespath.Adapter;
+import io.burt.jmespath.contrib.CachingJmesPath;
+
+/**
+ * Measures compiling an expression with and without a
+ * {@link CachingJmesPath} in front of the runtime.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CompileBenchmark {
+  private static final String EXPRESSION = "people[?age > `20` && contains(tags, 'admin')].{name: concat(lower_case(first), ' ', upper_case(last)), age: age} | sort_by(@, &age)";
+
+  @Param({"jackson", "gson"})
+  public String runtime;
+
+  private Adapter<Object> adapter;
+  private CachingJmesPath<Object> cachingRuntime;
+
+  @Setup
+  public void setUp() {
+    adapter = Runtimes.create(runtime, false);
+    cachingRuntime = new CachingJmesPath<>(adapter);
+  }
+
+  @Benchmark
+  public Object compile() {
+    return adapter.compile(EXPRESSION);
+  }
+
+  @Benchmark
+  public Object compileCached() {
+    return cachingRuntime.compile(EXPRESSION);
+  }
+}
@@ -0,0 +1,94 @@
+package io.burt.jmespath.contrib.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import io.burt.jmespath.Adapter;
+import io.burt.jmespath.Expression;
+import io.burt.jmespath.contrib.function.ContainsAnyFunction;
+import io.burt.jmespath.contrib.function.FirstOfFunction;
+import io.burt.jmespath.function.FunctionRegistry;
+
+/**
+ * Compares a <code>contains</code> call per needle, evaluated until one
+ * returns true like an <code>||</code> chain would be, with one call to
+ * <code>contains_any</code>, and <code>first_of</code>, for a growing number
+ * of bot tokens, none of which occur in the user agent. A chain of a few
+ * thousand <code>||</code> can not be used, since the parser recurses once
+ * per operand.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ContainsAnyBenchmark {
+  @Param({"10", "2000"})
+  public int needleCount;
+
+  private Adapter<Object> adapter;
+  private Object input;
+  private List<Expression<Object>> containsEach;
+  private Expression<Object> containsAny;
+  private Expression<Object> firstOf;
+
+  @Setup
+  public void setUp() {
+    FunctionRegistry functionRegistry = FunctionRegistry.defaultRegistry().extend(
+      new ContainsAnyFunction(),
+      new FirstOfFunction()
+    );
+    adapter = Runtimes.create("jackson", true, functionRegistry);
+    input = adapter.parseString(String.format(
+      "{\"ua\": %s}",
+      Inputs.quote("Mozilla/5.0 (Macintosh; Intel Mac OS X 10_15_7) AppleWebKit/537.36 (KHTML, like Gecko) Chrome/118.0.0.0 Safari/537.36")
+    ));
+    containsEach = new ArrayList<>(needleCount);
+    StringBuilder needles = new StringBuilder("[");
+    for (int i = 0; i < needleCount; i++) {
+      String needle = String.format("crawler-%d", i);
+      if (i > 0) {
+        needles.append(", ");
+      }
+      containsEach.add(adapter.compile(String.format("contains(ua, '%s')", needle)));
+      needles.append("'").append(needle).append("'");
+    }
+    needles.append("]");
+    containsAny = adapter.compile(String.format("contains_any(ua, %s)", needles));
+    firstOf = adapter.compile(String.format("first_of(ua, %s)", needles));
+  }
+
+  @Benchmark
+  public boolean containsEach() {
+    for (Expression<Object> contains : containsEach) {
+      if (adapter.isTruthy(contains.search(input))) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  @Benchmark
+  public Object containsAny() {
+    return containsAny.search(input);
+  }
+
+  @Benchmark
+  public Object firstOf() {
+    return firstOf.search(input);
+  }
+}
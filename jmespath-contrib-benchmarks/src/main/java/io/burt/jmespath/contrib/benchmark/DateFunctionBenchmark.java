@@ -0,0 +1,95 @@
+package io.burt.jmespath.contrib.benchmark;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import io.burt.jmespath.Adapter;
+import io.burt.jmespath.Expression;
+
+/**
+ * Measures the date functions on an array of timestamps, comparing the
+ * ISO-8601 parser and formatter with a pattern that reads and writes the
+ * same format, with and without the pattern being looked up when the
+ * expression is compiled.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DateFunctionBenchmark {
+  private static final String ISO_PATTERN = "'yyyy-MM-dd\\'T\\'HH:mm:ss.SSSXXX'";
+
+  @Param({"false", "true"})
+  public boolean specializing;
+
+  @Param({"1000"})
+  public int size;
+
+  private Object input;
+  private Expression<Object> parseIso;
+  private Expression<Object> parsePattern;
+  private Expression<Object> formatIso;
+  private Expression<Object> formatPattern;
+  private Expression<Object> truncate;
+
+  @Setup
+  public void setUp() {
+    Adapter<Object> adapter = Runtimes.create("jackson", specializing);
+    Random random = new Random(1);
+    StringBuilder times = new StringBuilder("[");
+    StringBuilder millis = new StringBuilder("[");
+    for (int i = 0; i < size; i++) {
+      if (i > 0) {
+        times.append(", ");
+        millis.append(", ");
+      }
+      times.append(String.format("\"2019-%02d-%02dT%02d:%02d:%02d.%03d+02:00\"", 1 + random.nextInt(12), 1 + random.nextInt(28), random.nextInt(24), random.nextInt(60), random.nextInt(60), random.nextInt(1000)));
+      millis.append(1500000000000L + (long) (random.nextDouble() * 100000000000L));
+    }
+    input = adapter.parseString(String.format("{\"times\": %s], \"millis\": %s]}", times, millis));
+    parseIso = adapter.compile("times[*].parse_date(@)");
+    parsePattern = adapter.compile(String.format("times[*].parse_date(@, %s)", ISO_PATTERN));
+    formatIso = adapter.compile("millis[*].format_date(@)");
+    formatPattern = adapter.compile(String.format("millis[*].format_date(@, %s)", ISO_PATTERN));
+    truncate = adapter.compile("times[*].date_trunc(@, 'hour')");
+  }
+
+  @Benchmark
+  public Object parseIso() {
+    return parseIso.search(input);
+  }
+
+  @Benchmark
+  public Object parsePattern() {
+    return parsePattern.search(input);
+  }
+
+  @Benchmark
+  public Object formatIso() {
+    return formatIso.search(input);
+  }
+
+  @Benchmark
+  public Object formatPattern() {
+    return formatPattern.search(input);
+  }
+
+  @Benchmark
+  public Object truncate() {
+    return truncate.search(input);
+  }
+}
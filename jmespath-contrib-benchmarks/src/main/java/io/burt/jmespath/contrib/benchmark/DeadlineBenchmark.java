@@ -0,0 +1,71 @@
+package io.burt.jmespath.contrib.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import io.burt.jmespath.Adapter;
+import io.burt.jmespath.Expression;
+import io.burt.jmespath.contrib.Deadline;
+import io.burt.jmespath.contrib.function.ConcatFunction;
+import io.burt.jmespath.contrib.function.MatchesFunction;
+import io.burt.jmespath.contrib.function.ReplaceFunction;
+import io.burt.jmespath.contrib.function.TokenizeFunction;
+import io.burt.jmespath.contrib.function.TranslateFunction;
+import io.burt.jmespath.function.FunctionRegistry;
+
+/**
+ * Measures the overhead of searching with a {@link Deadline}, for an
+ * expression that uses the functions that check it, compared to searching
+ * without one.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DeadlineBenchmark {
+  private Object input;
+  private Expression<Object> expression;
+
+  @Setup
+  public void setUp() {
+    FunctionRegistry functionRegistry = FunctionRegistry.defaultRegistry().extend(
+      new ConcatFunction(),
+      new MatchesFunction(),
+      new ReplaceFunction(),
+      new TokenizeFunction(),
+      new TranslateFunction()
+    );
+    Adapter<Object> adapter = Runtimes.create("jackson", true, functionRegistry);
+    input = adapter.parseString(String.format("{\"line\": %s}", Inputs.quote(Inputs.csvLine(40))));
+    expression = adapter.compile(
+      "[matches(line, '^(\\w+,){39}\\w+$'), replace(line, '[aeiou]+', '#'), tokenize(line, ',')[7], concat(translate(line, ',', ';'), '.')]"
+    );
+  }
+
+  @Benchmark
+  public Object withoutDeadline() {
+    return expression.search(input);
+  }
+
+  @Benchmark
+  public Object withDeadline() {
+    return Deadline.after(1, TimeUnit.SECONDS).search(expression, input);
+  }
+
+  @Benchmark
+  public Object withStepBudget() {
+    return Deadline.afterSteps(1000000).search(expression, input);
+  }
+}
@@ -0,0 +1,84 @@
+package io.burt.jmespath.contrib.benchmark;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import io.burt.jmespath.Adapter;
+import io.burt.jmespath.Expression;
+import io.burt.jmespath.contrib.ExpressionGroup;
+
+/**
+ * Measures searching an event with a rule set of forty expressions that
+ * repeat the same few subexpressions, one expression at a time and as an
+ * {@link ExpressionGroup}.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ExpressionGroupBenchmark {
+  private static final String[] HOSTS = {"api", "www", "static", "admin", "internal"};
+  private static final String[] SEGMENTS = {"users", "orders", "v1", "v2", "health"};
+
+  @Param({"jackson", "gson"})
+  public String runtime;
+
+  private Object event;
+  private Map<String, Expression<Object>> expressions;
+  private ExpressionGroup<Object> group;
+
+  @Setup
+  public void setUp() {
+    Adapter<Object> adapter = Runtimes.create(runtime, true);
+    Map<String, String> rules = new LinkedHashMap<>();
+    for (String host : HOSTS) {
+      rules.put("host-" + host, String.format("starts_with(lower_case(request.headers.host), '%s.')", host));
+      rules.put("host-matches-" + host, String.format("matches(lower_case(request.headers.host), '^%s\\.[a-z.]+$')", host));
+    }
+    for (int i = 0; i < SEGMENTS.length; i++) {
+      rules.put("segment-" + i, String.format("tokenize(request.path, '/')[%d]", i + 1));
+      rules.put("contains-" + SEGMENTS[i], String.format("contains(tokenize(request.path, '/'), '%s')", SEGMENTS[i]));
+      rules.put("agent-" + SEGMENTS[i], String.format("contains(lower_case(request.headers.\"user-agent\"), '%s')", SEGMENTS[i]));
+    }
+    for (int i = 0; i < 15; i++) {
+      rules.put("label-" + i, String.format("concat(lower_case(request.headers.host), request.path, '#%d')", i));
+    }
+    event = adapter.parseString(
+      "{\"request\": {\"path\": \"/v1/users/123/orders\", \"headers\": {\"host\": \"API.Example.com\", \"user-agent\": \"Mozilla/5.0 (X11; Linux x86_64) Users/1\"}}}"
+    );
+    expressions = new LinkedHashMap<>();
+    for (Map.Entry<String, String> rule : rules.entrySet()) {
+      expressions.put(rule.getKey(), adapter.compile(rule.getValue()));
+    }
+    group = new ExpressionGroup<>(adapter, rules);
+  }
+
+  @Benchmark
+  public Object separately() {
+    Map<String, Object> results = new LinkedHashMap<>();
+    for (Map.Entry<String, Expression<Object>> expression : expressions.entrySet()) {
+      results.put(expression.getKey(), expression.getValue().search(event));
+    }
+    return results;
+  }
+
+  @Benchmark
+  public Object group() {
+    return group.search(event);
+  }
+}
@@ -0,0 +1,87 @@
+package io.burt.jmespath.contrib.benchmark;
+
+import java.nio.charset.Charset;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import io.burt.jmespath.Adapter;
+import io.burt.jmespath.Expression;
+import io.burt.jmespath.contrib.jackson.FieldPruningParser;
+
+/**
+ * Measures parsing a document of about 12 KB and searching it with an
+ * expression that uses two of its fields, with the Jackson runtime's own
+ * parser and with {@link FieldPruningParser}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class FieldPruningBenchmark {
+  private static final String EXPRESSION = "concat(user.first, ' ', upper_case(user.last))";
+
+  private Adapter<JsonNode> runtime;
+  private Expression<JsonNode> expression;
+  private FieldPruningParser parser;
+  private String json;
+  private byte[] jsonBytes;
+
+  @Setup
+  @SuppressWarnings("unchecked")
+  public void setUp() {
+    runtime = (Adapter<JsonNode>) (Adapter<?>) Runtimes.create("jackson", true);
+    expression = runtime.compile(EXPRESSION);
+    parser = FieldPruningParser.forExpression(runtime, EXPRESSION);
+    StringBuilder document = new StringBuilder("{\"id\": 1234, \"events\": [");
+    for (int i = 0; i < 100; i++) {
+      String word = Inputs.ASCII_WORDS[i % Inputs.ASCII_WORDS.length];
+      if (i > 0) {
+        document.append(", ");
+      }
+      document.append(String.format("{\"type\": %s, \"time\": %d, \"score\": %d.25, \"tags\": [\"a\", \"b\", %s], \"meta\": {\"source\": \"web\", \"ok\": true}}", Inputs.quote(word), 1500000000L + i, i, Inputs.quote(word)));
+    }
+    document.append("], \"user\": {\"first\": \"Ada\", \"last\": \"Lovelace\", \"email\": \"ada@example.com\"}}");
+    json = document.toString();
+    jsonBytes = json.getBytes(Charset.forName("UTF-8"));
+    System.out.printf("%nDocument is %d bytes%n", jsonBytes.length);
+  }
+
+  @Benchmark
+  public Object parse() {
+    return runtime.parseString(json);
+  }
+
+  @Benchmark
+  public Object parseAndSearch() {
+    return expression.search(runtime.parseString(json));
+  }
+
+  @Benchmark
+  public Object parsePruned() {
+    return parser.parse(json);
+  }
+
+  @Benchmark
+  public Object parsePrunedAndSearch() {
+    return expression.search(parser.parse(json));
+  }
+
+  @Benchmark
+  public Object parsePrunedBytesAndSearch() {
+    return expression.search(parser.parse(jsonBytes));
+  }
+}
@@ -0,0 +1,73 @@
+package io.burt.jmespath.contrib.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import io.burt.jmespath.Adapter;
+import io.burt.jmespath.Expression;
+
+/**
+ * Measures the hash functions on a short key, on a key made of several
+ * values, next to hashing the <code>concat</code> of the same values, and on
+ * a string of about 4000 characters.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class HashFunctionBenchmark {
+  @Param({"md5", "sha256", "murmur3_128", "xxhash64"})
+  public String function;
+
+  private Object input;
+  private Expression<Object> shortKey;
+  private Expression<Object> compositeKey;
+  private Expression<Object> concatKey;
+  private Expression<Object> longString;
+
+  @Setup
+  public void setUp() {
+    Adapter<Object> adapter = Runtimes.create("jackson", false);
+    input = adapter.parseString(String.format(
+      "{\"user_id\": \"3f2c9a7e-51b4-4d0e-9a53-0c6f2f6d8b11\", \"session\": 1234567, \"event\": \"page_view\", \"text\": %s}",
+      Inputs.quote(TextInput.LONG_ASCII.generate(1))
+    ));
+    shortKey = adapter.compile(String.format("%s(user_id)", function));
+    compositeKey = adapter.compile(String.format("%s(user_id, '|', session, '|', event)", function));
+    concatKey = adapter.compile(String.format("%s(concat(user_id, '|', session, '|', event))", function));
+    longString = adapter.compile(String.format("%s(text)", function));
+  }
+
+  @Benchmark
+  public Object shortKey() {
+    return shortKey.search(input);
+  }
+
+  @Benchmark
+  public Object compositeKey() {
+    return compositeKey.search(input);
+  }
+
+  @Benchmark
+  public Object concatKey() {
+    return concatKey.search(input);
+  }
+
+  @Benchmark
+  public Object longString() {
+    return longString.search(input);
+  }
+}
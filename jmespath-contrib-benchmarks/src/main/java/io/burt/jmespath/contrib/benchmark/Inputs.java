@@ -0,0 +1,90 @@
+package io.burt.jmespath.contrib.benchmark;
+
+import java.util.Random;
+
+/**
+ * Generates deterministic, realistic looking, inputs for the benchmarks.
+ */
+final class Inputs {
+  static final String[] ASCII_WORDS = {
+    "Request", "GET", "/api/v2/users", "status=200", "Mozilla/5.0", "user-agent", "session_id",
+    "SKU-1234_XL", "the", "quick", "brown", "fox", "jumps", "over", "lazy", "dog", "42", "3.14"
+  };
+
+  static final String[] NON_ASCII_WORDS = {
+    "Ärger", "über", "Straße", "naïve", "café", "Ångström", "東京", "Привет", "Ελλάδα", "İstanbul",
+    "smörgåsbord", "façade", "jalapeño", "Œuvre", "ß", "ﬁle", "😀"
+  };
+
+  static final String[] SEPARATORS = {" ", " ", " ", "  ", "\t", " \n ", ", ", "-", "_"};
+
+  private Inputs() { }
+
+  static String words(TextInput text, int count) {
+    StringBuilder sb = new StringBuilder("[");
+    for (int i = 0; i < count; i++) {
+      if (i > 0) {
+        sb.append(',');
+      }
+      sb.append(quote(text.generate(i).trim()));
+    }
+    return sb.append(']').toString();
+  }
+
+  static String csvLine(int columns) {
+    StringBuilder sb = new StringBuilder();
+    for (int i = 0; i < columns; i++) {
+      if (i > 0) {
+        sb.append(',');
+      }
+      sb.append(ASCII_WORDS[i % ASCII_WORDS.length]);
+    }
+    return sb.toString();
+  }
+
+  static String integers(int count) {
+    Random random = new Random(count);
+    StringBuilder sb = new StringBuilder("[");
+    for (int i = 0; i < count; i++) {
+      if (i > 0) {
+        sb.append(',');
+      }
+      sb.append(random.nextInt(1000000));
+    }
+    return sb.append(']').toString();
+  }
+
+  static String decimals(int count) {
+    Random random = new Random(count);
+    StringBuilder sb = new StringBuilder("[");
+    for (int i = 0; i < count; i++) {
+      if (i > 0) {
+        sb.append(',');
+      }
+      sb.append(random.nextDouble() * 1000000);
+    }
+    return sb.append(']').toString();
+  }
+
+  static String quote(String str) {
+    StringBuilder sb = new StringBuilder(str.length() + 2);
+    sb.append('"');
+    for (int i = 0; i < str.length(); i++) {
+      char c = str.charAt(i);
+      switch (c) {
+        case '"': sb.append("\\\""); break;
+        case '\\': sb.append("\\\\"); break;
+        case '\n': sb.append("\\n"); break;
+        case '\t': sb.append("\\t"); break;
+        case '\r': sb.append("\\r"); break;
+        default:
+          if (c < 0x20) {
+            sb.append(String.format("\\u%04x", (int) c));
+          } else {
+            sb.append(c);
+          }
+      }
+    }
+    return sb.append('"').toString();
+  }
+}
@@ -0,0 +1,69 @@
+package io.burt.jmespath.contrib.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import io.burt.jmespath.Adapter;
+import io.burt.jmespath.Expression;
+import io.burt.jmespath.contrib.metrics.FunctionInstrumentation;
+import io.burt.jmespath.function.FunctionRegistry;
+
+/**
+ * Measures the overhead of {@link FunctionInstrumentation} on an expression
+ * that makes a thousand cheap function calls, without instrumentation, when
+ * timing every call, when timing one call in 1024 and when also counting
+ * allocations.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class InstrumentationBenchmark {
+  @Param({"jackson"})
+  public String runtime;
+
+  @Param({"none", "every", "sampled", "allocations"})
+  public String instrumentation;
+
+  private Object input;
+  private Expression<Object> lowerCaseArray;
+
+  @Setup
+  public void setUp() {
+    FunctionRegistry functionRegistry = Runtimes.contribFunctions();
+    if ("every".equals(instrumentation)) {
+      functionRegistry = new FunctionInstrumentation(1, false).instrument(functionRegistry);
+    } else if ("sampled".equals(instrumentation)) {
+      functionRegistry = new FunctionInstrumentation(1024, false).instrument(functionRegistry);
+    } else if ("allocations".equals(instrumentation)) {
+      functionRegistry = new FunctionInstrumentation(1024, true).instrument(functionRegistry);
+    } else if (!"none".equals(instrumentation)) {
+      throw new IllegalArgumentException(String.format("Unknown instrumentation \"%s\"", instrumentation));
+    }
+    Adapter<Object> adapter = Runtimes.create(runtime, false, functionRegistry);
+    StringBuilder words = new StringBuilder("[");
+    for (int i = 0; i < 1000; i++) {
+      words.append(i > 0 ? "," : "").append(Inputs.quote(Inputs.ASCII_WORDS[i % Inputs.ASCII_WORDS.length].toLowerCase()));
+    }
+    input = adapter.parseString(String.format("{\"words\": %s]}", words));
+    lowerCaseArray = adapter.compile("map(&lower_case(@), words)");
+  }
+
+  @Benchmark
+  public Object lowerCaseArray() {
+    return lowerCaseArray.search(input);
+  }
+}
@@ -0,0 +1,112 @@
+package io.burt.jmespath.contrib.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import io.burt.jmespath.Adapter;
+import io.burt.jmespath.Expression;
+import io.burt.jmespath.contrib.function.MatchesAnyFunction;
+import io.burt.jmespath.contrib.function.MatchesFunction;
+import io.burt.jmespath.function.FunctionRegistry;
+
+/**
+ * Compares an <code>||</code> chain of <code>matches</code> calls with one
+ * call to <code>matches_any</code>, for a growing number of patterns, none
+ * of which match, so that the whole input is scanned for all of them.
+ * The literal patterns are matched with Aho-Corasick, the others are
+ * combined into one program for the linear time engine.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MatchesAnyBenchmark {
+  @Param({"4", "32"})
+  public int patternCount;
+
+  private Object input;
+  private Expression<Object> literalChain;
+  private Expression<Object> literalMatchesAny;
+  private Expression<Object> regexChain;
+  private Expression<Object> regexMatchesAny;
+
+  @Setup
+  public void setUp() {
+    FunctionRegistry functionRegistry = FunctionRegistry.defaultRegistry().extend(
+      new MatchesFunction(),
+      new MatchesAnyFunction()
+    );
+    Adapter<Object> adapter = Runtimes.create("jackson", true, functionRegistry);
+    input = adapter.parseString(String.format(
+      "{\"line\": %s}",
+      Inputs.quote("2019-06-14T08:15:42.123Z INFO [worker-3] GET /api/v1/users/42 200 12ms user_agent=\"Mozilla/5.0\", referer=-, bytes=1532")
+    ));
+    List<String> literals = new ArrayList<>();
+    List<String> regexes = new ArrayList<>();
+    for (int i = 0; i < patternCount; i++) {
+      literals.add(String.format("bot-%d", i));
+      regexes.add(String.format("/api/v%d/\\w+/\\d+ 5\\d\\d", i + 2));
+    }
+    literalChain = adapter.compile(chain(literals));
+    literalMatchesAny = adapter.compile(matchesAny(literals));
+    regexChain = adapter.compile(chain(regexes));
+    regexMatchesAny = adapter.compile(matchesAny(regexes));
+  }
+
+  private static String chain(List<String> patterns) {
+    StringBuilder expression = new StringBuilder();
+    for (String pattern : patterns) {
+      if (expression.length() > 0) {
+        expression.append(" || ");
+      }
+      expression.append("matches(line, '").append(pattern).append("')");
+    }
+    return expression.toString();
+  }
+
+  private static String matchesAny(List<String> patterns) {
+    StringBuilder expression = new StringBuilder("matches_any(line, [");
+    for (int i = 0; i < patterns.size(); i++) {
+      if (i > 0) {
+        expression.append(", ");
+      }
+      expression.append("'").append(patterns.get(i)).append("'");
+    }
+    return expression.append("])").toString();
+  }
+
+  @Benchmark
+  public Object literalChain() {
+    return literalChain.search(input);
+  }
+
+  @Benchmark
+  public Object literalMatchesAny() {
+    return literalMatchesAny.search(input);
+  }
+
+  @Benchmark
+  public Object regexChain() {
+    return regexChain.search(input);
+  }
+
+  @Benchmark
+  public Object regexMatchesAny() {
+    return regexMatchesAny.search(input);
+  }
+}
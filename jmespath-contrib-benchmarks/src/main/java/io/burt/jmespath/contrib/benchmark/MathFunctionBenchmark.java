@@ -0,0 +1,185 @@
+package io.burt.jmespath.contrib.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import io.burt.jmespath.Adapter;
+import io.burt.jmespath.Expression;
+
+/**
+ * Measures the math functions, both on single values and applied to each
+ * element of a large array, and the aggregations of a large array, next to
+ * the <code>sum</code> and <code>avg</code> functions of JMESPath, and the
+ * approximate aggregations next to the exact ones.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MathFunctionBenchmark {
+  public enum Numbers { INTEGERS, DECIMALS }
+
+  @Param({"jackson", "gson"})
+  public String runtime;
+
+  @Param({"INTEGERS", "DECIMALS"})
+  public Numbers numbers;
+
+  @Param({"10000"})
+  public int size;
+
+  private Object input;
+  private Expression<Object> add;
+  private Expression<Object> subtract;
+  private Expression<Object> multiply;
+  private Expression<Object> divide;
+  private Expression<Object> addArray;
+  private Expression<Object> multiplyArray;
+  private Expression<Object> addNested;
+  private Expression<Object> addVariadic;
+  private Expression<Object> sum;
+  private Expression<Object> sumOf;
+  private Expression<Object> avg;
+  private Expression<Object> mean;
+  private Expression<Object> stddev;
+  private Expression<Object> minMax;
+  private Expression<Object> sortPercentile;
+  private Expression<Object> approxPercentile;
+  private Expression<Object> approxPercentileSketch;
+  private Expression<Object> approxDistinct;
+  private Expression<Object> approxTopK;
+
+  @Setup
+  public void setUp() {
+    Adapter<Object> adapter = Runtimes.create(runtime, false);
+    String values = numbers == Numbers.INTEGERS ? Inputs.integers(size) : Inputs.decimals(size);
+    input = adapter.parseString(String.format("{\"x\": 1234, \"y\": 56.5, \"values\": %s}", values));
+    add = adapter.compile("add(x, y)");
+    subtract = adapter.compile("subtract(x, y)");
+    multiply = adapter.compile("multiply(x, y)");
+    divide = adapter.compile("divide(x, y)");
+    addArray = adapter.compile("map(&add(@, `1`), values)");
+    multiplyArray = adapter.compile("map(&multiply(@, `3`), values)");
+    addNested = adapter.compile("add(add(add(add(x, y), x), y), x)");
+    addVariadic = adapter.compile("add(x, y, x, y, x)");
+    sum = adapter.compile("sum(values)");
+    sumOf = adapter.compile("sum_of(values)");
+    avg = adapter.compile("avg(values)");
+    mean = adapter.compile("mean(values)");
+    stddev = adapter.compile("stddev(values)");
+    minMax = adapter.compile("min_max(values)");
+    sortPercentile = adapter.compile(String.format("sort(values)[%d]", (int) (size * 0.99)));
+    approxPercentile = adapter.compile("approx_percentile(values, `0.99`)");
+    approxPercentileSketch = adapter.compile("approx_percentile(values, `0.99`, `true`)");
+    approxDistinct = adapter.compile("approx_distinct(values)");
+    approxTopK = adapter.compile("approx_top_k(values, `10`)");
+  }
+
+  @Benchmark
+  public Object add() {
+    return add.search(input);
+  }
+
+  @Benchmark
+  public Object subtract() {
+    return subtract.search(input);
+  }
+
+  @Benchmark
+  public Object multiply() {
+    return multiply.search(input);
+  }
+
+  @Benchmark
+  public Object divide() {
+    return divide.search(input);
+  }
+
+  @Benchmark
+  public Object addArray() {
+    return addArray.search(input);
+  }
+
+  @Benchmark
+  public Object multiplyArray() {
+    return multiplyArray.search(input);
+  }
+
+  @Benchmark
+  public Object addNested() {
+    return addNested.search(input);
+  }
+
+  @Benchmark
+  public Object addVariadic() {
+    return addVariadic.search(input);
+  }
+
+  @Benchmark
+  public Object sum() {
+    return sum.search(input);
+  }
+
+  @Benchmark
+  public Object sumOf() {
+    return sumOf.search(input);
+  }
+
+  @Benchmark
+  public Object avg() {
+    return avg.search(input);
+  }
+
+  @Benchmark
+  public Object mean() {
+    return mean.search(input);
+  }
+
+  @Benchmark
+  public Object stddev() {
+    return stddev.search(input);
+  }
+
+  @Benchmark
+  public Object minMax() {
+    return minMax.search(input);
+  }
+
+  @Benchmark
+  public Object sortPercentile() {
+    return sortPercentile.search(input);
+  }
+
+  @Benchmark
+  public Object approxPercentile() {
+    return approxPercentile.search(input);
+  }
+
+  @Benchmark
+  public Object approxPercentileSketch() {
+    return approxPercentileSketch.search(input);
+  }
+
+  @Benchmark
+  public Object approxDistinct() {
+    return approxDistinct.search(input);
+  }
+
+  @Benchmark
+  public Object approxTopK() {
+    return approxTopK.search(input);
+  }
+}
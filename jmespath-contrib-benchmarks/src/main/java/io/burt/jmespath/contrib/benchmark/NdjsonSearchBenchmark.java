@@ -0,0 +1,117 @@
+package io.burt.jmespath.contrib.benchmark;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import io.burt.jmespath.Adapter;
+import io.burt.jmespath.Expression;
+import io.burt.jmespath.contrib.NdjsonSearch;
+
+/**
+ * Measures searching a file of one hundred thousand JSON lines, reading it
+ * line by line on one thread, and with {@link NdjsonSearch}, with the results
+ * written to a channel that discards them. Divide the size of the file,
+ * which is printed during setup, by the time per operation to get the
+ * throughput in bytes per second.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class NdjsonSearchBenchmark {
+  private static final int LINES = 100000;
+  private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+  @Param({"jackson", "gson"})
+  public String runtime;
+
+  private Path input;
+  private Adapter<Object> adapter;
+  private Expression<Object> expression;
+  private NdjsonSearch<Object> ordered;
+  private NdjsonSearch<Object> unordered;
+
+  @Setup
+  public void setUp() throws IOException {
+    input = Files.createTempFile("ndjson-search-benchmark", ".ndjson");
+    try (Writer writer = Files.newBufferedWriter(input, UTF_8)) {
+      for (int i = 0; i < LINES; i++) {
+        String word = Inputs.ASCII_WORDS[i % Inputs.ASCII_WORDS.length];
+        writer.write(String.format("{\"id\": %d, \"name\": %s, \"path\": \"/a/%d/b/%s\", \"level\": \"%s\", \"tags\": [\"x\", \"y\", \"z\"]}\n", i, Inputs.quote(word), i, word, i % 4 == 0 ? "error" : "info"));
+      }
+    }
+    System.out.printf("%nInput is %d bytes%n", Files.size(input));
+    adapter = Runtimes.create(runtime, true);
+    expression = adapter.compile("level == 'error' && {id: id, path: replace(path, '/[0-9]+/', '/:id/')} || null");
+    ordered = NdjsonSearch.builder(adapter, expression).build();
+    unordered = NdjsonSearch.builder(adapter, expression).unordered().build();
+  }
+
+  @TearDown
+  public void tearDown() throws IOException {
+    Files.delete(input);
+  }
+
+  @Benchmark
+  public long sequential() throws IOException {
+    long written = 0;
+    try (BufferedReader reader = Files.newBufferedReader(input, UTF_8)) {
+      String line;
+      while ((line = reader.readLine()) != null) {
+        Object result = expression.search(adapter.parseString(line));
+        written += adapter.toString(result).length();
+      }
+    }
+    return written;
+  }
+
+  @Benchmark
+  public Object ordered() throws IOException {
+    return ordered.search(input, new DiscardingChannel());
+  }
+
+  @Benchmark
+  public Object unordered() throws IOException {
+    return unordered.search(input, new DiscardingChannel());
+  }
+
+  private static class DiscardingChannel implements WritableByteChannel {
+    @Override
+    public int write(ByteBuffer src) {
+      int n = src.remaining();
+      src.position(src.limit());
+      return n;
+    }
+
+    @Override
+    public boolean isOpen() {
+      return true;
+    }
+
+    @Override
+    public void close() {
+    }
+  }
+}
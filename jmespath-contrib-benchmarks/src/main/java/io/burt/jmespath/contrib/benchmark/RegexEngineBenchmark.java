@@ -0,0 +1,97 @@
+package io.burt.jmespath.contrib.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import io.burt.jmespath.Adapter;
+import io.burt.jmespath.Expression;
+import io.burt.jmespath.contrib.function.MatchesFunction;
+import io.burt.jmespath.contrib.function.PatternCache;
+import io.burt.jmespath.contrib.function.ReplaceFunction;
+import io.burt.jmespath.contrib.function.TokenizeFunction;
+import io.burt.jmespath.contrib.regex.JavaRegexEngine;
+import io.burt.jmespath.contrib.regex.LinearRegexEngine;
+import io.burt.jmespath.contrib.regex.RegexEngine;
+import io.burt.jmespath.function.FunctionRegistry;
+
+/**
+ * Compares the regular expression engines on the <code>matches</code>,
+ * <code>replace</code> and <code>tokenize</code> functions, on a log line,
+ * and on a pattern that makes a backtracking engine take time that grows
+ * with the number of fields of a CSV line to the power of eleven.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RegexEngineBenchmark {
+  @Param({"java", "linear"})
+  public String engine;
+
+  private Object input;
+  private Expression<Object> matches;
+  private Expression<Object> matchesCaseInsensitive;
+  private Expression<Object> replace;
+  private Expression<Object> tokenize;
+  private Expression<Object> pathological;
+
+  @Setup
+  public void setUp() {
+    RegexEngine regexEngine = engine.equals("linear") ? new LinearRegexEngine() : new JavaRegexEngine();
+    PatternCache patternCache = new PatternCache(PatternCache.DEFAULT_MAXIMUM_SIZE, regexEngine);
+    FunctionRegistry functionRegistry = FunctionRegistry.defaultRegistry().extend(
+      new MatchesFunction(patternCache),
+      new ReplaceFunction(patternCache),
+      new TokenizeFunction(patternCache)
+    );
+    Adapter<Object> adapter = Runtimes.create("jackson", true, functionRegistry);
+    input = adapter.parseString(String.format(
+      "{\"line\": %s, \"csv\": %s}",
+      Inputs.quote("2019-06-14T08:15:42.123Z INFO [worker-3] GET /api/v1/users/42 200 12ms user_agent=\"Mozilla/5.0\", referer=-, bytes=1532"),
+      Inputs.quote(Inputs.csvLine(20))
+    ));
+    matches = adapter.compile("matches(line, '(GET|POST|PUT) /api/v\\d+/users/\\d+ [45]\\d\\d')");
+    matchesCaseInsensitive = adapter.compile("matches(line, 'mozilla', 'i')");
+    replace = adapter.compile("replace(line, '\\d+', '#')");
+    tokenize = adapter.compile("tokenize(line, '\\s*[,=]\\s*')");
+    pathological = adapter.compile("matches(csv, '^(.*?,){11}P')");
+  }
+
+  @Benchmark
+  public Object matches() {
+    return matches.search(input);
+  }
+
+  @Benchmark
+  public Object matchesCaseInsensitive() {
+    return matchesCaseInsensitive.search(input);
+  }
+
+  @Benchmark
+  public Object replace() {
+    return replace.search(input);
+  }
+
+  @Benchmark
+  public Object tokenize() {
+    return tokenize.search(input);
+  }
+
+  @Benchmark
+  public Object pathological() {
+    return pathological.search(input);
+  }
+}
@@ -0,0 +1,152 @@
+package io.burt.jmespath.contrib.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.google.gson.JsonElement;
+
+import io.burt.jmespath.Adapter;
+import io.burt.jmespath.RuntimeConfiguration;
+import io.burt.jmespath.contrib.function.AddFunction;
+import io.burt.jmespath.contrib.function.ApproxDistinctFunction;
+import io.burt.jmespath.contrib.function.ApproxPercentileFunction;
+import io.burt.jmespath.contrib.function.ApproxTopKFunction;
+import io.burt.jmespath.contrib.function.ConcatFunction;
+import io.burt.jmespath.contrib.function.CountByFunction;
+import io.burt.jmespath.contrib.function.DateTruncFunction;
+import io.burt.jmespath.contrib.function.DistinctByFunction;
+import io.burt.jmespath.contrib.function.DistinctFunction;
+import io.burt.jmespath.contrib.function.DivideFunction;
+import io.burt.jmespath.contrib.function.FormatDateFunction;
+import io.burt.jmespath.contrib.function.GroupByFunction;
+import io.burt.jmespath.contrib.function.IndexByFunction;
+import io.burt.jmespath.contrib.function.LowerCaseFunction;
+import io.burt.jmespath.contrib.function.MatchesFunction;
+import io.burt.jmespath.contrib.function.MeanFunction;
+import io.burt.jmespath.contrib.function.Md5Function;
+import io.burt.jmespath.contrib.function.MergeSketchesFunction;
+import io.burt.jmespath.contrib.function.MinMaxFunction;
+import io.burt.jmespath.contrib.function.MultiplyFunction;
+import io.burt.jmespath.contrib.function.Murmur3x128Function;
+import io.burt.jmespath.contrib.function.NormalizeSpaceFunction;
+import io.burt.jmespath.contrib.function.ParseDateFunction;
+import io.burt.jmespath.contrib.function.ProductOfFunction;
+import io.burt.jmespath.contrib.function.ReplaceFunction;
+import io.burt.jmespath.contrib.function.Sha256Function;
+import io.burt.jmespath.contrib.function.StddevFunction;
+import io.burt.jmespath.contrib.function.SubstringAfterFunction;
+import io.burt.jmespath.contrib.function.SubstringBeforeFunction;
+import io.burt.jmespath.contrib.function.SubtractFunction;
+import io.burt.jmespath.contrib.function.SumOfFunction;
+import io.burt.jmespath.contrib.function.ToEpochMillisFunction;
+import io.burt.jmespath.contrib.function.TokenizeFunction;
+import io.burt.jmespath.contrib.function.TranslateFunction;
+import io.burt.jmespath.contrib.function.UpperCaseFunction;
+import io.burt.jmespath.contrib.function.XxHash64Function;
+import io.burt.jmespath.contrib.node.SpecializingNodeFactory;
+import io.burt.jmespath.contrib.tape.TapeRuntime;
+import io.burt.jmespath.contrib.tape.TapeValue;
+import io.burt.jmespath.function.FunctionRegistry;
+import io.burt.jmespath.gson.GsonRuntime;
+import io.burt.jmespath.jackson.JacksonRuntime;
+import io.burt.jmespath.node.NodeFactory;
+
+/**
+ * Creates the runtimes that the benchmarks run on, with all contributed
+ * functions registered.
+ * <p>
+ * The runtimes are returned as {@code Adapter<Object>} so that the benchmarks
+ * don't have to be generic, which JMH does not support.
+ */
+final class Runtimes {
+  private Runtimes() { }
+
+  static FunctionRegistry contribFunctions() {
+    return FunctionRegistry.defaultRegistry().extend(
+      new AddFunction(),
+      new ApproxDistinctFunction(),
+      new ApproxPercentileFunction(),
+      new ApproxTopKFunction(),
+      new ConcatFunction(),
+      new CountByFunction(),
+      new DateTruncFunction(),
+      new DistinctByFunction(),
+      new DistinctFunction(),
+      new DivideFunction(),
+      new FormatDateFunction(),
+      new GroupByFunction(),
+      new IndexByFunction(),
+      new LowerCaseFunction(),
+      new MatchesFunction(),
+      new MeanFunction(),
+      new Md5Function(),
+      new MergeSketchesFunction(),
+      new MinMaxFunction(),
+      new MultiplyFunction(),
+      new Murmur3x128Function(),
+      new NormalizeSpaceFunction(),
+      new ParseDateFunction(),
+      new ProductOfFunction(),
+      new ReplaceFunction(),
+      new Sha256Function(),
+      new StddevFunction(),
+      new SubstringAfterFunction(),
+      new SubstringBeforeFunction(),
+      new SubtractFunction(),
+      new SumOfFunction(),
+      new ToEpochMillisFunction(),
+      new TokenizeFunction(),
+      new TranslateFunction(),
+      new UpperCaseFunction(),
+      new XxHash64Function()
+    );
+  }
+
+  @SuppressWarnings("unchecked")
+  static Adapter<Object> create(String name, boolean specializing) {
+    return create(name, specializing, contribFunctions());
+  }
+
+  @SuppressWarnings("unchecked")
+  static Adapter<Object> create(String name, boolean specializing, FunctionRegistry functionRegistry) {
+    RuntimeConfiguration configuration = RuntimeConfiguration.builder()
+      .withFunctionRegistry(functionRegistry)
+      .build();
+    Adapter<?> runtime;
+    if ("jackson".equals(name)) {
+      runtime = specializing ? specializingJackson(configuration) : new JacksonRuntime(configuration);
+    } else if ("gson".equals(name)) {
+      runtime = specializing ? specializingGson(configuration) : new GsonRuntime(configuration);
+    } else if ("tape".equals(name)) {
+      runtime = specializing ? specializingTape(configuration) : new TapeRuntime(configuration);
+    } else {
+      throw new IllegalArgumentException(String.format("Unknown runtime \"%s\"", name));
+    }
+    return (Adapter<Object>) runtime;
+  }
+
+  private static Adapter<JsonNode> specializingJackson(RuntimeConfiguration configuration) {
+    return new JacksonRuntime(configuration) {
+      private final NodeFactory<JsonNode> nodeFactory = new SpecializingNodeFactory<>(this);
+
+      @Override
+      public NodeFactory<JsonNode> nodeFactory() { return nodeFactory; }
+    };
+  }
+
+  private static Adapter<JsonElement> specializingGson(RuntimeConfiguration configuration) {
+    return new GsonRuntime(configuration) {
+      private final NodeFactory<JsonElement> nodeFactory = new SpecializingNodeFactory<>(this);
+
+      @Override
+      public NodeFactory<JsonElement> nodeFactory() { return nodeFactory; }
+    };
+  }
+
+  private static Adapter<TapeValue> specializingTape(RuntimeConfiguration configuration) {
+    return new TapeRuntime(configuration) {
+      private final NodeFactory<TapeValue> nodeFactory = new SpecializingNodeFactory<>(this);
+
+      @Override
+      public NodeFactory<TapeValue> nodeFactory() { return nodeFactory; }
+    };
+  }
+}
@@ -0,0 +1,158 @@
+package io.burt.jmespath.contrib.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import io.burt.jmespath.Adapter;
+import io.burt.jmespath.Expression;
+
+/**
+ * Measures the string functions on short and long, ASCII and non-ASCII,
+ * inputs. The array benchmarks apply a function to each of a thousand strings,
+ * and the CSV benchmarks pick the third field of a line with 200 columns.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class StringFunctionBenchmark {
+  @Param({"jackson", "gson"})
+  public String runtime;
+
+  @Param({"false", "true"})
+  public boolean specializing;
+
+  @Param({"SHORT_ASCII", "LONG_ASCII", "SHORT_NON_ASCII", "LONG_NON_ASCII"})
+  public TextInput text;
+
+  private Object input;
+  private Expression<Object> concat;
+  private Expression<Object> lowerCase;
+  private Expression<Object> upperCase;
+  private Expression<Object> normalizeSpace;
+  private Expression<Object> translate;
+  private Expression<Object> tokenize;
+  private Expression<Object> tokenizeWithPattern;
+  private Expression<Object> tokenizeCsvField;
+  private Expression<Object> tokenizeCsvFieldWithLimit;
+  private Expression<Object> substringBefore;
+  private Expression<Object> substringAfter;
+  private Expression<Object> matches;
+  private Expression<Object> replace;
+  private Expression<Object> lowerCaseArray;
+  private Expression<Object> normalizeSpaceArray;
+
+  @Setup
+  public void setUp() {
+    Adapter<Object> adapter = Runtimes.create(runtime, specializing);
+    input = adapter.parseString(String.format(
+      "{\"text\": %s, \"words\": %s, \"csv\": %s}",
+      Inputs.quote(text.generate(0)),
+      Inputs.words(text, 1000),
+      Inputs.quote(Inputs.csvLine(200))
+    ));
+    concat = adapter.compile("concat(text, ' - ', text)");
+    lowerCase = adapter.compile("lower_case(text)");
+    upperCase = adapter.compile("upper_case(text)");
+    normalizeSpace = adapter.compile("normalize_space(text)");
+    translate = adapter.compile("translate(text, '-_ ', '')");
+    tokenize = adapter.compile("tokenize(text)");
+    tokenizeWithPattern = adapter.compile("tokenize(text, ', ')");
+    tokenizeCsvField = adapter.compile("tokenize(csv, ',')[2]");
+    tokenizeCsvFieldWithLimit = adapter.compile("tokenize(csv, ',', '', `3`)[2]");
+    substringBefore = adapter.compile("substring_before(text, 'fox')");
+    substringAfter = adapter.compile("substring_after(text, 'fox')");
+    matches = adapter.compile("matches(text, '^\\s*[A-Z][a-z]+')");
+    replace = adapter.compile("replace(text, '[aeiou]', '*')");
+    lowerCaseArray = adapter.compile("map(&lower_case(@), words)");
+    normalizeSpaceArray = adapter.compile("map(&normalize_space(@), words)");
+  }
+
+  @Benchmark
+  public Object concat() {
+    return concat.search(input);
+  }
+
+  @Benchmark
+  public Object lowerCase() {
+    return lowerCase.search(input);
+  }
+
+  @Benchmark
+  public Object upperCase() {
+    return upperCase.search(input);
+  }
+
+  @Benchmark
+  public Object normalizeSpace() {
+    return normalizeSpace.search(input);
+  }
+
+  @Benchmark
+  public Object translate() {
+    return translate.search(input);
+  }
+
+  @Benchmark
+  public Object tokenize() {
+    return tokenize.search(input);
+  }
+
+  @Benchmark
+  public Object tokenizeWithPattern() {
+    return tokenizeWithPattern.search(input);
+  }
+
+  @Benchmark
+  public Object tokenizeCsvField() {
+    return tokenizeCsvField.search(input);
+  }
+
+  @Benchmark
+  public Object tokenizeCsvFieldWithLimit() {
+    return tokenizeCsvFieldWithLimit.search(input);
+  }
+
+  @Benchmark
+  public Object substringBefore() {
+    return substringBefore.search(input);
+  }
+
+  @Benchmark
+  public Object substringAfter() {
+    return substringAfter.search(input);
+  }
+
+  @Benchmark
+  public Object matches() {
+    return matches.search(input);
+  }
+
+  @Benchmark
+  public Object replace() {
+    return replace.search(input);
+  }
+
+  @Benchmark
+  public Object lowerCaseArray() {
+    return lowerCaseArray.search(input);
+  }
+
+  @Benchmark
+  public Object normalizeSpaceArray() {
+    return normalizeSpaceArray.search(input);
+  }
+}
@@ -0,0 +1,79 @@
+package io.burt.jmespath.contrib.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import io.burt.jmespath.Adapter;
+import io.burt.jmespath.Expression;
+import io.burt.jmespath.contrib.tape.TapeRuntime;
+
+/**
+ * Compares the Jackson runtime with {@link TapeRuntime}, for parsing a
+ * document of about 12 KB, searching it with expressions that use a few of
+ * its fields or all of one array, and both.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TapeRuntimeBenchmark {
+  @Param({"jackson", "tape"})
+  public String runtime;
+
+  private Adapter<Object> adapter;
+  private Expression<Object> fewFields;
+  private Expression<Object> projection;
+  private String json;
+  private Object document;
+
+  @Setup
+  public void setUp() {
+    adapter = Runtimes.create(runtime, true);
+    fewFields = adapter.compile("concat(user.first, ' ', upper_case(user.last), ' <', lower_case(user.email), '>')");
+    projection = adapter.compile("events[?meta.ok && score > `50`].{type: upper_case(type), time: time, tags: tags[1]}");
+    StringBuilder document = new StringBuilder("{\"id\": 1234, \"events\": [");
+    for (int i = 0; i < 100; i++) {
+      String word = Inputs.ASCII_WORDS[i % Inputs.ASCII_WORDS.length];
+      if (i > 0) {
+        document.append(", ");
+      }
+      document.append(String.format("{\"type\": %s, \"time\": %d, \"score\": %d.25, \"tags\": [\"a\", \"b\", %s], \"meta\": {\"source\": \"web\", \"ok\": true}}", Inputs.quote(word), 1500000000L + i, i, Inputs.quote(word)));
+    }
+    document.append("], \"user\": {\"first\": \"Ada\", \"last\": \"Lovelace\", \"email\": \"Ada@Example.com\"}}");
+    json = document.toString();
+    this.document = adapter.parseString(json);
+  }
+
+  @Benchmark
+  public Object parse() {
+    return adapter.parseString(json);
+  }
+
+  @Benchmark
+  public Object parseAndSearchFewFields() {
+    return fewFields.search(adapter.parseString(json));
+  }
+
+  @Benchmark
+  public Object parseAndSearchProjection() {
+    return projection.search(adapter.parseString(json));
+  }
+
+  @Benchmark
+  public Object searchProjection() {
+    return projection.search(document);
+  }
+}
@@ -0,0 +1,33 @@
+package io.burt.jmespath.contrib.benchmark;
+
+import java.util.Random;
+
+/**
+ * The kinds of text the string function benchmarks run on.
+ */
+public enum TextInput {
+  SHORT_ASCII(false, 40),
+  LONG_ASCII(false, 4000),
+  SHORT_NON_ASCII(true, 40),
+  LONG_NON_ASCII(true, 4000);
+
+  private final boolean nonAscii;
+  private final int length;
+
+  TextInput(boolean nonAscii, int length) {
+    this.nonAscii = nonAscii;
+    this.length = length;
+  }
+
+  String generate(long seed) {
+    Random random = new Random(seed);
+    StringBuilder sb = new StringBuilder(length + 32);
+    sb.append("  ");
+    while (sb.length() < length) {
+      String[] words = nonAscii && random.nextInt(3) == 0 ? Inputs.NON_ASCII_WORDS : Inputs.ASCII_WORDS;
+      sb.append(words[random.nextInt(words.length)]);
+      sb.append(Inputs.SEPARATORS[random.nextInt(Inputs.SEPARATORS.length)]);
+    }
+    return sb.toString();
+  }
+}
@@ -0,0 +1,387 @@
+package io.burt.jmespath.contrib;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.RandomAccess;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import io.burt.jmespath.Expression;
+import io.burt.jmespath.JmesPathException;
+
+/**
+ * Searches many documents with the same expression in parallel, and returns
+ * the results in the same order as the documents.
+ * <p>
+ * Compiled expressions, the runtimes and all contributed functions are
+ * stateless, so one expression can be used by many threads at the same time.
+ * <p>
+ * With a {@link ForkJoinPool} a list of documents is split recursively into
+ * halves, until the pieces are small or the other threads already have enough
+ * work queued, so that the chunk sizes adapt both to the cost of the searches
+ * and to how busy the pool is.
+ * <p>
+ * With any other executor, and for documents read from an iterator, a number
+ * of workers take chunks of documents from a shared queue. For lists the
+ * chunks shrink as the end nears, and for iterators they grow as long as the
+ * iterator keeps producing documents. The calling thread works too, so the
+ * search completes even when the executor is saturated. An executor that
+ * runs each task on a virtual thread (for example
+ * <code>Executors.newVirtualThreadPerTaskExecutor()</code> on Java 21) works
+ * well for iterators that block, together with a parallelism that is higher
+ * than the number of processors.
+ * <p>
+ * When a search throws the batch stops taking new chunks, waits for the
+ * chunks in progress, and throws the first exception.
+ */
+public class BatchSearch {
+  private static final int MIN_CHUNK_SIZE = 4;
+  private static final int MAX_CHUNK_SIZE = 1024;
+  private static final int MAX_SURPLUS_TASKS = 3;
+  private static final int SPLITS_PER_THREAD = 16;
+
+  private final ExecutorService executor;
+  private final int parallelism;
+
+  /**
+   * Creates a batch search that runs on a shared fork/join pool with one
+   * thread per processor.
+   */
+  public BatchSearch() {
+    this(DefaultPool.POOL);
+  }
+
+  public BatchSearch(ForkJoinPool pool) {
+    this(pool, pool.getParallelism());
+  }
+
+  /**
+   * Creates a batch search that runs up to <code>parallelism</code> searches
+   * at a time, on the calling thread and the threads of the executor.
+   */
+  public BatchSearch(ExecutorService executor, int parallelism) {
+    if (parallelism < 1) {
+      throw new IllegalArgumentException(String.format("Parallelism must be positive, was %d", parallelism));
+    }
+    this.executor = executor;
+    this.parallelism = parallelism;
+  }
+
+  public int parallelism() {
+    return parallelism;
+  }
+
+  /**
+   * Searches each of the documents with the expression and returns the
+   * results in the same order.
+   */
+  public <T> List<T> search(Expression<T> expression, List<T> inputs) {
+    if (!(inputs instanceof RandomAccess)) {
+      inputs = new ArrayList<>(inputs);
+    }
+    if (inputs.size() <= 1 || parallelism == 1) {
+      return searchSequentially(expression, inputs.iterator());
+    } else if (executor instanceof ForkJoinPool) {
+      Object[] results = new Object[inputs.size()];
+      int threshold = Math.max(1, inputs.size() / (parallelism * SPLITS_PER_THREAD));
+      ((ForkJoinPool) executor).invoke(new SearchAction<>(expression, inputs, results, 0, inputs.size(), threshold));
+      return asList(results);
+    } else {
+      return searchInChunks(expression, new ListSource<>(inputs, parallelism));
+    }
+  }
+
+  /**
+   * Searches each of the documents produced by the iterator with the
+   * expression and returns the results in the same order.
+   * <p>
+   * The iterator is only used by one thread at a time, but not always the
+   * same one.
+   */
+  public <T> List<T> search(Expression<T> expression, Iterator<T> inputs) {
+    if (parallelism == 1) {
+      return searchSequentially(expression, inputs);
+    } else {
+      return searchInChunks(expression, new IteratorSource<>(inputs, parallelism));
+    }
+  }
+
+  private <T> List<T> searchSequentially(Expression<T> expression, Iterator<T> inputs) {
+    List<T> results = new ArrayList<>();
+    while (inputs.hasNext()) {
+      results.add(expression.search(inputs.next()));
+    }
+    return results;
+  }
+
+  private <T> List<T> searchInChunks(Expression<T> expression, Source<T> source) {
+    List<Chunk<T>> chunks = Collections.synchronizedList(new ArrayList<Chunk<T>>());
+    List<Worker<T>> workers = new ArrayList<>(parallelism - 1);
+    List<Future<?>> futures = new ArrayList<>(parallelism - 1);
+    Throwable failure = null;
+    try {
+      for (int i = 0; i < parallelism - 1; i++) {
+        Worker<T> worker = new Worker<>(expression, source, chunks);
+        futures.add(executor.submit(worker));
+        workers.add(worker);
+      }
+    } catch (RuntimeException e) {
+      source.stop();
+      failure = e;
+    }
+    if (failure == null) {
+      try {
+        new Worker<>(expression, source, chunks).call();
+      } catch (RuntimeException | Error e) {
+        failure = e;
+      }
+    }
+    boolean interrupted = false;
+    for (int i = 0; i < futures.size(); i++) {
+      Future<?> future = futures.get(i);
+      if (workers.get(i).claim()) {
+        future.cancel(false);
+      } else {
+        while (true) {
+          try {
+            future.get();
+            break;
+          } catch (ExecutionException ee) {
+            if (failure == null) {
+              failure = ee.getCause();
+            }
+            break;
+          } catch (InterruptedException ie) {
+            interrupted = true;
+            source.stop();
+          }
+        }
+      }
+    }
+    if (interrupted) {
+      Thread.currentThread().interrupt();
+      if (failure == null) {
+        failure = new JmesPathException("Interrupted while waiting for the batch search to complete", new InterruptedException());
+      }
+    }
+    if (failure instanceof RuntimeException) {
+      throw (RuntimeException) failure;
+    } else if (failure instanceof Error) {
+      throw (Error) failure;
+    } else if (failure != null) {
+      throw new JmesPathException("Batch search failed", failure);
+    }
+    return merge(chunks);
+  }
+
+  private static <T> List<T> merge(List<Chunk<T>> chunks) {
+    Collections.sort(chunks, new Comparator<Chunk<T>>() {
+      @Override
+      public int compare(Chunk<T> c1, Chunk<T> c2) {
+        return Long.compare(c1.start, c2.start);
+      }
+    });
+    int size = 0;
+    for (Chunk<T> chunk : chunks) {
+      size += chunk.results.length;
+    }
+    List<T> results = new ArrayList<>(size);
+    for (Chunk<T> chunk : chunks) {
+      results.addAll(BatchSearch.<T>asList(chunk.results));
+    }
+    return results;
+  }
+
+  @SuppressWarnings("unchecked")
+  private static <T> List<T> asList(Object[] results) {
+    return (List<T>) Arrays.asList(results);
+  }
+
+  private static class DefaultPool {
+    static final ForkJoinPool POOL = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+  }
+
+  @SuppressWarnings("serial")
+  private static class SearchAction<T> extends RecursiveAction {
+    private final Expression<T> expression;
+    private final List<T> inputs;
+    private final Object[] results;
+    private final int from;
+    private final int to;
+    private final int threshold;
+    private SearchAction<T> next;
+
+    SearchAction(Expression<T> expression, List<T> inputs, Object[] results, int from, int to, int threshold) {
+      this.expression = expression;
+      this.inputs = inputs;
+      this.results = results;
+      this.from = from;
+      this.to = to;
+      this.threshold = threshold;
+    }
+
+    @Override
+    protected void compute() {
+      int hi = to;
+      SearchAction<T> forked = null;
+      while (hi - from > threshold && getSurplusQueuedTaskCount() <= MAX_SURPLUS_TASKS) {
+        int mid = (from + hi) >>> 1;
+        SearchAction<T> right = new SearchAction<>(expression, inputs, results, mid, hi, threshold);
+        right.next = forked;
+        forked = right;
+        right.fork();
+        hi = mid;
+      }
+      for (int i = from; i < hi; i++) {
+        results[i] = expression.search(inputs.get(i));
+      }
+      while (forked != null) {
+        forked.join();
+        forked = forked.next;
+      }
+    }
+  }
+
+  private static class Chunk<T> {
+    final long start;
+    final List<T> inputs;
+    final Object[] results;
+
+    Chunk(long start, List<T> inputs) {
+      this.start = start;
+      this.inputs = inputs;
+      this.results = new Object[inputs.size()];
+    }
+  }
+
+  private static abstract class Source<T> {
+    private boolean stopped;
+    protected long position;
+
+    synchronized Chunk<T> next() {
+      if (stopped) {
+        return null;
+      }
+      List<T> inputs = read();
+      if (inputs.isEmpty()) {
+        return null;
+      }
+      Chunk<T> chunk = new Chunk<>(position, inputs);
+      position += inputs.size();
+      return chunk;
+    }
+
+    synchronized void stop() {
+      stopped = true;
+    }
+
+    protected abstract List<T> read();
+  }
+
+  /**
+   * Hands out chunks of about half of the remaining documents divided by the
+   * number of workers, so that the chunks get smaller towards the end and the
+   * workers finish at about the same time.
+   */
+  private static class ListSource<T> extends Source<T> {
+    private final List<T> inputs;
+    private final int workers;
+
+    ListSource(List<T> inputs, int workers) {
+      this.inputs = inputs;
+      this.workers = workers;
+    }
+
+    @Override
+    protected List<T> read() {
+      int from = (int) position;
+      int remaining = inputs.size() - from;
+      int size = Math.min(remaining, Math.min(MAX_CHUNK_SIZE, Math.max(MIN_CHUNK_SIZE, remaining / (2 * workers))));
+      return inputs.subList(from, from + size);
+    }
+  }
+
+  /**
+   * Hands out chunks that double in size for every round of chunks handed
+   * out to the workers, so that a few documents are enough to keep all the
+   * workers busy, and long streams of documents are read in larger chunks.
+   */
+  private static class IteratorSource<T> extends Source<T> {
+    private final Iterator<T> inputs;
+    private final int workers;
+    private int chunkSize;
+    private int chunksOfSize;
+
+    IteratorSource(Iterator<T> inputs, int workers) {
+      this.inputs = inputs;
+      this.workers = workers;
+      this.chunkSize = MIN_CHUNK_SIZE;
+    }
+
+    @Override
+    protected List<T> read() {
+      List<T> chunk = new ArrayList<>(chunkSize);
+      while (chunk.size() < chunkSize && inputs.hasNext()) {
+        chunk.add(inputs.next());
+      }
+      if (++chunksOfSize == workers && chunkSize < MAX_CHUNK_SIZE) {
+        chunkSize *= 2;
+        chunksOfSize = 0;
+      }
+      return chunk;
+    }
+  }
+
+  /**
+   * Searches chunks until there are no more. A worker that has not started
+   * when the calling thread is done can be claimed, which means that it will
+   * do nothing if it is started later, and that the calling thread does not
+   * have to wait for it.
+   */
+  private static class Worker<T> implements Callable<Void> {
+    private final Expression<T> expression;
+    private final Source<T> source;
+    private final List<Chunk<T>> chunks;
+    private final AtomicBoolean claimed;
+
+    Worker(Expression<T> expression, Source<T> source, List<Chunk<T>> chunks) {
+      this.expression = expression;
+      this.source = source;
+      this.chunks = chunks;
+      this.claimed = new AtomicBoolean();
+    }
+
+    boolean claim() {
+      return claimed.compareAndSet(false, true);
+    }
+
+    @Override
+    public Void call() {
+      if (!claim()) {
+        return null;
+      }
+      try {
+        Chunk<T> chunk;
+        while ((chunk = source.next()) != null) {
+          for (int i = 0; i < chunk.results.length; i++) {
+            chunk.results[i] = expression.search(chunk.inputs.get(i));
+          }
+          chunks.add(chunk);
+        }
+        return null;
+      } catch (RuntimeException | Error e) {
+        source.stop();
+        throw e;
+      }
+    }
+  }
+}
@@ -0,0 +1,19 @@
+package io.burt.jmespath.contrib;
+
+import io.burt.jmespath.Adapter;
+
+/**
+ * An optional interface for runtimes that can parse UTF-8 encoded JSON
+ * directly from bytes, without first decoding it into a string.
+ * <p>
+ * {@link NdjsonSearch} parses each line with this method when the runtime
+ * implements this interface, and with {@link Adapter#parseString} otherwise.
+ */
+public interface ByteParsingAdapter<T> extends Adapter<T> {
+  /**
+   * Parses the UTF-8 encoded JSON in a range of an array.
+   *
+   * @throws IllegalStateException when the bytes are not valid JSON
+   */
+  T parse(byte[] json, int offset, int length);
+}
@@ -0,0 +1,152 @@
+package io.burt.jmespath.contrib;
+
+import java.lang.ref.WeakReference;
+import java.util.concurrent.atomic.AtomicLong;
+
+import io.burt.jmespath.Expression;
+import io.burt.jmespath.JmesPath;
+import io.burt.jmespath.contrib.util.LruCache;
+
+/**
+ * Wraps a runtime and caches the expressions it compiles, keyed by the
+ * expression string, so that an expression that is compiled again and again
+ * is only parsed once.
+ * <p>
+ * The cache is size bounded and evicts the least recently used expressions
+ * when it is full. Optionally it can hold the expressions through weak
+ * references, in which case an expression stays cached only for as long as
+ * something else refers to it, but the memory it uses is never kept alive by
+ * the cache.
+ * <p>
+ * The cache is thread safe. Two threads compiling the same expression at the
+ * same time may both parse it, but after that all threads get the same
+ * instance. Expressions that fail to compile are not cached.
+ *
+ * <pre>
+ * JmesPath&lt;JsonNode&gt; runtime = new CachingJmesPath&lt;&gt;(new JacksonRuntime(configuration), 10000);
+ * </pre>
+ */
+public class CachingJmesPath<T> implements JmesPath<T> {
+  public static final int DEFAULT_MAXIMUM_SIZE = 512;
+
+  private final JmesPath<T> runtime;
+  private final LruCache<String, Object> cache;
+  private final boolean weakValues;
+  private final AtomicLong collectedCount;
+
+  /**
+   * Creates a cache that holds up to {@link #DEFAULT_MAXIMUM_SIZE} expressions.
+   */
+  public CachingJmesPath(JmesPath<T> runtime) {
+    this(runtime, DEFAULT_MAXIMUM_SIZE);
+  }
+
+  public CachingJmesPath(JmesPath<T> runtime, int maximumSize) {
+    this(runtime, maximumSize, false);
+  }
+
+  /**
+   * Creates a cache that holds up to <code>maximumSize</code> expressions,
+   * through weak references if <code>weakValues</code> is true.
+   */
+  public CachingJmesPath(JmesPath<T> runtime, int maximumSize, boolean weakValues) {
+    this.runtime = runtime;
+    this.cache = new LruCache<>(maximumSize);
+    this.weakValues = weakValues;
+    this.collectedCount = new AtomicLong();
+  }
+
+  /**
+   * Returns the runtime that compiles the expressions that are not cached.
+   */
+  public JmesPath<T> runtime() {
+    return runtime;
+  }
+
+  /**
+   * Returns the cached expression, or compiles and caches it.
+   *
+   * @throws io.burt.jmespath.parser.ParseException when the expression is
+   *   invalid, just like the wrapped runtime does
+   */
+  @Override
+  public Expression<T> compile(String expression) {
+    Object cached = cache.get(expression);
+    Expression<T> compiled = unwrap(cached);
+    if (compiled == null) {
+      if (cached != null) {
+        collectedCount.incrementAndGet();
+      }
+      compiled = runtime.compile(expression);
+      cache.put(expression, weakValues ? new WeakReference<>(compiled) : compiled);
+    }
+    return compiled;
+  }
+
+  @SuppressWarnings("unchecked")
+  private Expression<T> unwrap(Object cached) {
+    if (cached instanceof WeakReference) {
+      return ((WeakReference<Expression<T>>) cached).get();
+    } else {
+      return (Expression<T>) cached;
+    }
+  }
+
+  /**
+   * Compiles and caches the expressions, for example at startup so that the
+   * first searches don't have to wait for them to be parsed.
+   * <p>
+   * With weak values the expressions are only kept for as long as the caller
+   * holds on to them.
+   *
+   * @throws io.burt.jmespath.parser.ParseException when an expression is
+   *   invalid, after the expressions before it have been cached
+   */
+  public void warmUp(Iterable<String> expressions) {
+    for (String expression : expressions) {
+      compile(expression);
+    }
+  }
+
+  /**
+   * Removes all cached expressions, but keeps the statistics.
+   */
+  public void clear() {
+    cache.clear();
+  }
+
+  /**
+   * Returns the number of cached expressions. With weak values this includes
+   * expressions that have been garbage collected but not yet replaced.
+   */
+  public int size() {
+    return cache.size();
+  }
+
+  public int maximumSize() {
+    return cache.maximumSize();
+  }
+
+  public boolean hasWeakValues() {
+    return weakValues;
+  }
+
+  /**
+   * Returns the number of times a compiled expression was found in the cache.
+   */
+  public long hitCount() {
+    return cache.hitCount() - collectedCount.get();
+  }
+
+  /**
+   * Returns the number of times an expression had to be compiled, including
+   * when it had been cached but was garbage collected.
+   */
+  public long missCount() {
+    return cache.missCount() + collectedCount.get();
+  }
+
+  public long evictionCount() {
+    return cache.evictionCount();
+  }
+}
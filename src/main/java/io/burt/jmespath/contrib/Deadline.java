@@ -0,0 +1,190 @@
+package io.burt.jmespath.contrib;
+
+import java.util.concurrent.TimeUnit;
+
+import io.burt.jmespath.Expression;
+
+/**
+ * A limit on how long, in time or in steps of work, a search may take.
+ * <p>
+ * A search that is run with {@link #search} is aborted with a
+ * {@link DeadlineExceededException} when it passes the deadline. The
+ * contributed functions that can do a lot of work for one call check the
+ * deadline as they go: the regular expression functions match against a
+ * {@link CharSequence} that checks it every few thousand characters that
+ * the engine reads, which also interrupts a backtracking engine that would
+ * otherwise run for longer than the age of the universe, and
+ * <code>tokenize</code>, <code>translate</code> and <code>concat</code>
+ * count the characters they produce. The built in functions and the
+ * projections of the expression itself do not check the deadline.
+ * <p>
+ * A step is roughly one character read or written. The clock is only read
+ * every thousand steps or so, to keep the overhead down, and when there is
+ * no deadline the functions only pay for looking it up once per call.
+ * <p>
+ * A deadline is bound to the thread that runs the search, and is not thread
+ * safe, so each search needs its own:
+ *
+ * <pre>
+ * JsonNode result = Deadline.after(50, TimeUnit.MILLISECONDS).search(expression, input);
+ * </pre>
+ */
+public final class Deadline {
+  private static final ThreadLocal<Deadline> current = new ThreadLocal<>();
+
+  private static final long CLOCK_INTERVAL = 1024;
+
+  private final long deadlineNanos;
+  private final boolean timed;
+  private final long maximumSteps;
+  private long steps;
+  private long nextClockCheck;
+
+  private Deadline(long deadlineNanos, boolean timed, long maximumSteps) {
+    this.deadlineNanos = deadlineNanos;
+    this.timed = timed;
+    this.maximumSteps = maximumSteps;
+    this.nextClockCheck = CLOCK_INTERVAL;
+  }
+
+  /**
+   * Creates a deadline that passes when the time has elapsed, counting from
+   * now.
+   */
+  public static Deadline after(long timeout, TimeUnit unit) {
+    return new Deadline(System.nanoTime() + unit.toNanos(timeout), true, Long.MAX_VALUE);
+  }
+
+  /**
+   * Creates a deadline that passes after the number of steps.
+   */
+  public static Deadline afterSteps(long maximumSteps) {
+    return new Deadline(0, false, maximumSteps);
+  }
+
+  /**
+   * Creates a deadline that passes when the time has elapsed, counting from
+   * now, or after the number of steps, whichever comes first.
+   */
+  public static Deadline after(long timeout, TimeUnit unit, long maximumSteps) {
+    return new Deadline(System.nanoTime() + unit.toNanos(timeout), true, maximumSteps);
+  }
+
+  /**
+   * Returns the deadline of the search that runs on the current thread, or
+   * null when there is none.
+   */
+  public static Deadline current() {
+    return current.get();
+  }
+
+  /**
+   * Returns the input wrapped so that reading it checks the deadline of the
+   * current thread, or the input itself when there is no deadline.
+   */
+  public static CharSequence interruptible(CharSequence input) {
+    Deadline deadline = current.get();
+    return deadline == null ? input : new InterruptibleCharSequence(input, deadline);
+  }
+
+  /**
+   * Counts the steps against the deadline of the current thread, if there is
+   * one.
+   *
+   * @throws DeadlineExceededException when the deadline has passed
+   */
+  public static void checkCurrent(long steps) {
+    Deadline deadline = current.get();
+    if (deadline != null) {
+      deadline.check(steps);
+    }
+  }
+
+  /**
+   * Searches the input with the expression, with this deadline bound to the
+   * current thread, and restores the deadline that was bound before, if any,
+   * when the search completes.
+   *
+   * @throws DeadlineExceededException when the search passes the deadline
+   */
+  public <T> T search(Expression<T> expression, T input) {
+    Deadline previous = current.get();
+    current.set(this);
+    try {
+      return expression.search(input);
+    } finally {
+      if (previous == null) {
+        current.remove();
+      } else {
+        current.set(previous);
+      }
+    }
+  }
+
+  /**
+   * Counts the steps, and throws when the deadline has passed.
+   *
+   * @throws DeadlineExceededException when the deadline has passed
+   */
+  public void check(long n) {
+    steps += n;
+    if (steps > maximumSteps) {
+      throw new DeadlineExceededException(String.format("Exceeded the maximum of %d steps", maximumSteps));
+    }
+    if (timed && steps >= nextClockCheck) {
+      nextClockCheck = steps + CLOCK_INTERVAL;
+      if (System.nanoTime() - deadlineNanos > 0) {
+        throw new DeadlineExceededException(String.format("Exceeded the deadline after %d steps", steps));
+      }
+    }
+  }
+
+  /**
+   * Returns the number of steps counted so far.
+   */
+  public long steps() {
+    return steps;
+  }
+
+  /**
+   * A character sequence that counts the characters that are read from it
+   * as steps of a deadline, in batches.
+   */
+  private static final class InterruptibleCharSequence implements CharSequence {
+    private static final int BATCH_SIZE = 1024;
+
+    private final CharSequence input;
+    private final Deadline deadline;
+    private int countdown;
+
+    InterruptibleCharSequence(CharSequence input, Deadline deadline) {
+      this.input = input;
+      this.deadline = deadline;
+      this.countdown = BATCH_SIZE;
+    }
+
+    @Override
+    public int length() {
+      return input.length();
+    }
+
+    @Override
+    public char charAt(int index) {
+      if (--countdown == 0) {
+        countdown = BATCH_SIZE;
+        deadline.check(BATCH_SIZE);
+      }
+      return input.charAt(index);
+    }
+
+    @Override
+    public CharSequence subSequence(int start, int end) {
+      return new InterruptibleCharSequence(input.subSequence(start, end), deadline);
+    }
+
+    @Override
+    public String toString() {
+      return input.toString();
+    }
+  }
+}
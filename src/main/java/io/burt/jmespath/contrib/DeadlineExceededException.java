@@ -0,0 +1,14 @@
+package io.burt.jmespath.contrib;
+
+import io.burt.jmespath.JmesPathException;
+
+/**
+ * Thrown when a search that runs with a {@link Deadline} passes it.
+ */
+public class DeadlineExceededException extends JmesPathException {
+  private static final long serialVersionUID = 1L;
+
+  public DeadlineExceededException(String message) {
+    super(message);
+  }
+}
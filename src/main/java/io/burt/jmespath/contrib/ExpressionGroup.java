@@ -0,0 +1,139 @@
+package io.burt.jmespath.contrib;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import io.burt.jmespath.Adapter;
+import io.burt.jmespath.Expression;
+import io.burt.jmespath.parser.ExpressionParser;
+
+/**
+ * Compiles a group of expressions together, and searches documents with all
+ * of them at once, evaluating the subexpressions that they have in common
+ * only once per document.
+ * <p>
+ * Subexpressions are shared when they are structurally identical, for
+ * example <code>lower_case(request.headers.host)</code> in two expressions,
+ * or the prefix <code>request.headers</code> of
+ * <code>request.headers.host</code> and <code>request.headers.origin</code>.
+ * Function calls are shared like any other subexpression, which relies on
+ * functions being pure, like all the built in and contributed functions are.
+ * <p>
+ * While a document is searched each shared subexpression remembers its last
+ * input and result, so shared subexpressions inside projections and function
+ * arguments are also evaluated only once for the same element. The results
+ * are forgotten when the search completes.
+ * <p>
+ * Groups are thread safe, the remembered results are kept per thread.
+ *
+ * <pre>
+ * Map&lt;String, String&gt; rules = new LinkedHashMap&lt;&gt;();
+ * rules.put("host", "lower_case(request.headers.host)");
+ * rules.put("internal", "ends_with(lower_case(request.headers.host), '.internal')");
+ * ExpressionGroup&lt;JsonNode&gt; group = new ExpressionGroup&lt;&gt;(runtime, rules);
+ * Map&lt;String, JsonNode&gt; results = group.search(event);
+ * </pre>
+ */
+public class ExpressionGroup<T> {
+  private final List<String> names;
+  private final List<Expression<T>> expressions;
+  private final ThreadLocal<MemoizingNode.Memo> memos;
+  private final int sharedSubexpressionCount;
+
+  /**
+   * Compiles the expressions with the runtime, and names each result after
+   * its expression.
+   *
+   * @throws io.burt.jmespath.parser.ParseException when an expression is
+   *   invalid
+   */
+  public ExpressionGroup(Adapter<T> runtime, Collection<String> expressions) {
+    this(runtime, namedAfterThemselves(expressions));
+  }
+
+  /**
+   * Compiles the expressions, which are the values of the map, with the
+   * runtime, and names each result after the key of its expression.
+   *
+   * @throws io.burt.jmespath.parser.ParseException when an expression is
+   *   invalid
+   */
+  public ExpressionGroup(Adapter<T> runtime, Map<String, String> expressions) {
+    this.names = new ArrayList<>(expressions.size());
+    this.expressions = new ArrayList<>(expressions.size());
+    this.memos = new ThreadLocal<MemoizingNode.Memo>() {
+      @Override
+      protected MemoizingNode.Memo initialValue() {
+        return new MemoizingNode.Memo(sharedSubexpressionCount());
+      }
+    };
+    SharingNodeFactory<T> nodeFactory = new SharingNodeFactory<>(runtime, memos);
+    Adapter<T> parsingRuntime = new ParsingRuntime<>(runtime, nodeFactory);
+    for (Map.Entry<String, String> entry : expressions.entrySet()) {
+      names.add(entry.getKey());
+      this.expressions.add(ExpressionParser.fromString(parsingRuntime, entry.getValue()));
+    }
+    List<MemoizingNode<T>> sharedNodes = nodeFactory.sharedNodes();
+    for (int i = 0; i < sharedNodes.size(); i++) {
+      sharedNodes.get(i).assignSlot(i);
+    }
+    this.sharedSubexpressionCount = sharedNodes.size();
+  }
+
+  private static Map<String, String> namedAfterThemselves(Collection<String> expressions) {
+    Map<String, String> named = new LinkedHashMap<>();
+    for (String expression : expressions) {
+      named.put(expression, expression);
+    }
+    return named;
+  }
+
+  /**
+   * Returns the number of distinct subexpressions that occur more than once
+   * in the group, and are evaluated only once per input.
+   */
+  public int sharedSubexpressionCount() {
+    return sharedSubexpressionCount;
+  }
+
+  /**
+   * Returns the names of the expressions, in the order they were given.
+   */
+  public List<String> names() {
+    return Collections.unmodifiableList(names);
+  }
+
+  /**
+   * Returns the compiled expression with the name, or null when there is no
+   * such expression. The expression can be used on its own, but then it does
+   * not share any results.
+   */
+  public Expression<T> expression(String name) {
+    int index = names.indexOf(name);
+    return index < 0 ? null : expressions.get(index);
+  }
+
+  /**
+   * Searches the document with all expressions, and returns the results by
+   * name, in the order the expressions were given.
+   */
+  public Map<String, T> search(T input) {
+    Map<String, T> results = new LinkedHashMap<>();
+    MemoizingNode.Memo memo = memos.get();
+    boolean activated = memo.activate();
+    try {
+      for (int i = 0; i < expressions.size(); i++) {
+        results.put(names.get(i), expressions.get(i).search(input));
+      }
+    } finally {
+      if (activated) {
+        memo.deactivate();
+      }
+    }
+    return results;
+  }
+}
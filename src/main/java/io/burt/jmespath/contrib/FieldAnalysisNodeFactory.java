@@ -0,0 +1,408 @@
+package io.burt.jmespath.contrib;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+import io.burt.jmespath.Adapter;
+import io.burt.jmespath.Expression;
+import io.burt.jmespath.function.Function;
+import io.burt.jmespath.node.CreateObjectNode;
+import io.burt.jmespath.node.Node;
+import io.burt.jmespath.node.NodeFactory;
+import io.burt.jmespath.node.Operator;
+
+/**
+ * A node factory that creates nodes that can not be searched, but that can
+ * tell which parts of a document the expression they make up can access.
+ * <p>
+ * Each node takes the paths that its input can come from, and returns the
+ * paths that its result can come from. Values that are used in full, like
+ * results, function arguments and operands, have their paths marked as
+ * including everything below them.
+ * <p>
+ * The values of the entries of multi-select hashes are not exposed by
+ * {@link CreateObjectNode.Entry}, and are read with reflection. When that is
+ * not possible, for example because a security manager or the module system
+ * does not allow it, a multi-select hash is assumed to use all of its input.
+ *
+ * @see FieldSelection
+ */
+class FieldAnalysisNodeFactory<T> implements NodeFactory<T> {
+  private final Adapter<T> runtime;
+
+  FieldAnalysisNodeFactory(Adapter<T> runtime) {
+    this.runtime = runtime;
+  }
+
+  /**
+   * Analyzes an expression that has been parsed with this factory, with the
+   * path as its input, and marks the result as used in full.
+   */
+  void analyze(Expression<T> expression, Path root) {
+    use(((AnalysisNode<T>) expression).access(Collections.singleton(root)));
+  }
+
+  /**
+   * Returns the value of an entry of a multi-select hash, or null when it
+   * can not be accessed.
+   */
+  @SuppressWarnings("unchecked")
+  private static <U> AnalysisNode<U> entryValue(CreateObjectNode.Entry<U> entry) {
+    Method method = EntryValueAccessor.METHOD;
+    if (method == null) {
+      return null;
+    }
+    try {
+      return (AnalysisNode<U>) method.invoke(entry);
+    } catch (ReflectiveOperationException | RuntimeException e) {
+      return null;
+    }
+  }
+
+  private static void use(Set<Path> paths) {
+    for (Path path : paths) {
+      path.all = true;
+    }
+  }
+
+  @SuppressWarnings("unchecked")
+  private static <U> List<AnalysisNode<U>> cast(List<? extends Expression<U>> expressions) {
+    return (List<AnalysisNode<U>>) expressions;
+  }
+
+  @Override
+  public Node<T> createCurrent() {
+    return new AnalysisNode<T>(runtime) {
+      @Override
+      Set<Path> access(Set<Path> input) {
+        return input;
+      }
+    };
+  }
+
+  @Override
+  public Node<T> createProperty(final String name) {
+    return new AnalysisNode<T>(runtime) {
+      @Override
+      Set<Path> access(Set<Path> input) {
+        Set<Path> output = new LinkedHashSet<>();
+        for (Path path : input) {
+          output.add(path.field(name));
+        }
+        return output;
+      }
+    };
+  }
+
+  @Override
+  public Node<T> createIndex(int index) {
+    return createCurrent();
+  }
+
+  @Override
+  public Node<T> createSlice(Integer start, Integer stop, Integer step) {
+    return createCurrent();
+  }
+
+  @Override
+  public Node<T> createFlattenArray() {
+    return createCurrent();
+  }
+
+  @Override
+  public Node<T> createFlattenObject() {
+    return new AnalysisNode<T>(runtime) {
+      @Override
+      Set<Path> access(Set<Path> input) {
+        Set<Path> output = new LinkedHashSet<>();
+        for (Path path : input) {
+          output.add(path.otherFields());
+        }
+        return output;
+      }
+    };
+  }
+
+  @Override
+  public Node<T> createProjection(final Expression<T> expression) {
+    return new AnalysisNode<T>(runtime) {
+      @Override
+      Set<Path> access(Set<Path> input) {
+        return ((AnalysisNode<T>) expression).access(input);
+      }
+    };
+  }
+
+  @Override
+  public Node<T> createSelection(final Expression<T> test) {
+    return new AnalysisNode<T>(runtime) {
+      @Override
+      Set<Path> access(Set<Path> input) {
+        use(((AnalysisNode<T>) test).access(input));
+        return input;
+      }
+    };
+  }
+
+  @Override
+  public Node<T> createComparison(Operator operator, Expression<T> left, Expression<T> right) {
+    return createOperation(cast(Arrays.asList(left, right)));
+  }
+
+  @Override
+  public Node<T> createOr(Expression<T> left, Expression<T> right) {
+    return createCondition((AnalysisNode<T>) left, (AnalysisNode<T>) right);
+  }
+
+  @Override
+  public Node<T> createAnd(Expression<T> left, Expression<T> right) {
+    return createCondition((AnalysisNode<T>) left, (AnalysisNode<T>) right);
+  }
+
+  @Override
+  public Node<T> createNegate(Expression<T> negated) {
+    return createOperation(Collections.singletonList((AnalysisNode<T>) negated));
+  }
+
+  @Override
+  public Node<T> createCreateObject(List<CreateObjectNode.Entry<T>> entries) {
+    List<AnalysisNode<T>> values = new ArrayList<>(entries.size());
+    for (CreateObjectNode.Entry<T> entry : entries) {
+      AnalysisNode<T> value = FieldAnalysisNodeFactory.<T>entryValue(entry);
+      if (value == null) {
+        return createWholeInputOperation();
+      }
+      values.add(value);
+    }
+    return createOperation(values);
+  }
+
+  @Override
+  public Node<T> createCreateArray(List<? extends Expression<T>> items) {
+    return createOperation(FieldAnalysisNodeFactory.<T>cast(items));
+  }
+
+  @Override
+  public Node<T> createFunctionCall(String functionName, List<? extends Expression<T>> args) {
+    final List<AnalysisNode<T>> values = new ArrayList<>();
+    final List<AnalysisNode<T>> references = new ArrayList<>();
+    for (AnalysisNode<T> arg : FieldAnalysisNodeFactory.<T>cast(args)) {
+      if (arg instanceof ReferenceNode) {
+        references.add(arg);
+      } else {
+        values.add(arg);
+      }
+    }
+    return new AnalysisNode<T>(runtime) {
+      @Override
+      Set<Path> access(Set<Path> input) {
+        Set<Path> arguments = new LinkedHashSet<>();
+        for (AnalysisNode<T> value : values) {
+          Set<Path> paths = value.access(input);
+          use(paths);
+          arguments.addAll(paths);
+        }
+        for (AnalysisNode<T> reference : references) {
+          use(reference.access(arguments));
+        }
+        return Collections.emptySet();
+      }
+    };
+  }
+
+  @Override
+  public Node<T> createFunctionCall(Function function, List<? extends Expression<T>> args) {
+    return createFunctionCall(function.name(), args);
+  }
+
+  @Override
+  public Node<T> createExpressionReference(Expression<T> expression) {
+    return new ReferenceNode<>(runtime, (AnalysisNode<T>) expression);
+  }
+
+  @Override
+  public Node<T> createString(String str) {
+    return createLiteral();
+  }
+
+  @Override
+  public Node<T> createJsonLiteral(String json) {
+    return createLiteral();
+  }
+
+  @Override
+  public Node<T> createSequence(final List<Node<T>> nodes) {
+    return new AnalysisNode<T>(runtime) {
+      @Override
+      Set<Path> access(Set<Path> input) {
+        Set<Path> paths = input;
+        for (Node<T> node : nodes) {
+          paths = ((AnalysisNode<T>) node).access(paths);
+        }
+        return paths;
+      }
+    };
+  }
+
+  private Node<T> createLiteral() {
+    return new AnalysisNode<T>(runtime) {
+      @Override
+      Set<Path> access(Set<Path> input) {
+        return Collections.emptySet();
+      }
+    };
+  }
+
+  /**
+   * Creates a node for an operation that uses its operands in full, and
+   * returns a new value.
+   */
+  private Node<T> createOperation(final List<AnalysisNode<T>> operands) {
+    return new AnalysisNode<T>(runtime) {
+      @Override
+      Set<Path> access(Set<Path> input) {
+        for (AnalysisNode<T> operand : operands) {
+          use(operand.access(input));
+        }
+        return Collections.emptySet();
+      }
+    };
+  }
+
+  /**
+   * Creates a node for an operation whose operands are not known, which is
+   * assumed to use its input in full.
+   */
+  private Node<T> createWholeInputOperation() {
+    return new AnalysisNode<T>(runtime) {
+      @Override
+      Set<Path> access(Set<Path> input) {
+        use(input);
+        return Collections.emptySet();
+      }
+    };
+  }
+
+  /**
+   * Creates a node for <code>||</code> or <code>&amp;&amp;</code>, which test
+   * the left operand for truthiness, and return either operand.
+   */
+  private Node<T> createCondition(final AnalysisNode<T> left, final AnalysisNode<T> right) {
+    return new AnalysisNode<T>(runtime) {
+      @Override
+      Set<Path> access(Set<Path> input) {
+        Set<Path> paths = new LinkedHashSet<>(left.access(input));
+        use(paths);
+        paths.addAll(right.access(input));
+        return paths;
+      }
+    };
+  }
+
+  /**
+   * A node of the analysis, which can not be searched.
+   */
+  abstract static class AnalysisNode<T> extends Node<T> {
+    AnalysisNode(Adapter<T> runtime) {
+      super(runtime);
+    }
+
+    /**
+     * Returns the paths that the result can come from, given the paths that
+     * the input can come from.
+     */
+    abstract Set<Path> access(Set<Path> input);
+
+    @Override
+    public T search(T input) {
+      throw new UnsupportedOperationException("Expressions compiled for analysis can not be searched");
+    }
+
+    @Override
+    protected boolean internalEquals(Object o) {
+      return this == o;
+    }
+
+    @Override
+    protected int internalHashCode() {
+      return System.identityHashCode(this);
+    }
+  }
+
+  /**
+   * Looks up the accessor of the entry values the first time a multi-select
+   * hash is analyzed, instead of when the factory is loaded.
+   */
+  private static class EntryValueAccessor {
+    static final Method METHOD = find();
+
+    private static Method find() {
+      try {
+        Method method = CreateObjectNode.Entry.class.getDeclaredMethod("value");
+        method.setAccessible(true);
+        return method;
+      } catch (NoSuchMethodException | RuntimeException e) {
+        return null;
+      }
+    }
+  }
+
+  private static class ReferenceNode<T> extends AnalysisNode<T> {
+    private final AnalysisNode<T> expression;
+
+    ReferenceNode(Adapter<T> runtime, AnalysisNode<T> expression) {
+      super(runtime);
+      this.expression = expression;
+    }
+
+    @Override
+    Set<Path> access(Set<Path> input) {
+      return expression.access(input);
+    }
+  }
+
+  /**
+   * A mutable tree of the paths that an expression accesses, which becomes a
+   * {@link FieldSelection} when the analysis is done.
+   */
+  static class Path {
+    private final Map<String, Path> fields = new TreeMap<>();
+    private Path otherFields;
+    private boolean all;
+
+    Path field(String name) {
+      Path path = fields.get(name);
+      if (path == null) {
+        path = new Path();
+        fields.put(name, path);
+      }
+      return path;
+    }
+
+    Path otherFields() {
+      if (otherFields == null) {
+        otherFields = new Path();
+      }
+      return otherFields;
+    }
+
+    FieldSelection toSelection() {
+      if (all) {
+        return FieldSelection.ALL;
+      }
+      FieldSelection otherSelection = otherFields == null ? null : otherFields.toSelection();
+      Map<String, FieldSelection> selections = new TreeMap<>();
+      for (Map.Entry<String, Path> entry : fields.entrySet()) {
+        selections.put(entry.getKey(), FieldSelection.union(entry.getValue().toSelection(), otherSelection));
+      }
+      return FieldSelection.create(selections, otherSelection);
+    }
+  }
+}
@@ -0,0 +1,188 @@
+package io.burt.jmespath.contrib;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+import io.burt.jmespath.Adapter;
+import io.burt.jmespath.parser.ExpressionParser;
+
+/**
+ * Describes the parts of a document that an expression can access, so that
+ * the rest can be left out when the document is parsed.
+ * <p>
+ * A selection is a tree of field names. A selection either includes all of
+ * the value it applies to, or only the fields it names, each with its own
+ * selection, and optionally all other fields with a selection that they
+ * share. Selections apply to the elements of arrays the same way as they
+ * apply to the arrays themselves, so the selection for
+ * <code>items[*].name</code> is <code>items.name</code>, and it applies to
+ * each element of <code>items</code>. Arrays are never made shorter, so
+ * indexes and slices stay the same.
+ * <p>
+ * The analysis is conservative: values that are returned, compared, tested
+ * for truthiness or given to a function are included in full, since
+ * leaving out fields could change the result. For example the selection of
+ * <code>concat(user.first, ' ', upper_case(user.last))</code> is
+ * <code>user.first</code> and <code>user.last</code>, but the selection of
+ * <code>keys(user)</code> is all of <code>user</code>. An expression that
+ * returns the current node, like <code>@</code> or <code>sort_by(@, &amp;a)</code>
+ * selects everything.
+ * <p>
+ * Searching a document where the fields that are not in the selection of
+ * an expression have been left out gives the same result as searching the
+ * whole document.
+ */
+public class FieldSelection {
+  /** Selects everything. */
+  public static final FieldSelection ALL = new FieldSelection(true, Collections.<String, FieldSelection>emptyMap(), null);
+
+  /** Selects no fields, but keeps the value itself. */
+  public static final FieldSelection NONE = new FieldSelection(false, Collections.<String, FieldSelection>emptyMap(), null);
+
+  private final boolean all;
+  private final Map<String, FieldSelection> fields;
+  private final FieldSelection otherFields;
+
+  FieldSelection(boolean all, Map<String, FieldSelection> fields, FieldSelection otherFields) {
+    this.all = all;
+    this.fields = fields;
+    this.otherFields = otherFields;
+  }
+
+  /**
+   * Returns the parts of a document that the expression can access.
+   *
+   * @throws io.burt.jmespath.parser.ParseException when the expression is
+   *   invalid
+   */
+  public static <T> FieldSelection of(Adapter<T> runtime, String expression) {
+    return of(runtime, Collections.singletonList(expression));
+  }
+
+  /**
+   * Returns the parts of a document that any of the expressions can access.
+   *
+   * @throws io.burt.jmespath.parser.ParseException when an expression is
+   *   invalid
+   */
+  public static <T> FieldSelection of(Adapter<T> runtime, Collection<String> expressions) {
+    FieldAnalysisNodeFactory<T> nodeFactory = new FieldAnalysisNodeFactory<>(runtime);
+    Adapter<T> parsingRuntime = new ParsingRuntime<>(runtime, nodeFactory);
+    FieldAnalysisNodeFactory.Path root = new FieldAnalysisNodeFactory.Path();
+    for (String expression : expressions) {
+      nodeFactory.analyze(ExpressionParser.fromString(parsingRuntime, expression), root);
+    }
+    return root.toSelection();
+  }
+
+  /**
+   * Returns a selection that includes everything that either of the
+   * selections include.
+   */
+  public static FieldSelection union(FieldSelection selection1, FieldSelection selection2) {
+    if (selection1 == null) {
+      return selection2;
+    } else if (selection2 == null) {
+      return selection1;
+    } else if (selection1.all || selection2.all) {
+      return ALL;
+    }
+    Map<String, FieldSelection> fields = new TreeMap<>();
+    for (String name : selection1.fields.keySet()) {
+      fields.put(name, union(selection1.field(name), selection2.field(name)));
+    }
+    for (String name : selection2.fields.keySet()) {
+      if (!fields.containsKey(name)) {
+        fields.put(name, union(selection1.field(name), selection2.field(name)));
+      }
+    }
+    return create(fields, union(selection1.otherFields, selection2.otherFields));
+  }
+
+  static FieldSelection create(Map<String, FieldSelection> fields, FieldSelection otherFields) {
+    if (fields.isEmpty() && otherFields == null) {
+      return NONE;
+    } else {
+      return new FieldSelection(false, Collections.unmodifiableMap(fields), otherFields);
+    }
+  }
+
+  /**
+   * Returns true when everything is selected.
+   */
+  public boolean isAll() {
+    return all;
+  }
+
+  /**
+   * Returns the selection for the value of the field with the name, or null
+   * when the field is not selected.
+   */
+  public FieldSelection field(String name) {
+    if (all) {
+      return ALL;
+    }
+    FieldSelection selection = fields.get(name);
+    return selection == null ? otherFields : selection;
+  }
+
+  /**
+   * Returns the paths of the selected values, like <code>user.first</code>,
+   * with <code>*</code> for any other field, sorted. A selection that
+   * selects everything has the path <code>@</code>.
+   */
+  public List<String> paths() {
+    TreeSet<String> paths = new TreeSet<>();
+    addPaths("", paths);
+    return new ArrayList<>(paths);
+  }
+
+  private void addPaths(String prefix, Collection<String> paths) {
+    if (all) {
+      paths.add(prefix.isEmpty() ? "@" : prefix);
+    } else if (fields.isEmpty() && otherFields == null) {
+      if (!prefix.isEmpty()) {
+        paths.add(prefix);
+      }
+    } else {
+      String separator = prefix.isEmpty() ? "" : ".";
+      for (Map.Entry<String, FieldSelection> entry : fields.entrySet()) {
+        entry.getValue().addPaths(prefix + separator + entry.getKey(), paths);
+      }
+      if (otherFields != null) {
+        otherFields.addPaths(prefix + separator + "*", paths);
+      }
+    }
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (!(o instanceof FieldSelection)) {
+      return false;
+    }
+    FieldSelection other = (FieldSelection) o;
+    if (all != other.all || !fields.equals(other.fields)) {
+      return false;
+    }
+    return otherFields == null ? other.otherFields == null : otherFields.equals(other.otherFields);
+  }
+
+  @Override
+  public int hashCode() {
+    int h = 17;
+    h = h * 31 + (all ? 1 : 0);
+    h = h * 31 + fields.hashCode();
+    h = h * 31 + (otherFields == null ? 0 : otherFields.hashCode());
+    return h;
+  }
+
+  @Override
+  public String toString() {
+    return String.format("FieldSelection(%s)", paths());
+  }
+}
@@ -0,0 +1,114 @@
+package io.burt.jmespath.contrib;
+
+import java.util.Arrays;
+
+import io.burt.jmespath.Adapter;
+import io.burt.jmespath.node.Node;
+
+/**
+ * Wraps a node that occurs in more than one place in an
+ * {@link ExpressionGroup}, and remembers the last result it produced for
+ * each thread while the group is searching a document, so that it is only
+ * evaluated once for each input.
+ * <p>
+ * Inputs are compared by identity, which is cheap and correct since
+ * expressions are pure. Outside of a search of the group, and until a slot
+ * has been assigned, the node just delegates.
+ */
+class MemoizingNode<T> extends Node<T> {
+  private static final Object UNSET = new Object();
+
+  private final Node<T> node;
+  private final ThreadLocal<Memo> memos;
+  private int slot;
+
+  MemoizingNode(Adapter<T> runtime, Node<T> node, ThreadLocal<Memo> memos) {
+    super(runtime);
+    this.node = node;
+    this.memos = memos;
+    this.slot = -1;
+  }
+
+  Node<T> node() {
+    return node;
+  }
+
+  void assignSlot(int slot) {
+    this.slot = slot;
+  }
+
+  boolean hasSlot() {
+    return slot >= 0;
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public T search(T input) {
+    if (slot >= 0) {
+      Memo memo = memos.get();
+      if (memo.active) {
+        if (memo.inputs[slot] == input && input != UNSET) {
+          return (T) memo.results[slot];
+        }
+        T result = node.search(input);
+        memo.inputs[slot] = input;
+        memo.results[slot] = result;
+        return result;
+      }
+    }
+    return node.search(input);
+  }
+
+  @Override
+  public String toString() {
+    return node.toString();
+  }
+
+  @Override
+  protected boolean internalEquals(Object o) {
+    return node.equals(((MemoizingNode<?>) o).node);
+  }
+
+  @Override
+  protected int internalHashCode() {
+    return node.hashCode();
+  }
+
+  /**
+   * The last input and result of each memoizing node, for one thread.
+   */
+  static class Memo {
+    private final Object[] inputs;
+    private final Object[] results;
+    private boolean active;
+
+    Memo(int slots) {
+      this.inputs = new Object[slots];
+      this.results = new Object[slots];
+      Arrays.fill(inputs, UNSET);
+    }
+
+    /**
+     * Activates the memo and returns true, or returns false if it already was
+     * active, in which case the caller must not deactivate it.
+     */
+    boolean activate() {
+      if (active) {
+        return false;
+      } else {
+        active = true;
+        return true;
+      }
+    }
+
+    /**
+     * Deactivates the memo and forgets all inputs and results, so that they
+     * can be garbage collected.
+     */
+    void deactivate() {
+      active = false;
+      Arrays.fill(inputs, UNSET);
+      Arrays.fill(results, null);
+    }
+  }
+}
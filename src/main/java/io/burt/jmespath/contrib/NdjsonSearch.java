@@ -0,0 +1,498 @@
+package io.burt.jmespath.contrib;
+
+import java.io.IOException;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.Charset;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import io.burt.jmespath.Adapter;
+import io.burt.jmespath.Expression;
+import io.burt.jmespath.JmesPathException;
+import io.burt.jmespath.JmesPathType;
+
+/**
+ * Searches each line of a newline delimited JSON (NDJSON) file with an
+ * expression, and writes the results to a channel, one JSON document per
+ * line.
+ * <p>
+ * The file is memory mapped and split into chunks that end at line breaks,
+ * and the chunks are parsed and searched in parallel. The results of a chunk
+ * are written when the chunk is complete, either in the order of the chunks
+ * in the file or in the order they complete. At most a fixed number of chunks
+ * are in progress or waiting to be written at any time, so the memory used
+ * is bounded, and reading the file slows down when the output channel can't
+ * keep up.
+ * <p>
+ * The lines are found in the mapped chunks, and each line is copied into a
+ * buffer that is reused for the lines of the chunk. When the runtime is a
+ * {@link ByteParsingAdapter}, like {@link io.burt.jmespath.contrib.tape.TapeRuntime}
+ * and {@link io.burt.jmespath.contrib.jackson.ContribJacksonRuntime}, the
+ * lines are parsed directly from the buffer. For other runtimes each line is
+ * first decoded into a string.
+ * <p>
+ * By default null results, which is what filters produce for the documents
+ * that don't match, are not written, empty lines are skipped, and a line
+ * that is not valid JSON stops the search with the exception thrown by the
+ * runtime.
+ *
+ * <pre>
+ * NdjsonSearch&lt;JsonNode&gt; search = NdjsonSearch.builder(runtime, runtime.compile("{time: time, host: lower_case(host)}"))
+ *   .withParallelism(8)
+ *   .build();
+ * NdjsonSearch.Statistics statistics = search.search(Paths.get("app.log"), Channels.newChannel(System.out));
+ * System.err.println(statistics.megabytesPerSecond());
+ * </pre>
+ */
+public class NdjsonSearch<T> {
+  public static final int DEFAULT_CHUNK_SIZE = 1 << 20;
+
+  private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+  private final Adapter<T> runtime;
+  private final ByteParsingAdapter<T> byteParsingRuntime;
+  private final Expression<T> expression;
+  private final ExecutorService executor;
+  private final int parallelism;
+  private final int chunkSize;
+  private final int maxChunksInFlight;
+  private final boolean ordered;
+  private final boolean writeNulls;
+  private final boolean skipInvalidLines;
+
+  @SuppressWarnings("unchecked")
+  private NdjsonSearch(Builder<T> builder) {
+    this.runtime = builder.runtime;
+    this.byteParsingRuntime = runtime instanceof ByteParsingAdapter ? (ByteParsingAdapter<T>) runtime : null;
+    this.expression = builder.expression;
+    this.executor = builder.executor;
+    this.parallelism = builder.parallelism;
+    this.chunkSize = builder.chunkSize;
+    this.maxChunksInFlight = builder.maxChunksInFlight > 0 ? builder.maxChunksInFlight : 2 * builder.parallelism;
+    this.ordered = builder.ordered;
+    this.writeNulls = builder.writeNulls;
+    this.skipInvalidLines = builder.skipInvalidLines;
+  }
+
+  public static <U> Builder<U> builder(Adapter<U> runtime, Expression<U> expression) {
+    return new Builder<>(runtime, expression);
+  }
+
+  /**
+   * Searches each line of the file and writes the results to the channel.
+   *
+   * @throws IOException when the file can't be read or the channel can't be
+   *   written to
+   */
+  public Statistics search(Path input, WritableByteChannel output) throws IOException {
+    long startTime = System.nanoTime();
+    ExecutorService executor = this.executor == null ? Executors.newFixedThreadPool(parallelism) : this.executor;
+    try (FileChannel channel = FileChannel.open(input, StandardOpenOption.READ)) {
+      Statistics statistics = new Statistics();
+      if (ordered) {
+        searchOrdered(channel, executor, output, statistics);
+      } else {
+        searchUnordered(channel, executor, output, statistics);
+      }
+      statistics.elapsedNanos = System.nanoTime() - startTime;
+      return statistics;
+    } finally {
+      if (this.executor == null) {
+        executor.shutdownNow();
+      }
+    }
+  }
+
+  private void searchOrdered(FileChannel channel, ExecutorService executor, WritableByteChannel output, Statistics statistics) throws IOException {
+    Deque<Future<ChunkResult>> inFlight = new ArrayDeque<>(maxChunksInFlight);
+    try {
+      long position = 0;
+      long size = channel.size();
+      while (position < size || !inFlight.isEmpty()) {
+        if (position < size && inFlight.size() < maxChunksInFlight) {
+          MappedByteBuffer chunk = nextChunk(channel, position, size);
+          position += chunk.limit();
+          inFlight.addLast(executor.submit(new ChunkSearch(chunk)));
+        } else {
+          write(await(inFlight.removeFirst()), output, statistics);
+        }
+      }
+    } finally {
+      for (Future<ChunkResult> future : inFlight) {
+        future.cancel(true);
+      }
+    }
+  }
+
+  private void searchUnordered(FileChannel channel, ExecutorService executor, WritableByteChannel output, Statistics statistics) throws IOException {
+    CompletionService<ChunkResult> completionService = new ExecutorCompletionService<>(executor);
+    Deque<Future<ChunkResult>> inFlight = new ArrayDeque<>(maxChunksInFlight);
+    try {
+      long position = 0;
+      long size = channel.size();
+      while (position < size || !inFlight.isEmpty()) {
+        if (position < size && inFlight.size() < maxChunksInFlight) {
+          MappedByteBuffer chunk = nextChunk(channel, position, size);
+          position += chunk.limit();
+          inFlight.addLast(completionService.submit(new ChunkSearch(chunk)));
+        } else {
+          Future<ChunkResult> completed;
+          try {
+            completed = completionService.take();
+          } catch (InterruptedException ie) {
+            Thread.currentThread().interrupt();
+            throw new JmesPathException("Interrupted while searching", ie);
+          }
+          inFlight.remove(completed);
+          write(await(completed), output, statistics);
+        }
+      }
+    } finally {
+      for (Future<ChunkResult> future : inFlight) {
+        future.cancel(true);
+      }
+    }
+  }
+
+  /**
+   * Maps the next chunk, which ends after the last line break within the
+   * chunk size, or, when a line is longer than that, after the first line
+   * break, or at the end of the file.
+   */
+  private MappedByteBuffer nextChunk(FileChannel channel, long position, long size) throws IOException {
+    long length = Math.min(chunkSize, size - position);
+    while (true) {
+      MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, position, length);
+      if (position + length == size) {
+        return buffer;
+      }
+      for (int i = (int) length - 1; i >= 0; i--) {
+        if (buffer.get(i) == '\n') {
+          // Cast so that builds on newer JDKs do not link to the covariant
+          // ByteBuffer.limit(int), which Java 8 does not have
+          ((Buffer) buffer).limit(i + 1);
+          return buffer;
+        }
+      }
+      if (length == Integer.MAX_VALUE) {
+        throw new JmesPathException(String.format("Line at offset %d is too long", position));
+      }
+      length = Math.min(Math.min(2 * length, Integer.MAX_VALUE), size - position);
+    }
+  }
+
+  private static ChunkResult await(Future<ChunkResult> future) {
+    try {
+      return future.get();
+    } catch (ExecutionException ee) {
+      Throwable cause = ee.getCause();
+      if (cause instanceof RuntimeException) {
+        throw (RuntimeException) cause;
+      } else if (cause instanceof Error) {
+        throw (Error) cause;
+      } else {
+        throw new JmesPathException("Search failed", cause);
+      }
+    } catch (InterruptedException ie) {
+      Thread.currentThread().interrupt();
+      throw new JmesPathException("Interrupted while searching", ie);
+    }
+  }
+
+  private static void write(ChunkResult result, WritableByteChannel output, Statistics statistics) throws IOException {
+    ByteBuffer buffer = ByteBuffer.wrap(result.output, 0, result.outputLength);
+    while (buffer.hasRemaining()) {
+      output.write(buffer);
+    }
+    statistics.bytesRead += result.bytesRead;
+    statistics.lineCount += result.lineCount;
+    statistics.invalidLineCount += result.invalidLineCount;
+    statistics.resultCount += result.resultCount;
+    statistics.bytesWritten += result.outputLength;
+  }
+
+  private static class ChunkResult {
+    long bytesRead;
+    long lineCount;
+    long invalidLineCount;
+    long resultCount;
+    byte[] output = new byte[256];
+    int outputLength;
+
+    void append(byte[] bytes) {
+      ensureCapacity(outputLength + bytes.length + 1);
+      System.arraycopy(bytes, 0, output, outputLength, bytes.length);
+      outputLength += bytes.length;
+      output[outputLength++] = '\n';
+    }
+
+    private void ensureCapacity(int capacity) {
+      if (capacity > output.length) {
+        output = Arrays.copyOf(output, Math.max(capacity, 2 * output.length));
+      }
+    }
+  }
+
+  private class ChunkSearch implements Callable<ChunkResult> {
+    private final ByteBuffer chunk;
+
+    ChunkSearch(ByteBuffer chunk) {
+      this.chunk = chunk;
+    }
+
+    @Override
+    public ChunkResult call() {
+      ChunkResult result = new ChunkResult();
+      int limit = chunk.limit();
+      result.bytesRead = limit;
+      byte[] line = new byte[256];
+      int start = 0;
+      while (start < limit) {
+        int end = start;
+        while (end < limit && chunk.get(end) != '\n') {
+          end++;
+        }
+        int lineStart = start;
+        int lineEnd = end;
+        while (lineStart < lineEnd && isWhitespace(chunk.get(lineStart))) {
+          lineStart++;
+        }
+        while (lineEnd > lineStart && isWhitespace(chunk.get(lineEnd - 1))) {
+          lineEnd--;
+        }
+        if (lineStart < lineEnd) {
+          result.lineCount++;
+          int length = lineEnd - lineStart;
+          if (length > line.length) {
+            line = new byte[Math.max(length, 2 * line.length)];
+          }
+          ((Buffer) chunk).position(lineStart);
+          chunk.get(line, 0, length);
+          searchLine(line, length, result);
+        }
+        start = end + 1;
+      }
+      return result;
+    }
+
+    private void searchLine(byte[] line, int length, ChunkResult result) {
+      T document;
+      try {
+        if (byteParsingRuntime != null) {
+          document = byteParsingRuntime.parse(line, 0, length);
+        } else {
+          document = runtime.parseString(new String(line, 0, length, UTF_8));
+        }
+      } catch (RuntimeException e) {
+        if (skipInvalidLines) {
+          result.invalidLineCount++;
+          return;
+        } else {
+          throw e;
+        }
+      }
+      T value = expression.search(document);
+      JmesPathType type = runtime.typeOf(value);
+      if (writeNulls || type != JmesPathType.NULL) {
+        result.resultCount++;
+        String json = runtime.toString(value);
+        if (type == JmesPathType.STRING) {
+          json = quote(json);
+        }
+        result.append(json.getBytes(UTF_8));
+      }
+    }
+  }
+
+  /**
+   * The runtimes return strings as they are, but the output must be JSON.
+   */
+  private static String quote(String str) {
+    StringBuilder quoted = new StringBuilder(str.length() + 2);
+    quoted.append('"');
+    for (int i = 0; i < str.length(); i++) {
+      char c = str.charAt(i);
+      switch (c) {
+        case '"': quoted.append("\\\""); break;
+        case '\\': quoted.append("\\\\"); break;
+        case '\n': quoted.append("\\n"); break;
+        case '\r': quoted.append("\\r"); break;
+        case '\t': quoted.append("\\t"); break;
+        default:
+          if (c < 0x20) {
+            quoted.append(String.format("\\u%04x", (int) c));
+          } else {
+            quoted.append(c);
+          }
+      }
+    }
+    return quoted.append('"').toString();
+  }
+
+  private static boolean isWhitespace(byte b) {
+    return b == ' ' || b == '\t' || b == '\r';
+  }
+
+  /**
+   * Configures an {@link NdjsonSearch}.
+   */
+  public static class Builder<U> {
+    private final Adapter<U> runtime;
+    private final Expression<U> expression;
+    private ExecutorService executor;
+    private int parallelism;
+    private int chunkSize;
+    private int maxChunksInFlight;
+    private boolean ordered;
+    private boolean writeNulls;
+    private boolean skipInvalidLines;
+
+    private Builder(Adapter<U> runtime, Expression<U> expression) {
+      this.runtime = runtime;
+      this.expression = expression;
+      this.parallelism = Runtime.getRuntime().availableProcessors();
+      this.chunkSize = DEFAULT_CHUNK_SIZE;
+      this.ordered = true;
+    }
+
+    /**
+     * Sets the number of chunks to search at the same time, by default the
+     * number of processors.
+     */
+    public Builder<U> withParallelism(int parallelism) {
+      if (parallelism < 1) {
+        throw new IllegalArgumentException(String.format("Parallelism must be positive, was %d", parallelism));
+      }
+      this.parallelism = parallelism;
+      return this;
+    }
+
+    /**
+     * Searches the chunks on the executor instead of on a thread pool that
+     * is created for each search.
+     */
+    public Builder<U> withExecutor(ExecutorService executor) {
+      this.executor = executor;
+      return this;
+    }
+
+    /**
+     * Sets the size of the chunks, in bytes, by default one megabyte.
+     */
+    public Builder<U> withChunkSize(int chunkSize) {
+      if (chunkSize < 1) {
+        throw new IllegalArgumentException(String.format("Chunk size must be positive, was %d", chunkSize));
+      }
+      this.chunkSize = chunkSize;
+      return this;
+    }
+
+    /**
+     * Sets how many chunks can be in progress or waiting to be written at the
+     * same time, by default twice the parallelism.
+     */
+    public Builder<U> withMaxChunksInFlight(int maxChunksInFlight) {
+      if (maxChunksInFlight < 1) {
+        throw new IllegalArgumentException(String.format("Max chunks in flight must be positive, was %d", maxChunksInFlight));
+      }
+      this.maxChunksInFlight = maxChunksInFlight;
+      return this;
+    }
+
+    /**
+     * Writes the results of each chunk as soon as it is complete, instead of
+     * in the order of the lines in the file.
+     */
+    public Builder<U> unordered() {
+      this.ordered = false;
+      return this;
+    }
+
+    /**
+     * Writes null results too, so that there is one result for each line.
+     */
+    public Builder<U> writeNulls() {
+      this.writeNulls = true;
+      return this;
+    }
+
+    /**
+     * Skips and counts the lines that the runtime can't parse, instead of
+     * stopping the search.
+     */
+    public Builder<U> skipInvalidLines() {
+      this.skipInvalidLines = true;
+      return this;
+    }
+
+    public NdjsonSearch<U> build() {
+      return new NdjsonSearch<>(this);
+    }
+  }
+
+  /**
+   * Counts of what a search read and wrote, and how long it took.
+   */
+  public static class Statistics {
+    private long bytesRead;
+    private long bytesWritten;
+    private long lineCount;
+    private long invalidLineCount;
+    private long resultCount;
+    private long elapsedNanos;
+
+    public long bytesRead() {
+      return bytesRead;
+    }
+
+    public long bytesWritten() {
+      return bytesWritten;
+    }
+
+    /**
+     * Returns the number of lines that were not empty, including the invalid
+     * ones.
+     */
+    public long lineCount() {
+      return lineCount;
+    }
+
+    public long invalidLineCount() {
+      return invalidLineCount;
+    }
+
+    public long resultCount() {
+      return resultCount;
+    }
+
+    public long elapsedNanos() {
+      return elapsedNanos;
+    }
+
+    /**
+     * Returns the number of megabytes (10<sup>6</sup> bytes) read per second.
+     */
+    public double megabytesPerSecond() {
+      return elapsedNanos == 0 ? 0 : (bytesRead / 1e6) / (elapsedNanos / 1e9);
+    }
+
+    @Override
+    public String toString() {
+      return String.format("%d lines (%d invalid), %d results, %d bytes read at %.1f MB/s, %d bytes written", lineCount, invalidLineCount, resultCount, bytesRead, megabytesPerSecond(), bytesWritten);
+    }
+  }
+}
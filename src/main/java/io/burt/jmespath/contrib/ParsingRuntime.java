@@ -0,0 +1,133 @@
+package io.burt.jmespath.contrib;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+import io.burt.jmespath.Adapter;
+import io.burt.jmespath.Expression;
+import io.burt.jmespath.JmesPathType;
+import io.burt.jmespath.function.Function;
+import io.burt.jmespath.function.FunctionRegistry;
+import io.burt.jmespath.node.NodeFactory;
+import io.burt.jmespath.parser.ExpressionParser;
+
+/**
+ * A runtime that gives the parser another node factory, and delegates
+ * everything else to the wrapped runtime.
+ */
+class ParsingRuntime<T> implements Adapter<T> {
+  private final Adapter<T> runtime;
+  private final NodeFactory<T> nodeFactory;
+
+  ParsingRuntime(Adapter<T> runtime, NodeFactory<T> nodeFactory) {
+    this.runtime = runtime;
+    this.nodeFactory = nodeFactory;
+  }
+
+  @Override
+  public NodeFactory<T> nodeFactory() {
+    return nodeFactory;
+  }
+
+  @Override
+  public Expression<T> compile(String expression) {
+    return ExpressionParser.fromString(this, expression);
+  }
+
+  @Override
+  public T parseString(String str) {
+    return runtime.parseString(str);
+  }
+
+  @Override
+  public List<T> toList(T value) {
+    return runtime.toList(value);
+  }
+
+  @Override
+  public String toString(T value) {
+    return runtime.toString(value);
+  }
+
+  @Override
+  public Number toNumber(T value) {
+    return runtime.toNumber(value);
+  }
+
+  @Override
+  public boolean isTruthy(T value) {
+    return runtime.isTruthy(value);
+  }
+
+  @Override
+  public JmesPathType typeOf(T value) {
+    return runtime.typeOf(value);
+  }
+
+  @Override
+  @Deprecated
+  public T getProperty(T value, String name) {
+    return getProperty(value, createString(name));
+  }
+
+  @Override
+  public T getProperty(T value, T name) {
+    return runtime.getProperty(value, name);
+  }
+
+  @Override
+  public Collection<T> getPropertyNames(T value) {
+    return runtime.getPropertyNames(value);
+  }
+
+  @Override
+  public T createNull() {
+    return runtime.createNull();
+  }
+
+  @Override
+  public T createArray(Collection<T> elements) {
+    return runtime.createArray(elements);
+  }
+
+  @Override
+  public T createString(String str) {
+    return runtime.createString(str);
+  }
+
+  @Override
+  public T createBoolean(boolean b) {
+    return runtime.createBoolean(b);
+  }
+
+  @Override
+  public T createObject(Map<T, T> obj) {
+    return runtime.createObject(obj);
+  }
+
+  @Override
+  public T createNumber(double n) {
+    return runtime.createNumber(n);
+  }
+
+  @Override
+  public T createNumber(long n) {
+    return runtime.createNumber(n);
+  }
+
+  @Override
+  public T handleArgumentTypeError(Function function, String expectedType, String actualType) {
+    return runtime.handleArgumentTypeError(function, expectedType, actualType);
+  }
+
+  @Override
+  public FunctionRegistry functionRegistry() {
+    return runtime.functionRegistry();
+  }
+
+  @Override
+  public int compare(T value1, T value2) {
+    return runtime.compare(value1, value2);
+  }
+}
@@ -0,0 +1,213 @@
+package io.burt.jmespath.contrib;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import io.burt.jmespath.Adapter;
+import io.burt.jmespath.Expression;
+import io.burt.jmespath.function.Function;
+import io.burt.jmespath.node.CreateObjectNode;
+import io.burt.jmespath.node.Node;
+import io.burt.jmespath.node.NodeFactory;
+import io.burt.jmespath.node.Operator;
+
+/**
+ * A node factory that returns the same node for structurally identical
+ * subexpressions, across all the expressions it is used to compile, and that
+ * counts how many times each one occurs.
+ * <p>
+ * Nodes that are more expensive than looking up a property, like function
+ * calls, comparisons, projections and sequences, are wrapped in
+ * {@link MemoizingNode}s, and the ones that occur more than once can later
+ * be told to remember their results.
+ * <p>
+ * Sequences, which the parser nests to the right, are rebuilt nested to the
+ * left, so that <code>a.b.c</code> is a subexpression of
+ * <code>a.b.c.d</code>, and a common prefix is only evaluated once.
+ */
+class SharingNodeFactory<T> implements NodeFactory<T> {
+  private final Adapter<T> runtime;
+  private final NodeFactory<T> delegate;
+  private final ThreadLocal<MemoizingNode.Memo> memos;
+  private final Map<Node<T>, Node<T>> canonicalNodes;
+  private final Map<Node<T>, Integer> occurrences;
+  private final Map<Node<T>, List<Node<T>>> sequenceSteps;
+  private final Map<Node<T>, Node<T>> sequencePrefixes;
+
+  SharingNodeFactory(Adapter<T> runtime, ThreadLocal<MemoizingNode.Memo> memos) {
+    this.runtime = runtime;
+    this.delegate = runtime.nodeFactory();
+    this.memos = memos;
+    this.canonicalNodes = new HashMap<>();
+    this.occurrences = new IdentityHashMap<>();
+    this.sequenceSteps = new IdentityHashMap<>();
+    this.sequencePrefixes = new IdentityHashMap<>();
+  }
+
+  /**
+   * Returns the memoizing nodes that occur more than once.
+   */
+  List<MemoizingNode<T>> sharedNodes() {
+    List<MemoizingNode<T>> shared = new ArrayList<>();
+    for (Map.Entry<Node<T>, Integer> entry : occurrences.entrySet()) {
+      if (entry.getValue() > 1 && entry.getKey() instanceof MemoizingNode) {
+        shared.add((MemoizingNode<T>) entry.getKey());
+      }
+    }
+    return shared;
+  }
+
+  private Node<T> share(Node<T> node) {
+    Node<T> canonical = canonicalNodes.get(node);
+    if (canonical == null) {
+      canonical = node;
+      canonicalNodes.put(node, node);
+      occurrences.put(node, 1);
+    } else {
+      occurrences.put(canonical, occurrences.get(canonical) + 1);
+    }
+    return canonical;
+  }
+
+  private Node<T> memoize(Node<T> node) {
+    return share(new MemoizingNode<>(runtime, node, memos));
+  }
+
+  @Override
+  public Node<T> createSequence(List<Node<T>> nodes) {
+    List<Node<T>> steps = new ArrayList<>();
+    for (Node<T> node : nodes) {
+      List<Node<T>> nestedSteps = sequenceSteps.get(node);
+      if (nestedSteps == null) {
+        steps.add(node);
+      } else {
+        steps.addAll(nestedSteps);
+        discount(node);
+      }
+    }
+    if (steps.isEmpty()) {
+      return delegate.createSequence(nodes);
+    }
+    Node<T> sequence = steps.get(0);
+    for (int i = 1; i < steps.size(); i++) {
+      Node<T> prefix = sequence;
+      sequence = memoize(delegate.createSequence(Arrays.asList(prefix, steps.get(i))));
+      if (!sequenceSteps.containsKey(sequence)) {
+        sequenceSteps.put(sequence, new ArrayList<>(steps.subList(0, i + 1)));
+        sequencePrefixes.put(sequence, prefix);
+      }
+    }
+    return sequence;
+  }
+
+  /**
+   * Undoes the counting of a sequence, and of its prefixes, when its steps
+   * are inlined into a longer sequence.
+   */
+  private void discount(Node<T> sequence) {
+    Node<T> node = sequence;
+    while (sequencePrefixes.containsKey(node)) {
+      occurrences.put(node, occurrences.get(node) - 1);
+      node = sequencePrefixes.get(node);
+    }
+  }
+
+  @Override
+  public Node<T> createFunctionCall(String functionName, List<? extends Expression<T>> args) {
+    return memoize(delegate.createFunctionCall(functionName, args));
+  }
+
+  @Override
+  public Node<T> createFunctionCall(Function function, List<? extends Expression<T>> args) {
+    return memoize(delegate.createFunctionCall(function, args));
+  }
+
+  @Override
+  public Node<T> createProjection(Expression<T> expression) {
+    return memoize(delegate.createProjection(expression));
+  }
+
+  @Override
+  public Node<T> createSelection(Expression<T> test) {
+    return memoize(delegate.createSelection(test));
+  }
+
+  @Override
+  public Node<T> createComparison(Operator operator, Expression<T> left, Expression<T> right) {
+    return memoize(delegate.createComparison(operator, left, right));
+  }
+
+  @Override
+  public Node<T> createOr(Expression<T> left, Expression<T> right) {
+    return memoize(delegate.createOr(left, right));
+  }
+
+  @Override
+  public Node<T> createAnd(Expression<T> left, Expression<T> right) {
+    return memoize(delegate.createAnd(left, right));
+  }
+
+  @Override
+  public Node<T> createNegate(Expression<T> negated) {
+    return memoize(delegate.createNegate(negated));
+  }
+
+  @Override
+  public Node<T> createCreateObject(List<CreateObjectNode.Entry<T>> entries) {
+    return memoize(delegate.createCreateObject(entries));
+  }
+
+  @Override
+  public Node<T> createCreateArray(List<? extends Expression<T>> items) {
+    return memoize(delegate.createCreateArray(items));
+  }
+
+  @Override
+  public Node<T> createCurrent() {
+    return share(delegate.createCurrent());
+  }
+
+  @Override
+  public Node<T> createProperty(String name) {
+    return share(delegate.createProperty(name));
+  }
+
+  @Override
+  public Node<T> createIndex(int index) {
+    return share(delegate.createIndex(index));
+  }
+
+  @Override
+  public Node<T> createSlice(Integer start, Integer stop, Integer step) {
+    return share(delegate.createSlice(start, stop, step));
+  }
+
+  @Override
+  public Node<T> createFlattenArray() {
+    return share(delegate.createFlattenArray());
+  }
+
+  @Override
+  public Node<T> createFlattenObject() {
+    return share(delegate.createFlattenObject());
+  }
+
+  @Override
+  public Node<T> createExpressionReference(Expression<T> expression) {
+    return share(delegate.createExpressionReference(expression));
+  }
+
+  @Override
+  public Node<T> createString(String str) {
+    return share(delegate.createString(str));
+  }
+
+  @Override
+  public Node<T> createJsonLiteral(String json) {
+    return share(delegate.createJsonLiteral(json));
+  }
+}
@@ -0,0 +1,49 @@
+package io.burt.jmespath.contrib.function;
+
+import java.util.List;
+
+import io.burt.jmespath.Adapter;
+import io.burt.jmespath.JmesPathType;
+import io.burt.jmespath.contrib.sketch.HyperLogLog;
+import io.burt.jmespath.function.ArgumentConstraints;
+import io.burt.jmespath.function.FunctionArgument;
+
+/**
+ * Estimates the number of distinct values of an array, with a
+ * {@link HyperLogLog} sketch.
+ * <p>
+ * Values are compared like JMESPath compares them, so <code>1</code> and
+ * <code>1.0</code> are the same value, and so are objects with the same
+ * members in a different order, like for <code>distinct</code>.
+ */
+public class ApproxDistinctFunction extends SketchFunction<HyperLogLog> {
+  private final int precision;
+
+  public ApproxDistinctFunction() {
+    this(HyperLogLog.DEFAULT_PRECISION);
+  }
+
+  /**
+   * @throws IllegalArgumentException when the precision is out of range,
+   *   see {@link HyperLogLog#HyperLogLog(int)}
+   */
+  public ApproxDistinctFunction(int precision) {
+    super(HyperLogLog.class, ArgumentConstraints.typeOf(JmesPathType.ARRAY));
+    this.precision = new HyperLogLog(precision).precision();
+  }
+
+  @Override
+  protected <T> HyperLogLog createSketch(Adapter<T> runtime, List<FunctionArgument<T>> arguments) {
+    return new HyperLogLog(precision);
+  }
+
+  @Override
+  protected <T> void add(Adapter<T> runtime, HyperLogLog sketch, T value) {
+    sketch.add(StructuralEquivalence.hash64(runtime, value));
+  }
+
+  @Override
+  protected <T> T result(Adapter<T> runtime, HyperLogLog sketch, List<FunctionArgument<T>> arguments) {
+    return runtime.createNumber(sketch.estimate());
+  }
+}
@@ -0,0 +1,75 @@
+package io.burt.jmespath.contrib.function;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import io.burt.jmespath.Adapter;
+import io.burt.jmespath.JmesPathType;
+import io.burt.jmespath.contrib.sketch.TDigest;
+import io.burt.jmespath.function.ArgumentConstraints;
+import io.burt.jmespath.function.FunctionArgument;
+
+/**
+ * Estimates a percentile of an array of numbers, with a {@link TDigest}.
+ * <p>
+ * The percentile is given as a number between zero and one, like
+ * <code>0.99</code> for the 99th percentile, or as an array of such numbers,
+ * in which case an array with the estimate for each of them is returned.
+ * The percentiles of an empty array are null.
+ */
+public class ApproxPercentileFunction extends SketchFunction<TDigest> {
+  private final double compression;
+
+  public ApproxPercentileFunction() {
+    this(TDigest.DEFAULT_COMPRESSION);
+  }
+
+  /**
+   * @throws IllegalArgumentException when the compression is out of range,
+   *   see {@link TDigest#TDigest(double)}
+   */
+  public ApproxPercentileFunction(double compression) {
+    super(TDigest.class, ArgumentConstraints.arrayOf(ArgumentConstraints.typeOf(JmesPathType.NUMBER)), ArgumentConstraints.typeOf(JmesPathType.NUMBER, JmesPathType.ARRAY));
+    this.compression = new TDigest(compression).compression();
+  }
+
+  @Override
+  protected <T> TDigest createSketch(Adapter<T> runtime, List<FunctionArgument<T>> arguments) {
+    return new TDigest(compression);
+  }
+
+  @Override
+  protected <T> void add(Adapter<T> runtime, TDigest sketch, T value) {
+    if (runtime instanceof PrimitiveNumberAdapter) {
+      sketch.add(((PrimitiveNumberAdapter<T>) runtime).toDouble(value));
+    } else {
+      sketch.add(runtime.toNumber(value).doubleValue());
+    }
+  }
+
+  /**
+   * @throws IllegalArgumentException when a percentile is not between zero
+   *   and one
+   */
+  @Override
+  protected <T> T result(Adapter<T> runtime, TDigest sketch, List<FunctionArgument<T>> arguments) {
+    T percentiles = arguments.get(1).value();
+    if (runtime.typeOf(percentiles) == JmesPathType.NUMBER) {
+      return percentile(runtime, sketch, percentiles);
+    }
+    List<T> results = new ArrayList<>();
+    for (T percentile : runtime.toList(percentiles)) {
+      JmesPathType type = runtime.typeOf(percentile);
+      if (type != JmesPathType.NUMBER) {
+        return runtime.handleArgumentTypeError(this, "number", type.toString());
+      }
+      results.add(percentile(runtime, sketch, percentile));
+    }
+    return runtime.createArray(results);
+  }
+
+  private <T> T percentile(Adapter<T> runtime, TDigest sketch, T percentile) {
+    double value = sketch.quantile(runtime.toNumber(percentile).doubleValue());
+    return Double.isNaN(value) ? runtime.createNull() : runtime.createNumber(value);
+  }
+}
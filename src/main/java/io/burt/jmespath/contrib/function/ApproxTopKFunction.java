@@ -0,0 +1,70 @@
+package io.burt.jmespath.contrib.function;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import io.burt.jmespath.Adapter;
+import io.burt.jmespath.JmesPathType;
+import io.burt.jmespath.contrib.sketch.SpaceSaving;
+import io.burt.jmespath.function.ArgumentConstraints;
+import io.burt.jmespath.function.FunctionArgument;
+
+/**
+ * Finds the <code>k</code> most frequent values of an array, with a
+ * {@link SpaceSaving} sketch.
+ * <p>
+ * The result is an array of objects with the <code>value</code>, its
+ * estimated <code>count</code>, and the <code>error</code> of the count,
+ * which can be too high by at most the error, the most frequent value first.
+ * Values are compared like in {@link ApproxDistinctFunction}.
+ * <p>
+ * The sketch counts at most as many values as its capacity, or
+ * <code>k</code> when that is larger, and the counts are exact as long as
+ * the array has no more distinct values than that.
+ */
+public class ApproxTopKFunction extends SketchFunction<SpaceSaving> {
+  public static final int DEFAULT_CAPACITY = 1000;
+
+  private final int capacity;
+
+  public ApproxTopKFunction() {
+    this(DEFAULT_CAPACITY);
+  }
+
+  /**
+   * @throws IllegalArgumentException when the capacity is less than one
+   */
+  public ApproxTopKFunction(int capacity) {
+    super("approx_top_k", SpaceSaving.class, ArgumentConstraints.typeOf(JmesPathType.ARRAY), ArgumentConstraints.typeOf(JmesPathType.NUMBER));
+    this.capacity = new SpaceSaving(capacity).capacity();
+  }
+
+  @Override
+  protected <T> SpaceSaving createSketch(Adapter<T> runtime, List<FunctionArgument<T>> arguments) {
+    return new SpaceSaving(Math.max(capacity, k(runtime, arguments)));
+  }
+
+  @Override
+  protected <T> void add(Adapter<T> runtime, SpaceSaving sketch, T value) {
+    sketch.add(StructuralEquivalence.canonicalJson(runtime, value));
+  }
+
+  @Override
+  protected <T> T result(Adapter<T> runtime, SpaceSaving sketch, List<FunctionArgument<T>> arguments) {
+    List<T> results = new ArrayList<>();
+    for (SpaceSaving.Item item : sketch.top(k(runtime, arguments))) {
+      Map<T, T> result = new LinkedHashMap<>();
+      result.put(runtime.createString("value"), runtime.parseString(item.key()));
+      result.put(runtime.createString("count"), runtime.createNumber(item.count()));
+      result.put(runtime.createString("error"), runtime.createNumber(item.error()));
+      results.add(runtime.createObject(result));
+    }
+    return runtime.createArray(results);
+  }
+
+  private <T> int k(Adapter<T> runtime, List<FunctionArgument<T>> arguments) {
+    return (int) Math.max(0, Math.min(Integer.MAX_VALUE - 8, runtime.toNumber(arguments.get(1).value()).longValue()));
+  }
+}
@@ -0,0 +1,65 @@
+package io.burt.jmespath.contrib.function;
+
+import java.util.Collections;
+import java.util.Iterator;
+
+import io.burt.jmespath.Adapter;
+import io.burt.jmespath.JmesPathType;
+import io.burt.jmespath.function.ArgumentConstraint;
+import io.burt.jmespath.function.ArgumentError;
+import io.burt.jmespath.function.FunctionArgument;
+
+/**
+ * Checks one argument that is either an array, which is checked by another
+ * constraint, or a string, which is expected to hold a serialized sketch.
+ */
+class ArrayOrSketchConstraint implements ArgumentConstraint {
+  private final ArgumentConstraint arrayConstraint;
+
+  ArrayOrSketchConstraint(ArgumentConstraint arrayConstraint) {
+    this.arrayConstraint = arrayConstraint;
+  }
+
+  @Override
+  public <T> Iterator<ArgumentError> check(Adapter<T> runtime, Iterator<FunctionArgument<T>> arguments, boolean expectNoRemainingArguments) {
+    if (!arguments.hasNext()) {
+      return Collections.singleton(ArgumentError.createArityError()).iterator();
+    }
+    FunctionArgument<T> argument = arguments.next();
+    Iterator<ArgumentError> errors = Collections.<ArgumentError>emptyList().iterator();
+    if (argument.isExpression()) {
+      errors = Collections.<ArgumentError>singleton(ArgumentError.createArgumentTypeError(expectedType(), "expression")).iterator();
+    } else {
+      JmesPathType type = runtime.typeOf(argument.value());
+      if (type == JmesPathType.ARRAY) {
+        errors = arrayConstraint.check(runtime, Collections.singletonList(argument).iterator(), false);
+      } else if (type != JmesPathType.STRING) {
+        errors = Collections.<ArgumentError>singleton(ArgumentError.createArgumentTypeError(expectedType(), type.toString())).iterator();
+      }
+    }
+    if (!errors.hasNext() && expectNoRemainingArguments && arguments.hasNext()) {
+      return Collections.singleton(ArgumentError.createArityError()).iterator();
+    }
+    return errors;
+  }
+
+  @Override
+  public int minArity() {
+    return 1;
+  }
+
+  @Override
+  public int maxArity() {
+    return 1;
+  }
+
+  @Override
+  public boolean arityViolated(int n) {
+    return n != 1;
+  }
+
+  @Override
+  public String expectedType() {
+    return arrayConstraint.expectedType() + " or string";
+  }
+}
@@ -0,0 +1,96 @@
+package io.burt.jmespath.contrib.function;
+
+import java.util.List;
+import java.util.Locale;
+
+import io.burt.jmespath.Adapter;
+import io.burt.jmespath.JmesPathType;
+import io.burt.jmespath.function.ArgumentConstraints;
+import io.burt.jmespath.function.BaseFunction;
+import io.burt.jmespath.function.FunctionArgument;
+
+/**
+ * Base class for the functions that convert the case of a string.
+ * <p>
+ * Strings that only contain ASCII characters are converted with a lookup
+ * table, and when a string is already in the target case the argument itself
+ * is returned, without creating a new string or a new value. Other strings
+ * are converted with the locale sensitive methods of {@link String}.
+ * <p>
+ * Without an explicit locale the default locale of the JVM is used, as
+ * looked up on each call, which means that the results can differ between
+ * hosts. Pass {@link Locale#ROOT} to get the same results everywhere.
+ */
+abstract class CaseConversionFunction extends BaseFunction {
+  private final Locale locale;
+  private final char[] asciiTable;
+
+  CaseConversionFunction(Locale locale, char[] asciiTable) {
+    super(ArgumentConstraints.typeOf(JmesPathType.STRING));
+    this.locale = locale;
+    this.asciiTable = asciiTable;
+  }
+
+  @Override
+  protected <T> T callFunction(Adapter<T> runtime, List<FunctionArgument<T>> arguments) {
+    T arg = arguments.get(0).value();
+    String str = runtime.toString(arg);
+    String converted = convert(str, locale == null ? Locale.getDefault() : locale);
+    return converted == str ? arg : runtime.createString(converted);
+  }
+
+  /**
+   * Converts the string, returning the same instance when nothing changes.
+   */
+  String convert(String str, Locale locale) {
+    if (!hasAsciiCaseMapping(locale)) {
+      return convertWithLocale(str, locale);
+    }
+    int length = str.length();
+    int i = 0;
+    for (; i < length; i++) {
+      char c = str.charAt(i);
+      if (c >= asciiTable.length) {
+        return convertWithLocale(str, locale);
+      } else if (asciiTable[c] != c) {
+        break;
+      }
+    }
+    if (i == length) {
+      return str;
+    }
+    char[] chars = new char[length];
+    str.getChars(0, i, chars, 0);
+    for (; i < length; i++) {
+      char c = str.charAt(i);
+      if (c >= asciiTable.length) {
+        return convertWithLocale(str, locale);
+      }
+      chars[i] = asciiTable[c];
+    }
+    return new String(chars);
+  }
+
+  /**
+   * Converts the string with the locale sensitive methods of {@link String},
+   * which return the same instance when nothing changes.
+   */
+  protected abstract String convertWithLocale(String str, Locale locale);
+
+  /**
+   * Turkish and Azerbaijani have dotted and dotless i:s, so not even the case
+   * of ASCII letters can be converted with a table in those locales.
+   */
+  private static boolean hasAsciiCaseMapping(Locale locale) {
+    String language = locale.getLanguage();
+    return !("tr".equals(language) || "az".equals(language));
+  }
+
+  static char[] asciiTable(char from, char to) {
+    char[] table = new char[128];
+    for (char c = 0; c < table.length; c++) {
+      table[c] = (from <= c && c <= (char) (from + 25)) ? (char) (c - from + to) : c;
+    }
+    return table;
+  }
+}
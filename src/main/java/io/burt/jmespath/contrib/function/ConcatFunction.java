@@ -5,6 +5,7 @@ import java.util.List;
 
 import io.burt.jmespath.Adapter;
 import io.burt.jmespath.JmesPathType;
+import io.burt.jmespath.contrib.Deadline;
 import io.burt.jmespath.function.ArgumentConstraints;
 import io.burt.jmespath.function.BaseFunction;
 import io.burt.jmespath.function.FunctionArgument;
@@ -16,11 +17,16 @@ public class ConcatFunction extends BaseFunction {
 
   @Override
   protected <T> T callFunction(Adapter<T> runtime, List<FunctionArgument<T>> arguments) {
+    Deadline deadline = Deadline.current();
     StringBuilder sb = new StringBuilder();
     for (FunctionArgument<T> arg: arguments) {
       T value = arg.value();
       if (runtime.typeOf(value) != JmesPathType.NULL) {
-        sb.append(runtime.toString(value));
+        String string = runtime.toString(value);
+        if (deadline != null) {
+          deadline.check(string.length() + 1);
+        }
+        sb.append(string);
       }
     }
     return runtime.createString(sb.toString());
@@ -0,0 +1,25 @@
+package io.burt.jmespath.contrib.function;
+
+import java.util.List;
+
+import io.burt.jmespath.Adapter;
+import io.burt.jmespath.contrib.util.AhoCorasick;
+import io.burt.jmespath.function.FunctionArgument;
+
+/**
+ * Returns true when any of an array of needles occurs in a string.
+ */
+public class ContainsAnyFunction extends SubstringSetFunction {
+  public ContainsAnyFunction() {
+    this(NeedleSetCache.defaultCache());
+  }
+
+  public ContainsAnyFunction(NeedleSetCache needleSetCache) {
+    super(needleSetCache);
+  }
+
+  @Override
+  protected <T> T callFunction(Adapter<T> runtime, List<FunctionArgument<T>> arguments, AhoCorasick needles) {
+    return runtime.createBoolean(needles.containsAny(getHaystack(runtime, arguments)));
+  }
+}
@@ -0,0 +1,20 @@
+package io.burt.jmespath.contrib.function;
+
+import io.burt.jmespath.Adapter;
+
+/**
+ * Counts the elements of an array by the value of an expression, and
+ * returns an object with the number of elements for each key.
+ * <p>
+ * See {@link GroupingFunction} for how the keys become property names.
+ */
+public class CountByFunction extends GroupingFunction {
+  public CountByFunction() {
+    super(false);
+  }
+
+  @Override
+  protected <T> T result(Adapter<T> runtime, Group<T> group) {
+    return runtime.createNumber((long) group.size());
+  }
+}
@@ -0,0 +1,91 @@
+package io.burt.jmespath.contrib.function;
+
+import io.burt.jmespath.contrib.time.DateFormatter;
+import io.burt.jmespath.contrib.util.LruCache;
+
+/**
+ * A size bounded cache of {@link DateFormatter}s, keyed by their pattern and
+ * time zone.
+ * <p>
+ * The cache is thread safe and can be shared between functions, by default
+ * all date functions share the cache returned by {@link #defaultCache()}.
+ */
+public class DateFormatCache {
+  public static final int DEFAULT_MAXIMUM_SIZE = 128;
+
+  private static final DateFormatCache defaultCache = new DateFormatCache(DEFAULT_MAXIMUM_SIZE);
+
+  private final LruCache<Key, DateFormatter> cache;
+
+  public static DateFormatCache defaultCache() {
+    return defaultCache;
+  }
+
+  public DateFormatCache(int maximumSize) {
+    this.cache = new LruCache<>(maximumSize);
+  }
+
+  /**
+   * Returns the formatter for the pattern and time zone, creating it if it is
+   * not already cached.
+   *
+   * @throws IllegalArgumentException when the pattern is invalid, or when
+   *   the time zone is unknown
+   */
+  public DateFormatter get(String pattern, String timeZone) {
+    Key key = new Key(pattern, timeZone);
+    DateFormatter formatter = cache.get(key);
+    if (formatter == null) {
+      formatter = new DateFormatter(pattern, timeZone);
+      cache.put(key, formatter);
+    }
+    return formatter;
+  }
+
+  public int size() {
+    return cache.size();
+  }
+
+  public int maximumSize() {
+    return cache.maximumSize();
+  }
+
+  public long hitCount() {
+    return cache.hitCount();
+  }
+
+  public long missCount() {
+    return cache.missCount();
+  }
+
+  public long evictionCount() {
+    return cache.evictionCount();
+  }
+
+  private static class Key {
+    private final String pattern;
+    private final String timeZone;
+
+    Key(String pattern, String timeZone) {
+      this.pattern = pattern;
+      this.timeZone = timeZone;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (!(o instanceof Key)) {
+        return false;
+      }
+      Key other = (Key) o;
+      return pattern.equals(other.pattern) && timeZone.equals(other.timeZone);
+    }
+
+    @Override
+    public int hashCode() {
+      return 31 * pattern.hashCode() + timeZone.hashCode();
+    }
+  }
+}
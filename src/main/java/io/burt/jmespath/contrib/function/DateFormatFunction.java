@@ -0,0 +1,93 @@
+package io.burt.jmespath.contrib.function;
+
+import java.util.List;
+
+import io.burt.jmespath.Adapter;
+import io.burt.jmespath.JmesPathType;
+import io.burt.jmespath.contrib.time.DateFormatter;
+import io.burt.jmespath.function.ArgumentConstraint;
+import io.burt.jmespath.function.BaseFunction;
+import io.burt.jmespath.function.Function;
+import io.burt.jmespath.function.FunctionArgument;
+
+/**
+ * Base class for the date functions that take an optional
+ * {@link java.text.SimpleDateFormat} pattern as their second argument, and
+ * an optional time zone, which defaults to UTC, as their third.
+ * <p>
+ * Without a pattern the functions use ISO-8601, with the fast parser and
+ * formatter of {@link io.burt.jmespath.contrib.time.IsoDateTime}. Patterns
+ * are looked up in a {@link DateFormatCache}, and when the pattern and the
+ * time zone are literals they are looked up only once, when the call site
+ * is specialized.
+ */
+public abstract class DateFormatFunction extends DateFunction implements SpecializableFunction {
+  private final DateFormatCache formatCache;
+
+  public DateFormatFunction(DateFormatCache formatCache, ArgumentConstraint argumentConstraints) {
+    super(argumentConstraints);
+    this.formatCache = formatCache;
+  }
+
+  @Override
+  protected <T> T callFunction(Adapter<T> runtime, List<FunctionArgument<T>> arguments) {
+    DateFormatter formatter = null;
+    if (arguments.size() > 1) {
+      String timeZone = DateFormatter.UTC;
+      if (arguments.size() > 2) {
+        timeZone = runtime.toString(arguments.get(2).value());
+      }
+      formatter = formatCache.get(runtime.toString(arguments.get(1).value()), timeZone);
+    }
+    return callFunction(runtime, arguments, formatter);
+  }
+
+  /**
+   * Performs the function call with the formatter for the pattern and time
+   * zone, or null when there is no pattern and ISO-8601 should be used.
+   */
+  protected abstract <T> T callFunction(Adapter<T> runtime, List<FunctionArgument<T>> arguments, DateFormatter formatter);
+
+  /**
+   * When both the pattern and the time zone are string literals the
+   * formatter is looked up at once, so that a call site with an invalid
+   * pattern or an unknown time zone fails to compile.
+   */
+  @Override
+  public <T> Function specialize(Adapter<T> runtime, List<T> literalArguments) {
+    if (literalArguments.size() < 2) {
+      return null;
+    }
+    T pattern = literalArguments.get(1);
+    if (!isStringLiteral(runtime, pattern)) {
+      return null;
+    }
+    String timeZone = DateFormatter.UTC;
+    if (literalArguments.size() > 2) {
+      T timeZoneLiteral = literalArguments.get(2);
+      if (!isStringLiteral(runtime, timeZoneLiteral)) {
+        return null;
+      }
+      timeZone = runtime.toString(timeZoneLiteral);
+    }
+    return new PrecompiledFormatFunction(formatCache.get(runtime.toString(pattern), timeZone));
+  }
+
+  private <T> boolean isStringLiteral(Adapter<T> runtime, T value) {
+    return value != null && runtime.typeOf(value) == JmesPathType.STRING;
+  }
+
+  private class PrecompiledFormatFunction extends BaseFunction {
+    private final DateFormatter formatter;
+
+    PrecompiledFormatFunction(DateFormatter formatter) {
+      super(DateFormatFunction.this.name(), DateFormatFunction.this.argumentConstraints());
+      this.formatter = formatter;
+    }
+
+    @Override
+    protected <T> T callFunction(Adapter<T> runtime, List<FunctionArgument<T>> arguments) {
+      return DateFormatFunction.this.callFunction(runtime, arguments, formatter);
+    }
+  }
+}
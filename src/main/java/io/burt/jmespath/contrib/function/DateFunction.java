@@ -0,0 +1,68 @@
+package io.burt.jmespath.contrib.function;
+
+import io.burt.jmespath.Adapter;
+import io.burt.jmespath.JmesPathType;
+import io.burt.jmespath.contrib.time.IsoDateTime;
+import io.burt.jmespath.function.ArgumentConstraint;
+import io.burt.jmespath.function.BaseFunction;
+
+/**
+ * Base class for the date functions.
+ * <p>
+ * JSON has no date type, so date times are either numbers, which are
+ * milliseconds since the epoch, or ISO-8601 strings, see
+ * {@link IsoDateTime}. The date functions accept both, and return ISO-8601
+ * strings in UTC, which sort in the same order as the instants, unless they
+ * say otherwise. A string that is not a date time gives null, like
+ * <code>to_number</code> does for strings that are not numbers.
+ */
+public abstract class DateFunction extends BaseFunction {
+  public DateFunction(ArgumentConstraint argumentConstraints) {
+    super(argumentConstraints);
+  }
+
+  /**
+   * Returns the milliseconds since the epoch of a number or an ISO-8601
+   * string, or {@link IsoDateTime#INVALID} when the value is not a date time.
+   * Fractions of milliseconds are rounded down.
+   */
+  protected <T> long toEpochMillis(Adapter<T> runtime, T value) {
+    JmesPathType type = runtime.typeOf(value);
+    if (type == JmesPathType.STRING) {
+      return IsoDateTime.parse(runtime.toString(value));
+    } else if (type != JmesPathType.NUMBER) {
+      return IsoDateTime.INVALID;
+    }
+    double d;
+    if (runtime instanceof PrimitiveNumberAdapter) {
+      PrimitiveNumberAdapter<T> primitiveRuntime = (PrimitiveNumberAdapter<T>) runtime;
+      if (primitiveRuntime.isIntegralNumber(value)) {
+        return primitiveRuntime.toLong(value);
+      }
+      d = primitiveRuntime.toDouble(value);
+    } else {
+      Number number = runtime.toNumber(value);
+      if (ExactMath.isIntegral(number)) {
+        return number.longValue();
+      }
+      d = number.doubleValue();
+    }
+    if (d >= -0x1p63 && d < 0x1p63) {
+      return (long) Math.floor(d);
+    } else {
+      return IsoDateTime.INVALID;
+    }
+  }
+
+  /**
+   * Returns an instant as an ISO-8601 string in UTC, or null for
+   * {@link IsoDateTime#INVALID}.
+   */
+  protected <T> T createDate(Adapter<T> runtime, long millis) {
+    if (millis == IsoDateTime.INVALID) {
+      return runtime.createNull();
+    } else {
+      return runtime.createString(IsoDateTime.format(millis));
+    }
+  }
+}
@@ -0,0 +1,85 @@
+package io.burt.jmespath.contrib.function;
+
+import java.util.List;
+
+import io.burt.jmespath.Adapter;
+import io.burt.jmespath.JmesPathType;
+import io.burt.jmespath.contrib.time.DateUnit;
+import io.burt.jmespath.contrib.time.IsoDateTime;
+import io.burt.jmespath.function.ArgumentConstraints;
+import io.burt.jmespath.function.BaseFunction;
+import io.burt.jmespath.function.Function;
+import io.burt.jmespath.function.FunctionArgument;
+
+/**
+ * Truncates a date time to the start of the year, quarter, month, week, day,
+ * hour, minute or second it is in, in UTC, see {@link DateUnit}.
+ * <p>
+ * Milliseconds since the epoch give milliseconds since the epoch, and
+ * ISO-8601 strings give ISO-8601 strings in UTC, so that
+ * <code>date_trunc(timestamp, 'hour')</code> can be used to group events by
+ * hour whichever way their timestamps are written.
+ */
+public class DateTruncFunction extends DateFunction implements SpecializableFunction {
+  public DateTruncFunction() {
+    super(ArgumentConstraints.listOf(
+      ArgumentConstraints.typeOf(JmesPathType.NUMBER, JmesPathType.STRING),
+      ArgumentConstraints.typeOf(JmesPathType.STRING)
+    ));
+  }
+
+  @Override
+  protected <T> T callFunction(Adapter<T> runtime, List<FunctionArgument<T>> arguments) {
+    return callFunction(runtime, arguments, toUnit(runtime.toString(arguments.get(1).value())));
+  }
+
+  private <T> T callFunction(Adapter<T> runtime, List<FunctionArgument<T>> arguments, DateUnit unit) {
+    T date = arguments.get(0).value();
+    long millis = toEpochMillis(runtime, date);
+    if (millis == IsoDateTime.INVALID) {
+      return runtime.createNull();
+    } else if (runtime.typeOf(date) == JmesPathType.NUMBER) {
+      return runtime.createNumber(unit.truncate(millis));
+    } else {
+      return createDate(runtime, unit.truncate(millis));
+    }
+  }
+
+  /**
+   * When the unit is a string literal it is looked up at once, so that a
+   * call site with an unknown unit fails to compile.
+   */
+  @Override
+  public <T> Function specialize(Adapter<T> runtime, List<T> literalArguments) {
+    if (literalArguments.size() != 2) {
+      return null;
+    }
+    T unit = literalArguments.get(1);
+    if (unit == null || runtime.typeOf(unit) != JmesPathType.STRING) {
+      return null;
+    }
+    return new PrecompiledUnitFunction(toUnit(runtime.toString(unit)));
+  }
+
+  private static DateUnit toUnit(String name) {
+    DateUnit unit = DateUnit.fromName(name);
+    if (unit == null) {
+      throw new IllegalArgumentException(String.format("Unknown date unit: %s", name));
+    }
+    return unit;
+  }
+
+  private class PrecompiledUnitFunction extends BaseFunction {
+    private final DateUnit unit;
+
+    PrecompiledUnitFunction(DateUnit unit) {
+      super(DateTruncFunction.this.name(), DateTruncFunction.this.argumentConstraints());
+      this.unit = unit;
+    }
+
+    @Override
+    protected <T> T callFunction(Adapter<T> runtime, List<FunctionArgument<T>> arguments) {
+      return DateTruncFunction.this.callFunction(runtime, arguments, unit);
+    }
+  }
+}
@@ -0,0 +1,51 @@
+package io.burt.jmespath.contrib.function;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import io.burt.jmespath.Adapter;
+import io.burt.jmespath.Expression;
+import io.burt.jmespath.JmesPathType;
+import io.burt.jmespath.function.ArgumentConstraints;
+import io.burt.jmespath.function.BaseFunction;
+import io.burt.jmespath.function.FunctionArgument;
+
+/**
+ * Returns the elements of an array that have distinct values of an
+ * expression, keeping the first element for each value, in the order they
+ * occur.
+ * <p>
+ * The values are compared like <code>distinct</code> compares elements, and
+ * null is a value like any other, so only the first of the elements for
+ * which the expression evaluates to null is kept.
+ */
+public class DistinctByFunction extends BaseFunction {
+  public DistinctByFunction() {
+    super(ArgumentConstraints.listOf(
+      ArgumentConstraints.typeOf(JmesPathType.ARRAY),
+      ArgumentConstraints.expression()
+    ));
+  }
+
+  @Override
+  protected <T> T callFunction(Adapter<T> runtime, List<FunctionArgument<T>> arguments) {
+    T array = arguments.get(0).value();
+    List<T> elements = runtime.toList(array);
+    if (elements.size() < 2) {
+      return array;
+    }
+    Expression<T> keyExpression = arguments.get(1).expression();
+    StructuralHashSet<T> keys = new StructuralHashSet<>(runtime);
+    List<T> distinct = new ArrayList<>();
+    for (T element : elements) {
+      if (keys.add(keyExpression.search(element))) {
+        distinct.add(element);
+      }
+    }
+    if (distinct.size() == elements.size()) {
+      return array;
+    } else {
+      return runtime.createArray(distinct);
+    }
+  }
+}
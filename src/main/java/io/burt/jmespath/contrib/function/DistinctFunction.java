@@ -0,0 +1,41 @@
+package io.burt.jmespath.contrib.function;
+
+import java.util.List;
+
+import io.burt.jmespath.Adapter;
+import io.burt.jmespath.JmesPathType;
+import io.burt.jmespath.function.ArgumentConstraints;
+import io.burt.jmespath.function.BaseFunction;
+import io.burt.jmespath.function.FunctionArgument;
+
+/**
+ * Returns the distinct elements of an array, in the order they first occur.
+ * <p>
+ * Elements are distinct when they are not equal in the JMESPath sense, so
+ * for example <code>1</code> and <code>1.0</code> are the same element, and
+ * so are two objects with the same properties in different orders. The
+ * array is deduplicated in a single pass with a {@link StructuralHashSet}.
+ */
+public class DistinctFunction extends BaseFunction {
+  public DistinctFunction() {
+    super(ArgumentConstraints.listOf(ArgumentConstraints.typeOf(JmesPathType.ARRAY)));
+  }
+
+  @Override
+  protected <T> T callFunction(Adapter<T> runtime, List<FunctionArgument<T>> arguments) {
+    T array = arguments.get(0).value();
+    List<T> elements = runtime.toList(array);
+    if (elements.size() < 2) {
+      return array;
+    }
+    StructuralHashSet<T> distinct = new StructuralHashSet<>(runtime);
+    for (T element : elements) {
+      distinct.add(element);
+    }
+    if (distinct.size() == elements.size()) {
+      return array;
+    } else {
+      return runtime.createArray(distinct.values());
+    }
+  }
+}
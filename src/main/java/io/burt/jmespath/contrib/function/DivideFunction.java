@@ -1,6 +1,22 @@
 package io.burt.jmespath.contrib.function;
 
 public class DivideFunction extends MathBiFunction {
+    private static final ExactOperation EXACT_DIVIDE = new ExactOperation() {
+        @Override
+        public boolean canPerform(long x, long y) {
+            return ExactMath.dividesExactly(x, y);
+        }
+
+        @Override
+        public long perform(long x, long y) {
+            return x / y;
+        }
+    };
+
+    public DivideFunction() {
+        super(EXACT_DIVIDE);
+    }
+
     @Override
     protected double performMathOperation(double x, double y) {
         return x / y;
@@ -0,0 +1,66 @@
+package io.burt.jmespath.contrib.function;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+
+import io.burt.jmespath.contrib.util.IntegerLiterals;
+
+/**
+ * Checks for whether integer arithmetic can be performed exactly, so that
+ * the callers can switch to doubles before overflowing, without throwing
+ * and catching an exception, and helpers for telling integral numbers apart
+ * from the rest.
+ */
+final class ExactMath {
+  private ExactMath() { }
+
+  static boolean addOverflows(long x, long y) {
+    long r = x + y;
+    return ((x ^ r) & (y ^ r)) < 0;
+  }
+
+  static boolean subtractOverflows(long x, long y) {
+    long r = x - y;
+    return ((x ^ y) & (x ^ r)) < 0;
+  }
+
+  static boolean multiplyOverflows(long x, long y) {
+    long ax = Math.abs(x);
+    long ay = Math.abs(y);
+    if (((ax | ay) >>> 31) != 0) {
+      return (y != 0 && (x * y) / y != x) || (x == Long.MIN_VALUE && y == -1);
+    }
+    return false;
+  }
+
+  /**
+   * Returns whether the quotient is an integer that fits in a
+   * <code>long</code>, which it is not when dividing by zero.
+   */
+  static boolean dividesExactly(long x, long y) {
+    return y != 0 && x % y == 0 && !(x == Long.MIN_VALUE && y == -1);
+  }
+
+  /**
+   * Returns whether the number is an integer that can be represented exactly
+   * as a <code>long</code>.
+   * <p>
+   * Number types that are not part of the JDK, like the lazily parsed numbers
+   * of Gson, are integral when their string representation is an integer
+   * literal in the range of <code>long</code>.
+   */
+  static boolean isIntegral(Number n) {
+    if (n instanceof Integer || n instanceof Long || n instanceof Short || n instanceof Byte) {
+      return true;
+    } else if (n instanceof Double || n instanceof Float) {
+      return false;
+    } else if (n instanceof BigInteger) {
+      return ((BigInteger) n).bitLength() < 64;
+    } else if (n instanceof BigDecimal) {
+      BigDecimal d = (BigDecimal) n;
+      return d.scale() <= 0 && d.precision() - d.scale() <= 18;
+    } else {
+      return IntegerLiterals.isIntegerLiteral(n.toString());
+    }
+  }
+}
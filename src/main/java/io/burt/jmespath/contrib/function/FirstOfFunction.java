@@ -0,0 +1,32 @@
+package io.burt.jmespath.contrib.function;
+
+import java.util.List;
+
+import io.burt.jmespath.Adapter;
+import io.burt.jmespath.contrib.util.AhoCorasick;
+import io.burt.jmespath.function.FunctionArgument;
+
+/**
+ * Returns the needle of an array of needles that occurs first in a string,
+ * or null when none of them occur. When several needles occur at the same
+ * position the one that comes first in the array is returned.
+ */
+public class FirstOfFunction extends SubstringSetFunction {
+  public FirstOfFunction() {
+    this(NeedleSetCache.defaultCache());
+  }
+
+  public FirstOfFunction(NeedleSetCache needleSetCache) {
+    super(needleSetCache);
+  }
+
+  @Override
+  protected <T> T callFunction(Adapter<T> runtime, List<FunctionArgument<T>> arguments, AhoCorasick needles) {
+    AhoCorasick.Match match = needles.findFirst(getHaystack(runtime, arguments));
+    if (match == null) {
+      return runtime.createNull();
+    } else {
+      return runtime.createString(needles.needle(match.needle()));
+    }
+  }
+}
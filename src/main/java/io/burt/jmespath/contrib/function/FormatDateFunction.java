@@ -0,0 +1,44 @@
+package io.burt.jmespath.contrib.function;
+
+import java.util.List;
+
+import io.burt.jmespath.Adapter;
+import io.burt.jmespath.JmesPathType;
+import io.burt.jmespath.contrib.time.DateFormatter;
+import io.burt.jmespath.contrib.time.IsoDateTime;
+import io.burt.jmespath.function.ArgumentConstraints;
+import io.burt.jmespath.function.FunctionArgument;
+
+/**
+ * Formats a date time, either milliseconds since the epoch or an ISO-8601
+ * string, with an optional pattern and time zone, or returns null when the
+ * date time is a string that is not ISO-8601.
+ * <p>
+ * Without a pattern the date time is formatted as ISO-8601 in UTC, so
+ * <code>format_date(`0`)</code> is <code>"1970-01-01T00:00:00.000Z"</code>.
+ */
+public class FormatDateFunction extends DateFormatFunction {
+  public FormatDateFunction() {
+    this(DateFormatCache.defaultCache());
+  }
+
+  public FormatDateFunction(DateFormatCache formatCache) {
+    super(formatCache, new PartialListOf(1,
+      ArgumentConstraints.typeOf(JmesPathType.NUMBER, JmesPathType.STRING),
+      ArgumentConstraints.typeOf(JmesPathType.STRING),
+      ArgumentConstraints.typeOf(JmesPathType.STRING)
+    ));
+  }
+
+  @Override
+  protected <T> T callFunction(Adapter<T> runtime, List<FunctionArgument<T>> arguments, DateFormatter formatter) {
+    long millis = toEpochMillis(runtime, arguments.get(0).value());
+    if (millis == IsoDateTime.INVALID) {
+      return runtime.createNull();
+    } else if (formatter == null) {
+      return runtime.createString(IsoDateTime.format(millis));
+    } else {
+      return runtime.createString(formatter.format(millis));
+    }
+  }
+}
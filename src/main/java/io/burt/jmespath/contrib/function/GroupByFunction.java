@@ -0,0 +1,21 @@
+package io.burt.jmespath.contrib.function;
+
+import io.burt.jmespath.Adapter;
+
+/**
+ * Groups the elements of an array by the value of an expression, and
+ * returns an object with an array of the elements of each group, in the
+ * order they occur in the array.
+ * <p>
+ * See {@link GroupingFunction} for how the keys become property names.
+ */
+public class GroupByFunction extends GroupingFunction {
+  public GroupByFunction() {
+    super(true);
+  }
+
+  @Override
+  protected <T> T result(Adapter<T> runtime, Group<T> group) {
+    return runtime.createArray(group.elements());
+  }
+}
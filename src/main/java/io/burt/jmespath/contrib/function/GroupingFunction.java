@@ -0,0 +1,176 @@
+package io.burt.jmespath.contrib.function;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import io.burt.jmespath.Adapter;
+import io.burt.jmespath.Expression;
+import io.burt.jmespath.JmesPathType;
+import io.burt.jmespath.function.ArgumentConstraints;
+import io.burt.jmespath.function.BaseFunction;
+import io.burt.jmespath.function.FunctionArgument;
+
+/**
+ * Base class for the functions that group the elements of an array by the
+ * value of an expression, and return an object with one property per
+ * group.
+ * <p>
+ * The elements are grouped in a single pass, with a hash map, instead of by
+ * sorting them. String keys, which are by far the most common, are looked
+ * up directly, and other keys are compared with
+ * {@link StructuralEquivalence}, so that for example <code>1</code> and
+ * <code>1.0</code> end up in the same group.
+ * <p>
+ * The property names are the keys for string keys, and the JSON
+ * representation of the key for other values. When keys that are not
+ * equivalent have the same representation, like <code>1</code> and
+ * <code>'1'</code>, their elements end up in the same group. Elements for
+ * which the expression evaluates to null are left out. The properties are
+ * in the order their keys first occur in the array.
+ */
+public abstract class GroupingFunction extends BaseFunction {
+  private final boolean collectsElements;
+
+  /**
+   * @param collectsElements whether the groups passed to {@link #result}
+   *   should contain all of their elements, or only the last
+   */
+  protected GroupingFunction(boolean collectsElements) {
+    super(ArgumentConstraints.listOf(
+      ArgumentConstraints.typeOf(JmesPathType.ARRAY),
+      ArgumentConstraints.expression()
+    ));
+    this.collectsElements = collectsElements;
+  }
+
+  @Override
+  protected <T> T callFunction(Adapter<T> runtime, List<FunctionArgument<T>> arguments) {
+    List<T> elements = runtime.toList(arguments.get(0).value());
+    Expression<T> keyExpression = arguments.get(1).expression();
+    Map<String, Group<T>> groups = new LinkedHashMap<>();
+    Map<ValueKey<T>, Group<T>> groupsByValue = null;
+    for (T element : elements) {
+      T key = keyExpression.search(element);
+      JmesPathType keyType = runtime.typeOf(key);
+      Group<T> group;
+      if (keyType == JmesPathType.STRING) {
+        String name = runtime.toString(key);
+        group = groups.get(name);
+        if (group == null) {
+          group = new Group<>(runtime.createString(name), collectsElements);
+          groups.put(name, group);
+        }
+      } else if (keyType != JmesPathType.NULL) {
+        if (groupsByValue == null) {
+          groupsByValue = new HashMap<>();
+        }
+        ValueKey<T> valueKey = new ValueKey<>(runtime, key);
+        group = groupsByValue.get(valueKey);
+        if (group == null) {
+          String name = runtime.toString(key);
+          group = groups.get(name);
+          if (group == null) {
+            group = new Group<>(runtime.createString(name), collectsElements);
+            groups.put(name, group);
+          }
+          groupsByValue.put(valueKey, group);
+        }
+      } else {
+        continue;
+      }
+      group.add(element);
+    }
+    Map<T, T> result = new LinkedHashMap<>();
+    for (Group<T> group : groups.values()) {
+      result.put(group.name(), result(runtime, group));
+    }
+    return runtime.createObject(result);
+  }
+
+  /**
+   * Returns the value of the property of a group.
+   */
+  protected abstract <T> T result(Adapter<T> runtime, Group<T> group);
+
+  /**
+   * The elements that have the same key.
+   */
+  protected static final class Group<T> {
+    private final T name;
+    private final List<T> elements;
+    private T last;
+    private int size;
+
+    Group(T name, boolean collectsElements) {
+      this.name = name;
+      this.elements = collectsElements ? new ArrayList<T>() : null;
+    }
+
+    void add(T element) {
+      if (elements != null) {
+        elements.add(element);
+      }
+      last = element;
+      size++;
+    }
+
+    /**
+     * The name of the property of the group, as a string value.
+     */
+    public T name() {
+      return name;
+    }
+
+    /**
+     * The elements of the group, in the order they occur in the array, or
+     * null when the function does not collect them.
+     */
+    public List<T> elements() {
+      return elements;
+    }
+
+    /**
+     * The last element of the group.
+     */
+    public T last() {
+      return last;
+    }
+
+    public int size() {
+      return size;
+    }
+  }
+
+  private static final class ValueKey<T> {
+    private final Adapter<T> runtime;
+    private final T value;
+    private final int hash;
+
+    ValueKey(Adapter<T> runtime, T value) {
+      this.runtime = runtime;
+      this.value = value;
+      this.hash = StructuralEquivalence.hash(runtime, value);
+    }
+
+    @Override
+    public int hashCode() {
+      return hash;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public boolean equals(Object other) {
+      if (other == this) {
+        return true;
+      } else if (!(other instanceof ValueKey)) {
+        return false;
+      } else {
+        ValueKey<T> otherKey = (ValueKey<T>) other;
+        return hash == otherKey.hash && StructuralEquivalence.equivalent(runtime, value, otherKey.value);
+      }
+    }
+  }
+}
@@ -0,0 +1,66 @@
+package io.burt.jmespath.contrib.function;
+
+import java.util.List;
+
+import io.burt.jmespath.Adapter;
+import io.burt.jmespath.JmesPathType;
+import io.burt.jmespath.contrib.Deadline;
+import io.burt.jmespath.contrib.hash.StreamingHash;
+import io.burt.jmespath.function.ArgumentConstraints;
+import io.burt.jmespath.function.BaseFunction;
+import io.burt.jmespath.function.FunctionArgument;
+
+/**
+ * Base class for the hash functions, which hash one or more values.
+ * <p>
+ * The values are hashed like <code>concat</code> joins them: strings as
+ * they are, other values as JSON, and nulls are skipped, so
+ * <code>sha256(a, '|', b)</code> is the same as
+ * <code>sha256(concat(a, '|', b))</code>, but the UTF-8 bytes of the values
+ * are fed to the hash one after the other, without building the
+ * concatenated string.
+ * <p>
+ * Each thread has its own instance of the hash function, which is reused
+ * for every call.
+ */
+public abstract class HashFunction<H extends StreamingHash> extends BaseFunction {
+  private final ThreadLocal<H> hashes = new ThreadLocal<H>() {
+    @Override
+    protected H initialValue() {
+      return createHash();
+    }
+  };
+
+  public HashFunction() {
+    super(ArgumentConstraints.listOf(1, ArgumentConstraints.anyValue()));
+  }
+
+  public HashFunction(String name) {
+    super(name, ArgumentConstraints.listOf(1, ArgumentConstraints.anyValue()));
+  }
+
+  @Override
+  protected <T> T callFunction(Adapter<T> runtime, List<FunctionArgument<T>> arguments) {
+    Deadline deadline = Deadline.current();
+    H hash = hashes.get();
+    hash.reset();
+    for (FunctionArgument<T> argument : arguments) {
+      T value = argument.value();
+      if (runtime.typeOf(value) != JmesPathType.NULL) {
+        String string = runtime.toString(value);
+        if (deadline != null) {
+          deadline.check(string.length() + 1);
+        }
+        hash.update(string);
+      }
+    }
+    return result(runtime, hash);
+  }
+
+  protected abstract H createHash();
+
+  /**
+   * Returns the digest of the hash, which also resets it.
+   */
+  protected abstract <T> T result(Adapter<T> runtime, H hash);
+}
@@ -0,0 +1,21 @@
+package io.burt.jmespath.contrib.function;
+
+import io.burt.jmespath.Adapter;
+
+/**
+ * Indexes the elements of an array by the value of an expression, and
+ * returns an object with the element for each key. When several elements
+ * have the same key the last of them is used.
+ * <p>
+ * See {@link GroupingFunction} for how the keys become property names.
+ */
+public class IndexByFunction extends GroupingFunction {
+  public IndexByFunction() {
+    super(false);
+  }
+
+  @Override
+  protected <T> T result(Adapter<T> runtime, Group<T> group) {
+    return group.last();
+  }
+}
@@ -1,22 +1,24 @@
 package io.burt.jmespath.contrib.function;
 
-import java.util.List;
+import java.util.Locale;
 
-import io.burt.jmespath.Adapter;
-import io.burt.jmespath.JmesPathType;
-import io.burt.jmespath.function.ArgumentConstraints;
-import io.burt.jmespath.function.BaseFunction;
-import io.burt.jmespath.function.FunctionArgument;
-
-public class LowerCaseFunction extends BaseFunction {
+public class LowerCaseFunction extends CaseConversionFunction {
+  private static final char[] ASCII_TABLE = asciiTable('A', 'a');
 
   public LowerCaseFunction() {
-    super(ArgumentConstraints.typeOf(JmesPathType.STRING));
+    this(null);
+  }
+
+  /**
+   * Creates a function that converts strings according to the rules of the
+   * specified locale, instead of those of the default locale.
+   */
+  public LowerCaseFunction(Locale locale) {
+    super(locale, ASCII_TABLE);
   }
 
   @Override
-  protected <T> T callFunction(Adapter<T> runtime, List<FunctionArgument<T>> arguments) {
-    T arg = arguments.get(0).value();
-    return runtime.createString(runtime.toString(arg).toLowerCase());
+  protected String convertWithLocale(String str, Locale locale) {
+    return str.toLowerCase(locale);
   }
 }
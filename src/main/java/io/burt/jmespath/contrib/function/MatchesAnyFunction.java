@@ -0,0 +1,28 @@
+package io.burt.jmespath.contrib.function;
+
+import java.util.List;
+
+import io.burt.jmespath.Adapter;
+import io.burt.jmespath.contrib.Deadline;
+import io.burt.jmespath.contrib.regex.RegexSet;
+import io.burt.jmespath.function.FunctionArgument;
+
+/**
+ * Returns true when any of an array of regular expressions matches some
+ * part of a string, like an <code>||</code> of calls to <code>matches</code>,
+ * but scans the string only once.
+ */
+public class MatchesAnyFunction extends RegularExpressionSetFunction {
+  public MatchesAnyFunction() {
+    this(PatternCache.defaultCache());
+  }
+
+  public MatchesAnyFunction(PatternCache patternCache) {
+    super(patternCache);
+  }
+
+  @Override
+  protected <T> T callFunction(Adapter<T> runtime, List<FunctionArgument<T>> arguments, RegexSet patterns) {
+    return runtime.createBoolean(patterns.findAny(Deadline.interruptible(runtime.toString(arguments.get(0).value()))));
+  }
+}
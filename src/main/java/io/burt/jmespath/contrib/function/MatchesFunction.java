@@ -1,20 +1,25 @@
 package io.burt.jmespath.contrib.function;
 
 import java.util.List;
-
 import io.burt.jmespath.Adapter;
 import io.burt.jmespath.JmesPathType;
+import io.burt.jmespath.contrib.Deadline;
+import io.burt.jmespath.contrib.regex.CompiledRegex;
 import io.burt.jmespath.function.ArgumentConstraints;
 import io.burt.jmespath.function.FunctionArgument;
 
 public class MatchesFunction extends RegularExpressionFunction {
 
   public MatchesFunction() {
-    super(ArgumentConstraints.listOf(2, 3, ArgumentConstraints.typeOf(JmesPathType.STRING)));
+    this(PatternCache.defaultCache());
+  }
+
+  public MatchesFunction(PatternCache patternCache) {
+    super(patternCache, ArgumentConstraints.listOf(2, 3, ArgumentConstraints.typeOf(JmesPathType.STRING)));
   }
 
   @Override
-  protected <T> T callFunction(Adapter<T> runtime, List<FunctionArgument<T>> arguments) {
-    return runtime.createBoolean(getPattern(runtime, arguments).matcher(getInputString(runtime, arguments)).find());
+  protected <T> T callFunction(Adapter<T> runtime, List<FunctionArgument<T>> arguments, CompiledRegex pattern) {
+    return runtime.createBoolean(pattern.find(Deadline.interruptible(getInputString(runtime, arguments))));
   }
 }
@@ -4,6 +4,7 @@ import java.util.List;
 
 import io.burt.jmespath.Adapter;
 import io.burt.jmespath.JmesPathType;
+import io.burt.jmespath.function.ArgumentConstraint;
 import io.burt.jmespath.function.ArgumentConstraints;
 import io.burt.jmespath.function.BaseFunction;
 import io.burt.jmespath.function.FunctionArgument;
@@ -11,28 +12,114 @@ import io.burt.jmespath.function.FunctionArgument;
 /**
  * Helper base class for binary functions that perform operations on a two numerical
  * arguments, like calculating addition, division, multiplication, etc.
+ * <p>
+ * When both arguments are integers and the subclass has an
+ * {@link ExactOperation}, the operation is first tried with exact
+ * <code>long</code> arithmetic, and the result is an integer too. When that
+ * is not possible, because the result overflows or is not an integer, the
+ * operation is performed on doubles instead.
+ * <p>
+ * Subclasses can accept more than two arguments, in which case the operation
+ * is applied from left to right, as if the calls had been nested, but without
+ * creating the intermediate results.
  */
 public abstract class MathBiFunction extends BaseFunction {
+  private final ExactOperation exactOperation;
+
   public MathBiFunction() {
-    super(
+    this((ExactOperation) null);
+  }
+
+  /**
+   * @param exactOperation the operation on integers, or null when the
+   *   operation is always performed on doubles
+   */
+  protected MathBiFunction(ExactOperation exactOperation) {
+    this(ArgumentConstraints.listOf(
         ArgumentConstraints.typeOf(JmesPathType.NUMBER),
         ArgumentConstraints.typeOf(JmesPathType.NUMBER)
-    );
+    ), exactOperation);
+  }
+
+  protected MathBiFunction(ArgumentConstraint argumentConstraints) {
+    this(argumentConstraints, null);
+  }
+
+  /**
+   * @param exactOperation the operation on integers, or null when the
+   *   operation is always performed on doubles
+   */
+  protected MathBiFunction(ArgumentConstraint argumentConstraints, ExactOperation exactOperation) {
+    super(argumentConstraints);
+    this.exactOperation = exactOperation;
   }
 
   @Override
   protected <T> T callFunction(Adapter<T> runtime, List<FunctionArgument<T>> arguments) {
-    T valueX = arguments.get(0).value();
-    T valueY = arguments.get(1).value();
-    double x = runtime.toNumber(valueX).doubleValue();
-    double y = runtime.toNumber(valueY).doubleValue();
-    double result = performMathOperation(x, y);
-    if (!Double.isInfinite(result)) {
-      return runtime.createNumber(result);
-    } else {
-      return runtime.createNull();
+    Fold fold = new Fold();
+    for (FunctionArgument<T> argument : arguments) {
+      fold.accumulate(runtime, argument.value());
     }
+    return fold.result(runtime);
   }
 
   protected abstract double performMathOperation(double x, double y);
+
+  /**
+   * The operation on two integers, for when it gives an integer that fits in
+   * a <code>long</code>.
+   */
+  protected interface ExactOperation {
+    /**
+     * Returns whether the operation on the integers gives an integer that
+     * fits in a <code>long</code>.
+     */
+    boolean canPerform(long x, long y);
+
+    /**
+     * Performs the operation on the integers. Only called when
+     * {@link #canPerform} has returned true for the same integers.
+     */
+    long perform(long x, long y);
+  }
+
+  private class Fold extends NumberAccumulator {
+    private boolean first = true;
+    private boolean exact;
+    private long longResult;
+    private double doubleResult;
+
+    @Override
+    void accumulate(long value) {
+      if (first) {
+        first = false;
+        exact = true;
+        longResult = value;
+      } else if (exact && exactOperation != null && exactOperation.canPerform(longResult, value)) {
+        longResult = exactOperation.perform(longResult, value);
+      } else if (exact) {
+        exact = false;
+        doubleResult = performMathOperation((double) longResult, (double) value);
+      } else {
+        doubleResult = performMathOperation(doubleResult, (double) value);
+      }
+    }
+
+    @Override
+    void accumulate(double value) {
+      if (first) {
+        first = false;
+        doubleResult = value;
+      } else if (exact) {
+        exact = false;
+        doubleResult = performMathOperation((double) longResult, value);
+      } else {
+        doubleResult = performMathOperation(doubleResult, value);
+      }
+    }
+
+    <T> T result(Adapter<T> runtime) {
+      return exact ? runtime.createNumber(longResult) : createNumber(runtime, doubleResult);
+    }
+  }
 }
@@ -0,0 +1,20 @@
+package io.burt.jmespath.contrib.function;
+
+import io.burt.jmespath.Adapter;
+import io.burt.jmespath.contrib.hash.MessageDigestHash;
+
+/**
+ * Returns an MD5 digest of one or more values, as a string of lower case
+ * hexadecimal digits, see {@link HashFunction}.
+ */
+public class Md5Function extends HashFunction<MessageDigestHash> {
+  @Override
+  protected MessageDigestHash createHash() {
+    return new MessageDigestHash("MD5");
+  }
+
+  @Override
+  protected <T> T result(Adapter<T> runtime, MessageDigestHash hash) {
+    return runtime.createString(hash.hexDigest());
+  }
+}
@@ -0,0 +1,32 @@
+package io.burt.jmespath.contrib.function;
+
+import java.util.List;
+
+import io.burt.jmespath.Adapter;
+import io.burt.jmespath.JmesPathType;
+import io.burt.jmespath.function.ArgumentConstraints;
+import io.burt.jmespath.function.ArrayMathFunction;
+
+/**
+ * Calculates the arithmetic mean of an array of numbers in a single pass,
+ * summing them like {@link SumOfFunction}.
+ * <p>
+ * The mean of an empty array is null.
+ */
+public class MeanFunction extends ArrayMathFunction {
+  public MeanFunction() {
+    super(ArgumentConstraints.typeOf(JmesPathType.NUMBER));
+  }
+
+  @Override
+  protected <T> T performMathOperation(Adapter<T> runtime, List<T> values) {
+    if (values.isEmpty()) {
+      return runtime.createNull();
+    }
+    NumberAccumulator.Sum sum = new NumberAccumulator.Sum();
+    for (T value : values) {
+      sum.accumulate(runtime, value);
+    }
+    return NumberAccumulator.createNumber(runtime, sum.doubleValue() / sum.count());
+  }
+}
@@ -0,0 +1,41 @@
+package io.burt.jmespath.contrib.function;
+
+import java.util.List;
+
+import io.burt.jmespath.Adapter;
+import io.burt.jmespath.JmesPathType;
+import io.burt.jmespath.contrib.sketch.Sketch;
+import io.burt.jmespath.function.ArgumentConstraints;
+import io.burt.jmespath.function.BaseFunction;
+import io.burt.jmespath.function.FunctionArgument;
+
+/**
+ * Merges an array of serialized sketches of the same kind, as returned by
+ * the approximate aggregations, into one serialized sketch. Null elements
+ * are skipped, and the result for an array without sketches is null.
+ * <p>
+ * Throws {@link io.burt.jmespath.contrib.sketch.InvalidSketchException} when
+ * a string is not a sketch, or when the sketches can not be merged.
+ */
+public class MergeSketchesFunction extends BaseFunction {
+  public MergeSketchesFunction() {
+    super(ArgumentConstraints.arrayOf(ArgumentConstraints.typeOf(JmesPathType.STRING, JmesPathType.NULL)));
+  }
+
+  @Override
+  protected <T> T callFunction(Adapter<T> runtime, List<FunctionArgument<T>> arguments) {
+    Sketch merged = null;
+    for (T serialized : runtime.toList(arguments.get(0).value())) {
+      if (runtime.typeOf(serialized) == JmesPathType.NULL) {
+        continue;
+      }
+      Sketch sketch = Sketch.deserialize(runtime.toString(serialized));
+      if (merged == null) {
+        merged = sketch;
+      } else {
+        merged.merge(sketch);
+      }
+    }
+    return merged == null ? runtime.createNull() : runtime.createString(merged.serialize());
+  }
+}
@@ -0,0 +1,88 @@
+package io.burt.jmespath.contrib.function;
+
+import java.util.Arrays;
+import java.util.List;
+
+import io.burt.jmespath.Adapter;
+import io.burt.jmespath.JmesPathType;
+import io.burt.jmespath.function.ArgumentConstraints;
+import io.burt.jmespath.function.ArrayMathFunction;
+
+/**
+ * Finds both the smallest and the largest number of an array in a single
+ * pass, and returns them as a two element array. Integers are compared
+ * exactly, even when they are too large to be represented as doubles.
+ * <p>
+ * When there are several equal smallest or largest numbers the first of them
+ * is returned. The result for an empty array is null.
+ */
+public class MinMaxFunction extends ArrayMathFunction {
+  public MinMaxFunction() {
+    super(ArgumentConstraints.typeOf(JmesPathType.NUMBER));
+  }
+
+  @Override
+  protected <T> T performMathOperation(Adapter<T> runtime, List<T> values) {
+    if (values.isEmpty()) {
+      return runtime.createNull();
+    }
+    MinMax minMax = new MinMax();
+    for (T value : values) {
+      minMax.accumulate(runtime, value);
+    }
+    return runtime.createArray(Arrays.asList(values.get(minMax.min.index), values.get(minMax.max.index)));
+  }
+
+  private static class MinMax extends NumberAccumulator {
+    private final Extreme min = new Extreme(-1);
+    private final Extreme max = new Extreme(1);
+    private int index;
+
+    @Override
+    void accumulate(long value) {
+      min.offer(index, value);
+      max.offer(index, value);
+      index++;
+    }
+
+    @Override
+    void accumulate(double value) {
+      min.offer(index, value);
+      max.offer(index, value);
+      index++;
+    }
+  }
+
+  /**
+   * The smallest or the largest number seen so far, depending on the sign,
+   * and its index in the array.
+   */
+  private static class Extreme {
+    private final int sign;
+    private int index = -1;
+    private boolean integral;
+    private long longValue;
+    private double doubleValue;
+
+    Extreme(int sign) {
+      this.sign = sign;
+    }
+
+    void offer(int i, long value) {
+      if (index < 0 || sign * (integral ? Long.compare(value, longValue) : Double.compare(value, doubleValue)) > 0) {
+        index = i;
+        integral = true;
+        longValue = value;
+        doubleValue = value;
+      }
+    }
+
+    void offer(int i, double value) {
+      if (index < 0 || sign * Double.compare(value, doubleValue) > 0) {
+        index = i;
+        integral = false;
+        doubleValue = value;
+      }
+    }
+  }
+}
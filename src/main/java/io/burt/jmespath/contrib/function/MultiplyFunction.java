@@ -1,6 +1,25 @@
 package io.burt.jmespath.contrib.function;
 
+import io.burt.jmespath.JmesPathType;
+import io.burt.jmespath.function.ArgumentConstraints;
+
 public class MultiplyFunction extends MathBiFunction {
+    private static final ExactOperation EXACT_MULTIPLY = new ExactOperation() {
+        @Override
+        public boolean canPerform(long x, long y) {
+            return !ExactMath.multiplyOverflows(x, y);
+        }
+
+        @Override
+        public long perform(long x, long y) {
+            return x * y;
+        }
+    };
+
+    public MultiplyFunction() {
+        super(ArgumentConstraints.listOf(2, ArgumentConstraints.typeOf(JmesPathType.NUMBER)), EXACT_MULTIPLY);
+    }
+
     @Override
     protected double performMathOperation(double x, double y) {
         return x * y;
@@ -0,0 +1,25 @@
+package io.burt.jmespath.contrib.function;
+
+import io.burt.jmespath.Adapter;
+import io.burt.jmespath.contrib.hash.Murmur3x128;
+
+/**
+ * Returns the 128 bit MurmurHash3 of one or more values, as a string of 32
+ * lower case hexadecimal digits, see {@link HashFunction} and
+ * {@link Murmur3x128}.
+ */
+public class Murmur3x128Function extends HashFunction<Murmur3x128> {
+  public Murmur3x128Function() {
+    super("murmur3_128");
+  }
+
+  @Override
+  protected Murmur3x128 createHash() {
+    return new Murmur3x128();
+  }
+
+  @Override
+  protected <T> T result(Adapter<T> runtime, Murmur3x128 hash) {
+    return runtime.createString(hash.hexDigest());
+  }
+}
@@ -0,0 +1,74 @@
+package io.burt.jmespath.contrib.function;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import io.burt.jmespath.contrib.util.AhoCorasick;
+import io.burt.jmespath.contrib.util.LruCache;
+
+/**
+ * A size bounded cache of {@link AhoCorasick} automata, keyed by the needles
+ * they search for.
+ * <p>
+ * Empty needles are left out of the automata, since the substring set
+ * functions, like {@link SubstringBeforeFunction}, treat an empty needle as
+ * one that never occurs.
+ * <p>
+ * The cache is thread safe and can be shared between functions, by default
+ * all substring set functions share the cache returned by
+ * {@link #defaultCache()}.
+ */
+public class NeedleSetCache {
+  public static final int DEFAULT_MAXIMUM_SIZE = 128;
+
+  private static final NeedleSetCache defaultCache = new NeedleSetCache(DEFAULT_MAXIMUM_SIZE);
+
+  private final LruCache<List<String>, AhoCorasick> cache;
+
+  public static NeedleSetCache defaultCache() {
+    return defaultCache;
+  }
+
+  public NeedleSetCache(int maximumSize) {
+    this.cache = new LruCache<>(maximumSize);
+  }
+
+  /**
+   * Returns the automaton for the needles, building it if it is not already
+   * cached.
+   */
+  public AhoCorasick get(List<String> needles) {
+    AhoCorasick automaton = cache.get(needles);
+    if (automaton == null) {
+      List<String> nonEmptyNeedles = new ArrayList<>(needles.size());
+      for (String needle : needles) {
+        if (!needle.isEmpty()) {
+          nonEmptyNeedles.add(needle);
+        }
+      }
+      automaton = new AhoCorasick(nonEmptyNeedles);
+      cache.put(new ArrayList<>(needles), automaton);
+    }
+    return automaton;
+  }
+
+  public int size() {
+    return cache.size();
+  }
+
+  public int maximumSize() {
+    return cache.maximumSize();
+  }
+
+  public long hitCount() {
+    return cache.hitCount();
+  }
+
+  public long missCount() {
+    return cache.missCount();
+  }
+
+  public long evictionCount() {
+    return cache.evictionCount();
+  }
+}
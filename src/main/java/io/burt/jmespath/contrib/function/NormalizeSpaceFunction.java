@@ -21,6 +21,66 @@ public class NormalizeSpaceFunction extends BaseFunction {
   @Override
   protected <T> T callFunction(Adapter<T> runtime, List<FunctionArgument<T>> arguments) {
     T arg = arguments.get(0).value();
-    return runtime.createString(runtime.toString(arg).replaceAll("\\s+", " ").trim());
+    String str = runtime.toString(arg);
+    String normalized = normalizeSpace(str);
+    if (normalized == str) {
+      return arg;
+    } else {
+      return runtime.createString(normalized);
+    }
+  }
+
+  /**
+   * Collapses each run of whitespace into a single space and removes leading
+   * and trailing whitespace and control characters, with the same result as
+   * {@code str.replaceAll("\\s+", " ").trim()}, but in a single pass.
+   * <p>
+   * Returns the same string instance when it is already normalized.
+   */
+  static String normalizeSpace(String str) {
+    int start = 0;
+    int end = str.length();
+    while (start < end && str.charAt(start) <= ' ') {
+      start++;
+    }
+    while (end > start && str.charAt(end - 1) <= ' ') {
+      end--;
+    }
+    char[] output = null;
+    int n = 0;
+    for (int i = start; i < end; i++) {
+      char c = str.charAt(i);
+      if (isWhitespace(c)) {
+        int runEnd = i + 1;
+        while (isWhitespace(str.charAt(runEnd))) {
+          runEnd++;
+        }
+        if (output == null && (c != ' ' || runEnd > i + 1)) {
+          output = new char[end - start];
+          str.getChars(start, i, output, 0);
+          n = i - start;
+        }
+        if (output != null) {
+          output[n++] = ' ';
+        }
+        i = runEnd - 1;
+      } else if (output != null) {
+        output[n++] = c;
+      }
+    }
+    if (output != null) {
+      return new String(output, 0, n);
+    } else if (start > 0 || end < str.length()) {
+      return str.substring(start, end);
+    } else {
+      return str;
+    }
+  }
+
+  /**
+   * The characters matched by {@code \s} in a Java regular expression.
+   */
+  private static boolean isWhitespace(char c) {
+    return c == ' ' || (c >= '\t' && c <= '\r');
   }
 }
@@ -0,0 +1,118 @@
+package io.burt.jmespath.contrib.function;
+
+import io.burt.jmespath.Adapter;
+
+/**
+ * Base class for the single pass aggregations of the math functions, which
+ * are handed each number as a primitive <code>long</code> when it is an
+ * integer, and as a <code>double</code> otherwise.
+ */
+abstract class NumberAccumulator {
+  abstract void accumulate(long value);
+
+  abstract void accumulate(double value);
+
+  /**
+   * Reads a number from the runtime, without boxing it when the runtime is a
+   * {@link PrimitiveNumberAdapter}, and accumulates it.
+   */
+  <T> void accumulate(Adapter<T> runtime, T value) {
+    if (runtime instanceof PrimitiveNumberAdapter) {
+      PrimitiveNumberAdapter<T> primitiveRuntime = (PrimitiveNumberAdapter<T>) runtime;
+      if (primitiveRuntime.isIntegralNumber(value)) {
+        accumulate(primitiveRuntime.toLong(value));
+      } else {
+        accumulate(primitiveRuntime.toDouble(value));
+      }
+    } else {
+      Number number = runtime.toNumber(value);
+      if (ExactMath.isIntegral(number)) {
+        accumulate(number.longValue());
+      } else {
+        accumulate(number.doubleValue());
+      }
+    }
+  }
+
+  /**
+   * Creates a number, or null when the number is infinite.
+   */
+  static <T> T createNumber(Adapter<T> runtime, double value) {
+    if (!Double.isInfinite(value)) {
+      return runtime.createNumber(value);
+    } else {
+      return runtime.createNull();
+    }
+  }
+
+  /**
+   * A sum that is exact for as long as all numbers are integers and the sum
+   * fits in a <code>long</code>, and that after that uses compensated
+   * (Kahan-Babuška) summation of doubles.
+   */
+  static class Sum extends NumberAccumulator {
+    private boolean exact = true;
+    private long longSum;
+    private double sum;
+    private double compensation;
+    private long count;
+
+    @Override
+    void accumulate(long value) {
+      count++;
+      if (exact) {
+        if (!ExactMath.addOverflows(longSum, value)) {
+          longSum += value;
+          return;
+        }
+        switchToDoubles();
+      }
+      add((double) value);
+    }
+
+    @Override
+    void accumulate(double value) {
+      count++;
+      if (exact) {
+        switchToDoubles();
+      }
+      add(value);
+    }
+
+    private void switchToDoubles() {
+      exact = false;
+      sum = (double) longSum;
+      compensation = (double) (longSum - (long) sum);
+    }
+
+    private void add(double value) {
+      double t = sum + value;
+      if (Math.abs(sum) >= Math.abs(value)) {
+        compensation += (sum - t) + value;
+      } else {
+        compensation += (value - t) + sum;
+      }
+      sum = t;
+    }
+
+    boolean isExact() {
+      return exact;
+    }
+
+    long longValue() {
+      return longSum;
+    }
+
+    double doubleValue() {
+      return exact ? (double) longSum : sum + compensation;
+    }
+
+    long count() {
+      return count;
+    }
+
+    <T> T result(Adapter<T> runtime) {
+      return exact ? runtime.createNumber(longSum) : createNumber(runtime, doubleValue());
+    }
+  }
+}
@@ -0,0 +1,35 @@
+package io.burt.jmespath.contrib.function;
+
+import java.util.List;
+
+import io.burt.jmespath.Adapter;
+import io.burt.jmespath.JmesPathType;
+import io.burt.jmespath.contrib.time.DateFormatter;
+import io.burt.jmespath.contrib.time.IsoDateTime;
+import io.burt.jmespath.function.ArgumentConstraints;
+import io.burt.jmespath.function.FunctionArgument;
+
+/**
+ * Parses a date time string, with an optional pattern and time zone, and
+ * returns it as an ISO-8601 string in UTC, or null when it can't be parsed.
+ * <p>
+ * Without a pattern any ISO-8601 date time is accepted, so
+ * <code>parse_date('2019-06-03T12:34:56+02:00')</code> is
+ * <code>"2019-06-03T10:34:56.000Z"</code>. The time zone is used for date
+ * times that the pattern does not give an offset for.
+ */
+public class ParseDateFunction extends DateFormatFunction {
+  public ParseDateFunction() {
+    this(DateFormatCache.defaultCache());
+  }
+
+  public ParseDateFunction(DateFormatCache formatCache) {
+    super(formatCache, ArgumentConstraints.listOf(1, 3, ArgumentConstraints.typeOf(JmesPathType.STRING)));
+  }
+
+  @Override
+  protected <T> T callFunction(Adapter<T> runtime, List<FunctionArgument<T>> arguments, DateFormatter formatter) {
+    String input = runtime.toString(arguments.get(0).value());
+    return createDate(runtime, formatter == null ? IsoDateTime.parse(input) : formatter.parse(input));
+  }
+}
@@ -0,0 +1,60 @@
+package io.burt.jmespath.contrib.function;
+
+import java.util.Collections;
+import java.util.Iterator;
+
+import io.burt.jmespath.Adapter;
+import io.burt.jmespath.function.ArgumentConstraint;
+import io.burt.jmespath.function.ArgumentError;
+import io.burt.jmespath.function.FunctionArgument;
+
+/**
+ * Describes a list of arguments where each position has its own constraint,
+ * like a heterogeneous list, but where the trailing arguments are optional.
+ * <p>
+ * Each sub constraint is expected to check exactly one argument.
+ */
+class PartialListOf implements ArgumentConstraint {
+  private final int minArity;
+  private final ArgumentConstraint[] subConstraints;
+
+  PartialListOf(int minArity, ArgumentConstraint... subConstraints) {
+    this.minArity = minArity;
+    this.subConstraints = subConstraints;
+  }
+
+  @Override
+  public <T> Iterator<ArgumentError> check(Adapter<T> runtime, Iterator<FunctionArgument<T>> arguments, boolean expectNoRemainingArguments) {
+    int i = 0;
+    for (; i < subConstraints.length && arguments.hasNext(); i++) {
+      Iterator<ArgumentError> errors = subConstraints[i].check(runtime, arguments, false);
+      if (errors.hasNext()) {
+        return errors;
+      }
+    }
+    if (i < minArity || (expectNoRemainingArguments && arguments.hasNext())) {
+      return Collections.singleton(ArgumentError.createArityError()).iterator();
+    }
+    return Collections.<ArgumentError>emptyList().iterator();
+  }
+
+  @Override
+  public int minArity() {
+    return minArity;
+  }
+
+  @Override
+  public int maxArity() {
+    return subConstraints.length;
+  }
+
+  @Override
+  public boolean arityViolated(int n) {
+    return n < minArity() || maxArity() < n;
+  }
+
+  @Override
+  public String expectedType() {
+    return null;
+  }
+}
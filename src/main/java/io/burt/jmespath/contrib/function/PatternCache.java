@@ -0,0 +1,198 @@
+package io.burt.jmespath.contrib.function;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.PatternSyntaxException;
+
+import io.burt.jmespath.contrib.regex.CompiledRegex;
+import io.burt.jmespath.contrib.regex.JavaRegexEngine;
+import io.burt.jmespath.contrib.regex.RegexEngine;
+import io.burt.jmespath.contrib.regex.RegexSet;
+import io.burt.jmespath.contrib.util.LruCache;
+
+/**
+ * A size bounded cache of compiled regular expressions, keyed by the pattern
+ * string and its flags.
+ * <p>
+ * Besides the compiled pattern the cache remembers whether the pattern matches
+ * the empty string, which is not allowed in the regular expression functions,
+ * so that neither the compilation nor that check has to be repeated.
+ * <p>
+ * The patterns are compiled by a {@link RegexEngine}, by default a
+ * {@link JavaRegexEngine}. A cache created with a
+ * {@link io.burt.jmespath.contrib.regex.LinearRegexEngine} makes the
+ * functions that use it safe from patterns that take exponential time.
+ * <p>
+ * Sets of patterns, for the functions that match many patterns at once, are
+ * cached separately, with the same maximum size, and are included in the
+ * statistics.
+ * <p>
+ * The cache is thread safe and can be shared between functions, by default
+ * all regular expression functions share the cache returned by
+ * {@link #defaultCache()}.
+ */
+public class PatternCache {
+  public static final int DEFAULT_MAXIMUM_SIZE = 512;
+
+  private static final PatternCache defaultCache = new PatternCache(DEFAULT_MAXIMUM_SIZE);
+
+  private final RegexEngine engine;
+  private final LruCache<Key, CompiledPattern> cache;
+  private final LruCache<SetKey, CompiledSet> setCache;
+
+  public static PatternCache defaultCache() {
+    return defaultCache;
+  }
+
+  public PatternCache(int maximumSize) {
+    this(maximumSize, new JavaRegexEngine());
+  }
+
+  /**
+   * Creates a cache that compiles its patterns with the specified engine.
+   */
+  public PatternCache(int maximumSize, RegexEngine engine) {
+    this.engine = engine;
+    this.cache = new LruCache<>(maximumSize);
+    this.setCache = new LruCache<>(maximumSize);
+  }
+
+  public RegexEngine engine() {
+    return engine;
+  }
+
+  /**
+   * Returns the compiled pattern for the regular expression and flags,
+   * compiling it if it is not already cached.
+   *
+   * @throws PatternSyntaxException when the regular expression is invalid, or
+   *   when it matches the empty string, or when the engine does not support it
+   */
+  public CompiledRegex get(String regex, int flags) {
+    Key key = new Key(regex, flags);
+    CompiledPattern compiled = cache.get(key);
+    if (compiled == null) {
+      compiled = new CompiledPattern(engine.compile(regex, flags));
+      cache.put(key, compiled);
+    }
+    if (compiled.matchesEmpty) {
+      throw new PatternSyntaxException("pattern matches zero-length string", regex, -1);
+    }
+    return compiled.pattern;
+  }
+
+  /**
+   * Returns the compiled set of the regular expressions with the flags,
+   * compiling it if it is not already cached.
+   *
+   * @throws PatternSyntaxException when any of the regular expressions is
+   *   invalid, or matches the empty string, or when the engine does not
+   *   support it
+   */
+  public RegexSet getSet(List<String> regexes, int flags) {
+    SetKey key = new SetKey(regexes, flags);
+    CompiledSet compiled = setCache.get(key);
+    if (compiled == null) {
+      compiled = new CompiledSet(RegexSet.compile(key.regexes, flags, engine));
+      setCache.put(key, compiled);
+    }
+    if (compiled.matchesEmpty.length > 0) {
+      throw new PatternSyntaxException("pattern matches zero-length string", regexes.get(compiled.matchesEmpty[0]), -1);
+    }
+    return compiled.set;
+  }
+
+  public int size() {
+    return cache.size() + setCache.size();
+  }
+
+  public int maximumSize() {
+    return cache.maximumSize();
+  }
+
+  public long hitCount() {
+    return cache.hitCount() + setCache.hitCount();
+  }
+
+  public long missCount() {
+    return cache.missCount() + setCache.missCount();
+  }
+
+  public long evictionCount() {
+    return cache.evictionCount() + setCache.evictionCount();
+  }
+
+  private static class CompiledPattern {
+    final CompiledRegex pattern;
+    final boolean matchesEmpty;
+
+    CompiledPattern(CompiledRegex pattern) {
+      this.pattern = pattern;
+      this.matchesEmpty = pattern.matcher("").matches();
+    }
+  }
+
+  private static class CompiledSet {
+    final RegexSet set;
+    final int[] matchesEmpty;
+
+    CompiledSet(RegexSet set) {
+      this.set = set;
+      this.matchesEmpty = set.findAll("");
+    }
+  }
+
+  private static class SetKey {
+    private final List<String> regexes;
+    private final int flags;
+
+    SetKey(List<String> regexes, int flags) {
+      this.regexes = new ArrayList<>(regexes);
+      this.flags = flags;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (!(o instanceof SetKey)) {
+        return false;
+      }
+      SetKey other = (SetKey) o;
+      return flags == other.flags && regexes.equals(other.regexes);
+    }
+
+    @Override
+    public int hashCode() {
+      return 31 * regexes.hashCode() + flags;
+    }
+  }
+
+  private static class Key {
+    private final String regex;
+    private final int flags;
+
+    Key(String regex, int flags) {
+      this.regex = regex;
+      this.flags = flags;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (!(o instanceof Key)) {
+        return false;
+      }
+      Key other = (Key) o;
+      return flags == other.flags && regex.equals(other.regex);
+    }
+
+    @Override
+    public int hashCode() {
+      return 31 * regex.hashCode() + flags;
+    }
+  }
+}
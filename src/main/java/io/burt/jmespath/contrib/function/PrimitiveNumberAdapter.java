@@ -0,0 +1,29 @@
+package io.burt.jmespath.contrib.function;
+
+import io.burt.jmespath.Adapter;
+
+/**
+ * An optional interface for runtimes that can read their numbers as
+ * primitives, without first converting them to a {@link Number}.
+ * <p>
+ * The math functions use these methods instead of {@link Adapter#toNumber}
+ * when the runtime implements this interface. The methods are only called
+ * with values of the type number.
+ */
+public interface PrimitiveNumberAdapter<T> extends Adapter<T> {
+  /**
+   * Returns whether the number is an integer that can be represented exactly
+   * as a <code>long</code>.
+   */
+  boolean isIntegralNumber(T value);
+
+  /**
+   * Returns the value of an integral number, see {@link #isIntegralNumber}.
+   */
+  long toLong(T value);
+
+  /**
+   * Returns the value of any number as a <code>double</code>.
+   */
+  double toDouble(T value);
+}
@@ -0,0 +1,59 @@
+package io.burt.jmespath.contrib.function;
+
+import java.util.List;
+
+import io.burt.jmespath.Adapter;
+import io.burt.jmespath.JmesPathType;
+import io.burt.jmespath.function.ArgumentConstraints;
+import io.burt.jmespath.function.ArrayMathFunction;
+
+/**
+ * Multiplies an array of numbers in a single pass. The product is exact, and
+ * an integer, as long as all numbers are integers and the product fits in a
+ * <code>long</code>.
+ * <p>
+ * The product of an empty array is one, and the product is null when it is
+ * too large to be represented as a double.
+ */
+public class ProductOfFunction extends ArrayMathFunction {
+  public ProductOfFunction() {
+    super(ArgumentConstraints.typeOf(JmesPathType.NUMBER));
+  }
+
+  @Override
+  protected <T> T performMathOperation(Adapter<T> runtime, List<T> values) {
+    Product product = new Product();
+    for (T value : values) {
+      product.accumulate(runtime, value);
+    }
+    return product.exact ? runtime.createNumber(product.longProduct) : NumberAccumulator.createNumber(runtime, product.product);
+  }
+
+  private static class Product extends NumberAccumulator {
+    private boolean exact = true;
+    private long longProduct = 1;
+    private double product;
+
+    @Override
+    void accumulate(long value) {
+      if (exact) {
+        if (!ExactMath.multiplyOverflows(longProduct, value)) {
+          longProduct *= value;
+          return;
+        }
+        exact = false;
+        product = (double) longProduct;
+      }
+      product *= value;
+    }
+
+    @Override
+    void accumulate(double value) {
+      if (exact) {
+        exact = false;
+        product = (double) longProduct;
+      }
+      product *= value;
+    }
+  }
+}
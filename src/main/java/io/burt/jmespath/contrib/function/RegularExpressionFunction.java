@@ -2,28 +2,79 @@ package io.burt.jmespath.contrib.function;
 
 import java.util.List;
 import java.util.regex.Pattern;
-import java.util.regex.PatternSyntaxException;
 
 import io.burt.jmespath.Adapter;
+import io.burt.jmespath.JmesPathType;
+import io.burt.jmespath.contrib.regex.CompiledRegex;
 import io.burt.jmespath.function.ArgumentConstraint;
+import io.burt.jmespath.function.BaseFunction;
+import io.burt.jmespath.function.Function;
 import io.burt.jmespath.function.FunctionArgument;
 
-public abstract class RegularExpressionFunction extends SubstringMatchingFunction {
+public abstract class RegularExpressionFunction extends SubstringMatchingFunction implements SpecializableFunction {
+  private final PatternCache patternCache;
+
   public RegularExpressionFunction(ArgumentConstraint argumentConstraints) {
+    this(PatternCache.defaultCache(), argumentConstraints);
+  }
+
+  /**
+   * Creates a function that looks up its compiled patterns in the specified
+   * cache instead of the default, shared, cache.
+   */
+  public RegularExpressionFunction(PatternCache patternCache, ArgumentConstraint argumentConstraints) {
     super(argumentConstraints);
+    this.patternCache = patternCache;
+  }
+
+  @Override
+  protected <T> T callFunction(Adapter<T> runtime, List<FunctionArgument<T>> arguments) {
+    return callFunction(runtime, arguments, getPattern(runtime, arguments));
+  }
+
+  /**
+   * Performs the function call with the pattern already compiled, either by
+   * {@link #getPattern} or, when the pattern and flags are literals, when the
+   * call site was specialized.
+   */
+  protected abstract <T> T callFunction(Adapter<T> runtime, List<FunctionArgument<T>> arguments, CompiledRegex pattern);
+
+  /**
+   * When both the pattern and the flags arguments are string literals the
+   * pattern is compiled at once, so that a call site with an invalid pattern
+   * or unknown flags fails to compile.
+   */
+  @Override
+  public <T> Function specialize(Adapter<T> runtime, List<T> literalArguments) {
+    if (literalArguments.size() <= patternArgumentPosition()) {
+      return null;
+    }
+    T regex = literalArguments.get(patternArgumentPosition());
+    if (!isStringLiteral(runtime, regex)) {
+      return null;
+    }
+    int flags = 0;
+    if (literalArguments.size() > flagArgumentPosition()) {
+      T flagStr = literalArguments.get(flagArgumentPosition());
+      if (!isStringLiteral(runtime, flagStr)) {
+        return null;
+      }
+      flags = convertPatternFlags(runtime.toString(flagStr));
+    }
+    return new PrecompiledPatternFunction(patternCache.get(runtime.toString(regex), flags));
+  }
+
+  private <T> boolean isStringLiteral(Adapter<T> runtime, T value) {
+    return value != null && runtime.typeOf(value) == JmesPathType.STRING;
   }
 
   protected <T> String getInputString(Adapter<T> runtime, List<FunctionArgument<T>> arguments) {
     return getStringParam(runtime, arguments, inputArgumentPosition());
   }
 
-  protected <T> Pattern getPattern(Adapter<T> runtime, List<FunctionArgument<T>> arguments) {
+  protected <T> CompiledRegex getPattern(Adapter<T> runtime, List<FunctionArgument<T>> arguments) {
     String regex = getStringParam(runtime, arguments, patternArgumentPosition());
-    Pattern pattern = Pattern.compile(regex, getFlags(runtime, arguments));
-    if (pattern.matcher("").matches()) {
-      throw new PatternSyntaxException("pattern matches zero-length string", pattern.pattern(), -1);
-    }
-    return pattern;
+    return patternCache.get(regex, getFlags(runtime, arguments));
   }
 
   protected <T> int getFlags(Adapter<T> runtime, List<FunctionArgument<T>> arguments) {
@@ -48,7 +99,7 @@ public abstract class RegularExpressionFunction extends SubstringMatchingFunctio
     return 2;
   }
 
-  private int convertPatternFlags(String flagStr) {
+  static int convertPatternFlags(String flagStr) {
     int flags = 0;
     for (int i = 0; i < flagStr.length(); ++i) {
       final char c = flagStr.charAt(i);
@@ -75,11 +126,28 @@ public abstract class RegularExpressionFunction extends SubstringMatchingFunctio
     return flags;
   }
 
-  private class InvalidRegexFlagException extends RuntimeException {
+  private class PrecompiledPatternFunction extends BaseFunction {
+    private final CompiledRegex pattern;
+
+    PrecompiledPatternFunction(CompiledRegex pattern) {
+      super(RegularExpressionFunction.this.name(), RegularExpressionFunction.this.argumentConstraints());
+      this.pattern = pattern;
+    }
+
+    @Override
+    protected <T> T callFunction(Adapter<T> runtime, List<FunctionArgument<T>> arguments) {
+      return RegularExpressionFunction.this.callFunction(runtime, arguments, pattern);
+    }
+  }
+
+  public static class InvalidRegexFlagException extends RuntimeException {
+    private static final long serialVersionUID = 1L;
+
     private final char unknownFlag;
     private final String flagStr;
 
     public InvalidRegexFlagException(char flag, String flagStr) {
+      super("Unknown regex flag: " + flag + " in " + flagStr);
       this.unknownFlag = flag;
       this.flagStr = flagStr;
     }
@@ -0,0 +1,108 @@
+package io.burt.jmespath.contrib.function;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import io.burt.jmespath.Adapter;
+import io.burt.jmespath.JmesPathType;
+import io.burt.jmespath.contrib.regex.RegexSet;
+import io.burt.jmespath.function.ArgumentConstraints;
+import io.burt.jmespath.function.BaseFunction;
+import io.burt.jmespath.function.Function;
+import io.burt.jmespath.function.FunctionArgument;
+
+/**
+ * Base class for the functions that match a string against an array of
+ * regular expressions, which takes the string, the array and optionally the
+ * flags, with the same meaning as for {@link RegularExpressionFunction}.
+ * <p>
+ * The array is compiled into a {@link RegexSet}, which scans the string once
+ * for all the expressions, and which is cached in a {@link PatternCache}.
+ */
+public abstract class RegularExpressionSetFunction extends BaseFunction implements SpecializableFunction {
+  private final PatternCache patternCache;
+
+  public RegularExpressionSetFunction() {
+    this(PatternCache.defaultCache());
+  }
+
+  /**
+   * Creates a function that looks up its compiled pattern sets in the
+   * specified cache instead of the default, shared, cache.
+   */
+  public RegularExpressionSetFunction(PatternCache patternCache) {
+    super(new PartialListOf(2,
+      ArgumentConstraints.typeOf(JmesPathType.STRING),
+      ArgumentConstraints.arrayOf(ArgumentConstraints.typeOf(JmesPathType.STRING)),
+      ArgumentConstraints.typeOf(JmesPathType.STRING)
+    ));
+    this.patternCache = patternCache;
+  }
+
+  @Override
+  protected <T> T callFunction(Adapter<T> runtime, List<FunctionArgument<T>> arguments) {
+    List<String> regexes = toStrings(runtime, runtime.toList(arguments.get(1).value()));
+    int flags = arguments.size() > 2 ? RegularExpressionFunction.convertPatternFlags(runtime.toString(arguments.get(2).value())) : 0;
+    return callFunction(runtime, arguments, patternCache.getSet(regexes, flags));
+  }
+
+  /**
+   * Performs the function call with the patterns already compiled, either
+   * on each call or, when the patterns and flags are literals, when the call
+   * site was specialized.
+   */
+  protected abstract <T> T callFunction(Adapter<T> runtime, List<FunctionArgument<T>> arguments, RegexSet patterns);
+
+  /**
+   * When the patterns are a literal array of strings and the flags, if any,
+   * are a string literal the patterns are compiled at once, so that a call
+   * site with an invalid pattern or unknown flags fails to compile.
+   */
+  @Override
+  public <T> Function specialize(Adapter<T> runtime, List<T> literalArguments) {
+    if (literalArguments.size() < 2) {
+      return null;
+    }
+    T regexes = literalArguments.get(1);
+    if (regexes == null || runtime.typeOf(regexes) != JmesPathType.ARRAY) {
+      return null;
+    }
+    List<T> regexList = runtime.toList(regexes);
+    for (T regex : regexList) {
+      if (runtime.typeOf(regex) != JmesPathType.STRING) {
+        return null;
+      }
+    }
+    int flags = 0;
+    if (literalArguments.size() > 2) {
+      T flagStr = literalArguments.get(2);
+      if (flagStr == null || runtime.typeOf(flagStr) != JmesPathType.STRING) {
+        return null;
+      }
+      flags = RegularExpressionFunction.convertPatternFlags(runtime.toString(flagStr));
+    }
+    return new PrecompiledPatternSetFunction(patternCache.getSet(toStrings(runtime, regexList), flags));
+  }
+
+  private <T> List<String> toStrings(Adapter<T> runtime, List<T> values) {
+    List<String> strings = new ArrayList<>(values.size());
+    for (T value : values) {
+      strings.add(runtime.toString(value));
+    }
+    return strings;
+  }
+
+  private class PrecompiledPatternSetFunction extends BaseFunction {
+    private final RegexSet patterns;
+
+    PrecompiledPatternSetFunction(RegexSet patterns) {
+      super(RegularExpressionSetFunction.this.name(), RegularExpressionSetFunction.this.argumentConstraints());
+      this.patterns = patterns;
+    }
+
+    @Override
+    protected <T> T callFunction(Adapter<T> runtime, List<FunctionArgument<T>> arguments) {
+      return RegularExpressionSetFunction.this.callFunction(runtime, arguments, patterns);
+    }
+  }
+}
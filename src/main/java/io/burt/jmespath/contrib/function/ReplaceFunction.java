@@ -1,21 +1,26 @@
 package io.burt.jmespath.contrib.function;
 
 import java.util.List;
-
 import io.burt.jmespath.Adapter;
 import io.burt.jmespath.JmesPathType;
+import io.burt.jmespath.contrib.Deadline;
+import io.burt.jmespath.contrib.regex.CompiledRegex;
 import io.burt.jmespath.function.ArgumentConstraints;
 import io.burt.jmespath.function.FunctionArgument;
 
 public class ReplaceFunction extends RegularExpressionFunction {
   public ReplaceFunction() {
-    super(ArgumentConstraints.listOf(3, 4, ArgumentConstraints.typeOf(JmesPathType.STRING)));
+    this(PatternCache.defaultCache());
+  }
+
+  public ReplaceFunction(PatternCache patternCache) {
+    super(patternCache, ArgumentConstraints.listOf(3, 4, ArgumentConstraints.typeOf(JmesPathType.STRING)));
   }
 
   @Override
-  protected <T> T callFunction(Adapter<T> runtime, List<FunctionArgument<T>> arguments) {
-    return runtime.createString(getPattern(runtime, arguments)
-        .matcher(getInputString(runtime, arguments))
+  protected <T> T callFunction(Adapter<T> runtime, List<FunctionArgument<T>> arguments, CompiledRegex pattern) {
+    return runtime.createString(pattern
+        .matcher(Deadline.interruptible(getInputString(runtime, arguments)))
         .replaceAll(getStringParam(runtime, arguments, 2)));
   }
 
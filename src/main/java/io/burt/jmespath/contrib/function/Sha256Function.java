@@ -0,0 +1,20 @@
+package io.burt.jmespath.contrib.function;
+
+import io.burt.jmespath.Adapter;
+import io.burt.jmespath.contrib.hash.MessageDigestHash;
+
+/**
+ * Returns a SHA-256 digest of one or more values, as a string of lower case
+ * hexadecimal digits, see {@link HashFunction}.
+ */
+public class Sha256Function extends HashFunction<MessageDigestHash> {
+  @Override
+  protected MessageDigestHash createHash() {
+    return new MessageDigestHash("SHA-256");
+  }
+
+  @Override
+  protected <T> T result(Adapter<T> runtime, MessageDigestHash hash) {
+    return runtime.createString(hash.hexDigest());
+  }
+}
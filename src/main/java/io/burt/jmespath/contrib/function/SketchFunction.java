@@ -0,0 +1,80 @@
+package io.burt.jmespath.contrib.function;
+
+import java.util.List;
+
+import io.burt.jmespath.Adapter;
+import io.burt.jmespath.JmesPathType;
+import io.burt.jmespath.contrib.sketch.InvalidSketchException;
+import io.burt.jmespath.contrib.sketch.Sketch;
+import io.burt.jmespath.function.ArgumentConstraint;
+import io.burt.jmespath.function.ArgumentConstraints;
+import io.burt.jmespath.function.BaseFunction;
+import io.burt.jmespath.function.FunctionArgument;
+
+/**
+ * Base class for the approximate aggregations, which summarize an array in
+ * a {@link Sketch} in a single pass, and then read their result from it.
+ * <p>
+ * The first argument is either the array, or a sketch serialized by an
+ * earlier call or by <code>merge_sketches</code>. When the optional last
+ * argument is true the serialized sketch is returned instead of the result,
+ * so that the sketches of several searches can be merged, and the result
+ * read from the merged sketch.
+ * <p>
+ * Values are hashed and identified with {@link StructuralEquivalence}, so
+ * that the approximate functions consider the same values equal as the
+ * exact ones, like <code>distinct</code>.
+ */
+public abstract class SketchFunction<S extends Sketch> extends BaseFunction {
+  private final Class<S> sketchType;
+  private final int arity;
+
+  protected SketchFunction(Class<S> sketchType, ArgumentConstraint arrayConstraint, ArgumentConstraint... argumentConstraints) {
+    super(argumentConstraints(arrayConstraint, argumentConstraints));
+    this.sketchType = sketchType;
+    this.arity = 1 + argumentConstraints.length;
+  }
+
+  protected SketchFunction(String name, Class<S> sketchType, ArgumentConstraint arrayConstraint, ArgumentConstraint... argumentConstraints) {
+    super(name, argumentConstraints(arrayConstraint, argumentConstraints));
+    this.sketchType = sketchType;
+    this.arity = 1 + argumentConstraints.length;
+  }
+
+  private static ArgumentConstraint argumentConstraints(ArgumentConstraint arrayConstraint, ArgumentConstraint... argumentConstraints) {
+    ArgumentConstraint[] constraints = new ArgumentConstraint[argumentConstraints.length + 2];
+    constraints[0] = new ArrayOrSketchConstraint(arrayConstraint);
+    System.arraycopy(argumentConstraints, 0, constraints, 1, argumentConstraints.length);
+    constraints[constraints.length - 1] = ArgumentConstraints.typeOf(JmesPathType.BOOLEAN);
+    return new PartialListOf(constraints.length - 1, constraints);
+  }
+
+  @Override
+  protected <T> T callFunction(Adapter<T> runtime, List<FunctionArgument<T>> arguments) {
+    T input = arguments.get(0).value();
+    S sketch;
+    if (runtime.typeOf(input) == JmesPathType.STRING) {
+      Sketch deserialized = Sketch.deserialize(runtime.toString(input));
+      if (!sketchType.isInstance(deserialized)) {
+        throw new InvalidSketchException(String.format("Expected a %s but was a %s", sketchType.getSimpleName(), deserialized.getClass().getSimpleName()));
+      }
+      sketch = sketchType.cast(deserialized);
+    } else {
+      sketch = createSketch(runtime, arguments);
+      for (T value : runtime.toList(input)) {
+        add(runtime, sketch, value);
+      }
+    }
+    if (arguments.size() > arity && runtime.isTruthy(arguments.get(arity).value())) {
+      return runtime.createString(sketch.serialize());
+    } else {
+      return result(runtime, sketch, arguments);
+    }
+  }
+
+  protected abstract <T> S createSketch(Adapter<T> runtime, List<FunctionArgument<T>> arguments);
+
+  protected abstract <T> void add(Adapter<T> runtime, S sketch, T value);
+
+  protected abstract <T> T result(Adapter<T> runtime, S sketch, List<FunctionArgument<T>> arguments);
+}
@@ -0,0 +1,32 @@
+package io.burt.jmespath.contrib.function;
+
+import java.util.List;
+
+import io.burt.jmespath.Adapter;
+import io.burt.jmespath.function.Function;
+
+/**
+ * A function that can do some of its work ahead of time for call sites where
+ * some of its arguments are literals, for example compile a regular
+ * expression only once instead of on every call.
+ * <p>
+ * Functions are specialized when an expression is compiled by a runtime that
+ * uses a {@link io.burt.jmespath.contrib.node.SpecializingNodeFactory}.
+ */
+public interface SpecializableFunction extends Function {
+  /**
+   * Returns a function bound to the literal arguments of a call site, or null
+   * if the function can't be specialized for them.
+   * <p>
+   * The list contains one element for each argument of the call: the value of
+   * the argument when it is a literal, and null when it is not. The returned
+   * function must have the same name and argument constraints as this
+   * function, and return the same results as this function would when called
+   * with the same arguments.
+   * <p>
+   * Errors that this function would raise for the literal arguments on every
+   * call, like an invalid regular expression, should be raised from this
+   * method, making them compile time errors.
+   */
+  <T> Function specialize(Adapter<T> runtime, List<T> literalArguments);
+}
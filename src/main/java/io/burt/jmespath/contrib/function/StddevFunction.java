@@ -0,0 +1,53 @@
+package io.burt.jmespath.contrib.function;
+
+import java.util.List;
+
+import io.burt.jmespath.Adapter;
+import io.burt.jmespath.JmesPathType;
+import io.burt.jmespath.function.ArgumentConstraints;
+import io.burt.jmespath.function.ArrayMathFunction;
+
+/**
+ * Calculates the population standard deviation of an array of numbers in a
+ * single pass, using Welford's algorithm, which unlike subtracting the square
+ * of the mean from the mean of the squares does not lose precision when the
+ * deviation is small compared to the mean.
+ * <p>
+ * The standard deviation of an empty array is null.
+ */
+public class StddevFunction extends ArrayMathFunction {
+  public StddevFunction() {
+    super(ArgumentConstraints.typeOf(JmesPathType.NUMBER));
+  }
+
+  @Override
+  protected <T> T performMathOperation(Adapter<T> runtime, List<T> values) {
+    if (values.isEmpty()) {
+      return runtime.createNull();
+    }
+    Variance variance = new Variance();
+    for (T value : values) {
+      variance.accumulate(runtime, value);
+    }
+    return NumberAccumulator.createNumber(runtime, Math.sqrt(variance.m2 / variance.count));
+  }
+
+  private static class Variance extends NumberAccumulator {
+    private long count;
+    private double mean;
+    private double m2;
+
+    @Override
+    void accumulate(long value) {
+      accumulate((double) value);
+    }
+
+    @Override
+    void accumulate(double value) {
+      count++;
+      double delta = value - mean;
+      mean += delta / count;
+      m2 += delta * (value - mean);
+    }
+  }
+}
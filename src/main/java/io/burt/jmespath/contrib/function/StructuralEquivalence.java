@@ -0,0 +1,348 @@
+package io.burt.jmespath.contrib.function;
+
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import io.burt.jmespath.Adapter;
+import io.burt.jmespath.JmesPathType;
+
+/**
+ * Hashing and equality of values that works the same for every runtime,
+ * without depending on how the runtime implements <code>equals</code> and
+ * <code>hashCode</code> for its values.
+ * <p>
+ * Two values are equivalent when they are equal in the JMESPath sense:
+ * numbers are equal when they have the same value, whether they are
+ * integers or not, arrays when they have equivalent elements in the same
+ * order, and objects when they have the same properties with equivalent
+ * values, in any order. This also holds for numbers nested in arrays and
+ * objects, which the <code>equals</code> of for example Jackson's nodes
+ * does not consider equal when one is an integer and the other is not.
+ * <p>
+ * Strings are hashed with {@link String#hashCode}, which the string caches,
+ * and the runtimes return the same string instance every time a value is
+ * converted, so a string is only hashed once however many times it is
+ * looked up.
+ * <p>
+ * The approximate aggregations need more than 32 bits, and hash the same
+ * structure to 64 bits with {@link #hash64}. They identify values by
+ * {@link #canonicalJson}, which is the same for two values exactly when they
+ * are equivalent.
+ */
+final class StructuralEquivalence {
+  private static final int TRUE_HASH = 1231;
+  private static final int FALSE_HASH = 1237;
+  private static final int ARRAY_SEED = 0x9e3779b9;
+  private static final int OBJECT_SEED = 0x85ebca6b;
+  private static final long TRUE_HASH_64 = 0x6a09e667f3bcc908L;
+  private static final long FALSE_HASH_64 = 0xbb67ae8584caa73bL;
+  private static final long NULL_HASH_64 = 0x3c6ef372fe94f82bL;
+  private static final long ARRAY_SEED_64 = 0x9e3779b97f4a7c15L;
+  private static final long OBJECT_SEED_64 = 0xc2b2ae3d27d4eb4fL;
+  private static final long DOUBLE_SEED = 0x165667b19e3779f9L;
+  private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+  private static final long FNV_PRIME = 0x100000001b3L;
+
+  private StructuralEquivalence() { }
+
+  static <T> int hash(Adapter<T> runtime, T value) {
+    switch (runtime.typeOf(value)) {
+      case NUMBER:
+        return numberHash(runtime, value);
+      case STRING:
+        return runtime.toString(value).hashCode();
+      case BOOLEAN:
+        return runtime.isTruthy(value) ? TRUE_HASH : FALSE_HASH;
+      case ARRAY:
+        int arrayHash = ARRAY_SEED;
+        for (T element : runtime.toList(value)) {
+          arrayHash = 31 * arrayHash + mix(hash(runtime, element));
+        }
+        return arrayHash;
+      case OBJECT:
+        int objectHash = OBJECT_SEED;
+        for (T name : runtime.getPropertyNames(value)) {
+          objectHash += mix(31 * runtime.toString(name).hashCode() + hash(runtime, runtime.getProperty(value, name)));
+        }
+        return objectHash;
+      default:
+        return 0;
+    }
+  }
+
+  /**
+   * Like {@link #hash}, but with 64 bits, and with every bit of the result
+   * depending on every bit of the input.
+   */
+  static <T> long hash64(Adapter<T> runtime, T value) {
+    switch (runtime.typeOf(value)) {
+      case NUMBER:
+        return mix64(numberBits(runtime, value));
+      case STRING:
+        return hash64(runtime.toString(value));
+      case BOOLEAN:
+        return mix64(runtime.isTruthy(value) ? TRUE_HASH_64 : FALSE_HASH_64);
+      case ARRAY:
+        long arrayHash = ARRAY_SEED_64;
+        for (T element : runtime.toList(value)) {
+          arrayHash = 31 * arrayHash + hash64(runtime, element);
+        }
+        return mix64(arrayHash);
+      case OBJECT:
+        long objectHash = OBJECT_SEED_64;
+        for (T name : runtime.getPropertyNames(value)) {
+          objectHash += mix64(31 * hash64(runtime.toString(name)) + hash64(runtime, runtime.getProperty(value, name)));
+        }
+        return mix64(objectHash);
+      default:
+        return mix64(NULL_HASH_64);
+    }
+  }
+
+  private static long hash64(String s) {
+    long h = FNV_OFFSET_BASIS;
+    for (int i = 0; i < s.length(); i++) {
+      h = (h ^ s.charAt(i)) * FNV_PRIME;
+    }
+    return mix64(h);
+  }
+
+  /**
+   * Returns the JSON representation of a value, with numbers that are equal
+   * represented the same way whether they are integers or not, and the
+   * properties of objects sorted by name.
+   */
+  static <T> String canonicalJson(Adapter<T> runtime, T value) {
+    StringBuilder json = new StringBuilder();
+    appendCanonicalJson(runtime, value, json);
+    return json.toString();
+  }
+
+  private static <T> void appendCanonicalJson(Adapter<T> runtime, T value, StringBuilder json) {
+    switch (runtime.typeOf(value)) {
+      case NUMBER:
+        if (isIntegral(runtime, value)) {
+          json.append(toLong(runtime, value));
+        } else {
+          double d = toDouble(runtime, value);
+          if (isLong(d)) {
+            json.append((long) d);
+          } else {
+            json.append(d);
+          }
+        }
+        break;
+      case STRING:
+        appendQuoted(runtime.toString(value), json);
+        break;
+      case BOOLEAN:
+        json.append(runtime.isTruthy(value));
+        break;
+      case ARRAY:
+        json.append('[');
+        boolean first = true;
+        for (T element : runtime.toList(value)) {
+          if (!first) {
+            json.append(',');
+          }
+          appendCanonicalJson(runtime, element, json);
+          first = false;
+        }
+        json.append(']');
+        break;
+      case OBJECT:
+        Map<String, T> properties = new TreeMap<>();
+        for (T name : runtime.getPropertyNames(value)) {
+          properties.put(runtime.toString(name), runtime.getProperty(value, name));
+        }
+        json.append('{');
+        first = true;
+        for (Map.Entry<String, T> property : properties.entrySet()) {
+          if (!first) {
+            json.append(',');
+          }
+          appendQuoted(property.getKey(), json);
+          json.append(':');
+          appendCanonicalJson(runtime, property.getValue(), json);
+          first = false;
+        }
+        json.append('}');
+        break;
+      default:
+        json.append("null");
+        break;
+    }
+  }
+
+  private static void appendQuoted(String s, StringBuilder json) {
+    json.append('"');
+    for (int i = 0; i < s.length(); i++) {
+      char c = s.charAt(i);
+      if (c == '"' || c == '\\') {
+        json.append('\\').append(c);
+      } else if (c < 0x20) {
+        json.append(String.format("\\u%04x", (int) c));
+      } else {
+        json.append(c);
+      }
+    }
+    json.append('"');
+  }
+
+  static <T> boolean equivalent(Adapter<T> runtime, T value1, T value2) {
+    JmesPathType type = runtime.typeOf(value1);
+    if (type != runtime.typeOf(value2)) {
+      return false;
+    }
+    switch (type) {
+      case NUMBER:
+        return numbersEquivalent(runtime, value1, value2);
+      case STRING:
+        return runtime.toString(value1).equals(runtime.toString(value2));
+      case BOOLEAN:
+        return runtime.isTruthy(value1) == runtime.isTruthy(value2);
+      case ARRAY:
+        return arraysEquivalent(runtime, value1, value2);
+      case OBJECT:
+        return objectsEquivalent(runtime, value1, value2);
+      default:
+        return true;
+    }
+  }
+
+  private static <T> int numberHash(Adapter<T> runtime, T value) {
+    return hash(numberBits(runtime, value));
+  }
+
+  /**
+   * Returns the value of an integer, or of a double that is an integer, and
+   * the bits of other doubles, so that numbers that are equal get the same
+   * bits.
+   */
+  private static <T> long numberBits(Adapter<T> runtime, T value) {
+    if (isIntegral(runtime, value)) {
+      return toLong(runtime, value);
+    }
+    double d = toDouble(runtime, value);
+    if (isLong(d)) {
+      return (long) d;
+    } else {
+      return Double.doubleToLongBits(d) ^ DOUBLE_SEED;
+    }
+  }
+
+  private static int hash(long l) {
+    return (int) (l ^ (l >>> 32));
+  }
+
+  /**
+   * The finalizer of MurmurHash3, which makes hashes that only differ in a
+   * few bits, which for example the hashes of similar strings and small
+   * integers do, differ in all bits, so that the hashes of the elements of
+   * arrays and objects don't cancel each other out when they are combined,
+   * and don't end up next to each other in an open addressing table.
+   */
+  static int mix(int h) {
+    h ^= h >>> 16;
+    h *= 0x85ebca6b;
+    h ^= h >>> 13;
+    h *= 0xc2b2ae35;
+    h ^= h >>> 16;
+    return h;
+  }
+
+  /**
+   * The 64 bit finalizer of MurmurHash3.
+   */
+  static long mix64(long h) {
+    h ^= h >>> 33;
+    h *= 0xff51afd7ed558ccdL;
+    h ^= h >>> 33;
+    h *= 0xc4ceb9fe1a85ec53L;
+    h ^= h >>> 33;
+    return h;
+  }
+
+  private static <T> boolean numbersEquivalent(Adapter<T> runtime, T value1, T value2) {
+    boolean integral1 = isIntegral(runtime, value1);
+    boolean integral2 = isIntegral(runtime, value2);
+    if (integral1 && integral2) {
+      return toLong(runtime, value1) == toLong(runtime, value2);
+    }
+    double d1 = toDouble(runtime, value1);
+    double d2 = toDouble(runtime, value2);
+    if (d1 != d2) {
+      return false;
+    } else if (integral1) {
+      return isLong(d2) && (long) d2 == toLong(runtime, value1);
+    } else if (integral2) {
+      return isLong(d1) && (long) d1 == toLong(runtime, value2);
+    } else {
+      return true;
+    }
+  }
+
+  private static <T> boolean arraysEquivalent(Adapter<T> runtime, T value1, T value2) {
+    List<T> elements1 = runtime.toList(value1);
+    List<T> elements2 = runtime.toList(value2);
+    if (elements1.size() != elements2.size()) {
+      return false;
+    }
+    Iterator<T> iterator2 = elements2.iterator();
+    for (T element1 : elements1) {
+      if (!equivalent(runtime, element1, iterator2.next())) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static <T> boolean objectsEquivalent(Adapter<T> runtime, T value1, T value2) {
+    Collection<T> names1 = runtime.getPropertyNames(value1);
+    Collection<T> names2 = runtime.getPropertyNames(value2);
+    if (names1.size() != names2.size()) {
+      return false;
+    }
+    for (T name : names1) {
+      T property2 = runtime.getProperty(value2, name);
+      if (runtime.typeOf(property2) == JmesPathType.NULL && !names2.contains(name)) {
+        return false;
+      }
+      if (!equivalent(runtime, runtime.getProperty(value1, name), property2)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  static <T> boolean isIntegral(Adapter<T> runtime, T value) {
+    if (runtime instanceof PrimitiveNumberAdapter) {
+      return ((PrimitiveNumberAdapter<T>) runtime).isIntegralNumber(value);
+    } else {
+      return ExactMath.isIntegral(runtime.toNumber(value));
+    }
+  }
+
+  static <T> long toLong(Adapter<T> runtime, T value) {
+    if (runtime instanceof PrimitiveNumberAdapter) {
+      return ((PrimitiveNumberAdapter<T>) runtime).toLong(value);
+    } else {
+      return runtime.toNumber(value).longValue();
+    }
+  }
+
+  private static <T> double toDouble(Adapter<T> runtime, T value) {
+    if (runtime instanceof PrimitiveNumberAdapter) {
+      return ((PrimitiveNumberAdapter<T>) runtime).toDouble(value);
+    } else {
+      return runtime.toNumber(value).doubleValue();
+    }
+  }
+
+  private static boolean isLong(double d) {
+    return d == Math.rint(d) && d >= -0x1p63 && d < 0x1p63;
+  }
+}
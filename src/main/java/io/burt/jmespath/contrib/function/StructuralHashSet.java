@@ -0,0 +1,187 @@
+package io.burt.jmespath.contrib.function;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import io.burt.jmespath.Adapter;
+import io.burt.jmespath.JmesPathType;
+
+/**
+ * A set of values that are compared with {@link StructuralEquivalence},
+ * which remembers the order the values were added in.
+ * <p>
+ * The set is an open addressing hash table with linear probing, made of an
+ * array with the positions of the values in the order they were added, and
+ * an array with their hashes, so that there are no entry objects, probing
+ * compares the hashes before it compares any values, and growing the table
+ * does not hash the values again. The table grows with the number of
+ * distinct values, not the number of values added, so that it stays small
+ * for large arrays with few distinct values.
+ * <p>
+ * As long as all values are strings they are compared as strings, and as
+ * long as all values are integers they are compared as <code>long</code>s,
+ * without asking the runtime for anything other than the string or number.
+ * The first value of another kind switches the set over to comparing the
+ * values structurally, which hashes the values that are already in the set
+ * once more.
+ */
+final class StructuralHashSet<T> {
+  private static final int INITIAL_CAPACITY = 16;
+
+  private enum Kind { STRINGS, INTEGERS, VALUES }
+
+  private final Adapter<T> runtime;
+  private final List<T> values;
+  private Kind kind;
+  private String[] strings;
+  private long[] integers;
+  private int[] positions;
+  private int[] hashes;
+
+  StructuralHashSet(Adapter<T> runtime) {
+    this.runtime = runtime;
+    this.values = new ArrayList<>();
+    this.positions = new int[INITIAL_CAPACITY];
+    this.hashes = new int[INITIAL_CAPACITY];
+  }
+
+  /**
+   * Adds a value to the set, unless there already is an equivalent value in
+   * it.
+   *
+   * @return true when the value was added, false when it was already in the
+   *   set
+   */
+  boolean add(T value) {
+    JmesPathType type = runtime.typeOf(value);
+    if (kind == null) {
+      if (type == JmesPathType.STRING) {
+        kind = Kind.STRINGS;
+        strings = new String[INITIAL_CAPACITY];
+      } else if (type == JmesPathType.NUMBER && StructuralEquivalence.isIntegral(runtime, value)) {
+        kind = Kind.INTEGERS;
+        integers = new long[INITIAL_CAPACITY];
+      } else {
+        kind = Kind.VALUES;
+      }
+    }
+    if (kind == Kind.STRINGS) {
+      if (type == JmesPathType.STRING) {
+        return addString(value, runtime.toString(value));
+      }
+      switchToValues();
+    } else if (kind == Kind.INTEGERS) {
+      if (type == JmesPathType.NUMBER && StructuralEquivalence.isIntegral(runtime, value)) {
+        return addInteger(value, StructuralEquivalence.toLong(runtime, value));
+      }
+      switchToValues();
+    }
+    return addValue(value);
+  }
+
+  /**
+   * Returns the values of the set in the order they were added.
+   */
+  List<T> values() {
+    return values;
+  }
+
+  int size() {
+    return values.size();
+  }
+
+  private boolean addString(T value, String string) {
+    int hash = StructuralEquivalence.mix(string.hashCode());
+    int mask = positions.length - 1;
+    for (int i = hash & mask; ; i = (i + 1) & mask) {
+      int position = positions[i];
+      if (position == 0) {
+        if (values.size() == strings.length) {
+          strings = Arrays.copyOf(strings, strings.length * 2);
+        }
+        strings[values.size()] = string;
+        insert(i, hash, value);
+        return true;
+      } else if (hashes[i] == hash && strings[position - 1].equals(string)) {
+        return false;
+      }
+    }
+  }
+
+  private boolean addInteger(T value, long integer) {
+    int hash = StructuralEquivalence.mix((int) (integer ^ (integer >>> 32)));
+    int mask = positions.length - 1;
+    for (int i = hash & mask; ; i = (i + 1) & mask) {
+      int position = positions[i];
+      if (position == 0) {
+        if (values.size() == integers.length) {
+          integers = Arrays.copyOf(integers, integers.length * 2);
+        }
+        integers[values.size()] = integer;
+        insert(i, hash, value);
+        return true;
+      } else if (hashes[i] == hash && integers[position - 1] == integer) {
+        return false;
+      }
+    }
+  }
+
+  private boolean addValue(T value) {
+    int hash = StructuralEquivalence.mix(StructuralEquivalence.hash(runtime, value));
+    int mask = positions.length - 1;
+    for (int i = hash & mask; ; i = (i + 1) & mask) {
+      int position = positions[i];
+      if (position == 0) {
+        insert(i, hash, value);
+        return true;
+      } else if (hashes[i] == hash && StructuralEquivalence.equivalent(runtime, values.get(position - 1), value)) {
+        return false;
+      }
+    }
+  }
+
+  private void insert(int slot, int hash, T value) {
+    values.add(value);
+    positions[slot] = values.size();
+    hashes[slot] = hash;
+    if (values.size() * 2 > positions.length) {
+      resize(positions.length * 2);
+    }
+  }
+
+  private void resize(int capacity) {
+    int[] oldPositions = positions;
+    int[] oldHashes = hashes;
+    positions = new int[capacity];
+    hashes = new int[capacity];
+    int mask = capacity - 1;
+    for (int j = 0; j < oldPositions.length; j++) {
+      if (oldPositions[j] != 0) {
+        int i = oldHashes[j] & mask;
+        while (positions[i] != 0) {
+          i = (i + 1) & mask;
+        }
+        positions[i] = oldPositions[j];
+        hashes[i] = oldHashes[j];
+      }
+    }
+  }
+
+  private void switchToValues() {
+    kind = Kind.VALUES;
+    strings = null;
+    integers = null;
+    Arrays.fill(positions, 0);
+    int mask = positions.length - 1;
+    for (int position = 1; position <= values.size(); position++) {
+      int hash = StructuralEquivalence.mix(StructuralEquivalence.hash(runtime, values.get(position - 1)));
+      int i = hash & mask;
+      while (positions[i] != 0) {
+        i = (i + 1) & mask;
+      }
+      positions[i] = position;
+      hashes[i] = hash;
+    }
+  }
+}
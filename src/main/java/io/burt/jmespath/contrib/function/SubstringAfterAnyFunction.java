@@ -0,0 +1,35 @@
+package io.burt.jmespath.contrib.function;
+
+import java.util.List;
+
+import io.burt.jmespath.Adapter;
+import io.burt.jmespath.contrib.util.AhoCorasick;
+import io.burt.jmespath.function.FunctionArgument;
+
+/**
+ * Returns the part of a string after the first occurrence of any of an
+ * array of needles, or the empty string when none of them occur, like
+ * {@link SubstringAfterFunction} does for one needle. When several needles
+ * occur at the same position the one that comes first in the array is the
+ * one that the result comes after.
+ */
+public class SubstringAfterAnyFunction extends SubstringSetFunction {
+  public SubstringAfterAnyFunction() {
+    this(NeedleSetCache.defaultCache());
+  }
+
+  public SubstringAfterAnyFunction(NeedleSetCache needleSetCache) {
+    super(needleSetCache);
+  }
+
+  @Override
+  protected <T> T callFunction(Adapter<T> runtime, List<FunctionArgument<T>> arguments, AhoCorasick needles) {
+    String haystack = getHaystack(runtime, arguments);
+    AhoCorasick.Match match = needles.findFirst(haystack);
+    if (match == null) {
+      return runtime.createString("");
+    } else {
+      return runtime.createString(haystack.substring(match.end()));
+    }
+  }
+}
@@ -0,0 +1,33 @@
+package io.burt.jmespath.contrib.function;
+
+import java.util.List;
+
+import io.burt.jmespath.Adapter;
+import io.burt.jmespath.contrib.util.AhoCorasick;
+import io.burt.jmespath.function.FunctionArgument;
+
+/**
+ * Returns the part of a string before the first occurrence of any of an
+ * array of needles, or the empty string when none of them occur, like
+ * {@link SubstringBeforeFunction} does for one needle.
+ */
+public class SubstringBeforeAnyFunction extends SubstringSetFunction {
+  public SubstringBeforeAnyFunction() {
+    this(NeedleSetCache.defaultCache());
+  }
+
+  public SubstringBeforeAnyFunction(NeedleSetCache needleSetCache) {
+    super(needleSetCache);
+  }
+
+  @Override
+  protected <T> T callFunction(Adapter<T> runtime, List<FunctionArgument<T>> arguments, AhoCorasick needles) {
+    String haystack = getHaystack(runtime, arguments);
+    AhoCorasick.Match match = needles.findFirst(haystack);
+    if (match == null) {
+      return runtime.createString("");
+    } else {
+      return runtime.createString(haystack.substring(0, match.start()));
+    }
+  }
+}
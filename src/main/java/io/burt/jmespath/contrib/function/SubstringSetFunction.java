@@ -0,0 +1,95 @@
+package io.burt.jmespath.contrib.function;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import io.burt.jmespath.Adapter;
+import io.burt.jmespath.JmesPathType;
+import io.burt.jmespath.contrib.util.AhoCorasick;
+import io.burt.jmespath.function.ArgumentConstraints;
+import io.burt.jmespath.function.BaseFunction;
+import io.burt.jmespath.function.Function;
+import io.burt.jmespath.function.FunctionArgument;
+
+/**
+ * Base class for the functions that search a string for any of an array of
+ * needles, which take the string and the array.
+ * <p>
+ * Like for {@link SubstringBeforeFunction} a null string counts as the
+ * empty string, and empty needles never occur. The needles are searched for
+ * with an {@link AhoCorasick} automaton, which scans the string once
+ * however many needles there are.
+ * <p>
+ * The automata are cached in a {@link NeedleSetCache}, by the contents of
+ * the array. When the needles are a literal array the automaton is built
+ * when the call site is specialized, and the array is neither checked nor
+ * looked up in the cache again.
+ */
+public abstract class SubstringSetFunction extends SubstringMatchingFunction implements SpecializableFunction {
+  private final NeedleSetCache needleSetCache;
+
+  public SubstringSetFunction(NeedleSetCache needleSetCache) {
+    super(
+      ArgumentConstraints.anyValue(),
+      ArgumentConstraints.arrayOf(ArgumentConstraints.typeOf(JmesPathType.STRING))
+    );
+    this.needleSetCache = needleSetCache;
+  }
+
+  @Override
+  protected <T> T callFunction(Adapter<T> runtime, List<FunctionArgument<T>> arguments) {
+    AhoCorasick automaton = needleSetCache.get(toStrings(runtime, arguments.get(1).value()));
+    return callFunction(runtime, arguments, automaton);
+  }
+
+  /**
+   * Performs the function call with the automaton for the needles.
+   */
+  protected abstract <T> T callFunction(Adapter<T> runtime, List<FunctionArgument<T>> arguments, AhoCorasick needles);
+
+  /**
+   * When the needles are a literal array of strings the automaton is built
+   * at once.
+   */
+  @Override
+  public <T> Function specialize(Adapter<T> runtime, List<T> literalArguments) {
+    T needles = literalArguments.get(1);
+    if (needles == null || runtime.typeOf(needles) != JmesPathType.ARRAY) {
+      return null;
+    }
+    for (T needle : runtime.toList(needles)) {
+      if (runtime.typeOf(needle) != JmesPathType.STRING) {
+        return null;
+      }
+    }
+    return new PrebuiltAutomatonFunction(needleSetCache.get(toStrings(runtime, needles)));
+  }
+
+  protected <T> String getHaystack(Adapter<T> runtime, List<FunctionArgument<T>> arguments) {
+    T haystack = arguments.get(0).value();
+    return runtime.typeOf(haystack) != JmesPathType.NULL ? runtime.toString(haystack) : "";
+  }
+
+  private <T> List<String> toStrings(Adapter<T> runtime, T array) {
+    List<T> values = runtime.toList(array);
+    List<String> strings = new ArrayList<>(values.size());
+    for (T value : values) {
+      strings.add(runtime.toString(value));
+    }
+    return strings;
+  }
+
+  private class PrebuiltAutomatonFunction extends BaseFunction {
+    private final AhoCorasick needles;
+
+    PrebuiltAutomatonFunction(AhoCorasick needles) {
+      super(SubstringSetFunction.this.name(), SubstringSetFunction.this.argumentConstraints());
+      this.needles = needles;
+    }
+
+    @Override
+    protected <T> T callFunction(Adapter<T> runtime, List<FunctionArgument<T>> arguments) {
+      return SubstringSetFunction.this.callFunction(runtime, arguments, needles);
+    }
+  }
+}
@@ -1,6 +1,22 @@
 package io.burt.jmespath.contrib.function;
 
 public class SubtractFunction extends MathBiFunction {
+    private static final ExactOperation EXACT_SUBTRACT = new ExactOperation() {
+        @Override
+        public boolean canPerform(long x, long y) {
+            return !ExactMath.subtractOverflows(x, y);
+        }
+
+        @Override
+        public long perform(long x, long y) {
+            return x - y;
+        }
+    };
+
+    public SubtractFunction() {
+        super(EXACT_SUBTRACT);
+    }
+
     @Override
     protected double performMathOperation(double x, double y) {
         return x - y;
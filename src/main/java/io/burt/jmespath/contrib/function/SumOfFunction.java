@@ -0,0 +1,31 @@
+package io.burt.jmespath.contrib.function;
+
+import java.util.List;
+
+import io.burt.jmespath.Adapter;
+import io.burt.jmespath.JmesPathType;
+import io.burt.jmespath.function.ArgumentConstraints;
+import io.burt.jmespath.function.ArrayMathFunction;
+
+/**
+ * Sums an array of numbers in a single pass. The sum is exact, and an
+ * integer, as long as all numbers are integers and the sum fits in a
+ * <code>long</code>, after that compensated summation is used to keep
+ * rounding errors small.
+ * <p>
+ * The sum of an empty array is zero.
+ */
+public class SumOfFunction extends ArrayMathFunction {
+  public SumOfFunction() {
+    super(ArgumentConstraints.typeOf(JmesPathType.NUMBER));
+  }
+
+  @Override
+  protected <T> T performMathOperation(Adapter<T> runtime, List<T> values) {
+    NumberAccumulator.Sum sum = new NumberAccumulator.Sum();
+    for (T value : values) {
+      sum.accumulate(runtime, value);
+    }
+    return sum.result(runtime);
+  }
+}
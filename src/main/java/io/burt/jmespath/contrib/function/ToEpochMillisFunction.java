@@ -0,0 +1,30 @@
+package io.burt.jmespath.contrib.function;
+
+import java.util.List;
+
+import io.burt.jmespath.Adapter;
+import io.burt.jmespath.JmesPathType;
+import io.burt.jmespath.contrib.time.IsoDateTime;
+import io.burt.jmespath.function.ArgumentConstraints;
+import io.burt.jmespath.function.FunctionArgument;
+
+/**
+ * Returns the milliseconds since the epoch of an ISO-8601 date time string,
+ * or null when the string is not a date time. Numbers are returned as
+ * integers, rounded down.
+ */
+public class ToEpochMillisFunction extends DateFunction {
+  public ToEpochMillisFunction() {
+    super(ArgumentConstraints.typeOf(JmesPathType.NUMBER, JmesPathType.STRING));
+  }
+
+  @Override
+  protected <T> T callFunction(Adapter<T> runtime, List<FunctionArgument<T>> arguments) {
+    long millis = toEpochMillis(runtime, arguments.get(0).value());
+    if (millis == IsoDateTime.INVALID) {
+      return runtime.createNull();
+    } else {
+      return runtime.createNumber(millis);
+    }
+  }
+}
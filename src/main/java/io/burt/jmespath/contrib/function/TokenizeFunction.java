@@ -1,32 +1,226 @@
 package io.burt.jmespath.contrib.function;
 
-import java.util.LinkedList;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.regex.Pattern;
 
 import io.burt.jmespath.Adapter;
 import io.burt.jmespath.JmesPathType;
+import io.burt.jmespath.contrib.Deadline;
+import io.burt.jmespath.contrib.regex.CompiledRegex;
+import io.burt.jmespath.contrib.regex.JavaRegexEngine;
+import io.burt.jmespath.contrib.regex.RegexMatcher;
 import io.burt.jmespath.function.ArgumentConstraints;
 import io.burt.jmespath.function.FunctionArgument;
 
+/**
+ * Splits a string into tokens, either at whitespace or at the matches of a
+ * regular expression.
+ * <p>
+ * An optional fourth argument limits the number of tokens, the string is not
+ * scanned further once the limit is reached and the rest of it is discarded,
+ * so <code>tokenize(line, ',', '', `3`)</code> returns the first three
+ * fields of a comma separated line. A limit less than one means no limit.
+ * <p>
+ * The default whitespace splitting and patterns without any regular expression
+ * metacharacters (or with the <code>q</code> flag) are handled without the
+ * regular expression engine.
+ * <p>
+ * When the search has a {@link Deadline} each token counts as a step for
+ * every character in it, and regular expressions are matched against input
+ * that checks the deadline as it is read.
+ */
 public class TokenizeFunction extends RegularExpressionFunction {
+  private static final CompiledRegex WHITESPACE = new JavaRegexEngine().compile("\\s+", 0);
+
+  private static final String METACHARACTERS = "\\^$.|?*+()[]{}";
+
   public TokenizeFunction() {
-    super(ArgumentConstraints.listOf(1, 3, ArgumentConstraints.typeOf(JmesPathType.STRING)));
+    this(PatternCache.defaultCache());
+  }
+
+  public TokenizeFunction(PatternCache patternCache) {
+    super(patternCache, new PartialListOf(1,
+      ArgumentConstraints.typeOf(JmesPathType.STRING),
+      ArgumentConstraints.typeOf(JmesPathType.STRING),
+      ArgumentConstraints.typeOf(JmesPathType.STRING),
+      ArgumentConstraints.typeOf(JmesPathType.NUMBER)
+    ));
   }
 
   @Override
-  protected <T> T callFunction(Adapter<T> runtime, List<FunctionArgument<T>> arguments) {
-    List<T> result = new LinkedList<>();
-    Pattern pattern = (arguments.size() > 1) ? getPattern(runtime, arguments) : Pattern.compile("\\s+");
-    for (String parts: pattern.split(getInputString(runtime, arguments), -1)) {
-      if (customPattern(arguments) || !isEmpty(parts)) {
-        result.add(runtime.createString(parts));
+  protected <T> T callFunction(Adapter<T> runtime, List<FunctionArgument<T>> arguments, CompiledRegex pattern) {
+    String input = getInputString(runtime, arguments);
+    int limit = getLimit(runtime, arguments);
+    Tokens tokens = new Tokens(Deadline.current());
+    if (!customPattern(arguments)) {
+      tokens = splitAtWhitespace(tokens, input, limit);
+    } else {
+      String separator = literalSeparator(pattern);
+      if (separator != null) {
+        tokens = splitAtLiteral(tokens, input, separator, limit);
+      } else {
+        tokens = splitAtMatches(tokens, input, pattern, limit);
       }
     }
-    return runtime.createArray(result);
+    return tokens.toArray(runtime, input);
+  }
+
+  @Override
+  protected <T> CompiledRegex getPattern(Adapter<T> runtime, List<FunctionArgument<T>> arguments) {
+    return customPattern(arguments) ? super.getPattern(runtime, arguments) : WHITESPACE;
   }
 
   private <T> boolean customPattern(List<FunctionArgument<T>> arguments) {
     return 1 < arguments.size();
   }
+
+  private <T> int getLimit(Adapter<T> runtime, List<FunctionArgument<T>> arguments) {
+    if (arguments.size() <= limitArgumentPosition()) {
+      return Integer.MAX_VALUE;
+    }
+    double limit = runtime.toNumber(arguments.get(limitArgumentPosition()).value()).doubleValue();
+    return limit < 1 ? Integer.MAX_VALUE : (int) Math.min(limit, Integer.MAX_VALUE);
+  }
+
+  protected int limitArgumentPosition() {
+    return 3;
+  }
+
+  /**
+   * Returns the string the pattern matches when it can only match that
+   * string, exactly, or null when the pattern needs the regular expression
+   * engine.
+   */
+  private static String literalSeparator(CompiledRegex pattern) {
+    int flags = pattern.flags();
+    if ((flags & (Pattern.CASE_INSENSITIVE | Pattern.COMMENTS | Pattern.CANON_EQ)) != 0) {
+      return null;
+    }
+    String regex = pattern.pattern();
+    if ((flags & Pattern.LITERAL) == 0) {
+      for (int i = 0; i < regex.length(); i++) {
+        if (METACHARACTERS.indexOf(regex.charAt(i)) >= 0) {
+          return null;
+        }
+      }
+    }
+    return regex;
+  }
+
+  /**
+   * Equivalent to splitting at {@link #WHITESPACE} and dropping empty tokens.
+   */
+  private static Tokens splitAtWhitespace(Tokens tokens, String input, int limit) {
+    int length = input.length();
+    int i = 0;
+    while (i < length && tokens.size() < limit) {
+      while (i < length && isWhitespace(input.charAt(i))) {
+        i++;
+      }
+      if (i == length) {
+        break;
+      }
+      int start = i;
+      while (i < length && !isWhitespace(input.charAt(i))) {
+        i++;
+      }
+      tokens.add(start, i);
+    }
+    return tokens;
+  }
+
+  private static boolean isWhitespace(char c) {
+    return c == ' ' || ('\t' <= c && c <= '\r');
+  }
+
+  /**
+   * Equivalent to {@link String#split(String, int)} with a negative limit,
+   * for a separator that is not empty, but without any regular expression.
+   */
+  private static Tokens splitAtLiteral(Tokens tokens, String input, String separator, int limit) {
+    int start = 0;
+    int end;
+    if (separator.length() == 1) {
+      char c = separator.charAt(0);
+      while (tokens.size() < limit && (end = input.indexOf(c, start)) >= 0) {
+        tokens.add(start, end);
+        start = end + 1;
+      }
+    } else {
+      while (tokens.size() < limit && (end = input.indexOf(separator, start)) >= 0) {
+        tokens.add(start, end);
+        start = end + separator.length();
+      }
+    }
+    tokens.addLast(input, start, limit);
+    return tokens;
+  }
+
+  /**
+   * Equivalent to {@link Pattern#split(CharSequence, int)} with a negative
+   * limit.
+   */
+  private static Tokens splitAtMatches(Tokens tokens, String input, CompiledRegex pattern, int limit) {
+    RegexMatcher matcher = pattern.matcher(Deadline.interruptible(input));
+    int start = 0;
+    while (tokens.size() < limit && matcher.find()) {
+      if (matcher.end() == 0) {
+        continue;
+      }
+      tokens.add(start, matcher.start());
+      start = matcher.end();
+    }
+    tokens.addLast(input, start, limit);
+    return tokens;
+  }
+
+  /**
+   * The start and end offsets of the tokens found so far, so that the strings
+   * and the result array are only created once the number of tokens is known.
+   */
+  private static class Tokens {
+    private final Deadline deadline;
+    private int[] offsets = new int[16];
+    private int size;
+
+    Tokens(Deadline deadline) {
+      this.deadline = deadline;
+    }
+
+    void add(int start, int end) {
+      if (deadline != null) {
+        deadline.check(end - start + 1);
+      }
+      if (offsets.length < 2 * size + 2) {
+        offsets = Arrays.copyOf(offsets, 2 * offsets.length);
+      }
+      offsets[2 * size] = start;
+      offsets[2 * size + 1] = end;
+      size++;
+    }
+
+    /**
+     * Adds the last token, unless the limit has been reached, in which case
+     * the scan stopped early and the rest of the input is discarded.
+     */
+    void addLast(String input, int start, int limit) {
+      if (size < limit) {
+        add(start, input.length());
+      }
+    }
+
+    int size() {
+      return size;
+    }
+
+    <T> T toArray(Adapter<T> runtime, String input) {
+      List<T> result = new ArrayList<>(size);
+      for (int i = 0; i < size; i++) {
+        result.add(runtime.createString(input.substring(offsets[2 * i], offsets[2 * i + 1])));
+      }
+      return runtime.createArray(result);
+    }
+  }
 }
@@ -1,58 +1,108 @@
 package io.burt.jmespath.contrib.function;
 
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 
 import io.burt.jmespath.Adapter;
 import io.burt.jmespath.JmesPathType;
+import io.burt.jmespath.contrib.Deadline;
+import io.burt.jmespath.contrib.util.LruCache;
 import io.burt.jmespath.function.ArgumentConstraints;
+import io.burt.jmespath.function.BaseFunction;
+import io.burt.jmespath.function.Function;
 import io.burt.jmespath.function.FunctionArgument;
 
-public class TranslateFunction extends SubstringMatchingFunction {
+public class TranslateFunction extends SubstringMatchingFunction implements SpecializableFunction {
+  private static final LruCache<TableKey, TranslationTable> translationTables = new LruCache<>(256);
+
   public TranslateFunction() {
     super(ArgumentConstraints.listOf(3, 3, ArgumentConstraints.typeOf(JmesPathType.STRING)));
   }
 
   @Override
   protected <T> T callFunction(Adapter<T> runtime, List<FunctionArgument<T>> arguments) {
-    String arg = runtime.toString(arguments.get(0).value());
     String map = runtime.toString(arguments.get(1).value());
     String trans = runtime.toString(arguments.get(2).value());
+    return translate(runtime, arguments.get(0).value(), translationTable(map, trans));
+  }
 
-    if (isEmpty(arg)) {
-      return runtime.createString("");
+  /**
+   * When both the map and the translation strings are literals the
+   * translation table is built at once, instead of looked up on every call.
+   */
+  @Override
+  public <T> Function specialize(Adapter<T> runtime, List<T> literalArguments) {
+    T map = literalArguments.get(1);
+    T trans = literalArguments.get(2);
+    if (map != null && trans != null && runtime.typeOf(map) == JmesPathType.STRING && runtime.typeOf(trans) == JmesPathType.STRING) {
+      return new PrebuiltTableFunction(TranslationTable.create(runtime.toString(map), runtime.toString(trans)));
     } else {
-      return runtime.createString(replaceChars(arg, map, trans));
+      return null;
+    }
+  }
+
+  private static <T> T translate(Adapter<T> runtime, T value, TranslationTable table) {
+    String arg = runtime.toString(value);
+    Deadline.checkCurrent(arg.length());
+    String translated = table.translate(arg);
+    if (translated == arg) {
+      return value;
+    } else {
+      return runtime.createString(translated);
     }
   }
 
   protected static String replaceChars(String input, String from, String to) {
-    StringBuilder sb = new StringBuilder();
-    Map<Character, Character> map = buildTranslationMap(from, to);
-
-    for (int i = 0; i < input.length(); ++i) {
-      Character ch = input.charAt(i);
-      if (map.containsKey(ch)) {
-        Character tr = map.get(ch);
-        if (null != tr) {
-          sb.append(tr);
-        }
-      } else {
-        sb.append(ch);
-      }
+    return translationTable(from, to).translate(input);
+  }
+
+  private static TranslationTable translationTable(String from, String to) {
+    TableKey key = new TableKey(from, to);
+    TranslationTable table = translationTables.get(key);
+    if (table == null) {
+      table = TranslationTable.create(from, to);
+      translationTables.put(key, table);
+    }
+    return table;
+  }
+
+  private class PrebuiltTableFunction extends BaseFunction {
+    private final TranslationTable table;
+
+    PrebuiltTableFunction(TranslationTable table) {
+      super(TranslateFunction.this.name(), TranslateFunction.this.argumentConstraints());
+      this.table = table;
+    }
+
+    @Override
+    protected <T> T callFunction(Adapter<T> runtime, List<FunctionArgument<T>> arguments) {
+      return translate(runtime, arguments.get(0).value(), table);
     }
-    return sb.toString();
   }
 
-  private static Map<Character, Character> buildTranslationMap(String from, String to) {
-    Map<Character, Character> map = new HashMap<>();
-    for (int i = 0; i < from.length(); ++i) {
-      Character ch  = from.charAt(i);
-      if (!map.containsKey(ch)) {
-        map.put(from.charAt(i), i < to.length() ? to.charAt(i) : null);
+  private static class TableKey {
+    private final String from;
+    private final String to;
+
+    TableKey(String from, String to) {
+      this.from = from;
+      this.to = to;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (!(o instanceof TableKey)) {
+        return false;
       }
+      TableKey other = (TableKey) o;
+      return from.equals(other.from) && to.equals(other.to);
+    }
+
+    @Override
+    public int hashCode() {
+      return 31 * from.hashCode() + to.hashCode();
     }
-    return map;
   }
 }
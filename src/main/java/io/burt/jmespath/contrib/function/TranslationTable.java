@@ -0,0 +1,162 @@
+package io.burt.jmespath.contrib.function;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * A compiled character translation, as performed by {@link TranslateFunction}.
+ * <p>
+ * Characters in the basic multilingual plane are looked up in a dense table
+ * that covers the range between the lowest and the highest character that is
+ * translated, with a bit set marking the characters that should be deleted.
+ * Supplementary characters, and characters that translate into supplementary
+ * characters, are looked up in a map, which is only consulted when the
+ * translation contains such characters. Surrogate pairs are looked up in the
+ * map before the dense table, which can span the surrogate range when the
+ * translated characters are on both sides of it.
+ */
+final class TranslationTable {
+  private static final int DELETE = -1;
+
+  private final int offset;
+  private final char[] replacements;
+  private final long[] deletions;
+  private final long[] fallbacks;
+  private final Map<Integer, Integer> fallbackReplacements;
+  private final boolean supplementary;
+
+  private TranslationTable(Map<Integer, Integer> translations) {
+    int min = Character.MAX_VALUE;
+    int max = Character.MIN_VALUE;
+    boolean supplementary = false;
+    for (int codePoint : translations.keySet()) {
+      if (Character.isSupplementaryCodePoint(codePoint)) {
+        supplementary = true;
+      } else {
+        min = Math.min(min, codePoint);
+        max = Math.max(max, codePoint);
+      }
+    }
+    int length = Math.max(0, max - min + 1);
+    this.offset = min;
+    this.replacements = new char[length];
+    this.deletions = new long[(length + 63) >>> 6];
+    this.fallbacks = new long[(length + 63) >>> 6];
+    this.fallbackReplacements = new HashMap<>();
+    this.supplementary = supplementary;
+    for (int i = 0; i < length; i++) {
+      replacements[i] = (char) (min + i);
+    }
+    for (Map.Entry<Integer, Integer> translation : translations.entrySet()) {
+      int codePoint = translation.getKey();
+      int replacement = translation.getValue();
+      if (Character.isSupplementaryCodePoint(codePoint)) {
+        fallbackReplacements.put(codePoint, replacement);
+      } else if (Character.isSupplementaryCodePoint(replacement)) {
+        fallbackReplacements.put(codePoint, replacement);
+        set(fallbacks, codePoint - min);
+        replacements[codePoint - min] = notEqualTo(codePoint);
+      } else if (replacement == DELETE) {
+        set(deletions, codePoint - min);
+        replacements[codePoint - min] = notEqualTo(codePoint);
+      } else {
+        replacements[codePoint - min] = (char) replacement;
+      }
+    }
+  }
+
+  /**
+   * Creates a table that translates each character in the first string into
+   * the character at the same position in the second string, or deletes it
+   * if the second string is shorter. Only the first occurrence of a character
+   * in the first string is used.
+   */
+  static TranslationTable create(String from, String to) {
+    Map<Integer, Integer> translations = new HashMap<>();
+    int j = 0;
+    for (int i = 0; i < from.length(); ) {
+      int codePoint = from.codePointAt(i);
+      int replacement = DELETE;
+      if (j < to.length()) {
+        replacement = to.codePointAt(j);
+        j += Character.charCount(replacement);
+      }
+      if (!translations.containsKey(codePoint)) {
+        translations.put(codePoint, replacement);
+      }
+      i += Character.charCount(codePoint);
+    }
+    return new TranslationTable(translations);
+  }
+
+  /**
+   * Translates the input, returning the same string instance when no
+   * character in it is translated.
+   */
+  String translate(String input) {
+    int length = input.length();
+    for (int i = 0; i < length; i++) {
+      char c = input.charAt(i);
+      int index = c - offset;
+      if (supplementary && Character.isHighSurrogate(c) && fallbackReplacements.containsKey(input.codePointAt(i))) {
+        return translate(input, i);
+      } else if (index >= 0 && index < replacements.length && replacements[index] != c) {
+        return translate(input, i);
+      }
+    }
+    return input;
+  }
+
+  private String translate(String input, int start) {
+    int length = input.length();
+    char[] output = new char[length + (fallbackReplacements.isEmpty() ? 0 : length)];
+    input.getChars(0, start, output, 0);
+    int n = start;
+    for (int i = start; i < length; i++) {
+      char c = input.charAt(i);
+      int index = c - offset;
+      Integer supplementaryReplacement = null;
+      int codePoint = c;
+      if (supplementary && Character.isHighSurrogate(c)) {
+        codePoint = input.codePointAt(i);
+        if (Character.isSupplementaryCodePoint(codePoint)) {
+          supplementaryReplacement = fallbackReplacements.get(codePoint);
+        }
+      }
+      if (supplementaryReplacement != null) {
+        if (supplementaryReplacement != DELETE) {
+          n += Character.toChars(supplementaryReplacement, output, n);
+        }
+        i += Character.charCount(codePoint) - 1;
+      } else if (index >= 0 && index < replacements.length) {
+        char replacement = replacements[index];
+        if (replacement == c || !(isSet(deletions, index) || isSet(fallbacks, index))) {
+          output[n++] = replacement;
+        } else if (isSet(fallbacks, index)) {
+          n += Character.toChars(fallbackReplacements.get((int) c), output, n);
+        }
+      } else {
+        output[n++] = c;
+      }
+    }
+    return new String(output, 0, n);
+  }
+
+  /**
+   * Deleted characters, and characters that are looked up in the fallback map,
+   * get a replacement that is different from the character itself in the
+   * dense table, so that scanning for characters to translate only has to
+   * compare against the table.
+   */
+  private static char notEqualTo(int c) {
+    return (char) (c ^ 1);
+  }
+
+  private static void set(long[] bits, int index) {
+    bits[index >>> 6] |= 1L << index;
+  }
+
+  private static boolean isSet(long[] bits, int index) {
+    return (bits[index >>> 6] & (1L << index)) != 0;
+  }
+}
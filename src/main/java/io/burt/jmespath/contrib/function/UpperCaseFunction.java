@@ -1,21 +1,24 @@
 package io.burt.jmespath.contrib.function;
 
-import java.util.List;
+import java.util.Locale;
 
-import io.burt.jmespath.Adapter;
-import io.burt.jmespath.JmesPathType;
-import io.burt.jmespath.function.ArgumentConstraints;
-import io.burt.jmespath.function.BaseFunction;
-import io.burt.jmespath.function.FunctionArgument;
+public class UpperCaseFunction extends CaseConversionFunction {
+  private static final char[] ASCII_TABLE = asciiTable('a', 'A');
 
-public class UpperCaseFunction extends BaseFunction {
   public UpperCaseFunction() {
-    super(ArgumentConstraints.typeOf(JmesPathType.STRING));
+    this(null);
+  }
+
+  /**
+   * Creates a function that converts strings according to the rules of the
+   * specified locale, instead of those of the default locale.
+   */
+  public UpperCaseFunction(Locale locale) {
+    super(locale, ASCII_TABLE);
   }
 
   @Override
-  protected <T> T callFunction(Adapter<T> runtime, List<FunctionArgument<T>> arguments) {
-    T arg = arguments.get(0).value();
-    return runtime.createString(runtime.toString(arg).toUpperCase());
+  protected String convertWithLocale(String str, Locale locale) {
+    return str.toUpperCase(locale);
   }
 }
@@ -0,0 +1,33 @@
+package io.burt.jmespath.contrib.function;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import io.burt.jmespath.Adapter;
+import io.burt.jmespath.contrib.Deadline;
+import io.burt.jmespath.contrib.regex.RegexSet;
+import io.burt.jmespath.function.FunctionArgument;
+
+/**
+ * Returns the indexes, in ascending order, of the regular expressions in an
+ * array that match some part of a string, scanning the string only once.
+ */
+public class WhichMatchesFunction extends RegularExpressionSetFunction {
+  public WhichMatchesFunction() {
+    this(PatternCache.defaultCache());
+  }
+
+  public WhichMatchesFunction(PatternCache patternCache) {
+    super(patternCache);
+  }
+
+  @Override
+  protected <T> T callFunction(Adapter<T> runtime, List<FunctionArgument<T>> arguments, RegexSet patterns) {
+    int[] indexes = patterns.findAll(Deadline.interruptible(runtime.toString(arguments.get(0).value())));
+    List<T> result = new ArrayList<>(indexes.length);
+    for (int index : indexes) {
+      result.add(runtime.createNumber(index));
+    }
+    return runtime.createArray(result);
+  }
+}
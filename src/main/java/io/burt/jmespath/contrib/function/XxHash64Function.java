@@ -0,0 +1,28 @@
+package io.burt.jmespath.contrib.function;
+
+import io.burt.jmespath.Adapter;
+import io.burt.jmespath.contrib.hash.XxHash64;
+
+/**
+ * Returns the 64 bit xxHash of one or more values, as a signed integer, see
+ * {@link HashFunction} and {@link XxHash64}.
+ * <p>
+ * Unlike the other hash functions this one returns a number, which is
+ * convenient for picking a shard, but note that JSON parsers that read
+ * numbers as doubles lose the lowest bits of large hashes.
+ */
+public class XxHash64Function extends HashFunction<XxHash64> {
+  public XxHash64Function() {
+    super("xxhash64");
+  }
+
+  @Override
+  protected XxHash64 createHash() {
+    return new XxHash64();
+  }
+
+  @Override
+  protected <T> T result(Adapter<T> runtime, XxHash64 hash) {
+    return runtime.createNumber(hash.digestAsLong());
+  }
+}
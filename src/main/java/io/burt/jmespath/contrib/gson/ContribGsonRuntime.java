@@ -0,0 +1,63 @@
+package io.burt.jmespath.contrib.gson;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+
+import com.google.gson.JsonElement;
+
+import io.burt.jmespath.RuntimeConfiguration;
+import io.burt.jmespath.contrib.function.PrimitiveNumberAdapter;
+import io.burt.jmespath.contrib.util.IntegerLiterals;
+import io.burt.jmespath.gson.GsonRuntime;
+
+/**
+ * A {@link GsonRuntime} that also implements the optional adapter interfaces
+ * of this library, so that the contributed functions can take their faster
+ * paths.
+ * <p>
+ * Gson keeps the numbers it parses as their text, and parses them every
+ * time they are read. This runtime reads integers with a single scan of the
+ * text, which tells whether the number is an integer that fits in a
+ * <code>long</code> and what its value is, instead of converting the text
+ * with {@link Long#parseLong}, which throws for numbers that are not
+ * integers, and then with {@link BigDecimal}. See
+ * {@link PrimitiveNumberAdapter}.
+ */
+public class ContribGsonRuntime extends GsonRuntime implements PrimitiveNumberAdapter<JsonElement> {
+  public ContribGsonRuntime() {
+    super();
+  }
+
+  public ContribGsonRuntime(RuntimeConfiguration configuration) {
+    super(configuration);
+  }
+
+  @Override
+  public boolean isIntegralNumber(JsonElement value) {
+    Number number = value.getAsNumber();
+    if (number instanceof Integer || number instanceof Long || number instanceof Short || number instanceof Byte) {
+      return true;
+    } else if (number instanceof Double || number instanceof Float || number instanceof BigDecimal) {
+      return false;
+    } else if (number instanceof BigInteger) {
+      return ((BigInteger) number).bitLength() < 64;
+    } else {
+      return IntegerLiterals.isIntegerLiteral(number.toString());
+    }
+  }
+
+  @Override
+  public long toLong(JsonElement value) {
+    Number number = value.getAsNumber();
+    if (number instanceof Integer || number instanceof Long || number instanceof Short || number instanceof Byte || number instanceof BigInteger) {
+      return number.longValue();
+    } else {
+      return IntegerLiterals.parseIntegerLiteral(number.toString());
+    }
+  }
+
+  @Override
+  public double toDouble(JsonElement value) {
+    return value.getAsNumber().doubleValue();
+  }
+}
@@ -0,0 +1,38 @@
+package io.burt.jmespath.contrib.hash;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+/**
+ * A {@link StreamingHash} backed by a {@link MessageDigest}, like SHA-256 or
+ * MD5.
+ */
+public final class MessageDigestHash extends StreamingHash {
+  private final MessageDigest messageDigest;
+
+  /**
+   * @throws IllegalArgumentException when the algorithm is not available
+   */
+  public MessageDigestHash(String algorithm) {
+    try {
+      this.messageDigest = MessageDigest.getInstance(algorithm);
+    } catch (NoSuchAlgorithmException nsae) {
+      throw new IllegalArgumentException(String.format("Unknown digest algorithm: %s", algorithm), nsae);
+    }
+  }
+
+  @Override
+  public void update(byte[] bytes, int offset, int length) {
+    messageDigest.update(bytes, offset, length);
+  }
+
+  @Override
+  public byte[] digest() {
+    return messageDigest.digest();
+  }
+
+  @Override
+  public void reset() {
+    messageDigest.reset();
+  }
+}
@@ -0,0 +1,109 @@
+package io.burt.jmespath.contrib.hash;
+
+/**
+ * The 128 bit, x64 variant of Austin Appleby's MurmurHash3, with a seed of
+ * zero.
+ * <p>
+ * The digest is the first 64 bit half followed by the second, both little
+ * endian, which is the byte order that Guava's <code>murmur3_128</code> uses,
+ * so hexadecimal digests are the same as Guava's.
+ */
+public final class Murmur3x128 extends StreamingHash {
+  private static final long C1 = 0x87c37b91114253d5L;
+  private static final long C2 = 0x4cf5ad432745937fL;
+
+  private final byte[] block = new byte[16];
+  private int blockLength;
+  private long h1;
+  private long h2;
+  private long length;
+
+  @Override
+  public void update(byte[] bytes, int offset, int n) {
+    length += n;
+    if (blockLength > 0) {
+      int count = Math.min(16 - blockLength, n);
+      System.arraycopy(bytes, offset, block, blockLength, count);
+      blockLength += count;
+      offset += count;
+      n -= count;
+      if (blockLength < 16) {
+        return;
+      }
+      mix(getLongLE(block, 0), getLongLE(block, 8));
+      blockLength = 0;
+    }
+    for (; n >= 16; offset += 16, n -= 16) {
+      mix(getLongLE(bytes, offset), getLongLE(bytes, offset + 8));
+    }
+    System.arraycopy(bytes, offset, block, 0, n);
+    blockLength = n;
+  }
+
+  private void mix(long k1, long k2) {
+    h1 ^= mixK1(k1);
+    h1 = Long.rotateLeft(h1, 27);
+    h1 += h2;
+    h1 = h1 * 5 + 0x52dce729;
+    h2 ^= mixK2(k2);
+    h2 = Long.rotateLeft(h2, 31);
+    h2 += h1;
+    h2 = h2 * 5 + 0x38495ab5;
+  }
+
+  private static long mixK1(long k1) {
+    return Long.rotateLeft(k1 * C1, 31) * C2;
+  }
+
+  private static long mixK2(long k2) {
+    return Long.rotateLeft(k2 * C2, 33) * C1;
+  }
+
+  private static long fmix(long k) {
+    k ^= k >>> 33;
+    k *= 0xff51afd7ed558ccdL;
+    k ^= k >>> 33;
+    k *= 0xc4ceb9fe1a85ec53L;
+    k ^= k >>> 33;
+    return k;
+  }
+
+  @Override
+  public byte[] digest() {
+    long k1 = 0;
+    long k2 = 0;
+    for (int i = blockLength - 1; i >= 8; i--) {
+      k2 |= (block[i] & 0xffL) << (8 * (i - 8));
+    }
+    for (int i = Math.min(blockLength, 8) - 1; i >= 0; i--) {
+      k1 |= (block[i] & 0xffL) << (8 * i);
+    }
+    if (blockLength > 8) {
+      h2 ^= mixK2(k2);
+    }
+    if (blockLength > 0) {
+      h1 ^= mixK1(k1);
+    }
+    h1 ^= length;
+    h2 ^= length;
+    h1 += h2;
+    h2 += h1;
+    h1 = fmix(h1);
+    h2 = fmix(h2);
+    h1 += h2;
+    h2 += h1;
+    byte[] digest = new byte[16];
+    putLong(digest, 0, h1, false);
+    putLong(digest, 8, h2, false);
+    reset();
+    return digest;
+  }
+
+  @Override
+  public void reset() {
+    blockLength = 0;
+    h1 = 0;
+    h2 = 0;
+    length = 0;
+  }
+}
@@ -0,0 +1,133 @@
+package io.burt.jmespath.contrib.hash;
+
+/**
+ * A hash function that is fed its input a piece at a time, so that the hash
+ * of several strings can be computed without concatenating them.
+ * <p>
+ * Strings are encoded as UTF-8 into a small buffer that is reused for every
+ * update, so hashing a string allocates nothing beyond what the hash
+ * function itself needs. Unpaired surrogates are encoded as a question mark,
+ * like {@link String#getBytes(java.nio.charset.Charset)} does, so the hash of
+ * a string is always the hash of its UTF-8 bytes.
+ * <p>
+ * Instances are not thread safe, but can be reused: {@link #digest} resets
+ * the state, and so does {@link #reset}.
+ */
+public abstract class StreamingHash {
+  private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+
+  private final char[] chars = new char[256];
+  private final byte[] utf8 = new byte[1024];
+
+  public abstract void update(byte[] bytes, int offset, int length);
+
+  /**
+   * Returns the hash of everything that has been added since the last reset,
+   * and resets the state.
+   */
+  public abstract byte[] digest();
+
+  public abstract void reset();
+
+  public void update(byte[] bytes) {
+    update(bytes, 0, bytes.length);
+  }
+
+  /**
+   * Adds the UTF-8 encoding of a string.
+   */
+  public void update(String s) {
+    char[] chars = this.chars;
+    byte[] buffer = utf8;
+    int length = s.length();
+    int n = 0;
+    for (int start = 0; start < length; ) {
+      int end = Math.min(start + chars.length, length);
+      s.getChars(start, end, chars, 0);
+      int count = end - start;
+      int i = 0;
+      while (i < count) {
+        int asciiEnd = Math.min(count, i + buffer.length - n);
+        while (i < asciiEnd && chars[i] < 0x80) {
+          buffer[n++] = (byte) chars[i++];
+        }
+        if (n > buffer.length - 4) {
+          update(buffer, 0, n);
+          n = 0;
+        }
+        if (i == asciiEnd) {
+          continue;
+        }
+        char c = chars[i++];
+        if (c < 0x800) {
+          buffer[n++] = (byte) (0xc0 | (c >> 6));
+          buffer[n++] = (byte) (0x80 | (c & 0x3f));
+        } else if (Character.isSurrogate(c)) {
+          char low;
+          if (i < count) {
+            low = chars[i];
+          } else {
+            low = end < length ? s.charAt(end) : 0;
+          }
+          if (Character.isHighSurrogate(c) && Character.isLowSurrogate(low)) {
+            int codePoint = Character.toCodePoint(c, low);
+            buffer[n++] = (byte) (0xf0 | (codePoint >> 18));
+            buffer[n++] = (byte) (0x80 | ((codePoint >> 12) & 0x3f));
+            buffer[n++] = (byte) (0x80 | ((codePoint >> 6) & 0x3f));
+            buffer[n++] = (byte) (0x80 | (codePoint & 0x3f));
+            if (i++ == count) {
+              end++;
+            }
+          } else {
+            buffer[n++] = '?';
+          }
+        } else {
+          buffer[n++] = (byte) (0xe0 | (c >> 12));
+          buffer[n++] = (byte) (0x80 | ((c >> 6) & 0x3f));
+          buffer[n++] = (byte) (0x80 | (c & 0x3f));
+        }
+      }
+      start = end;
+    }
+    if (n > 0) {
+      update(buffer, 0, n);
+    }
+  }
+
+  /**
+   * Returns the digest as a string of lower case hexadecimal digits.
+   */
+  public String hexDigest() {
+    byte[] digest = digest();
+    char[] hex = new char[digest.length * 2];
+    for (int i = 0; i < digest.length; i++) {
+      hex[2 * i] = HEX_DIGITS[(digest[i] >> 4) & 0xf];
+      hex[2 * i + 1] = HEX_DIGITS[digest[i] & 0xf];
+    }
+    return new String(hex);
+  }
+
+  static long getLongLE(byte[] b, int i) {
+    return (b[i] & 0xffL)
+      | (b[i + 1] & 0xffL) << 8
+      | (b[i + 2] & 0xffL) << 16
+      | (b[i + 3] & 0xffL) << 24
+      | (b[i + 4] & 0xffL) << 32
+      | (b[i + 5] & 0xffL) << 40
+      | (b[i + 6] & 0xffL) << 48
+      | (b[i + 7] & 0xffL) << 56;
+  }
+
+  static long getIntLE(byte[] b, int i) {
+    return (b[i] & 0xffL)
+      | (b[i + 1] & 0xffL) << 8
+      | (b[i + 2] & 0xffL) << 16
+      | (b[i + 3] & 0xffL) << 24;
+  }
+
+  static void putLong(byte[] b, int i, long value, boolean bigEndian) {
+    for (int j = 0; j < 8; j++) {
+      b[i + (bigEndian ? 7 - j : j)] = (byte) (value >>> (8 * j));
+    }
+  }
+}
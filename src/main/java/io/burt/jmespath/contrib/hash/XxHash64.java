@@ -0,0 +1,121 @@
+package io.burt.jmespath.contrib.hash;
+
+/**
+ * Yann Collet's 64 bit xxHash, XXH64, with a seed of zero.
+ * <p>
+ * The hash is returned as a <code>long</code> by {@link #digestAsLong}, and
+ * as eight big endian bytes by {@link #digest}, so that the hexadecimal
+ * digest is the canonical representation of the reference implementation.
+ */
+public final class XxHash64 extends StreamingHash {
+  private static final long P1 = 0x9e3779b185ebca87L;
+  private static final long P2 = 0xc2b2ae3d27d4eb4fL;
+  private static final long P3 = 0x165667b19e3779f9L;
+  private static final long P4 = 0x85ebca77c2b2ae63L;
+  private static final long P5 = 0x27d4eb2f165667c5L;
+
+  private final byte[] stripe = new byte[32];
+  private int stripeLength;
+  private long v1;
+  private long v2;
+  private long v3;
+  private long v4;
+  private long length;
+
+  public XxHash64() {
+    reset();
+  }
+
+  @Override
+  public void update(byte[] bytes, int offset, int n) {
+    length += n;
+    if (stripeLength > 0) {
+      int count = Math.min(32 - stripeLength, n);
+      System.arraycopy(bytes, offset, stripe, stripeLength, count);
+      stripeLength += count;
+      offset += count;
+      n -= count;
+      if (stripeLength < 32) {
+        return;
+      }
+      consume(stripe, 0);
+      stripeLength = 0;
+    }
+    for (; n >= 32; offset += 32, n -= 32) {
+      consume(bytes, offset);
+    }
+    System.arraycopy(bytes, offset, stripe, 0, n);
+    stripeLength = n;
+  }
+
+  private void consume(byte[] b, int i) {
+    v1 = round(v1, getLongLE(b, i));
+    v2 = round(v2, getLongLE(b, i + 8));
+    v3 = round(v3, getLongLE(b, i + 16));
+    v4 = round(v4, getLongLE(b, i + 24));
+  }
+
+  private static long round(long acc, long input) {
+    return Long.rotateLeft(acc + input * P2, 31) * P1;
+  }
+
+  private static long mergeRound(long acc, long value) {
+    return (acc ^ round(0, value)) * P1 + P4;
+  }
+
+  /**
+   * Returns the hash of everything that has been added since the last reset,
+   * and resets the state.
+   */
+  public long digestAsLong() {
+    long h;
+    if (length >= 32) {
+      h = Long.rotateLeft(v1, 1) + Long.rotateLeft(v2, 7) + Long.rotateLeft(v3, 12) + Long.rotateLeft(v4, 18);
+      h = mergeRound(h, v1);
+      h = mergeRound(h, v2);
+      h = mergeRound(h, v3);
+      h = mergeRound(h, v4);
+    } else {
+      h = P5;
+    }
+    h += length;
+    int i = 0;
+    for (; i + 8 <= stripeLength; i += 8) {
+      h ^= round(0, getLongLE(stripe, i));
+      h = Long.rotateLeft(h, 27) * P1 + P4;
+    }
+    if (i + 4 <= stripeLength) {
+      h ^= getIntLE(stripe, i) * P1;
+      h = Long.rotateLeft(h, 23) * P2 + P3;
+      i += 4;
+    }
+    for (; i < stripeLength; i++) {
+      h ^= (stripe[i] & 0xffL) * P5;
+      h = Long.rotateLeft(h, 11) * P1;
+    }
+    h ^= h >>> 33;
+    h *= P2;
+    h ^= h >>> 29;
+    h *= P3;
+    h ^= h >>> 32;
+    reset();
+    return h;
+  }
+
+  @Override
+  public byte[] digest() {
+    byte[] digest = new byte[8];
+    putLong(digest, 0, digestAsLong(), true);
+    return digest;
+  }
+
+  @Override
+  public void reset() {
+    stripeLength = 0;
+    v1 = P1 + P2;
+    v2 = P2;
+    v3 = 0;
+    v4 = -P1;
+    length = 0;
+  }
+}
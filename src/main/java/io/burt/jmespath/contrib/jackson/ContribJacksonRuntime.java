@@ -0,0 +1,66 @@
+package io.burt.jmespath.contrib.jackson;
+
+import java.io.IOException;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.burt.jmespath.RuntimeConfiguration;
+import io.burt.jmespath.contrib.ByteParsingAdapter;
+import io.burt.jmespath.contrib.function.PrimitiveNumberAdapter;
+import io.burt.jmespath.jackson.JacksonRuntime;
+
+/**
+ * A {@link JacksonRuntime} that also implements the optional adapter
+ * interfaces of this library, so that the contributed functions can take
+ * their faster paths.
+ * <p>
+ * Numbers are read from Jackson's numeric nodes as primitives, see
+ * {@link PrimitiveNumberAdapter}, without first boxing them, and JSON can be
+ * parsed directly from UTF-8 bytes, see {@link ByteParsingAdapter}.
+ */
+public class ContribJacksonRuntime extends JacksonRuntime implements PrimitiveNumberAdapter<JsonNode>, ByteParsingAdapter<JsonNode> {
+  private final ObjectMapper jsonParser;
+
+  public ContribJacksonRuntime() {
+    this(RuntimeConfiguration.defaultConfiguration());
+  }
+
+  public ContribJacksonRuntime(RuntimeConfiguration configuration) {
+    this(configuration, new ObjectMapper());
+  }
+
+  public ContribJacksonRuntime(RuntimeConfiguration configuration, ObjectMapper jsonParser) {
+    super(configuration, jsonParser);
+    this.jsonParser = jsonParser;
+  }
+
+  @Override
+  public JsonNode parse(byte[] json, int offset, int length) {
+    try (JsonParser parser = jsonParser.getFactory().createParser(json, offset, length)) {
+      JsonNode node = jsonParser.readTree(parser);
+      if (node == null) {
+        throw new IllegalStateException("No JSON content to parse");
+      }
+      return node;
+    } catch (IOException ioe) {
+      throw new IllegalStateException(ioe);
+    }
+  }
+
+  @Override
+  public boolean isIntegralNumber(JsonNode value) {
+    return value.isIntegralNumber() && value.canConvertToLong();
+  }
+
+  @Override
+  public long toLong(JsonNode value) {
+    return value.longValue();
+  }
+
+  @Override
+  public double toDouble(JsonNode value) {
+    return value.doubleValue();
+  }
+}
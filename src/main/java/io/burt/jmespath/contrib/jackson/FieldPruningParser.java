@@ -0,0 +1,166 @@
+package io.burt.jmespath.contrib.jackson;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import io.burt.jmespath.Adapter;
+import io.burt.jmespath.contrib.FieldSelection;
+
+/**
+ * Parses JSON into the same nodes as {@link io.burt.jmespath.jackson.JacksonRuntime},
+ * but leaves out the fields that are not in a {@link FieldSelection}.
+ * <p>
+ * The fields that are left out are skipped by the streaming parser, without
+ * decoding their strings or creating any nodes. The whole document is still
+ * tokenized, so parsing a wide document to search it with an expression that
+ * only uses a few fields takes a fraction of the allocations, and a smaller
+ * part of the time, of parsing all of it.
+ *
+ * <pre>
+ * Expression&lt;JsonNode&gt; expression = runtime.compile("concat(user.first, ' ', upper_case(user.last))");
+ * FieldPruningParser parser = FieldPruningParser.forExpression(runtime, "concat(user.first, ' ', upper_case(user.last))");
+ * JsonNode result = expression.search(parser.parse(json));
+ * </pre>
+ *
+ * Parsers are thread safe.
+ */
+public class FieldPruningParser {
+  private final JsonFactory jsonFactory;
+  private final JsonNodeFactory nodeFactory;
+  private final FieldSelection selection;
+
+  public FieldPruningParser(FieldSelection selection) {
+    this(new JsonFactory(), selection);
+  }
+
+  public FieldPruningParser(JsonFactory jsonFactory, FieldSelection selection) {
+    this.jsonFactory = jsonFactory;
+    this.nodeFactory = JsonNodeFactory.instance;
+    this.selection = selection;
+  }
+
+  /**
+   * Creates a parser that keeps the fields that the expression can access.
+   *
+   * @throws io.burt.jmespath.parser.ParseException when the expression is
+   *   invalid
+   */
+  public static FieldPruningParser forExpression(Adapter<JsonNode> runtime, String expression) {
+    return new FieldPruningParser(FieldSelection.of(runtime, expression));
+  }
+
+  public FieldSelection selection() {
+    return selection;
+  }
+
+  public JsonNode parse(String json) {
+    try (JsonParser parser = jsonFactory.createParser(json)) {
+      return parse(parser);
+    } catch (IOException ioe) {
+      throw new IllegalStateException(ioe);
+    }
+  }
+
+  public JsonNode parse(byte[] json) {
+    return parse(json, 0, json.length);
+  }
+
+  public JsonNode parse(byte[] json, int offset, int length) {
+    try (JsonParser parser = jsonFactory.createParser(json, offset, length)) {
+      return parse(parser);
+    } catch (IOException ioe) {
+      throw new IllegalStateException(ioe);
+    }
+  }
+
+  /**
+   * Parses the first JSON value of the stream, without closing it.
+   */
+  public JsonNode parse(InputStream json) throws IOException {
+    JsonParser parser = jsonFactory.createParser(json);
+    parser.disable(JsonParser.Feature.AUTO_CLOSE_SOURCE);
+    try {
+      return parse(parser);
+    } finally {
+      parser.close();
+    }
+  }
+
+  /**
+   * Parses a value from the parser, starting at its current token, or at the
+   * next token when it has none, like <code>ObjectMapper#readTree</code>.
+   * Returns null when there are no more tokens.
+   */
+  public JsonNode parse(JsonParser parser) throws IOException {
+    JsonToken token = parser.currentToken();
+    if (token == null) {
+      token = parser.nextToken();
+      if (token == null) {
+        return null;
+      }
+    }
+    return readValue(parser, token, selection);
+  }
+
+  private JsonNode readValue(JsonParser parser, JsonToken token, FieldSelection selection) throws IOException {
+    switch (token) {
+      case START_OBJECT:
+        return readObject(parser, selection);
+      case START_ARRAY:
+        return readArray(parser, selection);
+      case VALUE_STRING:
+        return nodeFactory.textNode(parser.getText());
+      case VALUE_NUMBER_INT:
+        switch (parser.getNumberType()) {
+          case INT:
+            return nodeFactory.numberNode(parser.getIntValue());
+          case LONG:
+            return nodeFactory.numberNode(parser.getLongValue());
+          default:
+            return nodeFactory.numberNode(parser.getBigIntegerValue());
+        }
+      case VALUE_NUMBER_FLOAT:
+        return nodeFactory.numberNode(parser.getDoubleValue());
+      case VALUE_TRUE:
+        return nodeFactory.booleanNode(true);
+      case VALUE_FALSE:
+        return nodeFactory.booleanNode(false);
+      case VALUE_NULL:
+        return nodeFactory.nullNode();
+      default:
+        throw new IllegalStateException(String.format("Unexpected token %s at %s", token, parser.getCurrentLocation()));
+    }
+  }
+
+  private ObjectNode readObject(JsonParser parser, FieldSelection selection) throws IOException {
+    ObjectNode object = nodeFactory.objectNode();
+    String name;
+    while ((name = parser.nextFieldName()) != null) {
+      JsonToken token = parser.nextToken();
+      FieldSelection fieldSelection = selection.field(name);
+      if (fieldSelection == null) {
+        parser.skipChildren();
+      } else {
+        object.set(name, readValue(parser, token, fieldSelection));
+      }
+    }
+    return object;
+  }
+
+  private ArrayNode readArray(JsonParser parser, FieldSelection selection) throws IOException {
+    ArrayNode array = nodeFactory.arrayNode();
+    JsonToken token;
+    while ((token = parser.nextToken()) != JsonToken.END_ARRAY) {
+      array.add(readValue(parser, token, selection));
+    }
+    return array;
+  }
+}
@@ -0,0 +1,42 @@
+package io.burt.jmespath.contrib.metrics;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+
+/**
+ * Reads the number of bytes allocated by the current thread, using the
+ * HotSpot extension of {@link ThreadMXBean}.
+ */
+final class AllocationCounter {
+  private final com.sun.management.ThreadMXBean threadBean;
+
+  private AllocationCounter(com.sun.management.ThreadMXBean threadBean) {
+    this.threadBean = threadBean;
+  }
+
+  /**
+   * Returns a counter, or null when the JVM cannot count allocations per
+   * thread.
+   */
+  static AllocationCounter create() {
+    try {
+      ThreadMXBean threadBean = ManagementFactory.getThreadMXBean();
+      if (threadBean instanceof com.sun.management.ThreadMXBean) {
+        com.sun.management.ThreadMXBean extendedThreadBean = (com.sun.management.ThreadMXBean) threadBean;
+        if (extendedThreadBean.isThreadAllocatedMemorySupported()) {
+          if (!extendedThreadBean.isThreadAllocatedMemoryEnabled()) {
+            extendedThreadBean.setThreadAllocatedMemoryEnabled(true);
+          }
+          return new AllocationCounter(extendedThreadBean);
+        }
+      }
+    } catch (LinkageError | UnsupportedOperationException | SecurityException e) {
+      // fall through, allocations can't be counted in this JVM
+    }
+    return null;
+  }
+
+  long currentThreadAllocatedBytes() {
+    return threadBean.getThreadAllocatedBytes(Thread.currentThread().getId());
+  }
+}
@@ -0,0 +1,174 @@
+package io.burt.jmespath.contrib.metrics;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import io.burt.jmespath.function.Function;
+import io.burt.jmespath.function.FunctionRegistry;
+
+/**
+ * Instruments functions, or all functions of a function registry, to record
+ * how many times they are called, how many of the calls throw exceptions, how
+ * long the calls take and, optionally, how many bytes they allocate.
+ * <p>
+ * The metrics are recorded per function name, and can be read through the
+ * {@link FunctionMetrics} interface, or over JMX after a call to
+ * {@link #registerMBeans}.
+ * <p>
+ * To keep the overhead down latencies and allocations can be sampled, in which
+ * case only one call in every <code>sampleInterval</code> calls, per thread,
+ * is timed. Unsampled calls cost a few nanoseconds more than uninstrumented
+ * calls, timing a call costs a couple of calls to {@link System#nanoTime} and
+ * counting allocations costs a lot more than that.
+ *
+ * <pre>
+ * FunctionInstrumentation instrumentation = new FunctionInstrumentation(64, false);
+ * FunctionRegistry functionRegistry = instrumentation.instrument(FunctionRegistry.defaultRegistry().extend(...));
+ * </pre>
+ */
+public class FunctionInstrumentation implements FunctionMetrics {
+  private final int sampleInterval;
+  private final AllocationCounter allocationCounter;
+  private final ConcurrentMap<String, FunctionRecorder> recorders;
+  private MBeanServer mbeanServer;
+  private String mbeanDomain;
+
+  /**
+   * Creates an instrumentation that times every call, and does not count
+   * allocations.
+   */
+  public FunctionInstrumentation() {
+    this(1, false);
+  }
+
+  /**
+   * Creates an instrumentation that times one call in every
+   * <code>sampleInterval</code> calls, and counts the bytes allocated by the
+   * timed calls if <code>recordAllocatedBytes</code> is true and the JVM
+   * supports it.
+   */
+  public FunctionInstrumentation(int sampleInterval, boolean recordAllocatedBytes) {
+    if (sampleInterval < 1) {
+      throw new IllegalArgumentException("Sample interval must be at least one");
+    }
+    this.sampleInterval = sampleInterval;
+    this.allocationCounter = recordAllocatedBytes ? AllocationCounter.create() : null;
+    this.recorders = new ConcurrentHashMap<>();
+  }
+
+  /**
+   * Returns whether allocations are counted, which they are only when that was
+   * asked for and the JVM supports it.
+   */
+  public boolean recordsAllocatedBytes() {
+    return allocationCounter != null;
+  }
+
+  /**
+   * Wraps a function so that its calls are recorded.
+   */
+  public Function instrument(Function function) {
+    if (function instanceof InstrumentedFunction && ((InstrumentedFunction) function).recorder() == recorders.get(function.name())) {
+      return function;
+    }
+    return InstrumentedFunction.create(function, recorder(function.name()));
+  }
+
+  /**
+   * Wraps a function registry so that the calls to all of its functions, and
+   * the functions of the registries it is extended into, are recorded.
+   */
+  public FunctionRegistry instrument(FunctionRegistry functionRegistry) {
+    return new InstrumentedFunctionRegistry(functionRegistry, this);
+  }
+
+  private FunctionRecorder recorder(String functionName) {
+    FunctionRecorder recorder = recorders.get(functionName);
+    if (recorder == null) {
+      recorder = new FunctionRecorder(functionName, sampleInterval, allocationCounter);
+      FunctionRecorder existingRecorder = recorders.putIfAbsent(functionName, recorder);
+      if (existingRecorder != null) {
+        recorder = existingRecorder;
+      } else {
+        registerMBean(recorder);
+      }
+    }
+    return recorder;
+  }
+
+  @Override
+  public List<String> functionNames() {
+    List<String> names = new ArrayList<>(recorders.keySet());
+    Collections.sort(names);
+    return names;
+  }
+
+  @Override
+  public FunctionStatistics statistics(String functionName) {
+    FunctionRecorder recorder = recorders.get(functionName);
+    return recorder == null ? null : recorder.statistics();
+  }
+
+  @Override
+  public void reset() {
+    for (FunctionRecorder recorder : recorders.values()) {
+      recorder.reset();
+    }
+  }
+
+  /**
+   * Registers a {@link FunctionMetricsMXBean} for each instrumented function,
+   * now and as more functions are instrumented, with names like
+   * <code>domain:type=FunctionMetrics,name=lower_case</code>.
+   *
+   * @throws JMException when an MBean can't be registered, for example because
+   *   an MBean with the same name already exists
+   */
+  public synchronized void registerMBeans(MBeanServer mbeanServer, String domain) throws JMException {
+    if (this.mbeanServer != null) {
+      throw new IllegalStateException("MBeans are already registered");
+    }
+    this.mbeanServer = mbeanServer;
+    this.mbeanDomain = domain;
+    for (FunctionRecorder recorder : recorders.values()) {
+      mbeanServer.registerMBean(recorder, objectName(recorder));
+    }
+  }
+
+  /**
+   * Unregisters the MBeans registered by {@link #registerMBeans}.
+   */
+  public synchronized void unregisterMBeans() throws JMException {
+    if (mbeanServer != null) {
+      for (FunctionRecorder recorder : recorders.values()) {
+        ObjectName name = objectName(recorder);
+        if (mbeanServer.isRegistered(name)) {
+          mbeanServer.unregisterMBean(name);
+        }
+      }
+      mbeanServer = null;
+      mbeanDomain = null;
+    }
+  }
+
+  private synchronized void registerMBean(FunctionRecorder recorder) {
+    if (mbeanServer != null) {
+      try {
+        mbeanServer.registerMBean(recorder, objectName(recorder));
+      } catch (JMException jme) {
+        throw new IllegalStateException("Could not register MBean for " + recorder.getFunctionName(), jme);
+      }
+    }
+  }
+
+  private ObjectName objectName(FunctionRecorder recorder) throws JMException {
+    return new ObjectName(mbeanDomain + ":type=FunctionMetrics,name=" + recorder.getFunctionName());
+  }
+}
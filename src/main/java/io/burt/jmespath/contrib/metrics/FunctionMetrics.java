@@ -0,0 +1,26 @@
+package io.burt.jmespath.contrib.metrics;
+
+import java.util.List;
+
+/**
+ * Gives access to the metrics recorded for a set of functions, so that they
+ * can be reported to any metrics library, or just logged.
+ */
+public interface FunctionMetrics {
+  /**
+   * Returns the names of all functions that metrics have been recorded for,
+   * in alphabetical order.
+   */
+  List<String> functionNames();
+
+  /**
+   * Returns the metrics of a function, or null when no metrics have been
+   * recorded for a function with that name.
+   */
+  FunctionStatistics statistics(String functionName);
+
+  /**
+   * Resets the metrics of all functions.
+   */
+  void reset();
+}
@@ -0,0 +1,32 @@
+package io.burt.jmespath.contrib.metrics;
+
+/**
+ * The metrics of a function, as exposed over JMX by
+ * {@link FunctionInstrumentation#registerMBeans}. Latencies are in
+ * nanoseconds.
+ */
+public interface FunctionMetricsMXBean {
+  String getFunctionName();
+
+  long getCallCount();
+
+  long getErrorCount();
+
+  long getSampledCallCount();
+
+  double getLatencyMeanNanos();
+
+  long getLatencyP50Nanos();
+
+  long getLatencyP90Nanos();
+
+  long getLatencyP99Nanos();
+
+  long getLatencyP999Nanos();
+
+  long getLatencyMaxNanos();
+
+  double getAllocatedBytesPerCall();
+
+  void reset();
+}
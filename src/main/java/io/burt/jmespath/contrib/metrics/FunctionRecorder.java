@@ -0,0 +1,233 @@
+package io.burt.jmespath.contrib.metrics;
+
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
+
+import io.burt.jmespath.Adapter;
+import io.burt.jmespath.function.Function;
+import io.burt.jmespath.function.FunctionArgument;
+
+/**
+ * Records the metrics of one function, for all instrumented instances of it.
+ * <p>
+ * Calls and errors are counted per thread, by the thread itself, so that an
+ * unsampled call costs a thread local lookup and a couple of increments
+ * without any memory barriers. The counts are summed when they are read.
+ * When a thread has terminated its counts are folded into a retired total
+ * and its entry is dropped, so that the number of entries stays bounded by
+ * the number of live threads that have called the function.
+ */
+class FunctionRecorder implements FunctionMetricsMXBean {
+  private final String functionName;
+  private final int sampleInterval;
+  private final AllocationCounter allocationCounter;
+  private final LatencyHistogram latency;
+  private final AtomicLong allocatedBytes;
+  private final List<Counters> allCounters;
+  private final ThreadLocal<Counters> counters;
+  private long retiredCalls;
+  private long retiredErrors;
+  private long callBaseline;
+  private long errorBaseline;
+
+  FunctionRecorder(String functionName, final int sampleInterval, AllocationCounter allocationCounter) {
+    this.functionName = functionName;
+    this.sampleInterval = sampleInterval;
+    this.allocationCounter = allocationCounter;
+    this.latency = new LatencyHistogram();
+    this.allocatedBytes = new AtomicLong();
+    this.allCounters = new ArrayList<>();
+    this.counters = new ThreadLocal<Counters>() {
+      @Override
+      protected Counters initialValue() {
+        Counters c = new Counters(Thread.currentThread(), sampleInterval);
+        register(c);
+        return c;
+      }
+    };
+  }
+
+  <T> T call(Function function, Adapter<T> runtime, List<FunctionArgument<T>> arguments) {
+    Counters c = counters.get();
+    c.incrementCalls();
+    if (--c.countdown > 0) {
+      try {
+        return function.call(runtime, arguments);
+      } catch (RuntimeException | Error e) {
+        c.incrementErrors();
+        throw e;
+      }
+    }
+    c.countdown = sampleInterval;
+    long allocatedBefore = allocationCounter == null ? 0 : allocationCounter.currentThreadAllocatedBytes();
+    long start = System.nanoTime();
+    try {
+      return function.call(runtime, arguments);
+    } catch (RuntimeException | Error e) {
+      c.incrementErrors();
+      throw e;
+    } finally {
+      latency.record(System.nanoTime() - start);
+      if (allocationCounter != null) {
+        allocatedBytes.addAndGet(allocationCounter.currentThreadAllocatedBytes() - allocatedBefore);
+      }
+    }
+  }
+
+  private synchronized void register(Counters c) {
+    retireTerminatedThreads();
+    allCounters.add(c);
+  }
+
+  /**
+   * The counts of a terminated thread can no longer change, and the thread
+   * terminating happens before it is seen as not alive, so they can be read
+   * without any further synchronization.
+   */
+  private void retireTerminatedThreads() {
+    for (Iterator<Counters> iterator = allCounters.iterator(); iterator.hasNext(); ) {
+      Counters c = iterator.next();
+      if (c.isRetired()) {
+        retiredCalls += c.calls;
+        retiredErrors += c.errors;
+        iterator.remove();
+      }
+    }
+  }
+
+  private long callCount() {
+    long calls = retiredCalls;
+    for (Counters c : allCounters) {
+      calls += c.calls;
+    }
+    return calls;
+  }
+
+  private long errorCount() {
+    long errors = retiredErrors;
+    for (Counters c : allCounters) {
+      errors += c.errors;
+    }
+    return errors;
+  }
+
+  /**
+   * The number of threads that have called the function and have not yet
+   * been seen to terminate.
+   */
+  synchronized int threadCount() {
+    retireTerminatedThreads();
+    return allCounters.size();
+  }
+
+  synchronized FunctionStatistics statistics() {
+    retireTerminatedThreads();
+    return new FunctionStatistics(
+      functionName,
+      callCount() - callBaseline,
+      errorCount() - errorBaseline,
+      latency.snapshot(),
+      allocationCounter == null ? -1 : allocatedBytes.get()
+    );
+  }
+
+  /**
+   * The per thread counts can only be written by their threads, so instead of
+   * clearing them a reset remembers what they were.
+   */
+  @Override
+  public synchronized void reset() {
+    retireTerminatedThreads();
+    callBaseline = callCount();
+    errorBaseline = errorCount();
+    latency.reset();
+    allocatedBytes.set(0);
+  }
+
+  @Override
+  public String getFunctionName() {
+    return functionName;
+  }
+
+  @Override
+  public long getCallCount() {
+    return statistics().callCount();
+  }
+
+  @Override
+  public long getErrorCount() {
+    return statistics().errorCount();
+  }
+
+  @Override
+  public long getSampledCallCount() {
+    return statistics().sampledCallCount();
+  }
+
+  @Override
+  public double getLatencyMeanNanos() {
+    return latency.snapshot().mean();
+  }
+
+  @Override
+  public long getLatencyP50Nanos() {
+    return latency.snapshot().valueAtPercentile(50);
+  }
+
+  @Override
+  public long getLatencyP90Nanos() {
+    return latency.snapshot().valueAtPercentile(90);
+  }
+
+  @Override
+  public long getLatencyP99Nanos() {
+    return latency.snapshot().valueAtPercentile(99);
+  }
+
+  @Override
+  public long getLatencyP999Nanos() {
+    return latency.snapshot().valueAtPercentile(99.9);
+  }
+
+  @Override
+  public long getLatencyMaxNanos() {
+    return latency.snapshot().max();
+  }
+
+  @Override
+  public double getAllocatedBytesPerCall() {
+    return statistics().allocatedBytesPerCall();
+  }
+
+  private static final class Counters {
+    private static final AtomicLongFieldUpdater<Counters> CALLS = AtomicLongFieldUpdater.newUpdater(Counters.class, "calls");
+    private static final AtomicLongFieldUpdater<Counters> ERRORS = AtomicLongFieldUpdater.newUpdater(Counters.class, "errors");
+
+    private final WeakReference<Thread> owner;
+    private volatile long calls;
+    private volatile long errors;
+    private int countdown;
+
+    Counters(Thread owner, int sampleInterval) {
+      this.owner = new WeakReference<>(owner);
+      this.countdown = sampleInterval;
+    }
+
+    boolean isRetired() {
+      Thread thread = owner.get();
+      return thread == null || !thread.isAlive();
+    }
+
+    void incrementCalls() {
+      CALLS.lazySet(this, calls + 1);
+    }
+
+    void incrementErrors() {
+      ERRORS.lazySet(this, errors + 1);
+    }
+  }
+}
@@ -0,0 +1,72 @@
+package io.burt.jmespath.contrib.metrics;
+
+/**
+ * The metrics of a function at one point in time.
+ * <p>
+ * All calls and errors are counted, but latencies and allocations are only
+ * recorded for the sampled calls.
+ */
+public final class FunctionStatistics {
+  private final String functionName;
+  private final long callCount;
+  private final long errorCount;
+  private final HistogramSnapshot latency;
+  private final long allocatedBytes;
+
+  FunctionStatistics(String functionName, long callCount, long errorCount, HistogramSnapshot latency, long allocatedBytes) {
+    this.functionName = functionName;
+    this.callCount = callCount;
+    this.errorCount = errorCount;
+    this.latency = latency;
+    this.allocatedBytes = allocatedBytes;
+  }
+
+  public String functionName() {
+    return functionName;
+  }
+
+  public long callCount() {
+    return callCount;
+  }
+
+  /**
+   * Returns the number of calls that threw an exception.
+   */
+  public long errorCount() {
+    return errorCount;
+  }
+
+  /**
+   * Returns the number of calls whose latency, and possibly allocations, were
+   * recorded.
+   */
+  public long sampledCallCount() {
+    return latency.count();
+  }
+
+  /**
+   * Returns the latencies, in nanoseconds, of the sampled calls.
+   */
+  public HistogramSnapshot latency() {
+    return latency;
+  }
+
+  /**
+   * Returns the mean number of bytes allocated by the sampled calls, or -1
+   * when allocations are not recorded.
+   */
+  public double allocatedBytesPerCall() {
+    if (allocatedBytes < 0) {
+      return -1;
+    }
+    return sampledCallCount() == 0 ? 0 : (double) allocatedBytes / sampledCallCount();
+  }
+
+  @Override
+  public String toString() {
+    return String.format(
+      "FunctionStatistics(functionName=%s, callCount=%d, errorCount=%d, latency=%s, allocatedBytesPerCall=%.1f)",
+      functionName, callCount, errorCount, latency, allocatedBytesPerCall()
+    );
+  }
+}
@@ -0,0 +1,75 @@
+package io.burt.jmespath.contrib.metrics;
+
+/**
+ * The values recorded by a {@link LatencyHistogram} at one point in time.
+ */
+public final class HistogramSnapshot {
+  private final long[] counts;
+  private final long count;
+  private final long sum;
+  private final long min;
+  private final long max;
+
+  HistogramSnapshot(long[] counts, long sum, long min, long max) {
+    long count = 0;
+    for (long c : counts) {
+      count += c;
+    }
+    this.counts = counts;
+    this.count = count;
+    this.sum = sum;
+    this.min = count == 0 ? 0 : min;
+    this.max = max;
+  }
+
+  public long count() {
+    return count;
+  }
+
+  public long min() {
+    return min;
+  }
+
+  public long max() {
+    return max;
+  }
+
+  /**
+   * Returns the mean of the recorded values, or zero when nothing has been
+   * recorded.
+   */
+  public double mean() {
+    return count == 0 ? 0 : (double) sum / count;
+  }
+
+  /**
+   * Returns the value that the specified percentage of the recorded values
+   * are less than or equal to, for example 99.9 for the 99.9th percentile.
+   * <p>
+   * The value is the highest value of the bucket the percentile falls in, so
+   * it may be up to about 3% higher than the actual value, but never higher
+   * than the maximum.
+   */
+  public long valueAtPercentile(double percentile) {
+    if (count == 0) {
+      return 0;
+    }
+    long rank = Math.max(1, (long) Math.ceil(Math.min(percentile, 100) / 100 * count));
+    long seen = 0;
+    for (int i = 0; i < counts.length; i++) {
+      seen += counts[i];
+      if (seen >= rank) {
+        return Math.min(LatencyHistogram.highestValue(i), max);
+      }
+    }
+    return max;
+  }
+
+  @Override
+  public String toString() {
+    return String.format(
+      "HistogramSnapshot(count=%d, min=%d, mean=%.1f, p50=%d, p99=%d, p999=%d, max=%d)",
+      count, min, mean(), valueAtPercentile(50), valueAtPercentile(99), valueAtPercentile(99.9), max
+    );
+  }
+}
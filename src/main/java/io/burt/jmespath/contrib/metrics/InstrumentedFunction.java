@@ -0,0 +1,72 @@
+package io.burt.jmespath.contrib.metrics;
+
+import java.util.List;
+
+import io.burt.jmespath.Adapter;
+import io.burt.jmespath.contrib.function.SpecializableFunction;
+import io.burt.jmespath.function.ArgumentConstraint;
+import io.burt.jmespath.function.Function;
+import io.burt.jmespath.function.FunctionArgument;
+
+/**
+ * Wraps a function and records the metrics of its calls.
+ */
+class InstrumentedFunction implements Function {
+  private final Function delegate;
+  private final FunctionRecorder recorder;
+
+  InstrumentedFunction(Function delegate, FunctionRecorder recorder) {
+    this.delegate = delegate;
+    this.recorder = recorder;
+  }
+
+  /**
+   * Wraps the function, keeping it specializable if it was.
+   */
+  static Function create(Function delegate, FunctionRecorder recorder) {
+    if (delegate instanceof SpecializableFunction) {
+      return new Specializable((SpecializableFunction) delegate, recorder);
+    } else {
+      return new InstrumentedFunction(delegate, recorder);
+    }
+  }
+
+  Function delegate() {
+    return delegate;
+  }
+
+  FunctionRecorder recorder() {
+    return recorder;
+  }
+
+  @Override
+  public String name() {
+    return delegate.name();
+  }
+
+  @Override
+  public ArgumentConstraint argumentConstraints() {
+    return delegate.argumentConstraints();
+  }
+
+  @Override
+  public <T> T call(Adapter<T> runtime, List<FunctionArgument<T>> arguments) {
+    return recorder.call(delegate, runtime, arguments);
+  }
+
+  /**
+   * Specialized functions are instrumented too, and their calls are recorded
+   * together with those of the function they were specialized from.
+   */
+  private static class Specializable extends InstrumentedFunction implements SpecializableFunction {
+    Specializable(SpecializableFunction delegate, FunctionRecorder recorder) {
+      super(delegate, recorder);
+    }
+
+    @Override
+    public <T> Function specialize(Adapter<T> runtime, List<T> literalArguments) {
+      Function specialized = ((SpecializableFunction) delegate()).specialize(runtime, literalArguments);
+      return specialized == null ? null : create(specialized, recorder());
+    }
+  }
+}
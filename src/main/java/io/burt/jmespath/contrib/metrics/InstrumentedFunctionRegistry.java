@@ -0,0 +1,45 @@
+package io.burt.jmespath.contrib.metrics;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import io.burt.jmespath.function.Function;
+import io.burt.jmespath.function.FunctionRegistry;
+
+/**
+ * A function registry that looks up functions in another registry and
+ * instruments them, the first time each of them is looked up.
+ */
+class InstrumentedFunctionRegistry extends FunctionRegistry {
+  private final FunctionRegistry delegate;
+  private final FunctionInstrumentation instrumentation;
+  private final ConcurrentMap<String, Function> instrumentedFunctions;
+
+  InstrumentedFunctionRegistry(FunctionRegistry delegate, FunctionInstrumentation instrumentation) {
+    this.delegate = delegate;
+    this.instrumentation = instrumentation;
+    this.instrumentedFunctions = new ConcurrentHashMap<>();
+  }
+
+  @Override
+  public Function getFunction(String name) {
+    Function function = instrumentedFunctions.get(name);
+    if (function == null) {
+      Function uninstrumentedFunction = delegate.getFunction(name);
+      if (uninstrumentedFunction == null) {
+        return null;
+      }
+      function = instrumentation.instrument(uninstrumentedFunction);
+      Function existingFunction = instrumentedFunctions.putIfAbsent(name, function);
+      if (existingFunction != null) {
+        function = existingFunction;
+      }
+    }
+    return function;
+  }
+
+  @Override
+  public FunctionRegistry extend(Function... functions) {
+    return new InstrumentedFunctionRegistry(delegate.extend(functions), instrumentation);
+  }
+}
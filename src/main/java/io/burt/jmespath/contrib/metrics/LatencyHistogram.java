@@ -0,0 +1,129 @@
+package io.burt.jmespath.contrib.metrics;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * A concurrent histogram of latencies in nanoseconds, with log-linear buckets
+ * in the style of HdrHistogram.
+ * <p>
+ * Each power of two range is divided into 32 equally wide buckets, so any
+ * value can be reported with a relative error of at most about 3%, up to
+ * 2<sup>36</sup> ns, a bit more than a minute. Larger values are counted in
+ * the last bucket, and their exact maximum is kept separately.
+ * <p>
+ * Recording is lock-free. The buckets are striped by thread, so that threads
+ * recording at the same time rarely touch the same memory, and the stripes
+ * are allocated the first time a thread that maps to them records a value.
+ * Snapshots merge the stripes, and are consistent as long as nothing is
+ * recorded while they are taken.
+ */
+public class LatencyHistogram {
+  static final int SUB_BUCKET_BITS = 5;
+  static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+  static final int MAX_EXPONENT = 36;
+  static final int BUCKET_COUNT = (MAX_EXPONENT - SUB_BUCKET_BITS + 1) << SUB_BUCKET_BITS;
+
+  private static final int SUM = BUCKET_COUNT;
+  private static final int MIN = BUCKET_COUNT + 1;
+  private static final int MAX = BUCKET_COUNT + 2;
+  private static final int STRIPE_LENGTH = BUCKET_COUNT + 3;
+  private static final int MAX_STRIPES = 8;
+
+  private final AtomicReferenceArray<AtomicLongArray> stripes;
+  private final int stripeMask;
+
+  public LatencyHistogram() {
+    int stripeCount = Math.min(MAX_STRIPES, Integer.highestOneBit(Runtime.getRuntime().availableProcessors() * 2 - 1));
+    this.stripes = new AtomicReferenceArray<>(stripeCount);
+    this.stripeMask = stripeCount - 1;
+  }
+
+  /**
+   * Records a latency. Negative values are recorded as zero.
+   */
+  public void record(long nanos) {
+    long value = Math.max(0, nanos);
+    AtomicLongArray stripe = stripe((int) Thread.currentThread().getId() & stripeMask);
+    stripe.incrementAndGet(bucketIndex(value));
+    stripe.addAndGet(SUM, value);
+    long min;
+    while (value < (min = stripe.get(MIN)) && !stripe.compareAndSet(MIN, min, value)) { }
+    long max;
+    while (value > (max = stripe.get(MAX)) && !stripe.compareAndSet(MAX, max, value)) { }
+  }
+
+  private AtomicLongArray stripe(int i) {
+    AtomicLongArray stripe = stripes.get(i);
+    if (stripe == null) {
+      stripe = new AtomicLongArray(STRIPE_LENGTH);
+      stripe.set(MIN, Long.MAX_VALUE);
+      if (!stripes.compareAndSet(i, null, stripe)) {
+        stripe = stripes.get(i);
+      }
+    }
+    return stripe;
+  }
+
+  /**
+   * Removes all recorded values. Values recorded while the histogram is
+   * being reset may or may not be removed.
+   */
+  public void reset() {
+    for (int i = 0; i < stripes.length(); i++) {
+      AtomicLongArray stripe = stripes.get(i);
+      if (stripe != null) {
+        for (int j = 0; j < STRIPE_LENGTH; j++) {
+          stripe.set(j, j == MIN ? Long.MAX_VALUE : 0);
+        }
+      }
+    }
+  }
+
+  public HistogramSnapshot snapshot() {
+    long[] counts = new long[BUCKET_COUNT];
+    long sum = 0;
+    long min = Long.MAX_VALUE;
+    long max = 0;
+    for (int i = 0; i < stripes.length(); i++) {
+      AtomicLongArray stripe = stripes.get(i);
+      if (stripe != null) {
+        for (int j = 0; j < BUCKET_COUNT; j++) {
+          counts[j] += stripe.get(j);
+        }
+        sum += stripe.get(SUM);
+        min = Math.min(min, stripe.get(MIN));
+        max = Math.max(max, stripe.get(MAX));
+      }
+    }
+    return new HistogramSnapshot(counts, sum, min, max);
+  }
+
+  static int bucketIndex(long value) {
+    if (value < SUB_BUCKET_COUNT) {
+      return (int) value;
+    }
+    int exponent = 63 - Long.numberOfLeadingZeros(value);
+    if (exponent >= MAX_EXPONENT) {
+      return BUCKET_COUNT - 1;
+    }
+    int shift = exponent - SUB_BUCKET_BITS;
+    return ((shift + 1) << SUB_BUCKET_BITS) + (int) (value >>> shift) - SUB_BUCKET_COUNT;
+  }
+
+  static long lowestValue(int index) {
+    if (index < 2 * SUB_BUCKET_COUNT) {
+      return index;
+    }
+    int shift = (index >> SUB_BUCKET_BITS) - 1;
+    return ((long) (index & (SUB_BUCKET_COUNT - 1)) + SUB_BUCKET_COUNT) << shift;
+  }
+
+  static long highestValue(int index) {
+    if (index < 2 * SUB_BUCKET_COUNT) {
+      return index;
+    }
+    int shift = (index >> SUB_BUCKET_BITS) - 1;
+    return lowestValue(index) + (1L << shift) - 1;
+  }
+}
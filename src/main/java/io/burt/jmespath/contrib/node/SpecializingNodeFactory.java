@@ -0,0 +1,237 @@
+package io.burt.jmespath.contrib.node;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import io.burt.jmespath.Adapter;
+import io.burt.jmespath.Expression;
+import io.burt.jmespath.contrib.function.SpecializableFunction;
+import io.burt.jmespath.function.Function;
+import io.burt.jmespath.node.CreateObjectNode;
+import io.burt.jmespath.node.ExpressionReferenceNode;
+import io.burt.jmespath.node.JsonLiteralNode;
+import io.burt.jmespath.node.Node;
+import io.burt.jmespath.node.NodeFactory;
+import io.burt.jmespath.node.Operator;
+import io.burt.jmespath.node.StandardNodeFactory;
+import io.burt.jmespath.node.StringNode;
+
+/**
+ * A node factory that specializes calls to functions that implement
+ * {@link SpecializableFunction} for their literal arguments, and delegates
+ * everything else to another node factory.
+ * <p>
+ * Multi-select lists of literals, like <code>['GET', 'POST']</code>, count as
+ * literal arrays. They evaluate to null when the current node is null, but
+ * then the call fails the argument type check before the specialized
+ * function is called.
+ * <p>
+ * Calls with expression reference arguments are never specialized, since
+ * specializable functions only take values, and such calls must fail with an
+ * argument type error when they are evaluated.
+ * <p>
+ * To use it, create a runtime that returns it from
+ * {@link Adapter#nodeFactory()}:
+ *
+ * <pre>
+ * JmesPath&lt;JsonNode&gt; runtime = new JacksonRuntime(configuration) {
+ *   private final NodeFactory&lt;JsonNode&gt; nodeFactory = new SpecializingNodeFactory&lt;&gt;(this);
+ *
+ *   &#064;Override
+ *   public NodeFactory&lt;JsonNode&gt; nodeFactory() {
+ *     return nodeFactory;
+ *   }
+ * };
+ * </pre>
+ */
+public class SpecializingNodeFactory<T> implements NodeFactory<T> {
+  private final Adapter<T> runtime;
+  private final NodeFactory<T> delegate;
+
+  public SpecializingNodeFactory(Adapter<T> runtime) {
+    this(runtime, new StandardNodeFactory<>(runtime));
+  }
+
+  public SpecializingNodeFactory(Adapter<T> runtime, NodeFactory<T> delegate) {
+    this.runtime = runtime;
+    this.delegate = delegate;
+  }
+
+  @Override
+  public Node<T> createFunctionCall(String functionName, List<? extends Expression<T>> args) {
+    return createFunctionCall(runtime.functionRegistry().getFunction(functionName), args);
+  }
+
+  @Override
+  public Node<T> createFunctionCall(Function function, List<? extends Expression<T>> args) {
+    return delegate.createFunctionCall(specialize(function, args), args);
+  }
+
+  private Function specialize(Function function, List<? extends Expression<T>> args) {
+    if (function instanceof SpecializableFunction && !function.argumentConstraints().arityViolated(args.size())) {
+      List<T> literalArguments = new ArrayList<>(args.size());
+      boolean anyLiteral = false;
+      for (Expression<T> arg : args) {
+        if (arg instanceof ExpressionReferenceNode) {
+          return function;
+        }
+        T value = literalValue(arg);
+        anyLiteral |= value != null;
+        literalArguments.add(value);
+      }
+      if (anyLiteral) {
+        Function specialized = ((SpecializableFunction) function).specialize(runtime, literalArguments);
+        if (specialized != null) {
+          return specialized;
+        }
+      }
+    }
+    return function;
+  }
+
+  private T literalValue(Expression<T> expression) {
+    if (expression instanceof StringNode || expression instanceof JsonLiteralNode) {
+      return expression.search(null);
+    } else if (expression instanceof LiteralArrayNode) {
+      return ((LiteralArrayNode<T>) expression).value;
+    } else {
+      return null;
+    }
+  }
+
+  @Override
+  public Node<T> createCurrent() {
+    return delegate.createCurrent();
+  }
+
+  @Override
+  public Node<T> createProperty(String name) {
+    return delegate.createProperty(name);
+  }
+
+  @Override
+  public Node<T> createIndex(int index) {
+    return delegate.createIndex(index);
+  }
+
+  @Override
+  public Node<T> createSlice(Integer start, Integer stop, Integer step) {
+    return delegate.createSlice(start, stop, step);
+  }
+
+  @Override
+  public Node<T> createProjection(Expression<T> expression) {
+    return delegate.createProjection(expression);
+  }
+
+  @Override
+  public Node<T> createFlattenArray() {
+    return delegate.createFlattenArray();
+  }
+
+  @Override
+  public Node<T> createFlattenObject() {
+    return delegate.createFlattenObject();
+  }
+
+  @Override
+  public Node<T> createSelection(Expression<T> test) {
+    return delegate.createSelection(test);
+  }
+
+  @Override
+  public Node<T> createComparison(Operator operator, Expression<T> left, Expression<T> right) {
+    return delegate.createComparison(operator, left, right);
+  }
+
+  @Override
+  public Node<T> createOr(Expression<T> left, Expression<T> right) {
+    return delegate.createOr(left, right);
+  }
+
+  @Override
+  public Node<T> createAnd(Expression<T> left, Expression<T> right) {
+    return delegate.createAnd(left, right);
+  }
+
+  @Override
+  public Node<T> createExpressionReference(Expression<T> expression) {
+    return delegate.createExpressionReference(expression);
+  }
+
+  @Override
+  public Node<T> createString(String str) {
+    return delegate.createString(str);
+  }
+
+  @Override
+  public Node<T> createNegate(Expression<T> negated) {
+    return delegate.createNegate(negated);
+  }
+
+  @Override
+  public Node<T> createCreateObject(List<CreateObjectNode.Entry<T>> entries) {
+    return delegate.createCreateObject(entries);
+  }
+
+  @Override
+  public Node<T> createCreateArray(List<? extends Expression<T>> items) {
+    Node<T> node = delegate.createCreateArray(items);
+    List<T> values = new ArrayList<>(items.size());
+    for (Expression<T> item : items) {
+      T value = literalValue(item);
+      if (value == null) {
+        return node;
+      }
+      values.add(value);
+    }
+    return new LiteralArrayNode<>(runtime, node, runtime.createArray(values));
+  }
+
+  @Override
+  public Node<T> createJsonLiteral(String json) {
+    return delegate.createJsonLiteral(json);
+  }
+
+  @Override
+  public Node<T> createSequence(List<Node<T>> nodes) {
+    return delegate.createSequence(nodes);
+  }
+
+  /**
+   * A multi-select list where all the items are literals, which remembers
+   * the array they make up so that calls it is an argument of can be
+   * specialized. Searching it evaluates the node created by the delegate,
+   * so that every search returns a new array that the caller may modify.
+   */
+  private static class LiteralArrayNode<T> extends Node<T> {
+    private final Node<T> node;
+    private final T value;
+
+    LiteralArrayNode(Adapter<T> runtime, Node<T> node, T value) {
+      super(runtime);
+      this.node = node;
+      this.value = value;
+    }
+
+    @Override
+    public T search(T input) {
+      return node.search(input);
+    }
+
+    @Override
+    protected String internalToString() {
+      return node.toString();
+    }
+
+    @Override
+    protected boolean internalEquals(Object o) {
+      return node.equals(((LiteralArrayNode<?>) o).node);
+    }
+
+    @Override
+    protected int internalHashCode() {
+      return node.hashCode();
+    }
+  }
+}
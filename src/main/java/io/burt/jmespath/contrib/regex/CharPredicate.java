@@ -0,0 +1,158 @@
+package io.burt.jmespath.contrib.regex;
+
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * Tests code points, with the same semantics as the corresponding parts of
+ * {@link java.util.regex.Pattern}.
+ */
+abstract class CharPredicate {
+  static final CharPredicate ANY = new CharPredicate() {
+    @Override
+    boolean matches(int c) {
+      return true;
+    }
+  };
+
+  static final CharPredicate DOT = new CharPredicate() {
+    @Override
+    boolean matches(int c) {
+      return c != '\n' && c != '\r' && c != '\u0085' && (c | 1) != '\u2029';
+    }
+  };
+
+  static final CharPredicate DIGIT = new CharPredicate() {
+    @Override
+    boolean matches(int c) {
+      return c >= '0' && c <= '9';
+    }
+  };
+
+  static final CharPredicate SPACE = new CharPredicate() {
+    @Override
+    boolean matches(int c) {
+      return c == ' ' || (c >= '\t' && c <= '\r');
+    }
+  };
+
+  static final CharPredicate WORD = new CharPredicate() {
+    @Override
+    boolean matches(int c) {
+      return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9') || c == '_';
+    }
+  };
+
+  abstract boolean matches(int c);
+
+  CharPredicate negate() {
+    final CharPredicate predicate = this;
+    return new CharPredicate() {
+      @Override
+      boolean matches(int c) {
+        return !predicate.matches(c);
+      }
+    };
+  }
+
+  /**
+   * Returns a predicate for a single code point, which is case insensitive
+   * when the flags say so.
+   */
+  static CharPredicate single(final int c, int flags) {
+    if ((flags & Pattern.CASE_INSENSITIVE) != 0) {
+      if ((flags & Pattern.UNICODE_CASE) != 0) {
+        final int lower = Character.toLowerCase(Character.toUpperCase(c));
+        if (lower != Character.toUpperCase(c)) {
+          return new CharPredicate() {
+            @Override
+            boolean matches(int d) {
+              return d == lower || Character.toLowerCase(Character.toUpperCase(d)) == lower;
+            }
+          };
+        }
+      } else if (isAsciiLetter(c)) {
+        final int lower = c | 0x20;
+        final int upper = c & ~0x20;
+        return new CharPredicate() {
+          @Override
+          boolean matches(int d) {
+            return d == lower || d == upper;
+          }
+        };
+      }
+    }
+    return new CharPredicate() {
+      @Override
+      boolean matches(int d) {
+        return d == c;
+      }
+    };
+  }
+
+  /**
+   * Returns a predicate for a range of code points, which is case insensitive
+   * when the flags say so.
+   */
+  static CharPredicate range(final int from, final int to, int flags) {
+    if ((flags & Pattern.CASE_INSENSITIVE) != 0) {
+      if ((flags & Pattern.UNICODE_CASE) != 0) {
+        return new CharPredicate() {
+          @Override
+          boolean matches(int c) {
+            if (from <= c && c <= to) {
+              return true;
+            }
+            int upper = Character.toUpperCase(c);
+            int lower = Character.toLowerCase(upper);
+            return (from <= upper && upper <= to) || (from <= lower && lower <= to);
+          }
+        };
+      } else {
+        return new CharPredicate() {
+          @Override
+          boolean matches(int c) {
+            if (from <= c && c <= to) {
+              return true;
+            } else if (isAsciiLetter(c)) {
+              int upper = c & ~0x20;
+              int lower = c | 0x20;
+              return (from <= upper && upper <= to) || (from <= lower && lower <= to);
+            } else {
+              return false;
+            }
+          }
+        };
+      }
+    }
+    return new CharPredicate() {
+      @Override
+      boolean matches(int c) {
+        return from <= c && c <= to;
+      }
+    };
+  }
+
+  /**
+   * Returns a predicate that matches when any of the predicates match, or
+   * when none of them do if it is negated.
+   */
+  static CharPredicate union(List<CharPredicate> predicates, final boolean negated) {
+    final CharPredicate[] members = predicates.toArray(new CharPredicate[predicates.size()]);
+    return new CharPredicate() {
+      @Override
+      boolean matches(int c) {
+        for (CharPredicate member : members) {
+          if (member.matches(c)) {
+            return !negated;
+          }
+        }
+        return negated;
+      }
+    };
+  }
+
+  private static boolean isAsciiLetter(int c) {
+    return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z');
+  }
+}
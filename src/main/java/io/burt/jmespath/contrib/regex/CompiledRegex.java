@@ -0,0 +1,27 @@
+package io.burt.jmespath.contrib.regex;
+
+/**
+ * A compiled regular expression.
+ */
+public interface CompiledRegex {
+  /**
+   * Returns the regular expression that this was compiled from.
+   */
+  String pattern();
+
+  /**
+   * Returns the flags that this was compiled with.
+   */
+  int flags();
+
+  /**
+   * Returns true when the regular expression matches some part of the input,
+   * which can be faster than using a matcher.
+   */
+  boolean find(CharSequence input);
+
+  /**
+   * Returns a new matcher of the input.
+   */
+  RegexMatcher matcher(CharSequence input);
+}
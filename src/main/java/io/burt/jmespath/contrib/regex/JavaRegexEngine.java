@@ -0,0 +1,103 @@
+package io.burt.jmespath.contrib.regex;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Compiles regular expressions with {@link java.util.regex.Pattern}, which
+ * supports all of its syntax, but which backtracks, and can take time that
+ * grows exponentially with the length of the input for some expressions,
+ * like <code>(a+)+$</code>.
+ */
+public class JavaRegexEngine implements RegexEngine {
+  @Override
+  public CompiledRegex compile(String regex, int flags) {
+    return new JavaRegex(Pattern.compile(regex, flags));
+  }
+
+  private static class JavaRegex implements CompiledRegex {
+    private final Pattern pattern;
+
+    JavaRegex(Pattern pattern) {
+      this.pattern = pattern;
+    }
+
+    @Override
+    public String pattern() {
+      return pattern.pattern();
+    }
+
+    @Override
+    public int flags() {
+      return pattern.flags();
+    }
+
+    @Override
+    public boolean find(CharSequence input) {
+      return pattern.matcher(input).find();
+    }
+
+    @Override
+    public RegexMatcher matcher(CharSequence input) {
+      return new JavaRegexMatcher(pattern.matcher(input));
+    }
+
+    @Override
+    public String toString() {
+      return pattern.pattern();
+    }
+  }
+
+  private static class JavaRegexMatcher implements RegexMatcher {
+    private final Matcher matcher;
+
+    JavaRegexMatcher(Matcher matcher) {
+      this.matcher = matcher;
+    }
+
+    @Override
+    public boolean find() {
+      return matcher.find();
+    }
+
+    @Override
+    public boolean matches() {
+      return matcher.matches();
+    }
+
+    @Override
+    public int start() {
+      return matcher.start();
+    }
+
+    @Override
+    public int end() {
+      return matcher.end();
+    }
+
+    @Override
+    public int start(int group) {
+      return matcher.start(group);
+    }
+
+    @Override
+    public int end(int group) {
+      return matcher.end(group);
+    }
+
+    @Override
+    public String group(int group) {
+      return matcher.group(group);
+    }
+
+    @Override
+    public int groupCount() {
+      return matcher.groupCount();
+    }
+
+    @Override
+    public String replaceAll(String replacement) {
+      return matcher.replaceAll(replacement);
+    }
+  }
+}
@@ -0,0 +1,221 @@
+package io.burt.jmespath.contrib.regex;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A deterministic automaton for a program without assertions, that is built
+ * while searching: each state is the set of instructions that the threads
+ * of the virtual machine would be at, and the transition for a code point is
+ * computed the first time it is needed, and then cached for ASCII.
+ * <p>
+ * The states are those of an unanchored search, where a new thread starts
+ * at every position, and the automaton only tells which match instructions
+ * are reached, not where the matches start, which is all that a
+ * {@link LinearRegexSet} needs. Since the order of the threads does not
+ * matter, <code>REPEAT</code> is followed like a jump to the loop, which
+ * also leads to its exit.
+ * <p>
+ * The number of states is bounded: when there are too many the cache is
+ * cleared and the states are built again as needed. An automaton is not
+ * thread safe, so each thread has its own.
+ */
+class LazyDfa {
+  static final int MAX_STATES = 1000;
+
+  private final int[] op;
+  private final int[] x;
+  private final int[] y;
+  private final CharPredicate[] predicates;
+  private final StartFilter startFilter;
+  private final Map<Key, State> states;
+  private final boolean[] visited;
+  private final int[] stack;
+  private final int[] pcs;
+  private State initial;
+
+  LazyDfa(Program program, StartFilter startFilter) {
+    this.op = program.op;
+    this.x = program.x;
+    this.y = program.y;
+    this.predicates = program.predicates;
+    this.startFilter = startFilter;
+    this.states = new HashMap<>();
+    this.visited = new boolean[program.size];
+    this.stack = new int[program.size * 2 + 1];
+    this.pcs = new int[program.size];
+  }
+
+  /**
+   * Returns true when the program has no assertions, which an automaton that
+   * only looks at one code point at a time can not check.
+   */
+  static boolean supports(Program program) {
+    for (int pc = 0; pc < program.size; pc++) {
+      if (program.op[pc] == Program.ASSERT) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Searches the input for matches. When the found array is null the search
+   * stops at the first match, otherwise it marks the index of each match
+   * instruction that is reached, and stops when the given number of indexes
+   * that remain to be found have been.
+   */
+  boolean search(CharSequence input, boolean[] found, int remaining) {
+    int remainingBefore = remaining;
+    if (initial == null) {
+      initial = state(closure(0, new int[0], -1));
+    }
+    State state = initial;
+    int length = input.length();
+    int position = 0;
+    while (true) {
+      if (state.matches.length > 0) {
+        if (found == null) {
+          return true;
+        }
+        for (int match : state.matches) {
+          if (!found[match]) {
+            found[match] = true;
+            remaining--;
+          }
+        }
+        if (remaining == 0) {
+          return true;
+        }
+      }
+      if (state == initial && startFilter != null) {
+        position = startFilter.skip(input, position);
+      }
+      if (position >= length) {
+        break;
+      }
+      char c = input.charAt(position);
+      if (c < 128) {
+        State next = state.next[c];
+        if (next == null) {
+          next = transition(state, c);
+          state.next[c] = next;
+        }
+        state = next;
+        position++;
+      } else {
+        int codePoint = Character.codePointAt(input, position);
+        state = transition(state, codePoint);
+        position += Character.charCount(codePoint);
+      }
+    }
+    return remaining < remainingBefore;
+  }
+
+  private State transition(State state, int c) {
+    if (states.size() >= MAX_STATES) {
+      states.clear();
+      initial = state(initial.pcs);
+      state = state(state.pcs);
+    }
+    return state(closure(0, state.pcs, c));
+  }
+
+  /**
+   * Returns the instructions that consume code points or match, that are
+   * reachable from the start instruction, and from the instructions after
+   * those of the given ones that consume the code point, in ascending order.
+   */
+  private int[] closure(int startPc, int[] from, int c) {
+    int count = 0;
+    int top = 0;
+    stack[top++] = startPc;
+    for (int pc : from) {
+      if (op[pc] == Program.CHAR && predicates[pc].matches(c)) {
+        stack[top++] = pc + 1;
+      }
+    }
+    while (top > 0) {
+      int pc = stack[--top];
+      while (!visited[pc]) {
+        visited[pc] = true;
+        pcs[count++] = pc;
+        int instruction = op[pc];
+        if (instruction == Program.JUMP || instruction == Program.REPEAT) {
+          pc = x[pc];
+        } else if (instruction == Program.SPLIT) {
+          stack[top++] = y[pc];
+          pc = x[pc];
+        } else if (instruction == Program.SAVE) {
+          pc++;
+        } else {
+          break;
+        }
+      }
+    }
+    int kept = 0;
+    for (int i = 0; i < count; i++) {
+      visited[pcs[i]] = false;
+      if (op[pcs[i]] == Program.CHAR || op[pcs[i]] == Program.MATCH) {
+        pcs[kept++] = pcs[i];
+      }
+    }
+    int[] closure = Arrays.copyOf(pcs, kept);
+    Arrays.sort(closure);
+    return closure;
+  }
+
+  private State state(int[] pcs) {
+    Key key = new Key(pcs);
+    State state = states.get(key);
+    if (state == null) {
+      state = new State(pcs);
+      states.put(key, state);
+    }
+    return state;
+  }
+
+  private final class State {
+    final int[] pcs;
+    final int[] matches;
+    final State[] next;
+
+    State(int[] pcs) {
+      this.pcs = pcs;
+      List<Integer> matches = new ArrayList<>();
+      for (int pc : pcs) {
+        if (op[pc] == Program.MATCH) {
+          matches.add(x[pc]);
+        }
+      }
+      this.matches = new int[matches.size()];
+      for (int i = 0; i < this.matches.length; i++) {
+        this.matches[i] = matches.get(i);
+      }
+      this.next = new State[128];
+    }
+  }
+
+  private static final class Key {
+    private final int[] pcs;
+    private final int hashCode;
+
+    Key(int[] pcs) {
+      this.pcs = pcs;
+      this.hashCode = Arrays.hashCode(pcs);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      return o instanceof Key && Arrays.equals(pcs, ((Key) o).pcs);
+    }
+
+    @Override
+    public int hashCode() {
+      return hashCode;
+    }
+  }
+}
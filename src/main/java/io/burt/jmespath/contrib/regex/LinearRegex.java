@@ -0,0 +1,317 @@
+package io.burt.jmespath.contrib.regex;
+
+import java.util.Arrays;
+import java.util.Map;
+
+/**
+ * A regular expression compiled by {@link LinearRegexEngine}, which runs its
+ * program on a Pike VM: every position of the input is visited once, and
+ * for each position the machine keeps at most one thread per instruction,
+ * in priority order, so that the first thread to match is the match that a
+ * backtracking engine would have found.
+ */
+class LinearRegex implements CompiledRegex {
+  private static final int[] NO_CAPTURES = new int[0];
+
+  private final String pattern;
+  private final int flags;
+  private final int[] op;
+  private final int[] x;
+  private final int[] y;
+  private final CharPredicate[] predicates;
+  private final int size;
+  private final int groupCount;
+  private final Map<String, Integer> namedGroups;
+  private final StartFilter startFilter;
+  private final ThreadLocal<Machine> machines;
+
+  LinearRegex(String pattern, int flags, Program program, int groupCount, Map<String, Integer> namedGroups) {
+    this.pattern = pattern;
+    this.flags = flags;
+    this.op = program.op;
+    this.x = program.x;
+    this.y = program.y;
+    this.predicates = program.predicates;
+    this.size = program.size;
+    this.groupCount = groupCount;
+    this.namedGroups = namedGroups;
+    this.startFilter = StartFilter.create(program);
+    this.machines = new ThreadLocal<Machine>() {
+      @Override
+      protected Machine initialValue() {
+        return new Machine();
+      }
+    };
+  }
+
+  @Override
+  public String pattern() {
+    return pattern;
+  }
+
+  @Override
+  public int flags() {
+    return flags;
+  }
+
+  @Override
+  public boolean find(CharSequence input) {
+    return machine().search(input, 0, NO_CAPTURES, false);
+  }
+
+  @Override
+  public RegexMatcher matcher(CharSequence input) {
+    return new LinearRegexMatcher(this, input);
+  }
+
+  @Override
+  public String toString() {
+    return pattern;
+  }
+
+  int groupCount() {
+    return groupCount;
+  }
+
+  Map<String, Integer> namedGroups() {
+    return namedGroups;
+  }
+
+  /**
+   * Returns the machine of the current thread, which can be shared by all
+   * matchers on the thread since a search never starts another.
+   */
+  Machine machine() {
+    return machines.get();
+  }
+
+  /**
+   * The threads of the machine for one position, as a sparse set of
+   * instructions, with the capture slots of each thread.
+   */
+  private static final class Threads {
+    final int[] sparse;
+    final int[] dense;
+    final int[][] captures;
+    int size;
+
+    Threads(int capacity) {
+      this.sparse = new int[capacity];
+      this.dense = new int[capacity];
+      this.captures = new int[capacity][];
+    }
+
+    boolean contains(int pc) {
+      int i = sparse[pc];
+      return i < size && dense[i] == pc;
+    }
+
+    void add(int pc, int[] threadCaptures) {
+      sparse[pc] = size;
+      dense[size] = pc;
+      captures[size] = threadCaptures;
+      size++;
+    }
+  }
+
+  /**
+   * The state of the machine, which is reused for searches of the same
+   * expression, one at a time.
+   */
+  final class Machine {
+    private Threads current;
+    private Threads next;
+    private final int[] stackPc;
+    private final int[][] stackCaptures;
+
+    Machine() {
+      this.current = new Threads(size);
+      this.next = new Threads(size);
+      this.stackPc = new int[size];
+      this.stackCaptures = new int[size][];
+    }
+
+    /**
+     * Searches the input for a match that starts at or after the position,
+     * or that starts at the position and covers the rest of the input when
+     * the search is anchored, and saves the positions of the groups of the
+     * match in the capture slots, as many of them as there are room for.
+     */
+    boolean search(CharSequence input, int from, int[] captures, boolean anchored) {
+      int length = input.length();
+      if (from > 0 && from < length && Character.isLowSurrogate(input.charAt(from)) && Character.isHighSurrogate(input.charAt(from - 1))) {
+        from++;
+      }
+      int[] initial = NO_CAPTURES;
+      if (captures.length > 0) {
+        initial = new int[captures.length];
+        Arrays.fill(initial, -1);
+      }
+      current.size = 0;
+      next.size = 0;
+      boolean matched = false;
+      int position = from;
+      while (true) {
+        if (!matched && !anchored && current.size == 0 && startFilter != null) {
+          position = startFilter.skip(input, position);
+        }
+        if (!matched && (position == from || !anchored) && (startFilter == null || startFilter.canStartAt(input, position))) {
+          addThread(current, 0, initial, input, position);
+        }
+        if (current.size == 0 && (matched || anchored || position >= length)) {
+          break;
+        }
+        int c = position < length ? Character.codePointAt(input, position) : -1;
+        int nextPosition = c == -1 ? position : position + Character.charCount(c);
+        for (int i = 0; i < current.size; i++) {
+          int pc = current.dense[i];
+          if (op[pc] == Program.CHAR) {
+            if (c != -1 && predicates[pc].matches(c)) {
+              addThread(next, pc + 1, current.captures[i], input, nextPosition);
+            }
+          } else if (op[pc] == Program.MATCH && (!anchored || position == length)) {
+            matched = true;
+            if (captures.length == 0) {
+              return true;
+            }
+            System.arraycopy(current.captures[i], 0, captures, 0, captures.length);
+            break;
+          }
+        }
+        if (c == -1) {
+          break;
+        }
+        Threads swap = current;
+        current = next;
+        next = swap;
+        next.size = 0;
+        position = nextPosition;
+      }
+      return matched;
+    }
+
+    /**
+     * Adds a thread at the instruction to the list, and follows the jumps,
+     * splits, saves and assertions from there in priority order.
+     */
+    private void addThread(Threads threads, int startPc, int[] startCaptures, CharSequence input, int position) {
+      int top = 0;
+      stackPc[top] = startPc;
+      stackCaptures[top++] = startCaptures;
+      while (top > 0) {
+        top--;
+        int pc = stackPc[top];
+        int[] threadCaptures = stackCaptures[top];
+        while (!threads.contains(pc)) {
+          threads.add(pc, threadCaptures);
+          int instruction = op[pc];
+          if (instruction == Program.JUMP) {
+            pc = x[pc];
+          } else if (instruction == Program.SPLIT) {
+            stackPc[top] = y[pc];
+            stackCaptures[top++] = threadCaptures;
+            pc = x[pc];
+          } else if (instruction == Program.REPEAT) {
+            pc = threads.contains(x[pc]) ? y[pc] : x[pc];
+          } else if (instruction == Program.SAVE) {
+            if (x[pc] < threadCaptures.length) {
+              threadCaptures = threadCaptures.clone();
+              threadCaptures[x[pc]] = position;
+            }
+            pc++;
+          } else if (instruction == Program.ASSERT && holds(x[pc], input, position)) {
+            pc++;
+          } else {
+            break;
+          }
+        }
+      }
+    }
+  }
+
+  /**
+   * Tests an assertion, with the semantics of the corresponding nodes of
+   * {@link java.util.regex.Pattern}.
+   */
+  static boolean holds(int assertion, CharSequence input, int position) {
+    int length = input.length();
+    switch (assertion) {
+      case Program.BEGIN_TEXT:
+        return position == 0;
+      case Program.END_TEXT:
+        return position == length;
+      case Program.BEGIN_LINE:
+        if (position == length) {
+          return false;
+        } else if (position > 0) {
+          char c = input.charAt(position - 1);
+          return isLineTerminator(c) && !(c == '\r' && input.charAt(position) == '\n');
+        } else {
+          return true;
+        }
+      case Program.END_LINE:
+      case Program.END_TEXT_OR_LINE:
+        boolean multiline = assertion == Program.END_LINE;
+        if (!multiline && position < length - 2) {
+          return false;
+        } else if (!multiline && position == length - 2) {
+          return input.charAt(position) == '\r' && input.charAt(position + 1) == '\n';
+        } else if (position < length) {
+          char c = input.charAt(position);
+          if (c == '\n') {
+            return !(position > 0 && input.charAt(position - 1) == '\r');
+          } else {
+            return isLineTerminator(c);
+          }
+        } else {
+          return true;
+        }
+      case Program.WORD_BOUNDARY:
+        return isWordBefore(input, position) != isWordAt(input, position);
+      case Program.NOT_WORD_BOUNDARY:
+        return isWordBefore(input, position) == isWordAt(input, position);
+      default:
+        throw new IllegalStateException(String.format("Unknown assertion %d", assertion));
+    }
+  }
+
+  private static boolean isLineTerminator(char c) {
+    return c == '\n' || c == '\r' || c == '\u0085' || (c | 1) == '\u2029';
+  }
+
+  private static boolean isWordBefore(CharSequence input, int position) {
+    if (position == 0) {
+      return false;
+    }
+    int c = Character.codePointBefore(input, position);
+    return isWord(c) || (isMark(c) && hasBaseCharacter(input, position - 1));
+  }
+
+  private static boolean isWordAt(CharSequence input, int position) {
+    if (position == input.length()) {
+      return false;
+    }
+    int c = Character.codePointAt(input, position);
+    return isWord(c) || (isMark(c) && hasBaseCharacter(input, position));
+  }
+
+  private static boolean isWord(int c) {
+    return c == '_' || Character.isLetterOrDigit(c);
+  }
+
+  private static boolean isMark(int c) {
+    return Character.getType(c) == Character.NON_SPACING_MARK;
+  }
+
+  private static boolean hasBaseCharacter(CharSequence input, int position) {
+    for (int i = position; i >= 0; i--) {
+      int c = Character.codePointAt(input, i);
+      if (Character.isLetterOrDigit(c)) {
+        return true;
+      } else if (!isMark(c)) {
+        return false;
+      }
+    }
+    return false;
+  }
+}
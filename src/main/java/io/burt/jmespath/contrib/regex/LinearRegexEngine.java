@@ -0,0 +1,103 @@
+package io.burt.jmespath.contrib.regex;
+
+import java.util.regex.Pattern;
+
+/**
+ * Compiles regular expressions to programs for a virtual machine that
+ * simulates all the ways the expression can match in parallel, in a single
+ * pass over the input, which takes time proportional to the length of the
+ * input times the size of the expression, whatever the expression is.
+ * <p>
+ * This makes it safe to evaluate regular expressions that come from
+ * untrusted sources, like <code>(a+)+$</code>, which can make a backtracking
+ * engine like {@link java.util.regex.Pattern} run for longer than the age of
+ * the universe on inputs of a few dozen characters.
+ * <p>
+ * Matches are the same as those of <code>Pattern</code>: the leftmost match
+ * is found, and among the matches that start there the one that a
+ * backtracking engine would find first. The groups are the same too, except
+ * in corner cases where <code>Pattern</code> keeps what a group captured in
+ * an attempt that it later abandoned, and except that matches never start
+ * inside a surrogate pair.
+ * <p>
+ * The supported syntax is the subset of the syntax of <code>Pattern</code>
+ * that can be matched without backtracking: literals and escapes, character
+ * classes without unions and intersections, the predefined classes
+ * <code>\d</code>, <code>\s</code>, <code>\w</code> and their negations,
+ * <code>.</code>, the anchors <code>^</code>, <code>$</code>, <code>\b</code>,
+ * <code>\B</code>, <code>\A</code>, <code>\z</code> and <code>\Z</code>,
+ * capturing, named and non-capturing groups, greedy and lazy quantifiers
+ * of expressions that can not match the empty string, and alternation,
+ * with the flags {@link Pattern#CASE_INSENSITIVE},
+ * {@link Pattern#UNICODE_CASE}, {@link Pattern#DOTALL},
+ * {@link Pattern#MULTILINE} and {@link Pattern#LITERAL}.
+ * <p>
+ * Other expressions, like those with lookaround, backreferences, possessive
+ * quantifiers or inline flags, are compiled by the fallback engine, which by
+ * default is a {@link JavaRegexEngine}. An engine without a fallback throws
+ * {@link UnsupportedRegexException} for them instead, so that only
+ * expressions that can be matched in linear time are accepted.
+ */
+public class LinearRegexEngine implements RegexEngine {
+  static final int MAX_PROGRAM_SIZE = 10000;
+
+  private final RegexEngine fallback;
+
+  /**
+   * Creates an engine that falls back to a {@link JavaRegexEngine} for the
+   * expressions that it does not support.
+   */
+  public LinearRegexEngine() {
+    this(new JavaRegexEngine());
+  }
+
+  /**
+   * Creates an engine that falls back to the given engine for the expressions
+   * that it does not support, or that rejects them when the fallback is null.
+   */
+  public LinearRegexEngine(RegexEngine fallback) {
+    this.fallback = fallback;
+  }
+
+  /**
+   * Returns true when the expression will be compiled by this engine, and
+   * not by the fallback.
+   */
+  public boolean supports(String regex, int flags) {
+    try {
+      compileLinear(regex, flags);
+      return true;
+    } catch (UnsupportedRegexException ure) {
+      return false;
+    }
+  }
+
+  /**
+   * @throws java.util.regex.PatternSyntaxException when the expression is
+   *   invalid, and an {@link UnsupportedRegexException} when it is not
+   *   supported and there is no fallback
+   */
+  @Override
+  public CompiledRegex compile(String regex, int flags) {
+    try {
+      return compileLinear(regex, flags);
+    } catch (UnsupportedRegexException ure) {
+      if (fallback != null) {
+        return fallback.compile(regex, flags);
+      }
+      Pattern.compile(regex, flags);
+      throw ure;
+    }
+  }
+
+  private CompiledRegex compileLinear(String regex, int flags) {
+    RegexParser parser = new RegexParser(regex, flags);
+    RegexNode node = parser.parse();
+    Program program = new Program(regex, MAX_PROGRAM_SIZE);
+    program.emit(Program.SAVE, 0);
+    node.compile(program);
+    program.emit(Program.SAVE, 1);
+    program.emit(Program.MATCH, 0);
+    return new LinearRegex(regex, flags, program, parser.groupCount(), parser.namedGroups());
+  }
+}
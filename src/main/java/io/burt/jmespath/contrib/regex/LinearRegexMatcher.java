@@ -0,0 +1,187 @@
+package io.burt.jmespath.contrib.regex;
+
+import java.util.Arrays;
+
+/**
+ * A matcher for a {@link LinearRegex}, which finds matches and makes
+ * replacements like a {@link java.util.regex.Matcher}.
+ */
+class LinearRegexMatcher implements RegexMatcher {
+  private final LinearRegex regex;
+  private final CharSequence input;
+  private final int[] groups;
+  private boolean matched;
+  private int first;
+  private int last;
+
+  LinearRegexMatcher(LinearRegex regex, CharSequence input) {
+    this.regex = regex;
+    this.input = input;
+    this.groups = new int[(regex.groupCount() + 1) * 2];
+    reset();
+  }
+
+  private void reset() {
+    matched = false;
+    first = -1;
+    last = 0;
+  }
+
+  @Override
+  public boolean find() {
+    int from = last;
+    if (from == first) {
+      from++;
+    }
+    if (from > input.length()) {
+      matched = false;
+      return false;
+    }
+    return search(from, false);
+  }
+
+  @Override
+  public boolean matches() {
+    return search(0, true);
+  }
+
+  private boolean search(int from, boolean anchored) {
+    Arrays.fill(groups, -1);
+    matched = regex.machine().search(input, from, groups, anchored);
+    if (matched) {
+      first = groups[0];
+      last = groups[1];
+    } else {
+      first = -1;
+    }
+    return matched;
+  }
+
+  @Override
+  public int start() {
+    return start(0);
+  }
+
+  @Override
+  public int end() {
+    return end(0);
+  }
+
+  @Override
+  public int start(int group) {
+    checkGroup(group);
+    return groups[group * 2];
+  }
+
+  @Override
+  public int end(int group) {
+    checkGroup(group);
+    return groups[group * 2 + 1];
+  }
+
+  @Override
+  public String group(int group) {
+    checkGroup(group);
+    int start = groups[group * 2];
+    int end = groups[group * 2 + 1];
+    return start == -1 || end == -1 ? null : input.subSequence(start, end).toString();
+  }
+
+  private void checkGroup(int group) {
+    if (!matched) {
+      throw new IllegalStateException("No match available");
+    }
+    if (group < 0 || group > regex.groupCount()) {
+      throw new IndexOutOfBoundsException("No group " + group);
+    }
+  }
+
+  @Override
+  public int groupCount() {
+    return regex.groupCount();
+  }
+
+  @Override
+  public String replaceAll(String replacement) {
+    reset();
+    if (!find()) {
+      return input.toString();
+    }
+    StringBuilder result = new StringBuilder();
+    int appendPosition = 0;
+    do {
+      result.append(input, appendPosition, start());
+      appendReplacement(result, replacement);
+      appendPosition = end();
+    } while (find());
+    result.append(input, appendPosition, input.length());
+    return result.toString();
+  }
+
+  /**
+   * Appends the replacement for the current match, with the same syntax and
+   * errors as {@link java.util.regex.Matcher#appendReplacement}.
+   */
+  private void appendReplacement(StringBuilder result, String replacement) {
+    int cursor = 0;
+    while (cursor < replacement.length()) {
+      char c = replacement.charAt(cursor++);
+      if (c == '\\') {
+        if (cursor == replacement.length()) {
+          throw new IllegalArgumentException("character to be escaped is missing");
+        }
+        result.append(replacement.charAt(cursor++));
+      } else if (c == '$') {
+        if (cursor == replacement.length()) {
+          throw new IllegalArgumentException("Illegal group reference: group index is missing");
+        }
+        int group;
+        if (replacement.charAt(cursor) == '{') {
+          cursor++;
+          int start = cursor;
+          while (cursor < replacement.length() && isAsciiLetterOrDigit(replacement.charAt(cursor))) {
+            cursor++;
+          }
+          if (cursor == start) {
+            throw new IllegalArgumentException("named capturing group has 0 length name");
+          }
+          if (cursor == replacement.length() || replacement.charAt(cursor) != '}') {
+            throw new IllegalArgumentException("named capturing group is missing trailing '}'");
+          }
+          String name = replacement.substring(start, cursor++);
+          if (name.charAt(0) >= '0' && name.charAt(0) <= '9') {
+            throw new IllegalArgumentException("capturing group name {" + name + "} starts with digit character");
+          }
+          Integer index = regex.namedGroups().get(name);
+          if (index == null) {
+            throw new IllegalArgumentException("No group with name {" + name + "}");
+          }
+          group = index;
+        } else {
+          group = replacement.charAt(cursor) - '0';
+          if (group < 0 || group > 9) {
+            throw new IllegalArgumentException("Illegal group reference");
+          }
+          cursor++;
+          while (cursor < replacement.length()) {
+            int digit = replacement.charAt(cursor) - '0';
+            if (digit < 0 || digit > 9 || group * 10 + digit > regex.groupCount()) {
+              break;
+            }
+            group = group * 10 + digit;
+            cursor++;
+          }
+        }
+        if (start(group) != -1 && end(group) != -1) {
+          result.append(input, start(group), end(group));
+        }
+      } else {
+        result.append(c);
+      }
+    }
+  }
+
+  private static boolean isAsciiLetterOrDigit(char c) {
+    return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9');
+  }
+}
@@ -0,0 +1,263 @@
+package io.burt.jmespath.contrib.regex;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A set of regular expressions where the expressions that
+ * {@link LinearRegexEngine} supports are compiled into one program, which
+ * looks for all of them in a single pass over the input.
+ * <p>
+ * The program starts with a chain of splits, one for each expression, into
+ * the instructions of the expression, which end with a match instruction
+ * that holds the index of the expression. Unlike {@link LinearRegex} the
+ * machine does not stop the threads of lower priority when one matches,
+ * since the set only needs to know which expressions match, not where.
+ * When none of the expressions have assertions the program is instead run
+ * as a {@link LazyDfa}, which only looks up one transition per character
+ * once its states have been built.
+ * <p>
+ * Expressions that the parser does not support, and those that would make
+ * the combined program too large, are compiled by the engine of the set and
+ * matched one by one.
+ */
+class LinearRegexSet extends RegexSet {
+  static final int MAX_PROGRAM_SIZE = 5 * LinearRegexEngine.MAX_PROGRAM_SIZE;
+
+  private final int size;
+  private final int[] op;
+  private final int[] x;
+  private final int[] y;
+  private final CharPredicate[] predicates;
+  private final int programSize;
+  private final int linearCount;
+  private final int[] fallbackIndexes;
+  private final CompiledRegex[] fallbacks;
+  private final StartFilter startFilter;
+  private final ThreadLocal<LazyDfa> automata;
+  private final ThreadLocal<Machine> machines;
+
+  LinearRegexSet(List<String> regexes, int flags, RegexEngine engine) {
+    final Program program = new Program(regexes.toString(), MAX_PROGRAM_SIZE);
+    List<Integer> fallbackIndexes = new ArrayList<>();
+    List<CompiledRegex> fallbacks = new ArrayList<>();
+    int linearCount = 0;
+    for (int i = 0; i < regexes.size(); i++) {
+      String regex = regexes.get(i);
+      int start = program.size;
+      try {
+        RegexNode node = new RegexParser(regex, flags).parse();
+        int split = program.emit(Program.SPLIT, start + 1, 0, null);
+        node.compile(program);
+        program.emit(Program.MATCH, i);
+        if (program.size - start > LinearRegexEngine.MAX_PROGRAM_SIZE) {
+          throw new UnsupportedRegexException(String.format("Compiles to more than %d instructions", LinearRegexEngine.MAX_PROGRAM_SIZE), regex, -1);
+        }
+        program.y[split] = program.size;
+        linearCount++;
+      } catch (UnsupportedRegexException ure) {
+        program.size = start;
+        fallbackIndexes.add(i);
+        fallbacks.add(engine.compile(regex, flags));
+      }
+    }
+    program.emit(Program.FAIL, 0);
+    this.size = regexes.size();
+    this.op = program.op;
+    this.x = program.x;
+    this.y = program.y;
+    this.predicates = program.predicates;
+    this.programSize = program.size;
+    this.linearCount = linearCount;
+    this.fallbackIndexes = new int[fallbackIndexes.size()];
+    for (int i = 0; i < this.fallbackIndexes.length; i++) {
+      this.fallbackIndexes[i] = fallbackIndexes.get(i);
+    }
+    this.fallbacks = fallbacks.toArray(new CompiledRegex[fallbacks.size()]);
+    this.startFilter = StartFilter.create(program);
+    if (LazyDfa.supports(program)) {
+      this.automata = new ThreadLocal<LazyDfa>() {
+        @Override
+        protected LazyDfa initialValue() {
+          return new LazyDfa(program, startFilter);
+        }
+      };
+      this.machines = null;
+    } else {
+      this.automata = null;
+      this.machines = new ThreadLocal<Machine>() {
+        @Override
+        protected Machine initialValue() {
+          return new Machine();
+        }
+      };
+    }
+  }
+
+  @Override
+  public int size() {
+    return size;
+  }
+
+  @Override
+  public boolean findAny(CharSequence input) {
+    if (linearCount > 0 && search(input, null)) {
+      return true;
+    }
+    for (CompiledRegex fallback : fallbacks) {
+      if (fallback.find(input)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  @Override
+  public int[] findAll(CharSequence input) {
+    boolean[] found = new boolean[size];
+    if (linearCount > 0) {
+      search(input, found);
+    }
+    for (int i = 0; i < fallbacks.length; i++) {
+      found[fallbackIndexes[i]] = fallbacks[i].find(input);
+    }
+    int count = 0;
+    for (boolean f : found) {
+      if (f) {
+        count++;
+      }
+    }
+    int[] indexes = new int[count];
+    for (int i = 0, j = 0; i < size; i++) {
+      if (found[i]) {
+        indexes[j++] = i;
+      }
+    }
+    return indexes;
+  }
+
+  private boolean search(CharSequence input, boolean[] found) {
+    if (automata != null) {
+      return automata.get().search(input, found, linearCount);
+    } else {
+      return machines.get().search(input, found);
+    }
+  }
+
+  /**
+   * The state of the machine, which is reused for searches of the same set,
+   * one at a time. The threads are sparse sets of instructions, since there
+   * are no captures to keep.
+   */
+  private final class Machine {
+    private int[] currentSparse;
+    private int[] currentDense;
+    private int currentSize;
+    private int[] nextSparse;
+    private int[] nextDense;
+    private int nextSize;
+    private final int[] stack;
+
+    Machine() {
+      this.currentSparse = new int[programSize];
+      this.currentDense = new int[programSize];
+      this.nextSparse = new int[programSize];
+      this.nextDense = new int[programSize];
+      this.stack = new int[programSize];
+    }
+
+    /**
+     * Searches the input for matches of the combined expressions. When the
+     * found array is null the search stops at the first match, otherwise it
+     * marks each expression that matches and stops when all have.
+     */
+    boolean search(CharSequence input, boolean[] found) {
+      int length = input.length();
+      int remaining = linearCount;
+      currentSize = 0;
+      nextSize = 0;
+      int position = 0;
+      while (true) {
+        if (startFilter == null) {
+          currentSize = addThread(currentSparse, currentDense, currentSize, 0, input, position);
+        } else {
+          if (currentSize == 0) {
+            position = startFilter.skip(input, position);
+          }
+          if (startFilter.canStartAt(input, position)) {
+            currentSize = addThread(currentSparse, currentDense, currentSize, 0, input, position);
+          }
+        }
+        int c = position < length ? Character.codePointAt(input, position) : -1;
+        int nextPosition = c == -1 ? position : position + Character.charCount(c);
+        for (int i = 0; i < currentSize; i++) {
+          int pc = currentDense[i];
+          if (op[pc] == Program.CHAR) {
+            if (c != -1 && predicates[pc].matches(c)) {
+              nextSize = addThread(nextSparse, nextDense, nextSize, pc + 1, input, nextPosition);
+            }
+          } else if (op[pc] == Program.MATCH) {
+            if (found == null) {
+              return true;
+            } else if (!found[x[pc]]) {
+              found[x[pc]] = true;
+              if (--remaining == 0) {
+                return true;
+              }
+            }
+          }
+        }
+        if (c == -1) {
+          break;
+        }
+        int[] swap = currentSparse;
+        currentSparse = nextSparse;
+        nextSparse = swap;
+        swap = currentDense;
+        currentDense = nextDense;
+        nextDense = swap;
+        currentSize = nextSize;
+        nextSize = 0;
+        position = nextPosition;
+      }
+      return remaining < linearCount;
+    }
+
+    /**
+     * Adds a thread at the instruction to the set, and follows the jumps,
+     * splits and assertions from there, and returns the new size of the set.
+     */
+    private int addThread(int[] sparse, int[] dense, int size, int startPc, CharSequence input, int position) {
+      int top = 0;
+      stack[top++] = startPc;
+      while (top > 0) {
+        int pc = stack[--top];
+        while (!contains(sparse, dense, size, pc)) {
+          sparse[pc] = size;
+          dense[size++] = pc;
+          int instruction = op[pc];
+          if (instruction == Program.JUMP) {
+            pc = x[pc];
+          } else if (instruction == Program.SPLIT) {
+            stack[top++] = y[pc];
+            pc = x[pc];
+          } else if (instruction == Program.REPEAT) {
+            pc = contains(sparse, dense, size, x[pc]) ? y[pc] : x[pc];
+          } else if (instruction == Program.SAVE) {
+            pc++;
+          } else if (instruction == Program.ASSERT && LinearRegex.holds(x[pc], input, position)) {
+            pc++;
+          } else {
+            break;
+          }
+        }
+      }
+      return size;
+    }
+
+    private boolean contains(int[] sparse, int[] dense, int size, int pc) {
+      int i = sparse[pc];
+      return i < size && dense[i] == pc;
+    }
+  }
+}
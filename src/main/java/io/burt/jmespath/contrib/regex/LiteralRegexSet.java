@@ -0,0 +1,32 @@
+package io.burt.jmespath.contrib.regex;
+
+import java.util.List;
+
+import io.burt.jmespath.contrib.util.AhoCorasick;
+
+/**
+ * A set of regular expressions that are all literal strings, matched with
+ * an Aho-Corasick automaton.
+ */
+class LiteralRegexSet extends RegexSet {
+  private final AhoCorasick automaton;
+
+  LiteralRegexSet(List<String> literals, boolean ignoreCase) {
+    this.automaton = new AhoCorasick(literals, ignoreCase);
+  }
+
+  @Override
+  public int size() {
+    return automaton.size();
+  }
+
+  @Override
+  public boolean findAny(CharSequence input) {
+    return automaton.containsAny(input);
+  }
+
+  @Override
+  public int[] findAll(CharSequence input) {
+    return automaton.findAll(input);
+  }
+}
@@ -0,0 +1,123 @@
+package io.burt.jmespath.contrib.regex;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * The instructions of a compiled regular expression, which the
+ * {@link LinearRegex} virtual machine runs.
+ */
+class Program {
+  /** Consumes a code point that matches the predicate. */
+  static final int CHAR = 0;
+  /** The expression has matched. */
+  static final int MATCH = 1;
+  /** Continues at <code>x</code>. */
+  static final int JUMP = 2;
+  /** Continues at both <code>x</code> and <code>y</code>, preferring <code>x</code>. */
+  static final int SPLIT = 3;
+  /**
+   * Continues at the loop <code>x</code>, or at its exit <code>y</code>
+   * when the iteration that just ended did not consume anything.
+   */
+  static final int REPEAT = 4;
+  /** Saves the position in the capture slot <code>x</code>. */
+  static final int SAVE = 5;
+  /** Continues when the assertion <code>x</code> holds at the position. */
+  static final int ASSERT = 6;
+  /** Never matches. */
+  static final int FAIL = 7;
+
+  static final int BEGIN_TEXT = 0;
+  static final int END_TEXT = 1;
+  static final int BEGIN_LINE = 2;
+  static final int END_LINE = 3;
+  static final int END_TEXT_OR_LINE = 4;
+  static final int WORD_BOUNDARY = 5;
+  static final int NOT_WORD_BOUNDARY = 6;
+
+  private final String regex;
+  private final int maximumSize;
+
+  int[] op;
+  int[] x;
+  int[] y;
+  CharPredicate[] predicates;
+  int size;
+
+  Program(String regex, int maximumSize) {
+    this.regex = regex;
+    this.maximumSize = maximumSize;
+    this.op = new int[16];
+    this.x = new int[16];
+    this.y = new int[16];
+    this.predicates = new CharPredicate[16];
+  }
+
+  int emit(int op, int x, int y, CharPredicate predicate) {
+    if (size == maximumSize) {
+      throw new UnsupportedRegexException(String.format("Compiles to more than %d instructions", maximumSize), regex, -1);
+    }
+    if (size == this.op.length) {
+      int capacity = size * 2;
+      this.op = Arrays.copyOf(this.op, capacity);
+      this.x = Arrays.copyOf(this.x, capacity);
+      this.y = Arrays.copyOf(this.y, capacity);
+      this.predicates = Arrays.copyOf(this.predicates, capacity);
+    }
+    this.op[size] = op;
+    this.x[size] = x;
+    this.y[size] = y;
+    this.predicates[size] = predicate;
+    return size++;
+  }
+
+  int emit(int op, int x) {
+    return emit(op, x, 0, null);
+  }
+
+  int emit(CharPredicate predicate) {
+    return emit(CHAR, 0, 0, predicate);
+  }
+
+  /**
+   * Returns the predicates of the instructions that can consume the first
+   * code point of a match, or null when a match can be empty.
+   */
+  CharPredicate[] firstPredicates() {
+    boolean[] visited = new boolean[size];
+    int[] stack = new int[size * 2 + 1];
+    int top = 0;
+    stack[top++] = 0;
+    List<CharPredicate> first = new ArrayList<>();
+    while (top > 0) {
+      int pc = stack[--top];
+      if (visited[pc]) {
+        continue;
+      }
+      visited[pc] = true;
+      switch (op[pc]) {
+        case CHAR:
+          first.add(predicates[pc]);
+          break;
+        case MATCH:
+          return null;
+        case FAIL:
+          break;
+        case JUMP:
+          stack[top++] = x[pc];
+          break;
+        case SPLIT:
+        case REPEAT:
+          stack[top++] = y[pc];
+          stack[top++] = x[pc];
+          break;
+        default:
+          stack[top++] = pc + 1;
+          break;
+      }
+    }
+    return first.toArray(new CharPredicate[first.size()]);
+  }
+}
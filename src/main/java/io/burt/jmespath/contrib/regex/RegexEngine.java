@@ -0,0 +1,26 @@
+package io.burt.jmespath.contrib.regex;
+
+/**
+ * Compiles regular expressions for the regular expression functions.
+ * <p>
+ * The engine that a set of functions use is chosen by giving them a
+ * {@link io.burt.jmespath.contrib.function.PatternCache} created with the
+ * engine, usually the same cache for all the functions of a registry.
+ * <p>
+ * Engines must be thread safe, and so must the compiled expressions they
+ * return.
+ *
+ * @see JavaRegexEngine
+ * @see LinearRegexEngine
+ */
+public interface RegexEngine {
+  /**
+   * Compiles the regular expression.
+   *
+   * @param flags the flags of {@link java.util.regex.Pattern}, like
+   *   {@link java.util.regex.Pattern#CASE_INSENSITIVE}
+   * @throws java.util.regex.PatternSyntaxException when the regular
+   *   expression is invalid, or can not be compiled by this engine
+   */
+  CompiledRegex compile(String regex, int flags);
+}
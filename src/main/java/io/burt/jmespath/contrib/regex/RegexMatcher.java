@@ -0,0 +1,75 @@
+package io.burt.jmespath.contrib.regex;
+
+/**
+ * Finds the matches of a regular expression in an input, like a
+ * {@link java.util.regex.Matcher}, and with the same semantics for the
+ * methods that they have in common.
+ * <p>
+ * Matchers are not thread safe.
+ */
+public interface RegexMatcher {
+  /**
+   * Finds the next match, starting at the end of the previous match.
+   */
+  boolean find();
+
+  /**
+   * Returns true when the regular expression matches all of the input.
+   */
+  boolean matches();
+
+  /**
+   * Returns the start of the last match.
+   *
+   * @throws IllegalStateException when there is no match
+   */
+  int start();
+
+  /**
+   * Returns the end of the last match.
+   *
+   * @throws IllegalStateException when there is no match
+   */
+  int end();
+
+  /**
+   * Returns the start of the group in the last match, or -1 when the group
+   * did not participate in the match.
+   *
+   * @throws IllegalStateException when there is no match
+   * @throws IndexOutOfBoundsException when there is no such group
+   */
+  int start(int group);
+
+  /**
+   * Returns the end of the group in the last match, or -1 when the group
+   * did not participate in the match.
+   *
+   * @throws IllegalStateException when there is no match
+   * @throws IndexOutOfBoundsException when there is no such group
+   */
+  int end(int group);
+
+  /**
+   * Returns the input matched by the group in the last match, or null when
+   * the group did not participate in the match.
+   *
+   * @throws IllegalStateException when there is no match
+   * @throws IndexOutOfBoundsException when there is no such group
+   */
+  String group(int group);
+
+  /**
+   * Returns the number of capturing groups of the regular expression.
+   */
+  int groupCount();
+
+  /**
+   * Replaces every match with the replacement, where <code>$n</code> and
+   * <code>${name}</code> refer to groups, and a backslash escapes the next
+   * character, like {@link java.util.regex.Matcher#replaceAll(String)}.
+   * <p>
+   * The matcher is reset first, and ends up after the last match.
+   */
+  String replaceAll(String replacement);
+}
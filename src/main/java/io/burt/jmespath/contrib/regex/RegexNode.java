@@ -0,0 +1,233 @@
+package io.burt.jmespath.contrib.regex;
+
+import java.util.List;
+
+/**
+ * A node of the syntax tree of a regular expression, which compiles itself
+ * to instructions of a {@link Program}.
+ */
+abstract class RegexNode {
+  abstract void compile(Program program);
+
+  /** Returns true when the node can match without consuming anything. */
+  abstract boolean nullable();
+
+  /** Returns true when the node contains a capturing group. */
+  abstract boolean captures();
+
+  static class Char extends RegexNode {
+    private final CharPredicate predicate;
+
+    Char(CharPredicate predicate) {
+      this.predicate = predicate;
+    }
+
+    @Override
+    void compile(Program program) {
+      program.emit(predicate);
+    }
+
+    @Override
+    boolean nullable() {
+      return false;
+    }
+
+    @Override
+    boolean captures() {
+      return false;
+    }
+  }
+
+  static class Assertion extends RegexNode {
+    private final int kind;
+
+    Assertion(int kind) {
+      this.kind = kind;
+    }
+
+    @Override
+    void compile(Program program) {
+      program.emit(Program.ASSERT, kind);
+    }
+
+    @Override
+    boolean nullable() {
+      return true;
+    }
+
+    @Override
+    boolean captures() {
+      return false;
+    }
+  }
+
+  static class Group extends RegexNode {
+    private final RegexNode node;
+    private final int index;
+
+    Group(RegexNode node, int index) {
+      this.node = node;
+      this.index = index;
+    }
+
+    @Override
+    void compile(Program program) {
+      program.emit(Program.SAVE, index * 2);
+      node.compile(program);
+      program.emit(Program.SAVE, index * 2 + 1);
+    }
+
+    @Override
+    boolean nullable() {
+      return node.nullable();
+    }
+
+    @Override
+    boolean captures() {
+      return true;
+    }
+  }
+
+  static class Concatenation extends RegexNode {
+    private final List<RegexNode> nodes;
+
+    Concatenation(List<RegexNode> nodes) {
+      this.nodes = nodes;
+    }
+
+    @Override
+    void compile(Program program) {
+      for (RegexNode node : nodes) {
+        node.compile(program);
+      }
+    }
+
+    @Override
+    boolean nullable() {
+      for (RegexNode node : nodes) {
+        if (!node.nullable()) {
+          return false;
+        }
+      }
+      return true;
+    }
+
+    @Override
+    boolean captures() {
+      for (RegexNode node : nodes) {
+        if (node.captures()) {
+          return true;
+        }
+      }
+      return false;
+    }
+  }
+
+  static class Alternation extends RegexNode {
+    private final List<RegexNode> alternatives;
+
+    Alternation(List<RegexNode> alternatives) {
+      this.alternatives = alternatives;
+    }
+
+    @Override
+    void compile(Program program) {
+      int[] jumps = new int[alternatives.size() - 1];
+      for (int i = 0; i < alternatives.size() - 1; i++) {
+        int split = program.emit(Program.SPLIT, program.size + 1);
+        alternatives.get(i).compile(program);
+        jumps[i] = program.emit(Program.JUMP, 0);
+        program.y[split] = program.size;
+      }
+      alternatives.get(alternatives.size() - 1).compile(program);
+      for (int jump : jumps) {
+        program.x[jump] = program.size;
+      }
+    }
+
+    @Override
+    boolean nullable() {
+      for (RegexNode alternative : alternatives) {
+        if (alternative.nullable()) {
+          return true;
+        }
+      }
+      return false;
+    }
+
+    @Override
+    boolean captures() {
+      for (RegexNode alternative : alternatives) {
+        if (alternative.captures()) {
+          return true;
+        }
+      }
+      return false;
+    }
+  }
+
+  /**
+   * A repetition, where a maximum of -1 means unbounded. The minimum number
+   * of repetitions and bounded optional repetitions are unrolled.
+   */
+  static class Repetition extends RegexNode {
+    private final RegexNode node;
+    private final int min;
+    private final int max;
+    private final boolean greedy;
+
+    Repetition(RegexNode node, int min, int max, boolean greedy) {
+      this.node = node;
+      this.min = min;
+      this.max = max;
+      this.greedy = greedy;
+    }
+
+    @Override
+    void compile(Program program) {
+      for (int i = 0; i < min; i++) {
+        node.compile(program);
+      }
+      if (max == -1) {
+        int loop = split(program);
+        node.compile(program);
+        int repeat = program.emit(Program.REPEAT, loop);
+        exit(program, loop);
+        program.y[repeat] = program.size;
+      } else {
+        int[] splits = new int[max - min];
+        for (int i = 0; i < max - min; i++) {
+          splits[i] = split(program);
+          node.compile(program);
+        }
+        for (int split : splits) {
+          exit(program, split);
+        }
+      }
+    }
+
+    private int split(Program program) {
+      return program.emit(Program.SPLIT, 0);
+    }
+
+    private void exit(Program program, int split) {
+      if (greedy) {
+        program.x[split] = split + 1;
+        program.y[split] = program.size;
+      } else {
+        program.x[split] = program.size;
+        program.y[split] = split + 1;
+      }
+    }
+
+    @Override
+    boolean nullable() {
+      return min == 0 || node.nullable();
+    }
+
+    @Override
+    boolean captures() {
+      return node.captures();
+    }
+  }
+}
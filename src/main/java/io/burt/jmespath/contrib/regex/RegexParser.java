@@ -0,0 +1,398 @@
+package io.burt.jmespath.contrib.regex;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * Parses the subset of the syntax of {@link java.util.regex.Pattern} that
+ * {@link LinearRegexEngine} supports, and throws
+ * {@link UnsupportedRegexException} for everything else, including invalid
+ * expressions, so that they can be compiled by another engine that reports
+ * the same errors as <code>Pattern</code>.
+ */
+class RegexParser {
+  static final int SUPPORTED_FLAGS = Pattern.CASE_INSENSITIVE | Pattern.UNICODE_CASE | Pattern.DOTALL | Pattern.MULTILINE | Pattern.LITERAL;
+
+  private final String regex;
+  private final int flags;
+  private final Map<String, Integer> namedGroups;
+  private int position;
+  private int groupCount;
+
+  RegexParser(String regex, int flags) {
+    this.regex = regex;
+    this.flags = flags;
+    this.namedGroups = new HashMap<>();
+  }
+
+  int groupCount() {
+    return groupCount;
+  }
+
+  Map<String, Integer> namedGroups() {
+    return namedGroups;
+  }
+
+  RegexNode parse() {
+    if ((flags & ~SUPPORTED_FLAGS) != 0) {
+      throw unsupported("Unsupported flags");
+    }
+    if ((flags & Pattern.LITERAL) != 0) {
+      List<RegexNode> nodes = new ArrayList<>();
+      while (position < regex.length()) {
+        nodes.add(literal(nextCodePoint()));
+      }
+      return new RegexNode.Concatenation(nodes);
+    }
+    RegexNode node = parseAlternation();
+    if (position < regex.length()) {
+      throw unsupported("Unmatched closing ')'");
+    }
+    return node;
+  }
+
+  private UnsupportedRegexException unsupported(String description) {
+    return new UnsupportedRegexException(description, regex, position);
+  }
+
+  private boolean more() {
+    return position < regex.length();
+  }
+
+  private char peek() {
+    return regex.charAt(position);
+  }
+
+  private boolean accept(char c) {
+    if (more() && peek() == c) {
+      position++;
+      return true;
+    } else {
+      return false;
+    }
+  }
+
+  private int nextCodePoint() {
+    int c = regex.codePointAt(position);
+    position += Character.charCount(c);
+    return c;
+  }
+
+  private RegexNode literal(int c) {
+    return new RegexNode.Char(CharPredicate.single(c, flags));
+  }
+
+  private RegexNode parseAlternation() {
+    List<RegexNode> alternatives = new ArrayList<>();
+    alternatives.add(parseConcatenation());
+    while (accept('|')) {
+      alternatives.add(parseConcatenation());
+    }
+    return alternatives.size() == 1 ? alternatives.get(0) : new RegexNode.Alternation(alternatives);
+  }
+
+  private RegexNode parseConcatenation() {
+    List<RegexNode> nodes = new ArrayList<>();
+    while (more() && peek() != '|' && peek() != ')') {
+      nodes.add(parseRepetition());
+    }
+    return nodes.size() == 1 ? nodes.get(0) : new RegexNode.Concatenation(nodes);
+  }
+
+  private RegexNode parseRepetition() {
+    RegexNode node = parseAtom();
+    if (!more()) {
+      return node;
+    }
+    int min;
+    int max;
+    char c = peek();
+    if (c == '*') {
+      position++;
+      min = 0;
+      max = -1;
+    } else if (c == '+') {
+      position++;
+      min = 1;
+      max = -1;
+    } else if (c == '?') {
+      position++;
+      min = 0;
+      max = 1;
+    } else if (c == '{') {
+      int start = position;
+      position++;
+      min = parseCount();
+      if (accept(',')) {
+        max = more() && peek() == '}' ? -1 : parseCount();
+      } else {
+        max = min;
+      }
+      if (!accept('}') || (max != -1 && max < min)) {
+        position = start;
+        throw unsupported("Illegal repetition");
+      }
+    } else {
+      return node;
+    }
+    if (node instanceof RegexNode.Assertion) {
+      throw unsupported("Repeated assertion");
+    }
+    if (max != 1 && node.nullable()) {
+      throw unsupported("Repetition of an expression that can match the empty string");
+    }
+    boolean greedy = !accept('?');
+    if (more() && (peek() == '+' || peek() == '*' || peek() == '?' || peek() == '{')) {
+      throw unsupported("Possessive or repeated quantifier");
+    }
+    return new RegexNode.Repetition(node, min, max, greedy);
+  }
+
+  private int parseCount() {
+    int start = position;
+    long count = 0;
+    while (more() && peek() >= '0' && peek() <= '9' && count <= LinearRegexEngine.MAX_PROGRAM_SIZE) {
+      count = count * 10 + (peek() - '0');
+      position++;
+    }
+    if (position == start || count > LinearRegexEngine.MAX_PROGRAM_SIZE) {
+      throw unsupported("Illegal repetition count");
+    }
+    return (int) count;
+  }
+
+  private RegexNode parseAtom() {
+    char c = peek();
+    switch (c) {
+      case '(':
+        return parseGroup();
+      case '[':
+        position++;
+        return new RegexNode.Char(parseClass());
+      case '.':
+        position++;
+        return new RegexNode.Char((flags & Pattern.DOTALL) != 0 ? CharPredicate.ANY : CharPredicate.DOT);
+      case '^':
+        position++;
+        return new RegexNode.Assertion((flags & Pattern.MULTILINE) != 0 ? Program.BEGIN_LINE : Program.BEGIN_TEXT);
+      case '$':
+        position++;
+        return new RegexNode.Assertion((flags & Pattern.MULTILINE) != 0 ? Program.END_LINE : Program.END_TEXT_OR_LINE);
+      case '\\':
+        position++;
+        return parseEscape();
+      case '*':
+      case '+':
+      case '?':
+      case '{':
+        throw unsupported("Dangling meta character '" + c + "'");
+      default:
+        return literal(nextCodePoint());
+    }
+  }
+
+  private RegexNode parseGroup() {
+    position++;
+    int index = -1;
+    if (accept('?')) {
+      if (accept(':')) {
+        index = -1;
+      } else if (accept('<') && more() && isAsciiLetter(peek())) {
+        int start = position;
+        while (more() && (isAsciiLetter(peek()) || (peek() >= '0' && peek() <= '9'))) {
+          position++;
+        }
+        String name = regex.substring(start, position);
+        if (!accept('>') || namedGroups.containsKey(name)) {
+          throw unsupported("Invalid named group");
+        }
+        index = ++groupCount;
+        namedGroups.put(name, index);
+      } else {
+        throw unsupported("Unsupported group construct");
+      }
+    } else {
+      index = ++groupCount;
+    }
+    RegexNode node = parseAlternation();
+    if (!accept(')')) {
+      throw unsupported("Unclosed group");
+    }
+    return index == -1 ? node : new RegexNode.Group(node, index);
+  }
+
+  private RegexNode parseEscape() {
+    if (!more()) {
+      throw unsupported("Unexpected internal error");
+    }
+    char c = peek();
+    switch (c) {
+      case 'b':
+        position++;
+        return new RegexNode.Assertion(Program.WORD_BOUNDARY);
+      case 'B':
+        position++;
+        return new RegexNode.Assertion(Program.NOT_WORD_BOUNDARY);
+      case 'A':
+        position++;
+        return new RegexNode.Assertion(Program.BEGIN_TEXT);
+      case 'z':
+        position++;
+        return new RegexNode.Assertion(Program.END_TEXT);
+      case 'Z':
+        position++;
+        return new RegexNode.Assertion(Program.END_TEXT_OR_LINE);
+      default:
+        CharPredicate predefined = parsePredefinedClass();
+        if (predefined != null) {
+          return new RegexNode.Char(predefined);
+        }
+        return literal(parseEscapedCodePoint());
+    }
+  }
+
+  /**
+   * Parses the escaped predefined classes, like <code>\d</code>, or returns
+   * null when the escape is something else.
+   */
+  private CharPredicate parsePredefinedClass() {
+    CharPredicate predicate;
+    switch (peek()) {
+      case 'd': predicate = CharPredicate.DIGIT; break;
+      case 'D': predicate = CharPredicate.DIGIT.negate(); break;
+      case 's': predicate = CharPredicate.SPACE; break;
+      case 'S': predicate = CharPredicate.SPACE.negate(); break;
+      case 'w': predicate = CharPredicate.WORD; break;
+      case 'W': predicate = CharPredicate.WORD.negate(); break;
+      default: return null;
+    }
+    position++;
+    return predicate;
+  }
+
+  private int parseEscapedCodePoint() {
+    char c = peek();
+    position++;
+    switch (c) {
+      case 't': return '\t';
+      case 'n': return '\n';
+      case 'r': return '\r';
+      case 'f': return '\f';
+      case 'a': return '\u0007';
+      case 'e': return '\u001b';
+      case 'x':
+        if (accept('{')) {
+          int start = position;
+          while (more() && Character.digit(peek(), 16) != -1 && position - start < 8) {
+            position++;
+          }
+          if (position == start || !accept('}')) {
+            throw unsupported("Illegal hexadecimal escape sequence");
+          }
+          return codePoint(Integer.parseInt(regex.substring(start, position - 1), 16));
+        }
+        return codePoint(parseHex(2));
+      case 'u':
+        return codePoint(parseHex(4));
+      default:
+        if (c < 0x80 && !Character.isLetterOrDigit(c)) {
+          return c;
+        }
+        position--;
+        throw unsupported("Unsupported escape sequence");
+    }
+  }
+
+  private int parseHex(int digits) {
+    if (position + digits > regex.length()) {
+      throw unsupported("Illegal hexadecimal escape sequence");
+    }
+    int value = 0;
+    for (int i = 0; i < digits; i++) {
+      int digit = Character.digit(regex.charAt(position++), 16);
+      if (digit == -1) {
+        throw unsupported("Illegal hexadecimal escape sequence");
+      }
+      value = value * 16 + digit;
+    }
+    return value;
+  }
+
+  private int codePoint(int c) {
+    if (c > Character.MAX_CODE_POINT || (c >= Character.MIN_SURROGATE && c <= Character.MAX_SURROGATE)) {
+      throw unsupported("Unsupported code point");
+    }
+    return c;
+  }
+
+  private CharPredicate parseClass() {
+    boolean negated = accept('^');
+    List<CharPredicate> members = new ArrayList<>();
+    boolean first = true;
+    while (true) {
+      if (!more()) {
+        throw unsupported("Unclosed character class");
+      }
+      char c = peek();
+      if (c == ']' && !first) {
+        position++;
+        break;
+      } else if (c == ']' || c == '[' || (c == '&' && position + 1 < regex.length() && regex.charAt(position + 1) == '&')) {
+        throw unsupported("Unsupported character class");
+      }
+      first = false;
+      if (c == '\\') {
+        position++;
+        if (!more()) {
+          throw unsupported("Unclosed character class");
+        }
+        CharPredicate predefined = parsePredefinedClass();
+        if (predefined != null) {
+          if (more() && peek() == '-' && position + 1 < regex.length() && regex.charAt(position + 1) != ']') {
+            throw unsupported("Illegal character range");
+          }
+          members.add(predefined);
+          continue;
+        }
+      }
+      int from = c == '\\' ? parseEscapedCodePoint() : nextCodePoint();
+      if (more() && peek() == '-' && position + 1 < regex.length() && regex.charAt(position + 1) != ']') {
+        position++;
+        char d = peek();
+        if (d == '[' || d == '&') {
+          throw unsupported("Illegal character range");
+        }
+        int to;
+        if (d == '\\') {
+          position++;
+          if (!more() || "dDsSwW".indexOf(peek()) != -1) {
+            throw unsupported("Illegal character range");
+          }
+          to = parseEscapedCodePoint();
+        } else {
+          to = nextCodePoint();
+        }
+        if (to < from) {
+          throw unsupported("Illegal character range");
+        }
+        if (more() && peek() == '-' && position + 1 < regex.length() && regex.charAt(position + 1) != ']') {
+          throw unsupported("Illegal character range");
+        }
+        members.add(CharPredicate.range(from, to, flags));
+      } else {
+        members.add(CharPredicate.single(from, flags));
+      }
+    }
+    if (!negated && members.size() == 1) {
+      return members.get(0);
+    }
+    return CharPredicate.union(members, negated);
+  }
+
+  private static boolean isAsciiLetter(char c) {
+    return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z');
+  }
+}
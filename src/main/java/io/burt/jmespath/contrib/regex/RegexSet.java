@@ -0,0 +1,90 @@
+package io.burt.jmespath.contrib.regex;
+
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * A set of regular expressions that are matched against an input together,
+ * in one pass over the input instead of one per expression.
+ * <p>
+ * Sets where all expressions are literal strings, without any
+ * metacharacters, are matched with an Aho-Corasick automaton. Otherwise the
+ * expressions that {@link LinearRegexEngine} supports are combined into a
+ * single program for its virtual machine, and the rest are compiled by the
+ * engine the set is created with and matched one at a time.
+ * <p>
+ * Sets are immutable and thread safe.
+ */
+public abstract class RegexSet {
+  private static final String METACHARACTERS = "\\^$.|?*+()[]{}";
+
+  RegexSet() {
+  }
+
+  /**
+   * Compiles the regular expressions into a set.
+   *
+   * @param flags the flags of {@link java.util.regex.Pattern}, which apply to
+   *   all the expressions
+   * @param engine the engine that compiles the expressions that can not be
+   *   combined
+   * @throws java.util.regex.PatternSyntaxException when any of the regular
+   *   expressions is invalid, or when the engine can not compile it
+   */
+  public static RegexSet compile(List<String> regexes, int flags, RegexEngine engine) {
+    boolean literal = true;
+    for (String regex : regexes) {
+      literal &= isLiteral(regex, flags);
+    }
+    if (literal) {
+      return new LiteralRegexSet(regexes, (flags & Pattern.CASE_INSENSITIVE) != 0);
+    } else {
+      return new LinearRegexSet(regexes, flags, engine);
+    }
+  }
+
+  /**
+   * Returns true when the regular expression can only match one string,
+   * itself, in a way that an Aho-Corasick automaton can match.
+   */
+  private static boolean isLiteral(String regex, int flags) {
+    if ((flags & Pattern.CASE_INSENSITIVE) != 0) {
+      if ((flags & Pattern.UNICODE_CASE) == 0) {
+        return false;
+      }
+      for (int i = 0; i < regex.length(); i++) {
+        if (Character.isSurrogate(regex.charAt(i))) {
+          return false;
+        }
+      }
+    }
+    if ((flags & Pattern.LITERAL) != 0) {
+      return true;
+    } else if ((flags & (Pattern.COMMENTS | Pattern.CANON_EQ)) != 0) {
+      return false;
+    }
+    for (int i = 0; i < regex.length(); i++) {
+      if (METACHARACTERS.indexOf(regex.charAt(i)) >= 0) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Returns the number of regular expressions in the set.
+   */
+  public abstract int size();
+
+  /**
+   * Returns true when any of the regular expressions matches some part of
+   * the input.
+   */
+  public abstract boolean findAny(CharSequence input);
+
+  /**
+   * Returns the indexes of the regular expressions that match some part of
+   * the input, in ascending order.
+   */
+  public abstract int[] findAll(CharSequence input);
+}
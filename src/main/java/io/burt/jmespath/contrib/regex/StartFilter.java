@@ -0,0 +1,74 @@
+package io.burt.jmespath.contrib.regex;
+
+/**
+ * Finds the positions where a match of a program can start, from the code
+ * points that the first instructions that consume anything can match, so
+ * that a search can skip past the rest without starting any threads.
+ */
+class StartFilter {
+  private final CharPredicate[] predicates;
+  private final boolean[] ascii;
+
+  private StartFilter(CharPredicate[] predicates) {
+    this.predicates = predicates;
+    this.ascii = new boolean[128];
+    for (int c = 0; c < ascii.length; c++) {
+      ascii[c] = canStartWith(c);
+    }
+  }
+
+  /**
+   * Returns a filter for the program, or null when a match can be empty and
+   * so start anywhere.
+   */
+  static StartFilter create(Program program) {
+    CharPredicate[] predicates = program.firstPredicates();
+    return predicates == null ? null : new StartFilter(predicates);
+  }
+
+  private boolean canStartWith(int c) {
+    for (CharPredicate predicate : predicates) {
+      if (predicate.matches(c)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Returns true when a match can start at the position, which it always
+   * can at the end of the input, since the filter does not know about
+   * assertions.
+   */
+  boolean canStartAt(CharSequence input, int position) {
+    if (position >= input.length()) {
+      return true;
+    }
+    char c = input.charAt(position);
+    return c < 128 ? ascii[c] : canStartWith(Character.codePointAt(input, position));
+  }
+
+  /**
+   * Returns the first position at or after the given position where a match
+   * can start, or the length of the input when there is none.
+   */
+  int skip(CharSequence input, int position) {
+    int length = input.length();
+    while (position < length) {
+      char c = input.charAt(position);
+      if (c < 128) {
+        if (ascii[c]) {
+          return position;
+        }
+        position++;
+      } else {
+        int codePoint = Character.codePointAt(input, position);
+        if (canStartWith(codePoint)) {
+          return position;
+        }
+        position += Character.charCount(codePoint);
+      }
+    }
+    return position;
+  }
+}
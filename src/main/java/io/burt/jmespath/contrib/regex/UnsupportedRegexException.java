@@ -0,0 +1,14 @@
+package io.burt.jmespath.contrib.regex;
+
+import java.util.regex.PatternSyntaxException;
+
+/**
+ * Thrown by an engine for a regular expression that may be valid, but that
+ * uses syntax or flags that the engine does not support.
+ */
+@SuppressWarnings("serial")
+public class UnsupportedRegexException extends PatternSyntaxException {
+  public UnsupportedRegexException(String description, String regex, int index) {
+    super(description, regex, index);
+  }
+}
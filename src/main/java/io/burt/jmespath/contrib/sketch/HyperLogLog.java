@@ -0,0 +1,151 @@
+package io.burt.jmespath.contrib.sketch;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Estimates the number of distinct values in a stream, from 64 bit hashes of
+ * the values.
+ * <p>
+ * The sketch has 2<sup>precision</sup> registers of one byte each, and the
+ * standard error of the estimate is about 1.04 / sqrt(2<sup>precision</sup>),
+ * 0.8% with the default precision of 14. The estimate uses the improved raw
+ * estimator of Ertl, which is accurate for small and large numbers of
+ * distinct values alike without the empirical bias correction of
+ * HyperLogLog++.
+ * <p>
+ * The hashes must be well mixed, every bit of the hash is used.
+ */
+public final class HyperLogLog extends Sketch {
+  static final byte KIND = 'H';
+
+  public static final int DEFAULT_PRECISION = 14;
+  public static final int MIN_PRECISION = 4;
+  public static final int MAX_PRECISION = 18;
+
+  private final int precision;
+  private final byte[] registers;
+
+  public HyperLogLog() {
+    this(DEFAULT_PRECISION);
+  }
+
+  /**
+   * @throws IllegalArgumentException when the precision is not between
+   *   {@link #MIN_PRECISION} and {@link #MAX_PRECISION}
+   */
+  public HyperLogLog(int precision) {
+    if (precision < MIN_PRECISION || precision > MAX_PRECISION) {
+      throw new IllegalArgumentException(String.format("Precision must be between %d and %d, was %d", MIN_PRECISION, MAX_PRECISION, precision));
+    }
+    this.precision = precision;
+    this.registers = new byte[1 << precision];
+  }
+
+  public int precision() {
+    return precision;
+  }
+
+  public void add(long hash) {
+    int index = (int) (hash >>> (64 - precision));
+    int rank = Math.min(Long.numberOfLeadingZeros(hash << precision), 64 - precision) + 1;
+    if (rank > registers[index]) {
+      registers[index] = (byte) rank;
+    }
+  }
+
+  /**
+   * Returns the estimated number of distinct values.
+   */
+  public long estimate() {
+    int m = registers.length;
+    int q = 64 - precision;
+    int[] histogram = new int[q + 2];
+    for (byte register : registers) {
+      histogram[register]++;
+    }
+    if (histogram[0] == m) {
+      return 0;
+    }
+    double z = m * tau(1 - (double) histogram[q + 1] / m);
+    for (int k = q; k >= 1; k--) {
+      z = 0.5 * (z + histogram[k]);
+    }
+    z += m * sigma((double) histogram[0] / m);
+    return Math.round(m / (2 * Math.log(2)) * m / z);
+  }
+
+  private static double sigma(double x) {
+    if (x == 1) {
+      return Double.POSITIVE_INFINITY;
+    }
+    double y = 1;
+    double z = x;
+    double previous;
+    do {
+      x *= x;
+      previous = z;
+      z += x * y;
+      y += y;
+    } while (z != previous);
+    return z;
+  }
+
+  private static double tau(double x) {
+    if (x == 0 || x == 1) {
+      return 0;
+    }
+    double y = 1;
+    double z = 1 - x;
+    double previous;
+    do {
+      x = Math.sqrt(x);
+      previous = z;
+      y *= 0.5;
+      z -= (1 - x) * (1 - x) * y;
+    } while (z != previous);
+    return z / 3;
+  }
+
+  /**
+   * @throws InvalidSketchException when the other sketch is not a
+   *   {@link HyperLogLog} of the same precision
+   */
+  @Override
+  public void merge(Sketch other) {
+    checkKind(other);
+    HyperLogLog hll = (HyperLogLog) other;
+    check(hll.precision == precision, String.format("Cannot merge HyperLogLogs with precisions %d and %d", precision, hll.precision));
+    for (int i = 0; i < registers.length; i++) {
+      if (hll.registers[i] > registers[i]) {
+        registers[i] = hll.registers[i];
+      }
+    }
+  }
+
+  @Override
+  byte kind() {
+    return KIND;
+  }
+
+  @Override
+  int serializedSize() {
+    return 1 + registers.length;
+  }
+
+  @Override
+  void writeTo(ByteBuffer buffer) {
+    buffer.put((byte) precision);
+    buffer.put(registers);
+  }
+
+  static HyperLogLog readFrom(ByteBuffer buffer) {
+    int precision = buffer.get();
+    check(precision >= MIN_PRECISION && precision <= MAX_PRECISION, "Invalid HyperLogLog precision");
+    HyperLogLog hll = new HyperLogLog(precision);
+    buffer.get(hll.registers);
+    for (byte register : hll.registers) {
+      check(register >= 0 && register <= 65 - precision, "Invalid HyperLogLog register");
+    }
+    return hll;
+  }
+}
@@ -0,0 +1,15 @@
+package io.burt.jmespath.contrib.sketch;
+
+import io.burt.jmespath.JmesPathException;
+
+/**
+ * Thrown when a string is not a serialized sketch, or when sketches that
+ * can not be merged are merged.
+ */
+public class InvalidSketchException extends JmesPathException {
+  private static final long serialVersionUID = 1L;
+
+  public InvalidSketchException(String message) {
+    super(message);
+  }
+}
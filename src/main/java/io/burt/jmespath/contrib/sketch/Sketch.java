@@ -0,0 +1,157 @@
+package io.burt.jmespath.contrib.sketch;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * A summary of a stream of values that uses bounded memory, and that can be
+ * merged with summaries of other parts of the stream.
+ * <p>
+ * Sketches are serialized to base64 encoded strings, so that they can be
+ * returned from a search, stored, and merged later, for example when each
+ * shard of a data set has been searched on its own. The first byte of the
+ * encoded form identifies the kind of sketch, and the second the version of
+ * its format.
+ */
+public abstract class Sketch {
+  static final byte VERSION = 1;
+
+  private static final char[] BASE64 = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789+/".toCharArray();
+  private static final int[] BASE64_VALUES = new int[128];
+
+  static {
+    Arrays.fill(BASE64_VALUES, -1);
+    for (int i = 0; i < BASE64.length; i++) {
+      BASE64_VALUES[BASE64[i]] = i;
+    }
+  }
+
+  Sketch() { }
+
+  /**
+   * Adds the values summarized by another sketch of the same kind to this
+   * sketch.
+   *
+   * @throws InvalidSketchException when the sketches are of different kinds,
+   *   or have parameters that make them impossible to merge
+   */
+  public abstract void merge(Sketch other);
+
+  abstract byte kind();
+
+  abstract int serializedSize();
+
+  abstract void writeTo(ByteBuffer buffer);
+
+  /**
+   * Returns the sketch as a base64 encoded string.
+   */
+  public String serialize() {
+    ByteBuffer buffer = ByteBuffer.allocate(2 + serializedSize());
+    buffer.put(kind());
+    buffer.put(VERSION);
+    writeTo(buffer);
+    return encode(buffer.array());
+  }
+
+  /**
+   * Reads a sketch from a string created by {@link #serialize}.
+   *
+   * @throws InvalidSketchException when the string is not a serialized sketch
+   */
+  public static Sketch deserialize(String serialized) {
+    ByteBuffer buffer = ByteBuffer.wrap(decode(serialized));
+    try {
+      byte kind = buffer.get();
+      byte version = buffer.get();
+      if (version != VERSION) {
+        throw new InvalidSketchException(String.format("Unsupported sketch version %d", version));
+      }
+      Sketch sketch;
+      switch (kind) {
+        case HyperLogLog.KIND:
+          sketch = HyperLogLog.readFrom(buffer);
+          break;
+        case TDigest.KIND:
+          sketch = TDigest.readFrom(buffer);
+          break;
+        case SpaceSaving.KIND:
+          sketch = SpaceSaving.readFrom(buffer);
+          break;
+        default:
+          throw new InvalidSketchException(String.format("Unknown sketch kind %d", kind));
+      }
+      if (buffer.hasRemaining()) {
+        throw new InvalidSketchException("Unexpected data after the sketch");
+      }
+      return sketch;
+    } catch (BufferUnderflowException bue) {
+      throw new InvalidSketchException("Truncated sketch");
+    }
+  }
+
+  /**
+   * Throws an exception when the sketch can not be merged into this sketch
+   * because it is of another kind.
+   */
+  void checkKind(Sketch other) {
+    if (other.kind() != kind()) {
+      throw new InvalidSketchException(String.format("Cannot merge a %s with a %s", getClass().getSimpleName(), other.getClass().getSimpleName()));
+    }
+  }
+
+  static void check(boolean condition, String message) {
+    if (!condition) {
+      throw new InvalidSketchException(message);
+    }
+  }
+
+  private static String encode(byte[] bytes) {
+    StringBuilder encoded = new StringBuilder((bytes.length + 2) / 3 * 4);
+    for (int i = 0; i < bytes.length; i += 3) {
+      int n = Math.min(3, bytes.length - i);
+      int bits = (bytes[i] & 0xff) << 16;
+      if (n > 1) {
+        bits |= (bytes[i + 1] & 0xff) << 8;
+      }
+      if (n > 2) {
+        bits |= bytes[i + 2] & 0xff;
+      }
+      encoded.append(BASE64[bits >>> 18]);
+      encoded.append(BASE64[(bits >>> 12) & 0x3f]);
+      encoded.append(n > 1 ? BASE64[(bits >>> 6) & 0x3f] : '=');
+      encoded.append(n > 2 ? BASE64[bits & 0x3f] : '=');
+    }
+    return encoded.toString();
+  }
+
+  private static byte[] decode(String encoded) {
+    int length = encoded.length();
+    if (length == 0 || length % 4 != 0) {
+      throw new InvalidSketchException("Malformed sketch");
+    }
+    int padding = encoded.charAt(length - 1) != '=' ? 0 : encoded.charAt(length - 2) != '=' ? 1 : 2;
+    byte[] bytes = new byte[length / 4 * 3 - padding];
+    int j = 0;
+    for (int i = 0; i < length; i += 4) {
+      int bits = 0;
+      for (int k = 0; k < 4; k++) {
+        bits = (bits << 6) | (i + k < length - padding ? decode(encoded.charAt(i + k)) : 0);
+      }
+      int n = i + 4 < length ? 3 : 3 - padding;
+      for (int k = 0; k < n; k++) {
+        bytes[j++] = (byte) (bits >>> (16 - 8 * k));
+      }
+    }
+    return bytes;
+  }
+
+  private static int decode(char c) {
+    int value = c < BASE64_VALUES.length ? BASE64_VALUES[c] : -1;
+    if (value < 0) {
+      throw new InvalidSketchException("Malformed sketch");
+    }
+    return value;
+  }
+}
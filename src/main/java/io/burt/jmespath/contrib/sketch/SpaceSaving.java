@@ -0,0 +1,270 @@
+package io.burt.jmespath.contrib.sketch;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Finds the most frequent keys of a stream, using the Space-Saving algorithm
+ * of Metwally, Agrawal and El Abbadi.
+ * <p>
+ * The sketch counts at most as many keys as its capacity. When a key that is
+ * not counted arrives and all counters are taken, the counter with the
+ * smallest count is given to the new key, which inherits the count, and the
+ * inherited part is remembered as the error of the count. Counts are thus
+ * never underestimated, and overestimated by at most the error, which is at
+ * most the number of keys added divided by the capacity. Every key that
+ * occurs more often than that is guaranteed to be counted.
+ * <p>
+ * The counters are kept in a min-heap, so adding a key takes logarithmic
+ * time in the capacity. Sketches are merged as described by Agarwal et al.
+ * in "Mergeable Summaries", which keeps the same guarantees for the merged
+ * stream.
+ */
+public final class SpaceSaving extends Sketch {
+  static final byte KIND = 'S';
+
+  private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+  private static final Comparator<Item> BY_COUNT = new Comparator<Item>() {
+    @Override
+    public int compare(Item a, Item b) {
+      int c = Long.compare(b.count, a.count);
+      if (c == 0) {
+        c = Long.compare(a.error, b.error);
+      }
+      if (c == 0) {
+        c = a.key.compareTo(b.key);
+      }
+      return c;
+    }
+  };
+
+  private final int capacity;
+  private final Map<String, Item> items;
+  private Item[] heap;
+  private int size;
+  private long total;
+
+  /**
+   * @throws IllegalArgumentException when the capacity is less than one
+   */
+  public SpaceSaving(int capacity) {
+    if (capacity < 1) {
+      throw new IllegalArgumentException(String.format("Capacity must be at least 1, was %d", capacity));
+    }
+    this.capacity = capacity;
+    this.items = new HashMap<>();
+    this.heap = new Item[Math.min(capacity, 16)];
+  }
+
+  public int capacity() {
+    return capacity;
+  }
+
+  /**
+   * Returns the number of keys that have been added.
+   */
+  public long total() {
+    return total;
+  }
+
+  public void add(String key) {
+    total++;
+    Item item = items.get(key);
+    if (item != null) {
+      item.count++;
+      siftDown(item.index);
+    } else if (size < capacity) {
+      push(new Item(key, 1, 0));
+    } else {
+      item = heap[0];
+      items.remove(item.key);
+      item.key = key;
+      item.error = item.count;
+      item.count++;
+      items.put(key, item);
+      siftDown(0);
+    }
+  }
+
+  /**
+   * Returns up to <code>k</code> of the counted keys, the ones with the
+   * highest counts first.
+   */
+  public List<Item> top(int k) {
+    List<Item> top = new ArrayList<>(size);
+    for (int i = 0; i < size; i++) {
+      top.add(new Item(heap[i].key, heap[i].count, heap[i].error));
+    }
+    Collections.sort(top, BY_COUNT);
+    return Collections.unmodifiableList(top.subList(0, Math.min(Math.max(k, 0), size)));
+  }
+
+  /**
+   * Merges another sketch into this one. The capacity of this sketch is kept,
+   * counts of keys that are only counted by one of the sketches are
+   * increased by the smallest count of the other, when it is full, and then
+   * the keys with the highest counts are kept.
+   *
+   * @throws InvalidSketchException when the other sketch is not a
+   *   {@link SpaceSaving}
+   */
+  @Override
+  public void merge(Sketch other) {
+    checkKind(other);
+    SpaceSaving sketch = (SpaceSaving) other;
+    long minCount = size == capacity ? heap[0].count : 0;
+    long otherMinCount = sketch.size == sketch.capacity ? sketch.heap[0].count : 0;
+    Set<String> keys = new HashSet<>(items.keySet());
+    keys.addAll(sketch.items.keySet());
+    List<Item> merged = new ArrayList<>(keys.size());
+    for (String key : keys) {
+      Item item = items.get(key);
+      Item otherItem = sketch.items.get(key);
+      long count = item != null ? item.count : minCount;
+      long error = item != null ? item.error : minCount;
+      count += otherItem != null ? otherItem.count : otherMinCount;
+      error += otherItem != null ? otherItem.error : otherMinCount;
+      merged.add(new Item(key, count, error));
+    }
+    Collections.sort(merged, BY_COUNT);
+    items.clear();
+    size = 0;
+    for (Item item : merged.subList(0, Math.min(capacity, merged.size()))) {
+      push(item);
+    }
+    total += sketch.total;
+  }
+
+  private void push(Item item) {
+    if (size == heap.length) {
+      heap = Arrays.copyOf(heap, Math.min(capacity, 2 * size));
+    }
+    items.put(item.key, item);
+    heap[size] = item;
+    item.index = size;
+    size++;
+    siftUp(item.index);
+  }
+
+  private void siftUp(int i) {
+    Item item = heap[i];
+    while (i > 0) {
+      int parent = (i - 1) >>> 1;
+      if (heap[parent].count <= item.count) {
+        break;
+      }
+      place(heap[parent], i);
+      i = parent;
+    }
+    place(item, i);
+  }
+
+  private void siftDown(int i) {
+    Item item = heap[i];
+    int half = size >>> 1;
+    while (i < half) {
+      int child = 2 * i + 1;
+      if (child + 1 < size && heap[child + 1].count < heap[child].count) {
+        child++;
+      }
+      if (item.count <= heap[child].count) {
+        break;
+      }
+      place(heap[child], i);
+      i = child;
+    }
+    place(item, i);
+  }
+
+  private void place(Item item, int i) {
+    heap[i] = item;
+    item.index = i;
+  }
+
+  @Override
+  byte kind() {
+    return KIND;
+  }
+
+  @Override
+  int serializedSize() {
+    int n = 4 + 8 + 4;
+    for (int i = 0; i < size; i++) {
+      n += 4 + heap[i].key.getBytes(UTF_8).length + 8 + 8;
+    }
+    return n;
+  }
+
+  @Override
+  void writeTo(ByteBuffer buffer) {
+    buffer.putInt(capacity);
+    buffer.putLong(total);
+    buffer.putInt(size);
+    for (int i = 0; i < size; i++) {
+      Item item = heap[i];
+      byte[] key = item.key.getBytes(UTF_8);
+      buffer.putInt(key.length);
+      buffer.put(key);
+      buffer.putLong(item.count);
+      buffer.putLong(item.error);
+    }
+  }
+
+  static SpaceSaving readFrom(ByteBuffer buffer) {
+    int capacity = buffer.getInt();
+    check(capacity >= 1, "Invalid Space-Saving capacity");
+    SpaceSaving sketch = new SpaceSaving(capacity);
+    sketch.total = buffer.getLong();
+    int size = buffer.getInt();
+    check(size >= 0 && size <= capacity && size <= buffer.remaining() / 20, "Invalid Space-Saving size");
+    for (int i = 0; i < size; i++) {
+      int length = buffer.getInt();
+      check(length >= 0 && length <= buffer.remaining(), "Invalid Space-Saving key");
+      byte[] key = new byte[length];
+      buffer.get(key);
+      Item item = new Item(new String(key, UTF_8), buffer.getLong(), buffer.getLong());
+      check(item.count > 0 && item.error >= 0 && item.error < item.count && !sketch.items.containsKey(item.key), "Invalid Space-Saving counter");
+      sketch.push(item);
+    }
+    return sketch;
+  }
+
+  /**
+   * A counted key, with its count, which can be an overestimate by at most
+   * its error.
+   */
+  public static final class Item {
+    private String key;
+    private long count;
+    private long error;
+    private int index;
+
+    Item(String key, long count, long error) {
+      this.key = key;
+      this.count = count;
+      this.error = error;
+    }
+
+    public String key() {
+      return key;
+    }
+
+    public long count() {
+      return count;
+    }
+
+    public long error() {
+      return error;
+    }
+  }
+}
@@ -0,0 +1,286 @@
+package io.burt.jmespath.contrib.sketch;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * Estimates quantiles of a stream of numbers, using the merging variant of
+ * Dunning's t-digest.
+ * <p>
+ * The numbers are summarized by clusters, centroids, with a mean and a
+ * weight. Centroids near the extremes hold few numbers, and centroids near
+ * the median many, so quantiles close to zero and one, like the 99th
+ * percentile of latencies, are estimated much more accurately than the rank
+ * error of sketches that treat all quantiles alike. The compression bounds
+ * the number of centroids, which is at most about twice the compression,
+ * and a higher compression gives more accurate estimates.
+ * <p>
+ * Numbers are collected in a buffer, which is sorted and merged into the
+ * centroids when it is full, so adding a number takes amortized constant
+ * time, and allocates nothing once the sketch has been created. There is no
+ * randomness involved, the same numbers in the same order always give the
+ * same sketch.
+ */
+public final class TDigest extends Sketch {
+  static final byte KIND = 'T';
+
+  public static final double DEFAULT_COMPRESSION = 100;
+
+  private final double compression;
+  private double[] means;
+  private double[] weights;
+  private double[] spareMeans;
+  private double[] spareWeights;
+  private int centroidCount;
+  private double totalWeight;
+  private double min = Double.POSITIVE_INFINITY;
+  private double max = Double.NEGATIVE_INFINITY;
+
+  private final double[] buffer;
+  private int bufferSize;
+
+  public TDigest() {
+    this(DEFAULT_COMPRESSION);
+  }
+
+  /**
+   * @throws IllegalArgumentException when the compression is less than ten
+   */
+  public TDigest(double compression) {
+    if (!(compression >= 10)) {
+      throw new IllegalArgumentException(String.format("Compression must be at least 10, was %s", compression));
+    }
+    this.compression = compression;
+    int capacity = 2 * (int) Math.ceil(compression) + 8;
+    this.means = new double[capacity];
+    this.weights = new double[capacity];
+    this.spareMeans = new double[capacity];
+    this.spareWeights = new double[capacity];
+    this.buffer = new double[5 * capacity];
+  }
+
+  public double compression() {
+    return compression;
+  }
+
+  /**
+   * Adds a number. NaN is ignored.
+   */
+  public void add(double value) {
+    if (Double.isNaN(value)) {
+      return;
+    }
+    if (bufferSize == buffer.length) {
+      flush();
+    }
+    buffer[bufferSize++] = value;
+  }
+
+  /**
+   * Returns the number of numbers that have been added.
+   */
+  public long count() {
+    return (long) (totalWeight + bufferSize);
+  }
+
+  /**
+   * Returns the estimated value at the quantile, which is between zero and
+   * one, or NaN when no numbers have been added.
+   */
+  public double quantile(double q) {
+    if (q < 0 || q > 1) {
+      throw new IllegalArgumentException(String.format("Quantile must be between 0 and 1, was %s", q));
+    }
+    flush();
+    int n = centroidCount;
+    if (n == 0) {
+      return Double.NaN;
+    } else if (n == 1) {
+      return means[0];
+    }
+    double index = q * totalWeight;
+    if (index < 1) {
+      return min;
+    } else if (index > totalWeight - 1) {
+      return max;
+    }
+    if (weights[0] > 1 && index < weights[0] / 2) {
+      return min + (index - 1) / (weights[0] / 2 - 1) * (means[0] - min);
+    }
+    if (weights[n - 1] > 1 && totalWeight - index <= weights[n - 1] / 2) {
+      return max - (totalWeight - index - 1) / (weights[n - 1] / 2 - 1) * (max - means[n - 1]);
+    }
+    double weightSoFar = weights[0] / 2;
+    for (int i = 0; i < n - 1; i++) {
+      double delta = (weights[i] + weights[i + 1]) / 2;
+      if (weightSoFar + delta > index) {
+        double leftUnit = 0;
+        if (weights[i] == 1) {
+          if (index - weightSoFar < 0.5) {
+            return means[i];
+          }
+          leftUnit = 0.5;
+        }
+        double rightUnit = 0;
+        if (weights[i + 1] == 1) {
+          if (weightSoFar + delta - index <= 0.5) {
+            return means[i + 1];
+          }
+          rightUnit = 0.5;
+        }
+        double z1 = index - weightSoFar - leftUnit;
+        double z2 = weightSoFar + delta - index - rightUnit;
+        return (means[i] * z2 + means[i + 1] * z1) / (z1 + z2);
+      }
+      weightSoFar += delta;
+    }
+    return means[n - 1];
+  }
+
+  /**
+   * @throws InvalidSketchException when the other sketch is not a
+   *   {@link TDigest}
+   */
+  @Override
+  public void merge(Sketch other) {
+    checkKind(other);
+    TDigest digest = (TDigest) other;
+    digest.flush();
+    if (digest.centroidCount == 0) {
+      return;
+    }
+    flush();
+    min = Math.min(min, digest.min);
+    max = Math.max(max, digest.max);
+    merge(digest.means, digest.weights, digest.centroidCount, digest.totalWeight);
+  }
+
+  /**
+   * Merges the buffered numbers into the centroids.
+   */
+  private void flush() {
+    if (bufferSize == 0) {
+      return;
+    }
+    Arrays.sort(buffer, 0, bufferSize);
+    min = Math.min(min, buffer[0]);
+    max = Math.max(max, buffer[bufferSize - 1]);
+    int n = bufferSize;
+    bufferSize = 0;
+    merge(buffer, null, n, n);
+  }
+
+  /**
+   * Merges the current centroids with other sorted centroids, where null
+   * weights mean that every centroid has a weight of one, combining
+   * neighbours for as long as the combination stays within the size limit
+   * of the k<sub>1</sub> scale function for its quantile.
+   */
+  private void merge(double[] otherMeans, double[] otherWeights, int otherCount, double otherWeight) {
+    double[] oldMeans = means;
+    double[] oldWeights = weights;
+    int oldCount = centroidCount;
+    double total = totalWeight + otherWeight;
+    means = spareMeans;
+    weights = spareWeights;
+    centroidCount = 0;
+    totalWeight = total;
+    double weightSoFar = 0;
+    double limit = total * integratedQuantile(integratedLocation(0) + 1);
+    double mean = 0;
+    double weight = 0;
+    int i = 0;
+    int j = 0;
+    while (i < oldCount || j < otherCount) {
+      double nextMean;
+      double nextWeight;
+      if (j >= otherCount || (i < oldCount && oldMeans[i] <= otherMeans[j])) {
+        nextMean = oldMeans[i];
+        nextWeight = oldWeights[i];
+        i++;
+      } else {
+        nextMean = otherMeans[j];
+        nextWeight = otherWeights == null ? 1 : otherWeights[j];
+        j++;
+      }
+      if (weight == 0) {
+        mean = nextMean;
+        weight = nextWeight;
+      } else if (weightSoFar + weight + nextWeight <= limit) {
+        weight += nextWeight;
+        mean += (nextMean - mean) * nextWeight / weight;
+      } else {
+        weightSoFar += weight;
+        appendCentroid(mean, weight);
+        limit = total * integratedQuantile(integratedLocation(weightSoFar / total) + 1);
+        mean = nextMean;
+        weight = nextWeight;
+      }
+    }
+    appendCentroid(mean, weight);
+    spareMeans = oldMeans;
+    spareWeights = oldWeights;
+  }
+
+  private void appendCentroid(double mean, double weight) {
+    if (centroidCount == means.length) {
+      means = Arrays.copyOf(means, 2 * centroidCount);
+      weights = Arrays.copyOf(weights, 2 * centroidCount);
+    }
+    means[centroidCount] = mean;
+    weights[centroidCount] = weight;
+    centroidCount++;
+  }
+
+  private double integratedLocation(double q) {
+    return compression * (Math.asin(2 * Math.min(1, q) - 1) + Math.PI / 2) / Math.PI;
+  }
+
+  private double integratedQuantile(double k) {
+    return Math.min(1, (Math.sin(Math.min(k, compression) * Math.PI / compression - Math.PI / 2) + 1) / 2);
+  }
+
+  @Override
+  byte kind() {
+    return KIND;
+  }
+
+  @Override
+  int serializedSize() {
+    flush();
+    return 8 * 3 + 4 + 16 * centroidCount;
+  }
+
+  @Override
+  void writeTo(ByteBuffer buffer) {
+    flush();
+    buffer.putDouble(compression);
+    buffer.putDouble(min);
+    buffer.putDouble(max);
+    buffer.putInt(centroidCount);
+    for (int i = 0; i < centroidCount; i++) {
+      buffer.putDouble(means[i]);
+      buffer.putDouble(weights[i]);
+    }
+  }
+
+  static TDigest readFrom(ByteBuffer buffer) {
+    double compression = buffer.getDouble();
+    check(compression >= 10 && compression <= 10000, "Invalid t-digest compression");
+    TDigest digest = new TDigest(compression);
+    digest.min = buffer.getDouble();
+    digest.max = buffer.getDouble();
+    int count = buffer.getInt();
+    check(count >= 0 && count <= buffer.remaining() / 16, "Invalid t-digest centroid count");
+    double previous = Double.NEGATIVE_INFINITY;
+    for (int i = 0; i < count; i++) {
+      double mean = buffer.getDouble();
+      double weight = buffer.getDouble();
+      check(mean >= previous && mean >= digest.min && mean <= digest.max && weight >= 1, "Invalid t-digest centroid");
+      digest.appendCentroid(mean, weight);
+      digest.totalWeight += weight;
+      previous = mean;
+    }
+    return digest;
+  }
+}
@@ -0,0 +1,201 @@
+package io.burt.jmespath.contrib.tape;
+
+import java.nio.charset.Charset;
+
+/**
+ * A parsed JSON document, as a tape of tagged words and an area of strings.
+ * <p>
+ * Each value is one word on the tape, with the tag in the highest byte and
+ * a payload in the rest, except integers that fit in a <code>long</code>,
+ * which take a second word for the value. The words of the elements of an
+ * array, and of the alternating keys and values of an object, follow the
+ * word that starts it, and are followed by a word that ends it. The start
+ * word holds the index of the end word, so that a whole array or object
+ * can be skipped at once, and the number of elements or members, up to
+ * {@link #MAX_COUNT}.
+ * <p>
+ * Strings, and numbers that are not integers, are stored as UTF-8 in the
+ * string area, and the payload of their word is their offset and length, so
+ * that keys can be compared by length without reading the string area. The
+ * lengths of strings of {@link #MAX_STRING_LENGTH} bytes or more are
+ * instead stored in four bytes before the string. They are only decoded
+ * when read.
+ * <p>
+ * The nodes that represent the values are created when they are first
+ * accessed, and then kept, so that the same value is always represented by
+ * the same node, and its string is only decoded once. Threads that access a
+ * document at the same time can create more than one node for a value,
+ * which only means that they are not identical.
+ */
+final class TapeDocument {
+  static final int NULL = 'n';
+  static final int TRUE = 't';
+  static final int FALSE = 'f';
+  static final int LONG = 'l';
+  static final int DECIMAL = 'd';
+  static final int STRING = '"';
+  static final int START_ARRAY = '[';
+  static final int END_ARRAY = ']';
+  static final int START_OBJECT = '{';
+  static final int END_OBJECT = '}';
+
+  static final int MAX_COUNT = 0xffffff;
+  static final int MAX_STRING_LENGTH = 0xffffff;
+
+  static final Charset UTF_8 = Charset.forName("UTF-8");
+
+  final long[] tape;
+  final byte[] strings;
+  private final TapeNode root;
+  private TapeNode[] nodes;
+
+  TapeDocument(long[] tape, byte[] strings) {
+    this.tape = tape;
+    this.strings = strings;
+    this.root = new TapeNode(this, 0);
+  }
+
+  TapeNode node(int index) {
+    if (index == 0) {
+      return root;
+    }
+    TapeNode[] nodes = this.nodes;
+    if (nodes == null) {
+      nodes = new TapeNode[tape.length];
+      this.nodes = nodes;
+    }
+    TapeNode node = nodes[index];
+    if (node == null) {
+      node = new TapeNode(this, index);
+      nodes[index] = node;
+    }
+    return node;
+  }
+
+  static long word(int tag, long payload) {
+    return ((long) tag << 56) | payload;
+  }
+
+  static long containerPayload(int end, int count) {
+    return ((long) Math.min(count, MAX_COUNT) << 32) | end;
+  }
+
+  static long stringPayload(int offset, int length) {
+    return ((long) Math.min(length, MAX_STRING_LENGTH) << 32) | offset;
+  }
+
+  int tag(int index) {
+    return (int) (tape[index] >>> 56);
+  }
+
+  /**
+   * Returns the index of the end word of the array or object that starts at
+   * the index.
+   */
+  int end(int index) {
+    return (int) tape[index];
+  }
+
+  /**
+   * Returns the number of elements of an array, or members of an object,
+   * counting them when there are too many for the start word to hold.
+   */
+  int count(int index) {
+    int count = (int) (tape[index] >>> 32) & MAX_COUNT;
+    if (count == MAX_COUNT) {
+      count = 0;
+      int end = end(index);
+      int step = tag(index) == START_OBJECT ? 2 : 1;
+      for (int i = index + 1; i < end; i = next(i)) {
+        count++;
+        if (step == 2) {
+          i = next(i);
+        }
+      }
+    }
+    return count;
+  }
+
+  /**
+   * Returns the index of the value after the one at the index.
+   */
+  int next(int index) {
+    int tag = tag(index);
+    if (tag == LONG) {
+      return index + 2;
+    } else if (tag == START_ARRAY || tag == START_OBJECT) {
+      return end(index) + 1;
+    } else {
+      return index + 1;
+    }
+  }
+
+  long longValue(int index) {
+    return tape[index + 1];
+  }
+
+  int stringLength(int index) {
+    long word = tape[index];
+    int length = (int) (word >>> 32) & MAX_STRING_LENGTH;
+    if (length == MAX_STRING_LENGTH) {
+      int offset = (int) word;
+      length = ((strings[offset] & 0xff) << 24) | ((strings[offset + 1] & 0xff) << 16) | ((strings[offset + 2] & 0xff) << 8) | (strings[offset + 3] & 0xff);
+    }
+    return length;
+  }
+
+  int stringOffset(int index) {
+    long word = tape[index];
+    int offset = (int) word;
+    if (((int) (word >>> 32) & MAX_STRING_LENGTH) == MAX_STRING_LENGTH) {
+      offset += 4;
+    }
+    return offset;
+  }
+
+  String decodeString(int index) {
+    return new String(strings, stringOffset(index), stringLength(index), UTF_8);
+  }
+
+  /**
+   * Compares the string at the index to a Java string, without decoding it
+   * when the string is ASCII.
+   */
+  boolean stringEquals(int index, String s) {
+    int length = stringLength(index);
+    int offset = stringOffset(index);
+    int n = s.length();
+    if (length < n) {
+      return false;
+    }
+    for (int i = 0; i < n; i++) {
+      char c = s.charAt(i);
+      byte b = strings[offset + i];
+      if (c >= 0x80 || b < 0) {
+        return decodeString(index).equals(s);
+      }
+      if (b != c) {
+        return false;
+      }
+    }
+    return length == n;
+  }
+
+  /**
+   * Compares two strings of this document or another, byte by byte.
+   */
+  boolean stringEquals(int index, TapeDocument other, int otherIndex) {
+    int length = stringLength(index);
+    if (length != other.stringLength(otherIndex)) {
+      return false;
+    }
+    int offset = stringOffset(index);
+    int otherOffset = other.stringOffset(otherIndex);
+    for (int i = 0; i < length; i++) {
+      if (strings[offset + i] != other.strings[otherOffset + i]) {
+        return false;
+      }
+    }
+    return true;
+  }
+}
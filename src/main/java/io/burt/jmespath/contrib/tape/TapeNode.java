@@ -0,0 +1,226 @@
+package io.burt.jmespath.contrib.tape;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import io.burt.jmespath.JmesPathType;
+
+/**
+ * A value in a parsed document, which is only the position of its word on
+ * the tape. Nodes are created by the document when they are first accessed,
+ * and decode their string, or the text of their number, when it is first
+ * read, and the list of their elements when it is first needed.
+ * <p>
+ * When an object has more than one member with the same key, the first of
+ * them is the only one that is visible, to lookups as well as to the keys
+ * and values of the object, so that for example <code>length</code> counts
+ * the key once, like it does for the other runtimes.
+ */
+final class TapeNode extends TapeValue {
+  private static final int PAIRWISE_LIMIT = 16;
+
+  private final TapeDocument document;
+  private final int index;
+  private final int tag;
+  private final JmesPathType type;
+  private String string;
+  private double decimal = Double.NaN;
+  private List<TapeValue> elements;
+  private int[] members;
+
+  TapeNode(TapeDocument document, int index) {
+    this.document = document;
+    this.index = index;
+    this.tag = document.tag(index);
+    this.type = typeOf(tag);
+  }
+
+  @Override
+  JmesPathType type() {
+    return type;
+  }
+
+  private static JmesPathType typeOf(int tag) {
+    switch (tag) {
+      case TapeDocument.STRING:
+        return JmesPathType.STRING;
+      case TapeDocument.LONG:
+      case TapeDocument.DECIMAL:
+        return JmesPathType.NUMBER;
+      case TapeDocument.START_OBJECT:
+        return JmesPathType.OBJECT;
+      case TapeDocument.START_ARRAY:
+        return JmesPathType.ARRAY;
+      case TapeDocument.TRUE:
+      case TapeDocument.FALSE:
+        return JmesPathType.BOOLEAN;
+      default:
+        return JmesPathType.NULL;
+    }
+  }
+
+  @Override
+  boolean isTruthy() {
+    switch (tag) {
+      case TapeDocument.STRING:
+        return document.stringLength(index) > 0;
+      case TapeDocument.LONG:
+      case TapeDocument.DECIMAL:
+      case TapeDocument.TRUE:
+        return true;
+      case TapeDocument.START_OBJECT:
+      case TapeDocument.START_ARRAY:
+        return document.end(index) > index + 1;
+      default:
+        return false;
+    }
+  }
+
+  @Override
+  String stringValue() {
+    if (string == null) {
+      if (tag == TapeDocument.STRING || tag == TapeDocument.DECIMAL) {
+        string = document.decodeString(index);
+      }
+    }
+    return string;
+  }
+
+  @Override
+  boolean isIntegral() {
+    return tag == TapeDocument.LONG;
+  }
+
+  @Override
+  long longValue() {
+    if (tag == TapeDocument.LONG) {
+      return document.longValue(index);
+    } else {
+      return (long) doubleValue();
+    }
+  }
+
+  @Override
+  double doubleValue() {
+    if (tag == TapeDocument.LONG) {
+      return document.longValue(index);
+    } else if (tag == TapeDocument.DECIMAL) {
+      double d = decimal;
+      if (Double.isNaN(d)) {
+        d = Double.parseDouble(stringValue());
+        decimal = d;
+      }
+      return d;
+    } else {
+      return 0;
+    }
+  }
+
+  @Override
+  List<TapeValue> elements() {
+    if (tag != TapeDocument.START_ARRAY && tag != TapeDocument.START_OBJECT) {
+      return super.elements();
+    }
+    if (this.elements != null) {
+      return this.elements;
+    }
+    List<TapeValue> elements;
+    if (tag == TapeDocument.START_OBJECT) {
+      int[] members = members();
+      elements = new ArrayList<>(members.length);
+      for (int key : members) {
+        elements.add(document.node(document.next(key)));
+      }
+    } else {
+      int end = document.end(index);
+      elements = new ArrayList<>(document.count(index));
+      for (int i = index + 1; i < end; i = document.next(i)) {
+        elements.add(document.node(i));
+      }
+    }
+    this.elements = Collections.unmodifiableList(elements);
+    return this.elements;
+  }
+
+  @Override
+  Collection<TapeValue> keys() {
+    if (tag != TapeDocument.START_OBJECT) {
+      return super.keys();
+    }
+    int[] members = members();
+    List<TapeValue> keys = new ArrayList<>(members.length);
+    for (int key : members) {
+      keys.add(document.node(key));
+    }
+    return keys;
+  }
+
+  /**
+   * Returns the positions of the keys of the object, leaving out keys that
+   * are repeated. Small objects compare their keys pairwise, without
+   * decoding them, and larger ones collect them in a set.
+   */
+  private int[] members() {
+    if (members != null) {
+      return members;
+    }
+    int end = document.end(index);
+    int[] keys = new int[document.count(index)];
+    int n = 0;
+    Set<String> seen = keys.length > PAIRWISE_LIMIT ? new HashSet<String>() : null;
+    for (int i = index + 1; i < end; i = document.next(document.next(i))) {
+      if (seen == null ? !containsKey(keys, n, i) : seen.add(document.node(i).stringValue())) {
+        keys[n++] = i;
+      }
+    }
+    members = n == keys.length ? keys : Arrays.copyOf(keys, n);
+    return members;
+  }
+
+  private boolean containsKey(int[] keys, int n, int key) {
+    for (int j = 0; j < n; j++) {
+      if (document.stringEquals(keys[j], document, key)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  @Override
+  TapeValue get(String key) {
+    if (tag != TapeDocument.START_OBJECT) {
+      return null;
+    }
+    int end = document.end(index);
+    for (int i = index + 1; i < end; i = document.next(document.next(i))) {
+      if (document.stringEquals(i, key)) {
+        return document.node(document.next(i));
+      }
+    }
+    return null;
+  }
+
+  @Override
+  boolean stringEquals(TapeValue other) {
+    if (other instanceof TapeNode) {
+      TapeNode node = (TapeNode) other;
+      return document.stringEquals(index, node.document, node.index);
+    } else {
+      return super.stringEquals(other);
+    }
+  }
+
+  @Override
+  void appendNumber(StringBuilder json) {
+    if (tag == TapeDocument.DECIMAL) {
+      json.append(stringValue());
+    } else {
+      super.appendNumber(json);
+    }
+  }
+}
@@ -0,0 +1,427 @@
+package io.burt.jmespath.contrib.tape;
+
+import java.util.Arrays;
+
+/**
+ * Parses UTF-8 encoded JSON into a {@link TapeDocument}.
+ * <p>
+ * The parser is iterative, with an explicit stack of the arrays and objects
+ * that are open, so that deeply nested documents can not overflow the call
+ * stack. The tape and the string area are written to buffers that are reused
+ * for the next document, and the document gets copies of exactly the size
+ * needed. A parser is not thread safe.
+ * <p>
+ * Strings are not validated as UTF-8, and an escaped surrogate that is not
+ * part of a pair is replaced by U+FFFD.
+ */
+final class TapeParser {
+  private static final int MAX_RETAINED_SIZE = 1 << 20;
+
+  private byte[] input;
+  private int position;
+  private int end;
+
+  private long[] tape;
+  private int tapeSize;
+  private byte[] strings;
+  private int stringsSize;
+  private int[] starts;
+  private int[] counts;
+  private int depth;
+
+  TapeParser() {
+    reset();
+  }
+
+  private void reset() {
+    this.tape = new long[256];
+    this.strings = new byte[1024];
+    this.starts = new int[16];
+    this.counts = new int[16];
+  }
+
+  /**
+   * @throws IllegalStateException when the input is not valid JSON
+   */
+  TapeDocument parse(byte[] input, int offset, int length) {
+    this.input = input;
+    this.position = offset;
+    this.end = offset + length;
+    this.tapeSize = 0;
+    this.stringsSize = 0;
+    this.depth = 0;
+    try {
+      parseDocument();
+      return new TapeDocument(Arrays.copyOf(tape, tapeSize), Arrays.copyOf(strings, stringsSize));
+    } finally {
+      this.input = null;
+      if (tape.length > MAX_RETAINED_SIZE || strings.length > 8 * MAX_RETAINED_SIZE) {
+        reset();
+      }
+    }
+  }
+
+  private void parseDocument() {
+    skipWhitespace();
+    while (true) {
+      if (parseValue()) {
+        continue;
+      }
+      while (true) {
+        if (depth == 0) {
+          skipWhitespace();
+          if (position < end) {
+            throw unexpected("after the document");
+          }
+          return;
+        }
+        skipWhitespace();
+        int top = depth - 1;
+        boolean object = tag(starts[top]) == TapeDocument.START_OBJECT;
+        int c = peek();
+        if (c == ',') {
+          position++;
+          counts[top]++;
+          skipWhitespace();
+          if (object) {
+            parseKey();
+          }
+          break;
+        } else if (c == (object ? '}' : ']')) {
+          position++;
+          close();
+        } else {
+          throw unexpected(object ? "in object" : "in array");
+        }
+      }
+    }
+  }
+
+  /**
+   * Parses a value, and returns true when it opened an array or object that
+   * has elements or members, which are then parsed next.
+   */
+  private boolean parseValue() {
+    int c = peek();
+    switch (c) {
+      case '{':
+      case '[':
+        position++;
+        open(c == '{' ? TapeDocument.START_OBJECT : TapeDocument.START_ARRAY);
+        skipWhitespace();
+        if (peek() == (c == '{' ? '}' : ']')) {
+          position++;
+          close();
+          return false;
+        }
+        counts[depth - 1] = 1;
+        if (c == '{') {
+          parseKey();
+        }
+        return true;
+      case '"':
+        parseString(TapeDocument.STRING);
+        return false;
+      case 't':
+        parseLiteral("true", TapeDocument.TRUE);
+        return false;
+      case 'f':
+        parseLiteral("false", TapeDocument.FALSE);
+        return false;
+      case 'n':
+        parseLiteral("null", TapeDocument.NULL);
+        return false;
+      default:
+        if (c == '-' || ('0' <= c && c <= '9')) {
+          parseNumber();
+          return false;
+        }
+        throw unexpected("where a value was expected");
+    }
+  }
+
+  private void parseKey() {
+    if (peek() != '"') {
+      throw unexpected("where a key was expected");
+    }
+    parseString(TapeDocument.STRING);
+    skipWhitespace();
+    if (peek() != ':') {
+      throw unexpected("after a key");
+    }
+    position++;
+    skipWhitespace();
+  }
+
+  private void open(int tag) {
+    if (depth == starts.length) {
+      starts = Arrays.copyOf(starts, 2 * depth);
+      counts = Arrays.copyOf(counts, 2 * depth);
+    }
+    starts[depth] = tapeSize;
+    counts[depth] = 0;
+    depth++;
+    append(TapeDocument.word(tag, 0));
+  }
+
+  private void close() {
+    depth--;
+    int start = starts[depth];
+    int endTag = tag(start) == TapeDocument.START_OBJECT ? TapeDocument.END_OBJECT : TapeDocument.END_ARRAY;
+    tape[start] = TapeDocument.word(tag(start), TapeDocument.containerPayload(tapeSize, counts[depth]));
+    append(TapeDocument.word(endTag, start));
+  }
+
+  private int tag(int index) {
+    return (int) (tape[index] >>> 56);
+  }
+
+  private void parseLiteral(String literal, int tag) {
+    int length = literal.length();
+    if (end - position < length) {
+      throw unexpected("where a value was expected");
+    }
+    for (int i = 0; i < length; i++) {
+      if (input[position + i] != literal.charAt(i)) {
+        throw unexpected("where a value was expected");
+      }
+    }
+    position += length;
+    append(TapeDocument.word(tag, 0));
+  }
+
+  private void parseNumber() {
+    int start = position;
+    boolean negative = false;
+    if (input[position] == '-') {
+      negative = true;
+      position++;
+    }
+    long limit = negative ? Long.MIN_VALUE : -Long.MAX_VALUE;
+    long multiplyLimit = limit / 10;
+    long value = 0;
+    boolean overflow = false;
+    int c = peek();
+    if (c == '0') {
+      position++;
+    } else if ('1' <= c && c <= '9') {
+      while ('0' <= c && c <= '9') {
+        int digit = c - '0';
+        if (value < multiplyLimit || value * 10 < limit + digit) {
+          overflow = true;
+        } else {
+          value = value * 10 - digit;
+        }
+        position++;
+        c = peek();
+      }
+    } else {
+      throw unexpected("in number");
+    }
+    boolean integral = true;
+    if (peek() == '.') {
+      integral = false;
+      position++;
+      skipDigits();
+    }
+    c = peek();
+    if (c == 'e' || c == 'E') {
+      integral = false;
+      position++;
+      c = peek();
+      if (c == '+' || c == '-') {
+        position++;
+      }
+      skipDigits();
+    }
+    if (integral && !overflow) {
+      append(TapeDocument.word(TapeDocument.LONG, 0));
+      append(negative ? value : -value);
+    } else {
+      int offset = reserveString();
+      appendString(input, start, position - start);
+      endString(TapeDocument.DECIMAL, offset);
+    }
+  }
+
+  private void skipDigits() {
+    int c = peek();
+    if (c < '0' || c > '9') {
+      throw unexpected("in number");
+    }
+    while ('0' <= c && c <= '9') {
+      position++;
+      c = peek();
+    }
+  }
+
+  private void parseString(int tag) {
+    position++;
+    int offset = reserveString();
+    int start = position;
+    while (true) {
+      if (position >= end) {
+        throw unexpected("in string");
+      }
+      byte b = input[position];
+      if (b == '"') {
+        appendString(input, start, position - start);
+        position++;
+        break;
+      } else if (b == '\\') {
+        appendString(input, start, position - start);
+        position++;
+        parseEscape();
+        start = position;
+      } else if (b >= 0 && b < 0x20) {
+        throw unexpected("in string");
+      } else {
+        position++;
+      }
+    }
+    endString(tag, offset);
+  }
+
+  private void parseEscape() {
+    int c = peek();
+    position++;
+    switch (c) {
+      case '"': appendByte('"'); break;
+      case '\\': appendByte('\\'); break;
+      case '/': appendByte('/'); break;
+      case 'b': appendByte('\b'); break;
+      case 'f': appendByte('\f'); break;
+      case 'n': appendByte('\n'); break;
+      case 'r': appendByte('\r'); break;
+      case 't': appendByte('\t'); break;
+      case 'u':
+        int codePoint = parseHex();
+        if (Character.isHighSurrogate((char) codePoint) && end - position >= 6 && input[position] == '\\' && input[position + 1] == 'u') {
+          int mark = position;
+          position += 2;
+          int low = parseHex();
+          if (Character.isLowSurrogate((char) low)) {
+            codePoint = Character.toCodePoint((char) codePoint, (char) low);
+          } else {
+            position = mark;
+          }
+        }
+        if (Character.isSurrogate((char) codePoint) && codePoint < Character.MIN_SUPPLEMENTARY_CODE_POINT) {
+          codePoint = 0xfffd;
+        }
+        appendCodePoint(codePoint);
+        break;
+      default:
+        position--;
+        throw unexpected("in escape");
+    }
+  }
+
+  private int parseHex() {
+    if (end - position < 4) {
+      throw unexpected("in escape");
+    }
+    int value = 0;
+    for (int i = 0; i < 4; i++) {
+      int digit = Character.digit(input[position], 16);
+      if (digit < 0) {
+        throw unexpected("in escape");
+      }
+      value = (value << 4) | digit;
+      position++;
+    }
+    return value;
+  }
+
+  private void appendCodePoint(int codePoint) {
+    if (codePoint < 0x80) {
+      appendByte(codePoint);
+    } else if (codePoint < 0x800) {
+      appendByte(0xc0 | (codePoint >> 6));
+      appendByte(0x80 | (codePoint & 0x3f));
+    } else if (codePoint < 0x10000) {
+      appendByte(0xe0 | (codePoint >> 12));
+      appendByte(0x80 | ((codePoint >> 6) & 0x3f));
+      appendByte(0x80 | (codePoint & 0x3f));
+    } else {
+      appendByte(0xf0 | (codePoint >> 18));
+      appendByte(0x80 | ((codePoint >> 12) & 0x3f));
+      appendByte(0x80 | ((codePoint >> 6) & 0x3f));
+      appendByte(0x80 | (codePoint & 0x3f));
+    }
+  }
+
+  /**
+   * Returns the offset where the bytes of the string that is about to be
+   * appended start.
+   */
+  private int reserveString() {
+    return stringsSize;
+  }
+
+  /**
+   * Appends the word of a string whose bytes have been appended from the
+   * offset, with the length in the word when it fits, and otherwise in four
+   * bytes that are inserted before the string.
+   */
+  private void endString(int tag, int offset) {
+    int length = stringsSize - offset;
+    if (length >= TapeDocument.MAX_STRING_LENGTH) {
+      ensureStrings(4);
+      System.arraycopy(strings, offset, strings, offset + 4, length);
+      strings[offset] = (byte) (length >>> 24);
+      strings[offset + 1] = (byte) (length >>> 16);
+      strings[offset + 2] = (byte) (length >>> 8);
+      strings[offset + 3] = (byte) length;
+      stringsSize += 4;
+    }
+    append(TapeDocument.word(tag, TapeDocument.stringPayload(offset, length)));
+  }
+
+  private void appendString(byte[] bytes, int offset, int length) {
+    ensureStrings(length);
+    System.arraycopy(bytes, offset, strings, stringsSize, length);
+    stringsSize += length;
+  }
+
+  private void appendByte(int b) {
+    ensureStrings(1);
+    strings[stringsSize++] = (byte) b;
+  }
+
+  private void ensureStrings(int length) {
+    if (strings.length - stringsSize < length) {
+      strings = Arrays.copyOf(strings, Math.max(2 * strings.length, stringsSize + length));
+    }
+  }
+
+  private void append(long word) {
+    if (tapeSize == tape.length) {
+      tape = Arrays.copyOf(tape, 2 * tapeSize);
+    }
+    tape[tapeSize++] = word;
+  }
+
+  private int peek() {
+    return position < end ? input[position] : -1;
+  }
+
+  private void skipWhitespace() {
+    while (position < end) {
+      byte b = input[position];
+      if (b == ' ' || b == '\n' || b == '\r' || b == '\t') {
+        position++;
+      } else {
+        break;
+      }
+    }
+  }
+
+  private IllegalStateException unexpected(String where) {
+    if (position >= end) {
+      return new IllegalStateException(String.format("Unexpected end of input %s", where));
+    } else {
+      return new IllegalStateException(String.format("Unexpected character '%c' %s at offset %d", (char) (input[position] & 0xff), where, position));
+    }
+  }
+}
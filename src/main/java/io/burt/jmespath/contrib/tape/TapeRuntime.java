@@ -0,0 +1,178 @@
+package io.burt.jmespath.contrib.tape;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import io.burt.jmespath.BaseRuntime;
+import io.burt.jmespath.JmesPathType;
+import io.burt.jmespath.RuntimeConfiguration;
+import io.burt.jmespath.contrib.ByteParsingAdapter;
+import io.burt.jmespath.contrib.function.PrimitiveNumberAdapter;
+
+/**
+ * A runtime that parses JSON into a compact representation, with all the
+ * values of a document in a tape of <code>long</code> words and a byte array
+ * of UTF-8 encoded strings, instead of into a tree of objects.
+ * <p>
+ * A parsed document takes little more space than the JSON itself. The
+ * objects that represent its values, {@link TapeValue}, are only created
+ * when an expression accesses them, and they only hold a position on the
+ * tape, and the document keeps a reference to each, four bytes per word of
+ * the tape. Strings are decoded when they are first read, and numbers that are
+ * not integers when they are first used, so that the parts of a document
+ * that an expression does not use cost close to nothing.
+ * <p>
+ * Values created by expressions, like the results of functions, are plain
+ * objects, and are equal to parsed values with the same contents.
+ * <pre>
+ * TapeRuntime runtime = new TapeRuntime(configuration);
+ * TapeValue result = runtime.compile("lower_case(user.name)").search(runtime.parse(jsonBytes, 0, jsonBytes.length));
+ * </pre>
+ */
+public class TapeRuntime extends BaseRuntime<TapeValue> implements PrimitiveNumberAdapter<TapeValue>, ByteParsingAdapter<TapeValue> {
+  private static final ThreadLocal<TapeParser> parsers = new ThreadLocal<TapeParser>() {
+    @Override
+    protected TapeParser initialValue() {
+      return new TapeParser();
+    }
+  };
+
+  public TapeRuntime() {
+    super();
+  }
+
+  public TapeRuntime(RuntimeConfiguration configuration) {
+    super(configuration);
+  }
+
+  /**
+   * @throws IllegalStateException when the string is not valid JSON
+   */
+  @Override
+  public TapeValue parseString(String str) {
+    byte[] json = str.getBytes(TapeDocument.UTF_8);
+    return parse(json, 0, json.length);
+  }
+
+  /**
+   * Parses UTF-8 encoded JSON, without first decoding it into a string.
+   *
+   * @throws IllegalStateException when the bytes are not valid JSON
+   */
+  @Override
+  public TapeValue parse(byte[] json, int offset, int length) {
+    return parsers.get().parse(json, offset, length).node(0);
+  }
+
+  @Override
+  public List<TapeValue> toList(TapeValue value) {
+    return value.elements();
+  }
+
+  @Override
+  public String toString(TapeValue value) {
+    if (value.type() == JmesPathType.STRING) {
+      return value.stringValue();
+    } else {
+      return value.toString();
+    }
+  }
+
+  @Override
+  public Number toNumber(TapeValue value) {
+    if (value.type() != JmesPathType.NUMBER) {
+      return null;
+    } else if (value.isIntegral()) {
+      return value.longValue();
+    } else {
+      return value.doubleValue();
+    }
+  }
+
+  @Override
+  public boolean isIntegralNumber(TapeValue value) {
+    return value.isIntegral();
+  }
+
+  @Override
+  public long toLong(TapeValue value) {
+    return value.longValue();
+  }
+
+  @Override
+  public double toDouble(TapeValue value) {
+    return value.doubleValue();
+  }
+
+  @Override
+  public boolean isTruthy(TapeValue value) {
+    return value.isTruthy();
+  }
+
+  @Override
+  public JmesPathType typeOf(TapeValue value) {
+    return value.type();
+  }
+
+  @Override
+  @Deprecated
+  public TapeValue getProperty(TapeValue value, String name) {
+    return getProperty(value, createString(name));
+  }
+
+  @Override
+  public TapeValue getProperty(TapeValue value, TapeValue name) {
+    String key = name.stringValue();
+    if (key == null) {
+      return TapeValue.NULL;
+    }
+    TapeValue property = value.get(key);
+    return property == null ? TapeValue.NULL : property;
+  }
+
+  @Override
+  public Collection<TapeValue> getPropertyNames(TapeValue value) {
+    return value.keys();
+  }
+
+  @Override
+  public TapeValue createNull() {
+    return TapeValue.NULL;
+  }
+
+  @Override
+  public TapeValue createArray(Collection<TapeValue> elements) {
+    return new TapeValue.ArrayValue(elements);
+  }
+
+  @Override
+  public TapeValue createString(String str) {
+    return new TapeValue.StringValue(str);
+  }
+
+  @Override
+  public TapeValue createBoolean(boolean b) {
+    return b ? TapeValue.TRUE : TapeValue.FALSE;
+  }
+
+  @Override
+  public TapeValue createObject(Map<TapeValue, TapeValue> obj) {
+    Map<String, TapeValue> members = new LinkedHashMap<>();
+    for (Map.Entry<TapeValue, TapeValue> member : obj.entrySet()) {
+      members.put(member.getKey().stringValue(), member.getValue());
+    }
+    return new TapeValue.ObjectValue(members);
+  }
+
+  @Override
+  public TapeValue createNumber(double n) {
+    return new TapeValue.DoubleValue(n);
+  }
+
+  @Override
+  public TapeValue createNumber(long n) {
+    return new TapeValue.LongValue(n);
+  }
+}
@@ -0,0 +1,422 @@
+package io.burt.jmespath.contrib.tape;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import io.burt.jmespath.JmesPathType;
+
+/**
+ * A value of a {@link TapeRuntime}, either a part of a parsed document or a
+ * value created by an expression.
+ * <p>
+ * Values are equal when they have the same type and contents, whichever way
+ * they were created, and {@link #toString} returns them as JSON.
+ */
+public abstract class TapeValue {
+  static final TapeValue NULL = new Constant(JmesPathType.NULL, false, "null");
+  static final TapeValue TRUE = new Constant(JmesPathType.BOOLEAN, true, "true");
+  static final TapeValue FALSE = new Constant(JmesPathType.BOOLEAN, false, "false");
+
+  TapeValue() { }
+
+  abstract JmesPathType type();
+
+  abstract boolean isTruthy();
+
+  /**
+   * Returns the contents of a string.
+   */
+  String stringValue() {
+    return null;
+  }
+
+  /**
+   * Returns whether the value is a number that was an integer that fits in
+   * a <code>long</code> when it was parsed or created.
+   */
+  boolean isIntegral() {
+    return false;
+  }
+
+  long longValue() {
+    return (long) doubleValue();
+  }
+
+  double doubleValue() {
+    return 0;
+  }
+
+  /**
+   * Returns the elements of an array, or the values of an object.
+   */
+  List<TapeValue> elements() {
+    return Collections.emptyList();
+  }
+
+  /**
+   * Returns the keys of an object, as strings.
+   */
+  Collection<TapeValue> keys() {
+    return Collections.emptyList();
+  }
+
+  /**
+   * Returns the value of the member of an object, or null when there is no
+   * member with the key.
+   */
+  TapeValue get(String key) {
+    return null;
+  }
+
+  void appendNumber(StringBuilder json) {
+    if (isIntegral()) {
+      json.append(longValue());
+    } else {
+      json.append(doubleValue());
+    }
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (!(o instanceof TapeValue)) {
+      return false;
+    }
+    TapeValue other = (TapeValue) o;
+    JmesPathType type = type();
+    if (type != other.type()) {
+      return false;
+    }
+    switch (type) {
+      case NULL:
+        return true;
+      case BOOLEAN:
+        return isTruthy() == other.isTruthy();
+      case NUMBER:
+        return numberEquals(other);
+      case STRING:
+        return stringEquals(other);
+      case ARRAY:
+        return elements().equals(other.elements());
+      case OBJECT:
+        return objectEquals(other);
+      default:
+        return false;
+    }
+  }
+
+  boolean stringEquals(TapeValue other) {
+    return stringValue().equals(other.stringValue());
+  }
+
+  private boolean numberEquals(TapeValue other) {
+    boolean longLike = isLongLike();
+    if (longLike != other.isLongLike()) {
+      return false;
+    } else if (longLike) {
+      return longValue() == other.longValue();
+    } else {
+      return Double.compare(doubleValue(), other.doubleValue()) == 0;
+    }
+  }
+
+  /**
+   * Numbers that have an integral value are compared as longs, whether they
+   * are integers or doubles, so that <code>7</code> and <code>7.0</code> are
+   * equal, but integers that differ beyond the precision of a double are not.
+   */
+  private boolean isLongLike() {
+    if (isIntegral()) {
+      return true;
+    }
+    double d = doubleValue();
+    return d == Math.rint(d) && d >= -0x1p63 && d < 0x1p63;
+  }
+
+  private boolean objectEquals(TapeValue other) {
+    Collection<TapeValue> keys = keys();
+    if (keys.size() != other.keys().size()) {
+      return false;
+    }
+    for (TapeValue key : keys) {
+      String k = key.stringValue();
+      TapeValue otherValue = other.get(k);
+      if (otherValue == null || !get(k).equals(otherValue)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  @Override
+  public int hashCode() {
+    switch (type()) {
+      case BOOLEAN:
+        return isTruthy() ? 1231 : 1237;
+      case NUMBER:
+        if (isLongLike()) {
+          long l = longValue();
+          return (int) (l ^ (l >>> 32));
+        } else {
+          long bits = Double.doubleToLongBits(doubleValue());
+          return (int) (bits ^ (bits >>> 32));
+        }
+      case STRING:
+        return stringValue().hashCode();
+      case ARRAY:
+        return elements().hashCode();
+      case OBJECT:
+        int hash = 0;
+        for (TapeValue key : keys()) {
+          hash += key.hashCode() ^ get(key.stringValue()).hashCode();
+        }
+        return hash;
+      default:
+        return 0;
+    }
+  }
+
+  @Override
+  public String toString() {
+    StringBuilder json = new StringBuilder();
+    appendJson(json);
+    return json.toString();
+  }
+
+  void appendJson(StringBuilder json) {
+    switch (type()) {
+      case NULL:
+        json.append("null");
+        break;
+      case BOOLEAN:
+        json.append(isTruthy());
+        break;
+      case NUMBER:
+        appendNumber(json);
+        break;
+      case STRING:
+        appendString(json, stringValue());
+        break;
+      case ARRAY:
+        json.append('[');
+        boolean first = true;
+        for (TapeValue element : elements()) {
+          if (!first) {
+            json.append(',');
+          }
+          element.appendJson(json);
+          first = false;
+        }
+        json.append(']');
+        break;
+      case OBJECT:
+        json.append('{');
+        first = true;
+        for (TapeValue key : keys()) {
+          if (!first) {
+            json.append(',');
+          }
+          appendString(json, key.stringValue());
+          json.append(':');
+          get(key.stringValue()).appendJson(json);
+          first = false;
+        }
+        json.append('}');
+        break;
+      default:
+        throw new IllegalStateException();
+    }
+  }
+
+  private static void appendString(StringBuilder json, String s) {
+    json.append('"');
+    for (int i = 0; i < s.length(); i++) {
+      char c = s.charAt(i);
+      if (c == '"' || c == '\\') {
+        json.append('\\').append(c);
+      } else if (c == '\n') {
+        json.append("\\n");
+      } else if (c == '\r') {
+        json.append("\\r");
+      } else if (c == '\t') {
+        json.append("\\t");
+      } else if (c < 0x20) {
+        json.append(String.format("\\u%04x", (int) c));
+      } else {
+        json.append(c);
+      }
+    }
+    json.append('"');
+  }
+
+  private static final class Constant extends TapeValue {
+    private final JmesPathType type;
+    private final boolean truthy;
+    private final String json;
+
+    Constant(JmesPathType type, boolean truthy, String json) {
+      this.type = type;
+      this.truthy = truthy;
+      this.json = json;
+    }
+
+    @Override
+    JmesPathType type() {
+      return type;
+    }
+
+    @Override
+    boolean isTruthy() {
+      return truthy;
+    }
+
+    @Override
+    public String toString() {
+      return json;
+    }
+  }
+
+  static final class StringValue extends TapeValue {
+    private final String value;
+
+    StringValue(String value) {
+      this.value = value;
+    }
+
+    @Override
+    JmesPathType type() {
+      return JmesPathType.STRING;
+    }
+
+    @Override
+    boolean isTruthy() {
+      return !value.isEmpty();
+    }
+
+    @Override
+    String stringValue() {
+      return value;
+    }
+  }
+
+  static final class LongValue extends TapeValue {
+    private final long value;
+
+    LongValue(long value) {
+      this.value = value;
+    }
+
+    @Override
+    JmesPathType type() {
+      return JmesPathType.NUMBER;
+    }
+
+    @Override
+    boolean isTruthy() {
+      return true;
+    }
+
+    @Override
+    boolean isIntegral() {
+      return true;
+    }
+
+    @Override
+    long longValue() {
+      return value;
+    }
+
+    @Override
+    double doubleValue() {
+      return value;
+    }
+  }
+
+  static final class DoubleValue extends TapeValue {
+    private final double value;
+
+    DoubleValue(double value) {
+      this.value = value;
+    }
+
+    @Override
+    JmesPathType type() {
+      return JmesPathType.NUMBER;
+    }
+
+    @Override
+    boolean isTruthy() {
+      return true;
+    }
+
+    @Override
+    double doubleValue() {
+      return value;
+    }
+  }
+
+  static final class ArrayValue extends TapeValue {
+    private final List<TapeValue> elements;
+
+    ArrayValue(Collection<TapeValue> elements) {
+      this.elements = Collections.unmodifiableList(new ArrayList<>(elements));
+    }
+
+    @Override
+    JmesPathType type() {
+      return JmesPathType.ARRAY;
+    }
+
+    @Override
+    boolean isTruthy() {
+      return !elements.isEmpty();
+    }
+
+    @Override
+    List<TapeValue> elements() {
+      return elements;
+    }
+  }
+
+  static final class ObjectValue extends TapeValue {
+    private final Map<String, TapeValue> members;
+
+    ObjectValue(Map<String, TapeValue> members) {
+      this.members = members;
+    }
+
+    @Override
+    JmesPathType type() {
+      return JmesPathType.OBJECT;
+    }
+
+    @Override
+    boolean isTruthy() {
+      return !members.isEmpty();
+    }
+
+    @Override
+    List<TapeValue> elements() {
+      return new ArrayList<>(members.values());
+    }
+
+    @Override
+    Collection<TapeValue> keys() {
+      List<TapeValue> keys = new ArrayList<>(members.size());
+      for (String key : members.keySet()) {
+        keys.add(new StringValue(key));
+      }
+      return keys;
+    }
+
+    @Override
+    TapeValue get(String key) {
+      return members.get(key);
+    }
+  }
+}
@@ -0,0 +1,80 @@
+package io.burt.jmespath.contrib.time;
+
+import java.text.ParsePosition;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.GregorianCalendar;
+import java.util.Locale;
+import java.util.TimeZone;
+
+/**
+ * Parses and formats date times with a {@link SimpleDateFormat} pattern, in
+ * a time zone.
+ * <p>
+ * The pattern is compiled once, when the formatter is created, and each
+ * thread gets its own copy of the compiled format, since
+ * {@link SimpleDateFormat} is not thread safe. Parsing is strict, and the
+ * whole string must match the pattern. Month and day names are in English,
+ * and dates are in the proleptic Gregorian calendar, like in
+ * {@link IsoDateTime}.
+ */
+public final class DateFormatter {
+  public static final String UTC = "UTC";
+
+  private final String pattern;
+  private final String timeZone;
+  private final ThreadLocal<SimpleDateFormat> formats;
+
+  /**
+   * @throws IllegalArgumentException when the pattern is invalid, or when
+   *   the time zone is unknown
+   */
+  public DateFormatter(String pattern, String timeZone) {
+    final SimpleDateFormat prototype = new SimpleDateFormat(pattern, Locale.US);
+    GregorianCalendar calendar = new GregorianCalendar(toTimeZone(timeZone), Locale.US);
+    calendar.setGregorianChange(new Date(Long.MIN_VALUE));
+    prototype.setCalendar(calendar);
+    prototype.setLenient(false);
+    this.pattern = pattern;
+    this.timeZone = timeZone;
+    this.formats = new ThreadLocal<SimpleDateFormat>() {
+      @Override
+      protected SimpleDateFormat initialValue() {
+        return (SimpleDateFormat) prototype.clone();
+      }
+    };
+  }
+
+  private static TimeZone toTimeZone(String id) {
+    TimeZone timeZone = TimeZone.getTimeZone(id);
+    if (timeZone.getID().equals("GMT") && !id.equals("GMT")) {
+      throw new IllegalArgumentException(String.format("Unknown time zone: %s", id));
+    }
+    return timeZone;
+  }
+
+  public String pattern() {
+    return pattern;
+  }
+
+  public String timeZone() {
+    return timeZone;
+  }
+
+  /**
+   * Returns the milliseconds since the epoch of a date time, or
+   * {@link IsoDateTime#INVALID} when the string does not match the pattern.
+   */
+  public long parse(String s) {
+    ParsePosition position = new ParsePosition(0);
+    Date date = formats.get().parse(s, position);
+    if (date == null || position.getIndex() != s.length()) {
+      return IsoDateTime.INVALID;
+    }
+    return date.getTime();
+  }
+
+  public String format(long millis) {
+    return formats.get().format(new Date(millis));
+  }
+}
@@ -0,0 +1,60 @@
+package io.burt.jmespath.contrib.time;
+
+/**
+ * The units that date times can be truncated to, in UTC.
+ * <p>
+ * Weeks start on Mondays, as in ISO-8601, and quarters in January, April,
+ * July and October.
+ */
+public enum DateUnit {
+  YEAR,
+  QUARTER,
+  MONTH,
+  WEEK,
+  DAY,
+  HOUR,
+  MINUTE,
+  SECOND;
+
+  /**
+   * Returns the start of the unit that an instant, in milliseconds since the
+   * epoch, is in.
+   */
+  public long truncate(long millis) {
+    switch (this) {
+      case SECOND:
+        return floor(millis, 1000L);
+      case MINUTE:
+        return floor(millis, 60000L);
+      case HOUR:
+        return floor(millis, 3600000L);
+      case DAY:
+        return floor(millis, IsoDateTime.MILLIS_PER_DAY);
+      case WEEK:
+        long days = IsoDateTime.floorDiv(millis, IsoDateTime.MILLIS_PER_DAY);
+        // The epoch was a Thursday, so the first Monday was four days later
+        return (4 + 7 * IsoDateTime.floorDiv(days - 4, 7)) * IsoDateTime.MILLIS_PER_DAY;
+      default:
+        long date = IsoDateTime.civilFromDays(IsoDateTime.floorDiv(millis, IsoDateTime.MILLIS_PER_DAY));
+        int month = this == YEAR ? 1 : this == QUARTER ? (IsoDateTime.month(date) - 1) / 3 * 3 + 1 : IsoDateTime.month(date);
+        return IsoDateTime.daysFromCivil(IsoDateTime.year(date), month, 1) * IsoDateTime.MILLIS_PER_DAY;
+    }
+  }
+
+  private static long floor(long millis, long unit) {
+    return IsoDateTime.floorDiv(millis, unit) * unit;
+  }
+
+  /**
+   * Returns the unit with a name, like "day", in any case, or null when there
+   * is no unit with the name.
+   */
+  public static DateUnit fromName(String name) {
+    for (DateUnit unit : values()) {
+      if (unit.name().equalsIgnoreCase(name)) {
+        return unit;
+      }
+    }
+    return null;
+  }
+}
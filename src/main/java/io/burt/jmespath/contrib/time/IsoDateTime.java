@@ -0,0 +1,289 @@
+package io.burt.jmespath.contrib.time;
+
+/**
+ * Parses and formats ISO-8601 date times, as milliseconds since the epoch.
+ * <p>
+ * The parser accepts the extended format that RFC 3339 profiles, like
+ * <code>2019-06-03T12:34:56.789+02:00</code>: a date, optionally followed by
+ * a time with minutes, seconds and a fraction of a second, where seconds and
+ * the fraction can be left out, and a time zone offset, or Z for UTC. A
+ * space or a lower case T and Z are also accepted, as RFC 3339 allows, and
+ * date times without an offset are taken to be in UTC. Digits of the
+ * fraction beyond milliseconds are truncated.
+ * <p>
+ * The parser works directly on the characters of the string, without
+ * allocating anything, and is many times faster than a
+ * {@link java.text.SimpleDateFormat}. Dates are in the proleptic Gregorian
+ * calendar, also before 1582.
+ */
+public final class IsoDateTime {
+  /**
+   * Returned by {@link #parse} for strings that are not date times.
+   */
+  public static final long INVALID = Long.MIN_VALUE;
+
+  static final long MILLIS_PER_DAY = 86400000L;
+
+  private static final int MAX_YEAR_DIGITS = 9;
+  private static final long MAX_YEAR = 292275054L;
+
+  private IsoDateTime() { }
+
+  /**
+   * Returns the milliseconds since the epoch of a date time, or
+   * {@link #INVALID} when the string is not a date time in the accepted
+   * format.
+   */
+  public static long parse(String s) {
+    int length = s.length();
+    int i = 0;
+    boolean negative = false;
+    int maxYearDigits = 4;
+    if (length > 0 && (s.charAt(0) == '+' || s.charAt(0) == '-')) {
+      negative = s.charAt(0) == '-';
+      maxYearDigits = MAX_YEAR_DIGITS;
+      i++;
+    }
+    int yearStart = i;
+    long year = 0;
+    while (i < length && i - yearStart < maxYearDigits && isDigit(s.charAt(i))) {
+      year = year * 10 + (s.charAt(i) - '0');
+      i++;
+    }
+    if (i - yearStart < 4 || year > MAX_YEAR || !isChar(s, i, '-')) {
+      return INVALID;
+    }
+    if (negative) {
+      year = -year;
+    }
+    int month = twoDigits(s, i + 1);
+    if (month < 1 || month > 12 || !isChar(s, i + 3, '-')) {
+      return INVALID;
+    }
+    int day = twoDigits(s, i + 4);
+    if (day < 1 || day > daysInMonth(year, month)) {
+      return INVALID;
+    }
+    i += 6;
+    long millis = daysFromCivil(year, month, day) * MILLIS_PER_DAY;
+    if (i == length) {
+      return millis;
+    }
+    char separator = s.charAt(i);
+    if (separator != 'T' && separator != 't' && separator != ' ') {
+      return INVALID;
+    }
+    int hour = twoDigits(s, i + 1);
+    if (hour < 0 || hour > 23 || !isChar(s, i + 3, ':')) {
+      return INVALID;
+    }
+    int minute = twoDigits(s, i + 4);
+    if (minute < 0 || minute > 59) {
+      return INVALID;
+    }
+    i += 6;
+    int second = 0;
+    int milli = 0;
+    if (isChar(s, i, ':')) {
+      second = twoDigits(s, i + 1);
+      if (second < 0 || second > 60) {
+        return INVALID;
+      }
+      i += 3;
+      if (isChar(s, i, '.') || isChar(s, i, ',')) {
+        i++;
+        int fractionStart = i;
+        while (i < length && isDigit(s.charAt(i))) {
+          if (i - fractionStart < 3) {
+            milli = milli * 10 + (s.charAt(i) - '0');
+          }
+          i++;
+        }
+        int digits = i - fractionStart;
+        if (digits == 0) {
+          return INVALID;
+        }
+        for (; digits < 3; digits++) {
+          milli *= 10;
+        }
+      }
+    }
+    millis += ((hour * 60L + minute) * 60 + second) * 1000 + milli;
+    if (i == length) {
+      return millis;
+    }
+    char sign = s.charAt(i);
+    if (sign == 'Z' || sign == 'z') {
+      return i + 1 == length ? millis : INVALID;
+    } else if (sign != '+' && sign != '-') {
+      return INVALID;
+    }
+    int offsetHours = twoDigits(s, i + 1);
+    if (offsetHours < 0 || offsetHours > 23) {
+      return INVALID;
+    }
+    i += 3;
+    int offsetMinutes = 0;
+    if (i < length) {
+      if (s.charAt(i) == ':') {
+        i++;
+      }
+      offsetMinutes = twoDigits(s, i);
+      if (offsetMinutes < 0 || offsetMinutes > 59 || i + 2 != length) {
+        return INVALID;
+      }
+    }
+    long offset = (offsetHours * 60L + offsetMinutes) * 60000;
+    return sign == '+' ? millis - offset : millis + offset;
+  }
+
+  /**
+   * Formats milliseconds since the epoch as a date time in UTC, like
+   * <code>2019-06-03T10:34:56.789Z</code>.
+   * <p>
+   * The format always has the same length for the years 0 to 9999, so the
+   * formatted date times sort in the same order as the instants. Other years
+   * are written with a sign, as ISO-8601 allows, and can be parsed again.
+   */
+  public static String format(long millis) {
+    long days = floorDiv(millis, MILLIS_PER_DAY);
+    int millisOfDay = (int) (millis - days * MILLIS_PER_DAY);
+    long date = civilFromDays(days);
+    long year = year(date);
+    char[] chars;
+    int i;
+    if (year >= 0 && year <= 9999) {
+      chars = new char[24];
+      i = 0;
+    } else {
+      String digits = Long.toString(Math.abs(year));
+      int yearDigits = Math.max(4, digits.length());
+      chars = new char[21 + yearDigits];
+      chars[0] = year < 0 ? '-' : '+';
+      i = 1 + yearDigits - 4;
+      for (int j = 1; j < i; j++) {
+        chars[j] = '0';
+      }
+      if (digits.length() > 4) {
+        digits.getChars(0, digits.length() - 4, chars, 1 + yearDigits - digits.length());
+      }
+      year = Math.abs(year) % 10000;
+    }
+    i = putDigits(chars, i, (int) year, 4);
+    chars[i++] = '-';
+    i = putDigits(chars, i, month(date), 2);
+    chars[i++] = '-';
+    i = putDigits(chars, i, day(date), 2);
+    chars[i++] = 'T';
+    i = putDigits(chars, i, millisOfDay / 3600000, 2);
+    chars[i++] = ':';
+    i = putDigits(chars, i, millisOfDay / 60000 % 60, 2);
+    chars[i++] = ':';
+    i = putDigits(chars, i, millisOfDay / 1000 % 60, 2);
+    chars[i++] = '.';
+    i = putDigits(chars, i, millisOfDay % 1000, 3);
+    chars[i] = 'Z';
+    return new String(chars);
+  }
+
+  private static int putDigits(char[] chars, int offset, int value, int digits) {
+    for (int i = offset + digits - 1; i >= offset; i--) {
+      chars[i] = (char) ('0' + value % 10);
+      value /= 10;
+    }
+    return offset + digits;
+  }
+
+  private static boolean isDigit(char c) {
+    return c >= '0' && c <= '9';
+  }
+
+  private static boolean isChar(String s, int i, char c) {
+    return i < s.length() && s.charAt(i) == c;
+  }
+
+  /**
+   * Returns the value of the two digits at the position, or -1 when they are
+   * not digits.
+   */
+  private static int twoDigits(String s, int i) {
+    if (i + 1 >= s.length()) {
+      return -1;
+    }
+    char c1 = s.charAt(i);
+    char c2 = s.charAt(i + 1);
+    if (!isDigit(c1) || !isDigit(c2)) {
+      return -1;
+    }
+    return (c1 - '0') * 10 + (c2 - '0');
+  }
+
+  static boolean isLeapYear(long year) {
+    return (year & 3) == 0 && (year % 100 != 0 || year % 400 == 0);
+  }
+
+  static int daysInMonth(long year, int month) {
+    switch (month) {
+      case 2:
+        return isLeapYear(year) ? 29 : 28;
+      case 4:
+      case 6:
+      case 9:
+      case 11:
+        return 30;
+      default:
+        return 31;
+    }
+  }
+
+  static long floorDiv(long x, long y) {
+    long q = x / y;
+    if ((x % y != 0) && ((x ^ y) < 0)) {
+      q--;
+    }
+    return q;
+  }
+
+  /**
+   * Returns the number of days since the epoch of a date, using the
+   * algorithm of Howard Hinnant.
+   */
+  static long daysFromCivil(long year, int month, int day) {
+    long y = month <= 2 ? year - 1 : year;
+    long era = (y >= 0 ? y : y - 399) / 400;
+    long yearOfEra = y - era * 400;
+    long dayOfYear = (153 * (month > 2 ? month - 3 : month + 9) + 2) / 5 + day - 1;
+    long dayOfEra = yearOfEra * 365 + yearOfEra / 4 - yearOfEra / 100 + dayOfYear;
+    return era * 146097 + dayOfEra - 719468;
+  }
+
+  /**
+   * Returns the date of a number of days since the epoch, with the year,
+   * month and day packed into a long, see {@link #year}, {@link #month} and
+   * {@link #day}.
+   */
+  static long civilFromDays(long days) {
+    long z = days + 719468;
+    long era = (z >= 0 ? z : z - 146096) / 146097;
+    long dayOfEra = z - era * 146097;
+    long yearOfEra = (dayOfEra - dayOfEra / 1460 + dayOfEra / 36524 - dayOfEra / 146096) / 365;
+    long dayOfYear = dayOfEra - (365 * yearOfEra + yearOfEra / 4 - yearOfEra / 100);
+    long mp = (5 * dayOfYear + 2) / 153;
+    long day = dayOfYear - (153 * mp + 2) / 5 + 1;
+    long month = mp < 10 ? mp + 3 : mp - 9;
+    long year = yearOfEra + era * 400 + (month <= 2 ? 1 : 0);
+    return (year << 9) | (month << 5) | day;
+  }
+
+  static long year(long date) {
+    return date >> 9;
+  }
+
+  static int month(long date) {
+    return (int) (date >> 5) & 15;
+  }
+
+  static int day(long date) {
+    return (int) date & 31;
+  }
+}
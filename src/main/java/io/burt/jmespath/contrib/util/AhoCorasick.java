@@ -0,0 +1,285 @@
+package io.burt.jmespath.contrib.util;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * An Aho-Corasick automaton, which finds all occurrences of a set of needles
+ * in an input in a single pass, in time proportional to the length of the
+ * input, however many needles there are.
+ * <p>
+ * When the automaton ignores case, needles and input are compared one char
+ * at a time after folding them with <code>Character.toLowerCase(Character.toUpperCase(c))</code>,
+ * like {@link java.util.regex.Pattern} does with the flags
+ * <code>CASE_INSENSITIVE</code> and <code>UNICODE_CASE</code>.
+ * <p>
+ * Automata are immutable and thread safe.
+ */
+public class AhoCorasick {
+  private static final int[] NO_NEEDLES = new int[0];
+
+  private final List<String> needleStrings;
+  private final int[] needleLengths;
+  private final int maxNeedleLength;
+  private final boolean ignoreCase;
+  private final int[] rootTransitions;
+  private final char[][] labels;
+  private final int[][] targets;
+  private final int[] failures;
+  private final int[][] needles;
+  private final int[] outputLinks;
+
+  public AhoCorasick(List<String> needles) {
+    this(needles, false);
+  }
+
+  public AhoCorasick(List<String> needles, boolean ignoreCase) {
+    this.needleStrings = new ArrayList<>(needles);
+    this.needleLengths = new int[needles.size()];
+    int maxNeedleLength = 0;
+    for (int i = 0; i < needles.size(); i++) {
+      needleLengths[i] = needles.get(i).length();
+      maxNeedleLength = Math.max(maxNeedleLength, needleLengths[i]);
+    }
+    this.maxNeedleLength = maxNeedleLength;
+    this.ignoreCase = ignoreCase;
+    List<Map<Character, Integer>> trie = new ArrayList<>();
+    List<List<Integer>> ends = new ArrayList<>();
+    trie.add(new TreeMap<Character, Integer>());
+    ends.add(new ArrayList<Integer>());
+    for (int i = 0; i < needles.size(); i++) {
+      String needle = needles.get(i);
+      int state = 0;
+      for (int j = 0; j < needle.length(); j++) {
+        char c = fold(needle.charAt(j));
+        Integer next = trie.get(state).get(c);
+        if (next == null) {
+          next = trie.size();
+          trie.get(state).put(c, next);
+          trie.add(new TreeMap<Character, Integer>());
+          ends.add(new ArrayList<Integer>());
+        }
+        state = next;
+      }
+      ends.get(state).add(i);
+    }
+    int stateCount = trie.size();
+    this.labels = new char[stateCount][];
+    this.targets = new int[stateCount][];
+    this.needles = new int[stateCount][];
+    for (int state = 0; state < stateCount; state++) {
+      Map<Character, Integer> transitions = trie.get(state);
+      labels[state] = new char[transitions.size()];
+      targets[state] = new int[transitions.size()];
+      int i = 0;
+      for (Map.Entry<Character, Integer> transition : transitions.entrySet()) {
+        labels[state][i] = transition.getKey();
+        targets[state][i] = transition.getValue();
+        i++;
+      }
+      List<Integer> stateNeedles = ends.get(state);
+      this.needles[state] = stateNeedles.isEmpty() ? NO_NEEDLES : new int[stateNeedles.size()];
+      for (int j = 0; j < stateNeedles.size(); j++) {
+        this.needles[state][j] = stateNeedles.get(j);
+      }
+    }
+    this.rootTransitions = new int[128];
+    for (int i = 0; i < labels[0].length; i++) {
+      if (labels[0][i] < 128) {
+        rootTransitions[labels[0][i]] = targets[0][i];
+      }
+    }
+    this.failures = new int[stateCount];
+    this.outputLinks = new int[stateCount];
+    outputLinks[0] = -1;
+    Deque<Integer> queue = new ArrayDeque<>();
+    for (int child : targets[0]) {
+      failures[child] = 0;
+      outputLinks[child] = this.needles[0].length > 0 ? 0 : -1;
+      queue.add(child);
+    }
+    while (!queue.isEmpty()) {
+      int state = queue.poll();
+      for (int i = 0; i < labels[state].length; i++) {
+        char c = labels[state][i];
+        int child = targets[state][i];
+        int failure = failures[state];
+        int next;
+        while ((next = transition(failure, c)) == -1 && failure != 0) {
+          failure = failures[failure];
+        }
+        failures[child] = next;
+        int link = failures[child];
+        outputLinks[child] = this.needles[link].length > 0 ? link : outputLinks[link];
+        queue.add(child);
+      }
+    }
+  }
+
+  /**
+   * Returns the number of needles.
+   */
+  public int size() {
+    return needleStrings.size();
+  }
+
+  /**
+   * Returns the needle with the index.
+   */
+  public String needle(int index) {
+    return needleStrings.get(index);
+  }
+
+  /**
+   * Returns true when any of the needles occurs in the input.
+   */
+  public boolean containsAny(CharSequence input) {
+    if (needles[0].length > 0) {
+      return true;
+    }
+    int state = 0;
+    for (int i = 0; i < input.length(); i++) {
+      state = next(state, input.charAt(i));
+      if (needles[state].length > 0 || outputLinks[state] != -1) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Returns the indexes of the needles that occur in the input, in ascending
+   * order.
+   */
+  public int[] findAll(CharSequence input) {
+    int size = needleStrings.size();
+    boolean[] found = new boolean[size];
+    int remaining = size;
+    int state = 0;
+    remaining -= mark(0, found);
+    for (int i = 0; i < input.length() && remaining > 0; i++) {
+      state = next(state, input.charAt(i));
+      for (int output = state; output != -1; output = outputLinks[output]) {
+        remaining -= mark(output, found);
+      }
+    }
+    int[] indexes = new int[size - remaining];
+    int j = 0;
+    for (int i = 0; i < size; i++) {
+      if (found[i]) {
+        indexes[j++] = i;
+      }
+    }
+    return indexes;
+  }
+
+  /**
+   * Returns the leftmost occurrence of any of the needles in the input, and
+   * of the occurrences that start there the one of the needle with the
+   * lowest index, or null when none of the needles occur.
+   * <p>
+   * The scan stops as soon as no later occurrence can start before the one
+   * that has been found.
+   */
+  public Match findFirst(CharSequence input) {
+    int bestStart = Integer.MAX_VALUE;
+    int bestNeedle = -1;
+    int state = 0;
+    for (int end = 0; end <= input.length(); end++) {
+      if (end > 0) {
+        state = next(state, input.charAt(end - 1));
+      }
+      for (int output = state; output != -1; output = outputLinks[output]) {
+        for (int needle : needles[output]) {
+          int start = end - needleLengths[needle];
+          if (start < bestStart || (start == bestStart && needle < bestNeedle)) {
+            bestStart = start;
+            bestNeedle = needle;
+          }
+        }
+      }
+      if (end - maxNeedleLength >= bestStart) {
+        break;
+      }
+    }
+    return bestNeedle == -1 ? null : new Match(bestNeedle, bestStart, bestStart + needleLengths[bestNeedle]);
+  }
+
+  /**
+   * An occurrence of a needle in an input.
+   */
+  public static class Match {
+    private final int needle;
+    private final int start;
+    private final int end;
+
+    Match(int needle, int start, int end) {
+      this.needle = needle;
+      this.start = start;
+      this.end = end;
+    }
+
+    /**
+     * Returns the index of the needle.
+     */
+    public int needle() {
+      return needle;
+    }
+
+    public int start() {
+      return start;
+    }
+
+    public int end() {
+      return end;
+    }
+  }
+
+  private int mark(int state, boolean[] found) {
+    int marked = 0;
+    for (int needle : needles[state]) {
+      if (!found[needle]) {
+        found[needle] = true;
+        marked++;
+      }
+    }
+    return marked;
+  }
+
+  private char fold(char c) {
+    return ignoreCase ? Character.toLowerCase(Character.toUpperCase(c)) : c;
+  }
+
+  private int next(int state, char c) {
+    c = fold(c);
+    while (true) {
+      int next = transition(state, c);
+      if (next != -1) {
+        return next;
+      } else if (state == 0) {
+        return 0;
+      }
+      state = failures[state];
+    }
+  }
+
+  /**
+   * Returns the target of the transition from the state, or -1 when there is
+   * none, except from the root which leads back to itself.
+   */
+  private int transition(int state, char c) {
+    if (state == 0 && c < 128) {
+      return rootTransitions[c];
+    }
+    int i = Arrays.binarySearch(labels[state], c);
+    if (i >= 0) {
+      return targets[state][i];
+    }
+    return state == 0 ? 0 : -1;
+  }
+}
@@ -0,0 +1,52 @@
+package io.burt.jmespath.contrib.util;
+
+/**
+ * Recognizes and parses integer literals without throwing for strings that
+ * are not integers, for the runtimes and functions that read numbers from
+ * their text, like the lazily parsed numbers of Gson.
+ */
+public final class IntegerLiterals {
+  private static final long MULTIPLICATION_LIMIT = Long.MIN_VALUE / 10;
+
+  private IntegerLiterals() { }
+
+  /**
+   * Returns whether the string is an optional minus sign followed by digits,
+   * with a value in the range of <code>long</code>.
+   * <p>
+   * The value is accumulated as a negative number, which has room for
+   * {@link Long#MIN_VALUE}, so that overflow is detected in the same scan.
+   */
+  public static boolean isIntegerLiteral(String str) {
+    int length = str.length();
+    int i = length > 0 && str.charAt(0) == '-' ? 1 : 0;
+    if (i == length) {
+      return false;
+    }
+    long negated = 0;
+    for (; i < length; i++) {
+      int digit = str.charAt(i) - '0';
+      if (digit < 0 || digit > 9 || negated < MULTIPLICATION_LIMIT) {
+        return false;
+      }
+      negated *= 10;
+      if (negated < Long.MIN_VALUE + digit) {
+        return false;
+      }
+      negated -= digit;
+    }
+    return str.charAt(0) == '-' || negated != Long.MIN_VALUE;
+  }
+
+  /**
+   * Parses a string for which {@link #isIntegerLiteral} is true.
+   */
+  public static long parseIntegerLiteral(String str) {
+    boolean negative = str.charAt(0) == '-';
+    long negated = 0;
+    for (int i = negative ? 1 : 0; i < str.length(); i++) {
+      negated = negated * 10 - (str.charAt(i) - '0');
+    }
+    return negative ? negated : -negated;
+  }
+}
@@ -0,0 +1,173 @@
+package io.burt.jmespath.contrib.util;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A thread safe, size bounded cache that evicts the least recently used
+ * entries when it is full.
+ * <p>
+ * The cache is split into a number of segments that are locked independently,
+ * so that threads looking up different keys rarely contend. Each segment
+ * evicts its own least recently used entry, which means that the eviction
+ * order over the whole cache is only approximately LRU.
+ * <p>
+ * The cache keeps track of the number of hits, misses and evictions, which
+ * can be used to tune its size.
+ */
+public class LruCache<K, V> {
+  private static final int MAX_SEGMENTS = 16;
+  private static final int MIN_SEGMENT_SIZE = 8;
+
+  private final Segment<K, V>[] segments;
+  private final int segmentMask;
+  private final int maximumSize;
+
+  public LruCache(int maximumSize) {
+    if (maximumSize < 1) {
+      throw new IllegalArgumentException(String.format("Maximum size must be positive, was %d", maximumSize));
+    }
+    int segmentCount = Math.min(MAX_SEGMENTS, Math.max(1, Integer.highestOneBit(maximumSize / MIN_SEGMENT_SIZE)));
+    this.maximumSize = maximumSize;
+    this.segmentMask = segmentCount - 1;
+    this.segments = newSegments(segmentCount);
+    for (int i = 0; i < segmentCount; i++) {
+      int capacity = maximumSize / segmentCount + (i < maximumSize % segmentCount ? 1 : 0);
+      segments[i] = new Segment<>(capacity);
+    }
+  }
+
+  /**
+   * Returns the value cached for the key, or null when there is none.
+   */
+  public V get(K key) {
+    return segmentFor(key).get(key);
+  }
+
+  /**
+   * Caches the value for the key, possibly evicting the least recently used
+   * entry, and returns the value previously cached for the key, if any.
+   */
+  public V put(K key, V value) {
+    return segmentFor(key).put(key, value);
+  }
+
+  /**
+   * Removes all entries, but keeps the statistics.
+   */
+  public void clear() {
+    for (Segment<K, V> segment : segments) {
+      segment.clear();
+    }
+  }
+
+  public int size() {
+    int size = 0;
+    for (Segment<K, V> segment : segments) {
+      size += segment.size();
+    }
+    return size;
+  }
+
+  public int maximumSize() {
+    return maximumSize;
+  }
+
+  public long hitCount() {
+    long count = 0;
+    for (Segment<K, V> segment : segments) {
+      count += segment.hitCount();
+    }
+    return count;
+  }
+
+  public long missCount() {
+    long count = 0;
+    for (Segment<K, V> segment : segments) {
+      count += segment.missCount();
+    }
+    return count;
+  }
+
+  public long evictionCount() {
+    long count = 0;
+    for (Segment<K, V> segment : segments) {
+      count += segment.evictionCount();
+    }
+    return count;
+  }
+
+  @SuppressWarnings("unchecked")
+  private static <K, V> Segment<K, V>[] newSegments(int count) {
+    return (Segment<K, V>[]) new Segment<?, ?>[count];
+  }
+
+  private Segment<K, V> segmentFor(K key) {
+    int h = key.hashCode();
+    h ^= (h >>> 16);
+    h *= 0x85ebca6b;
+    h ^= (h >>> 13);
+    return segments[h & segmentMask];
+  }
+
+  @SuppressWarnings("serial")
+  private static class Segment<K, V> extends LinkedHashMap<K, V> {
+    private final int capacity;
+    private long hits;
+    private long misses;
+    private long evictions;
+
+    Segment(int capacity) {
+      super(16, 0.75f, true);
+      this.capacity = capacity;
+    }
+
+    @Override
+    public synchronized V get(Object key) {
+      V value = super.get(key);
+      if (value == null) {
+        misses++;
+      } else {
+        hits++;
+      }
+      return value;
+    }
+
+    @Override
+    public synchronized V put(K key, V value) {
+      return super.put(key, value);
+    }
+
+    @Override
+    public synchronized void clear() {
+      super.clear();
+    }
+
+    @Override
+    public synchronized int size() {
+      return super.size();
+    }
+
+    synchronized long hitCount() {
+      return hits;
+    }
+
+    synchronized long missCount() {
+      return misses;
+    }
+
+    synchronized long evictionCount() {
+      return evictions;
+    }
+
+    @Override
+    protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
+      if (super.size() > capacity) {
+        evictions++;
+        return true;
+      } else {
+        return false;
+      }
+    }
+  }
+}
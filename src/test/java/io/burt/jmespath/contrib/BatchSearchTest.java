@@ -0,0 +1,229 @@
+package io.burt.jmespath.contrib;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.google.gson.JsonElement;
+
+import io.burt.jmespath.Adapter;
+import io.burt.jmespath.Expression;
+import io.burt.jmespath.RuntimeConfiguration;
+import io.burt.jmespath.contrib.function.ConcatFunction;
+import io.burt.jmespath.contrib.function.LowerCaseFunction;
+import io.burt.jmespath.contrib.function.MatchesFunction;
+import io.burt.jmespath.contrib.function.MeanFunction;
+import io.burt.jmespath.contrib.function.NormalizeSpaceFunction;
+import io.burt.jmespath.contrib.function.ReplaceFunction;
+import io.burt.jmespath.contrib.function.SubstringAfterFunction;
+import io.burt.jmespath.contrib.function.SumOfFunction;
+import io.burt.jmespath.contrib.function.TokenizeFunction;
+import io.burt.jmespath.contrib.function.TranslateFunction;
+import io.burt.jmespath.contrib.function.UpperCaseFunction;
+import io.burt.jmespath.contrib.node.SpecializingNodeFactory;
+import io.burt.jmespath.function.ArgumentTypeException;
+import io.burt.jmespath.function.FunctionRegistry;
+import io.burt.jmespath.gson.GsonRuntime;
+import io.burt.jmespath.jackson.JacksonRuntime;
+import io.burt.jmespath.node.NodeFactory;
+
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+
+public class BatchSearchTest {
+  private static final String EXPRESSION =
+    "{" +
+      "name: concat(upper_case(substring_after(name, ' ')), ', ', lower_case(name))," +
+      "admin: matches(role, '^adm[a-z]+$', 'i')," +
+      "tags: tokenize(normalize_space(replace(tags, '[;,]', ' ')), '\\s+')," +
+      "code: translate(name, 'aeiou', 'AEIOU')," +
+      "total: sum_of(scores)," +
+      "mean: mean(scores)" +
+    "}";
+
+  @Rule
+  public ExpectedException thrown = ExpectedException.none();
+
+  private ExecutorService executor;
+
+  @Before
+  public void setUp() {
+    executor = Executors.newFixedThreadPool(4);
+  }
+
+  @After
+  public void tearDown() {
+    executor.shutdownNow();
+  }
+
+  private static FunctionRegistry contribFunctions() {
+    return FunctionRegistry.defaultRegistry().extend(
+      new ConcatFunction(),
+      new LowerCaseFunction(),
+      new MatchesFunction(),
+      new MeanFunction(),
+      new NormalizeSpaceFunction(),
+      new ReplaceFunction(),
+      new SubstringAfterFunction(),
+      new SumOfFunction(),
+      new TokenizeFunction(),
+      new TranslateFunction(),
+      new UpperCaseFunction()
+    );
+  }
+
+  private static Adapter<JsonNode> specializingJacksonRuntime() {
+    RuntimeConfiguration configuration = RuntimeConfiguration.builder().withFunctionRegistry(contribFunctions()).build();
+    return new JacksonRuntime(configuration) {
+      private final NodeFactory<JsonNode> nodeFactory = new SpecializingNodeFactory<>(this);
+
+      @Override
+      public NodeFactory<JsonNode> nodeFactory() { return nodeFactory; }
+    };
+  }
+
+  private static <T> List<T> documents(Adapter<T> runtime, int count) {
+    List<T> documents = new ArrayList<>(count);
+    for (int i = 0; i < count; i++) {
+      documents.add(runtime.parseString(String.format(
+        "{\"name\": \"user%d lastname%d\", \"role\": \"%s\", \"tags\": \"a%d; b%d,c  d\", \"scores\": [%d, %d, %d.5]}",
+        i, i % 97, i % 3 == 0 ? "Admin" : "user", i % 5, i % 7, i, i * 2, i % 11
+      )));
+    }
+    return documents;
+  }
+
+  private static <T> List<T> searchSequentially(Expression<T> expression, List<T> documents) {
+    List<T> results = new ArrayList<>(documents.size());
+    for (T document : documents) {
+      results.add(expression.search(document));
+    }
+    return results;
+  }
+
+  @Test
+  public void searchesAListOnAForkJoinPool() {
+    Adapter<JsonNode> runtime = specializingJacksonRuntime();
+    Expression<JsonNode> expression = runtime.compile(EXPRESSION);
+    List<JsonNode> documents = documents(runtime, 10000);
+    ForkJoinPool pool = new ForkJoinPool(4);
+    try {
+      assertThat(new BatchSearch(pool).search(expression, documents), is(searchSequentially(expression, documents)));
+    } finally {
+      pool.shutdown();
+    }
+  }
+
+  @Test
+  public void searchesAListOnTheDefaultPool() {
+    GsonRuntime runtime = new GsonRuntime(RuntimeConfiguration.builder().withFunctionRegistry(contribFunctions()).build());
+    Expression<JsonElement> expression = runtime.compile(EXPRESSION);
+    List<JsonElement> documents = documents(runtime, 10000);
+    assertThat(new BatchSearch().search(expression, documents), is(searchSequentially(expression, documents)));
+  }
+
+  @Test
+  public void searchesAListOnAnExecutor() {
+    Adapter<JsonNode> runtime = specializingJacksonRuntime();
+    Expression<JsonNode> expression = runtime.compile(EXPRESSION);
+    List<JsonNode> documents = documents(runtime, 10000);
+    assertThat(new BatchSearch(executor, 4).search(expression, documents), is(searchSequentially(expression, documents)));
+  }
+
+  @Test
+  public void searchesALinkedList() {
+    Adapter<JsonNode> runtime = specializingJacksonRuntime();
+    Expression<JsonNode> expression = runtime.compile(EXPRESSION);
+    List<JsonNode> documents = documents(runtime, 1000);
+    assertThat(new BatchSearch().search(expression, new LinkedList<>(documents)), is(searchSequentially(expression, documents)));
+  }
+
+  @Test
+  public void searchesTheDocumentsOfAnIterator() {
+    Adapter<JsonNode> runtime = specializingJacksonRuntime();
+    Expression<JsonNode> expression = runtime.compile(EXPRESSION);
+    List<JsonNode> documents = documents(runtime, 10000);
+    assertThat(new BatchSearch(executor, 8).search(expression, documents.iterator()), is(searchSequentially(expression, documents)));
+    assertThat(new BatchSearch().search(expression, documents.iterator()), is(searchSequentially(expression, documents)));
+  }
+
+  @Test
+  public void searchesSequentiallyWithAParallelismOfOne() {
+    Adapter<JsonNode> runtime = specializingJacksonRuntime();
+    Expression<JsonNode> expression = runtime.compile(EXPRESSION);
+    List<JsonNode> documents = documents(runtime, 100);
+    BatchSearch batchSearch = new BatchSearch(executor, 1);
+    assertThat(batchSearch.search(expression, documents), is(searchSequentially(expression, documents)));
+    assertThat(batchSearch.search(expression, documents.iterator()), is(searchSequentially(expression, documents)));
+  }
+
+  @Test
+  public void returnsAnEmptyListForNoDocuments() {
+    Adapter<JsonNode> runtime = specializingJacksonRuntime();
+    Expression<JsonNode> expression = runtime.compile(EXPRESSION);
+    assertThat(new BatchSearch().search(expression, Collections.<JsonNode>emptyList()), is(empty()));
+    assertThat(new BatchSearch(executor, 4).search(expression, Collections.<JsonNode>emptyList().iterator()), is(empty()));
+  }
+
+  @Test
+  public void completesWhenTheExecutorIsBusy() throws Exception {
+    final CountDownLatch latch = new CountDownLatch(1);
+    ExecutorService singleThreadExecutor = Executors.newSingleThreadExecutor();
+    try {
+      singleThreadExecutor.submit(new Runnable() {
+        @Override
+        public void run() {
+          try {
+            latch.await();
+          } catch (InterruptedException ie) {
+            Thread.currentThread().interrupt();
+          }
+        }
+      });
+      Adapter<JsonNode> runtime = specializingJacksonRuntime();
+      Expression<JsonNode> expression = runtime.compile(EXPRESSION);
+      List<JsonNode> documents = documents(runtime, 1000);
+      assertThat(new BatchSearch(singleThreadExecutor, 4).search(expression, documents), is(searchSequentially(expression, documents)));
+    } finally {
+      latch.countDown();
+      singleThreadExecutor.shutdownNow();
+    }
+  }
+
+  @Test
+  public void throwsTheFirstExceptionOnAForkJoinPool() {
+    Adapter<JsonNode> runtime = specializingJacksonRuntime();
+    List<JsonNode> documents = documents(runtime, 1000);
+    documents.set(500, runtime.parseString("{\"name\": 3}"));
+    thrown.expect(ArgumentTypeException.class);
+    new BatchSearch().search(runtime.compile("lower_case(name)"), documents);
+  }
+
+  @Test
+  public void throwsTheFirstExceptionOnAnExecutor() {
+    Adapter<JsonNode> runtime = specializingJacksonRuntime();
+    List<JsonNode> documents = documents(runtime, 1000);
+    documents.set(500, runtime.parseString("{\"name\": 3}"));
+    thrown.expect(ArgumentTypeException.class);
+    new BatchSearch(executor, 4).search(runtime.compile("lower_case(name)"), documents.iterator());
+  }
+
+  @Test
+  public void parallelismMustBePositive() {
+    thrown.expect(IllegalArgumentException.class);
+    new BatchSearch(executor, 0);
+  }
+}
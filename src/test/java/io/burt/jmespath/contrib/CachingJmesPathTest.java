@@ -0,0 +1,137 @@
+package io.burt.jmespath.contrib;
+
+import java.util.Arrays;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import io.burt.jmespath.Expression;
+import io.burt.jmespath.RuntimeConfiguration;
+import io.burt.jmespath.contrib.function.LowerCaseFunction;
+import io.burt.jmespath.function.FunctionRegistry;
+import io.burt.jmespath.jackson.JacksonRuntime;
+import io.burt.jmespath.parser.ParseException;
+
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.Assert.assertThat;
+
+public class CachingJmesPathTest {
+  @Rule
+  public ExpectedException thrown = ExpectedException.none();
+
+  private final JacksonRuntime runtime = new JacksonRuntime();
+
+  @Test
+  public void compilesEachExpressionOnce() {
+    CachingJmesPath<JsonNode> cachingRuntime = new CachingJmesPath<>(runtime, 8);
+    Expression<JsonNode> expression1 = cachingRuntime.compile("foo.bar");
+    Expression<JsonNode> expression2 = cachingRuntime.compile("foo.bar");
+    assertThat(expression1, is(sameInstance(expression2)));
+    assertThat(cachingRuntime.missCount(), is(1L));
+    assertThat(cachingRuntime.hitCount(), is(1L));
+    assertThat(cachingRuntime.size(), is(1));
+  }
+
+  @Test
+  public void cachedExpressionsSearchLikeUncachedOnes() {
+    FunctionRegistry functionRegistry = FunctionRegistry.defaultRegistry().extend(new LowerCaseFunction());
+    JacksonRuntime contribRuntime = new JacksonRuntime(RuntimeConfiguration.builder().withFunctionRegistry(functionRegistry).build());
+    CachingJmesPath<JsonNode> cachingRuntime = new CachingJmesPath<>(contribRuntime);
+    JsonNode input = contribRuntime.parseString("{\"foo\": \"BAR\"}");
+    cachingRuntime.compile("lower_case(foo)");
+    JsonNode result = cachingRuntime.compile("lower_case(foo)").search(input);
+    assertThat(result, is(contribRuntime.parseString("\"bar\"")));
+    assertThat(cachingRuntime.runtime(), is(sameInstance((Object) contribRuntime)));
+  }
+
+  @Test
+  public void evictsTheLeastRecentlyUsedExpressionWhenFull() {
+    CachingJmesPath<JsonNode> cachingRuntime = new CachingJmesPath<>(runtime, 2);
+    Expression<JsonNode> expression = cachingRuntime.compile("a");
+    cachingRuntime.compile("b");
+    cachingRuntime.compile("a");
+    cachingRuntime.compile("c");
+    assertThat(cachingRuntime.size(), is(2));
+    assertThat(cachingRuntime.evictionCount(), is(1L));
+    assertThat(cachingRuntime.compile("a"), is(sameInstance(expression)));
+    assertThat(cachingRuntime.missCount(), is(3L));
+  }
+
+  @Test
+  public void doesNotCacheInvalidExpressions() {
+    CachingJmesPath<JsonNode> cachingRuntime = new CachingJmesPath<>(runtime, 8);
+    try {
+      cachingRuntime.compile("foo[");
+    } catch (ParseException pe) {
+      // expected
+    }
+    assertThat(cachingRuntime.size(), is(0));
+    thrown.expect(ParseException.class);
+    cachingRuntime.compile("foo[");
+  }
+
+  @Test
+  public void warmUpCompilesAllExpressions() {
+    CachingJmesPath<JsonNode> cachingRuntime = new CachingJmesPath<>(runtime, 8);
+    cachingRuntime.warmUp(Arrays.asList("a", "b.c", "d[0]"));
+    assertThat(cachingRuntime.size(), is(3));
+    cachingRuntime.compile("b.c");
+    assertThat(cachingRuntime.hitCount(), is(1L));
+    assertThat(cachingRuntime.missCount(), is(3L));
+  }
+
+  @Test
+  public void warmUpStopsAtTheFirstInvalidExpression() {
+    CachingJmesPath<JsonNode> cachingRuntime = new CachingJmesPath<>(runtime, 8);
+    try {
+      cachingRuntime.warmUp(Arrays.asList("a", "b[", "c"));
+    } catch (ParseException pe) {
+      // expected
+    }
+    assertThat(cachingRuntime.size(), is(1));
+  }
+
+  @Test
+  public void weakValuesAreReturnedWhileTheyAreReferenced() {
+    CachingJmesPath<JsonNode> cachingRuntime = new CachingJmesPath<>(runtime, 8, true);
+    Expression<JsonNode> expression = cachingRuntime.compile("foo.bar");
+    System.gc();
+    assertThat(cachingRuntime.compile("foo.bar"), is(sameInstance(expression)));
+    assertThat(cachingRuntime.hasWeakValues(), is(true));
+    assertThat(cachingRuntime.hitCount(), is(1L));
+  }
+
+  @Test
+  public void countsCollectedWeakValuesAsMisses() throws Exception {
+    CachingJmesPath<JsonNode> cachingRuntime = new CachingJmesPath<>(runtime, 8, true);
+    int compilations = 0;
+    while (compilations < 20 && cachingRuntime.missCount() < 2) {
+      cachingRuntime.compile("foo.bar");
+      compilations++;
+      System.gc();
+      Thread.sleep(10);
+    }
+    assertThat(cachingRuntime.hitCount() + cachingRuntime.missCount(), is((long) compilations));
+    assertThat(cachingRuntime.size(), is(1));
+  }
+
+  @Test
+  public void clearRemovesAllExpressionsButKeepsTheStatistics() {
+    CachingJmesPath<JsonNode> cachingRuntime = new CachingJmesPath<>(runtime, 8);
+    cachingRuntime.compile("foo");
+    cachingRuntime.clear();
+    cachingRuntime.compile("foo");
+    assertThat(cachingRuntime.size(), is(1));
+    assertThat(cachingRuntime.missCount(), is(2L));
+  }
+
+  @Test
+  public void maximumSizeMustBePositive() {
+    thrown.expect(IllegalArgumentException.class);
+    new CachingJmesPath<>(runtime, 0);
+  }
+}
@@ -0,0 +1,168 @@
+package io.burt.jmespath.contrib;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+
+import io.burt.jmespath.Expression;
+import io.burt.jmespath.JmesPath;
+import io.burt.jmespath.JmesPathException;
+import io.burt.jmespath.RuntimeConfiguration;
+import io.burt.jmespath.contrib.function.ConcatFunction;
+import io.burt.jmespath.contrib.function.MatchesAnyFunction;
+import io.burt.jmespath.contrib.function.MatchesFunction;
+import io.burt.jmespath.contrib.function.ReplaceFunction;
+import io.burt.jmespath.contrib.function.TokenizeFunction;
+import io.burt.jmespath.contrib.function.TranslateFunction;
+import io.burt.jmespath.function.FunctionRegistry;
+import io.burt.jmespath.jackson.JacksonRuntime;
+
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThan;
+import static org.hamcrest.Matchers.nullValue;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+
+public class DeadlineTest {
+  @Rule
+  public ExpectedException thrown = ExpectedException.none();
+
+  private final JmesPath<JsonNode> runtime = new JacksonRuntime(new RuntimeConfiguration.Builder()
+    .withFunctionRegistry(FunctionRegistry.defaultRegistry().extend(
+      new ConcatFunction(),
+      new MatchesFunction(),
+      new MatchesAnyFunction(),
+      new ReplaceFunction(),
+      new TokenizeFunction(),
+      new TranslateFunction()
+    ))
+    .build());
+
+  private static JsonNode string(String s) {
+    return JsonNodeFactory.instance.textNode(s);
+  }
+
+  private static String csvLine(int fields) {
+    StringBuilder line = new StringBuilder();
+    for (int i = 0; i < fields; i++) {
+      line.append(i).append(',');
+    }
+    return line.toString();
+  }
+
+  private static String repeat(String s, int n) {
+    StringBuilder repeated = new StringBuilder();
+    for (int i = 0; i < n; i++) {
+      repeated.append(s);
+    }
+    return repeated.toString();
+  }
+
+  @Test
+  public void searchesLikeTheExpressionWhenTheDeadlineIsNotPassed() {
+    Expression<JsonNode> expression = runtime.compile("concat(tokenize(@, ',')[1], translate(@, 'abc', 'ABC'))");
+    JsonNode result = Deadline.after(1, TimeUnit.MINUTES).search(expression, string("a,b,c"));
+    assertThat(result, is(string("bA,B,C")));
+  }
+
+  @Test
+  public void interruptsCatastrophicBacktracking() {
+    Expression<JsonNode> expression = runtime.compile("matches(@, '^(.*?,){11}P')");
+    JsonNode input = string(csvLine(60));
+    long start = System.nanoTime();
+    try {
+      Deadline.after(100, TimeUnit.MILLISECONDS).search(expression, input);
+      fail("Expected the search to be aborted");
+    } catch (DeadlineExceededException dee) {
+      assertThat(System.nanoTime() - start, is(lessThan(TimeUnit.SECONDS.toNanos(10))));
+    }
+  }
+
+  @Test
+  public void interruptsReplace() {
+    Expression<JsonNode> expression = runtime.compile("replace(@, '^(.*?,){11}P', '-')");
+    thrown.expect(DeadlineExceededException.class);
+    Deadline.after(100, TimeUnit.MILLISECONDS).search(expression, string(csvLine(60)));
+  }
+
+  @Test
+  public void limitsTheNumberOfSteps() {
+    Expression<JsonNode> expression = runtime.compile("tokenize(@, ',')");
+    JsonNode input = string(repeat("abc,", 1000));
+    assertThat(Deadline.afterSteps(5000).search(expression, input).size(), is(1001));
+    thrown.expect(DeadlineExceededException.class);
+    thrown.expectMessage("3000 steps");
+    Deadline.afterSteps(3000).search(expression, input);
+  }
+
+  @Test
+  public void countsTheCharactersThatFunctionsProduce() {
+    Deadline deadline = Deadline.afterSteps(Long.MAX_VALUE);
+    deadline.search(runtime.compile("concat(@, @)"), string(repeat("a", 100)));
+    assertThat(deadline.steps(), is(202L));
+    deadline.search(runtime.compile("translate(@, 'a', 'b')"), string(repeat("a", 100)));
+    assertThat(deadline.steps(), is(302L));
+  }
+
+  @Test
+  public void countsTheCharactersThatRegularExpressionsRead() {
+    Deadline deadline = Deadline.afterSteps(Long.MAX_VALUE);
+    deadline.search(runtime.compile("matches_any(@, ['x$', 'y$'])"), string(repeat("a", 10000)));
+    assertThat(deadline.steps(), is(greaterThan(9000L)));
+  }
+
+  @Test
+  public void isOnlyBoundDuringTheSearch() {
+    final Deadline deadline = Deadline.afterSteps(10);
+    assertThat(Deadline.current(), is(nullValue()));
+    Expression<JsonNode> expression = new Expression<JsonNode>() {
+      @Override
+      public JsonNode search(JsonNode input) {
+        assertThat(Deadline.current(), is(sameInstance(deadline)));
+        return input;
+      }
+    };
+    deadline.search(expression, string("a"));
+    assertThat(Deadline.current(), is(nullValue()));
+  }
+
+  @Test
+  public void restoresTheOuterDeadline() {
+    final Deadline outer = Deadline.afterSteps(10);
+    final Deadline inner = Deadline.afterSteps(10);
+    Expression<JsonNode> expression = new Expression<JsonNode>() {
+      @Override
+      public JsonNode search(JsonNode input) {
+        inner.search(runtime.compile("@"), input);
+        assertThat(Deadline.current(), is(sameInstance(outer)));
+        return input;
+      }
+    };
+    outer.search(expression, string("a"));
+    assertThat(Deadline.current(), is(nullValue()));
+  }
+
+  @Test
+  public void doesNotWrapInputWithoutADeadline() {
+    String input = "abc";
+    assertThat(Deadline.interruptible(input), is(sameInstance((CharSequence) input)));
+  }
+
+  @Test
+  public void isAJmesPathException() {
+    try {
+      Deadline.afterSteps(0).check(1);
+      fail("Expected the deadline to be exceeded");
+    } catch (RuntimeException re) {
+      assertThat(re, is(instanceOf(JmesPathException.class)));
+    }
+  }
+}
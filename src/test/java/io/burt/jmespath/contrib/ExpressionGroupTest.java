@@ -0,0 +1,181 @@
+package io.burt.jmespath.contrib;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.PatternSyntaxException;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import io.burt.jmespath.Adapter;
+import io.burt.jmespath.RuntimeConfiguration;
+import io.burt.jmespath.contrib.function.ConcatFunction;
+import io.burt.jmespath.contrib.function.LowerCaseFunction;
+import io.burt.jmespath.contrib.function.MatchesFunction;
+import io.burt.jmespath.contrib.function.TokenizeFunction;
+import io.burt.jmespath.contrib.metrics.FunctionInstrumentation;
+import io.burt.jmespath.contrib.node.SpecializingNodeFactory;
+import io.burt.jmespath.function.FunctionRegistry;
+import io.burt.jmespath.jackson.JacksonRuntime;
+import io.burt.jmespath.node.NodeFactory;
+import io.burt.jmespath.parser.ParseException;
+
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.Assert.assertThat;
+
+public class ExpressionGroupTest {
+  @Rule
+  public ExpectedException thrown = ExpectedException.none();
+
+  private final FunctionInstrumentation instrumentation = new FunctionInstrumentation();
+
+  private final Adapter<JsonNode> runtime = createRuntime(instrumentation.instrument(
+    FunctionRegistry.defaultRegistry().extend(
+      new ConcatFunction(),
+      new LowerCaseFunction(),
+      new MatchesFunction(),
+      new TokenizeFunction()
+    )
+  ));
+
+  private final JsonNode event = runtime.parseString(
+    "{\"request\": {\"path\": \"/api/v1/users\", \"headers\": {\"host\": \"API.Example.COM\", \"origin\": \"x\"}}, \"items\": [{\"n\": \"A\"}, {\"n\": \"B\"}]}"
+  );
+
+  private static Adapter<JsonNode> createRuntime(FunctionRegistry functionRegistry) {
+    RuntimeConfiguration configuration = RuntimeConfiguration.builder().withFunctionRegistry(functionRegistry).build();
+    return new JacksonRuntime(configuration) {
+      private final NodeFactory<JsonNode> nodeFactory = new SpecializingNodeFactory<>(this);
+
+      @Override
+      public NodeFactory<JsonNode> nodeFactory() { return nodeFactory; }
+    };
+  }
+
+  private void assertSameResultsAsSeparateSearches(ExpressionGroup<JsonNode> group) {
+    Map<String, JsonNode> results = group.search(event);
+    assertThat(results.keySet(), contains(group.names().toArray()));
+    for (String name : group.names()) {
+      assertThat(name, results.get(name), is(group.expression(name).search(event)));
+    }
+  }
+
+  @Test
+  public void returnsTheResultOfEachExpressionInOrder() {
+    Map<String, String> expressions = new LinkedHashMap<>();
+    expressions.put("host", "lower_case(request.headers.host)");
+    expressions.put("api", "matches(lower_case(request.headers.host), '^api\\.')");
+    expressions.put("segments", "tokenize(request.path, '/')");
+    expressions.put("version", "tokenize(request.path, '/')[2]");
+    ExpressionGroup<JsonNode> group = new ExpressionGroup<>(runtime, expressions);
+    Map<String, JsonNode> results = group.search(event);
+    assertThat(results.keySet(), contains("host", "api", "segments", "version"));
+    assertThat(results.get("host").textValue(), is("api.example.com"));
+    assertThat(results.get("api").booleanValue(), is(true));
+    assertThat(results.get("segments").size(), is(4));
+    assertThat(results.get("version").textValue(), is("v1"));
+  }
+
+  @Test
+  public void evaluatesSharedFunctionCallsOncePerDocument() {
+    List<String> expressions = Arrays.asList(
+      "lower_case(request.headers.host)",
+      "matches(lower_case(request.headers.host), '^api\\.')",
+      "concat(lower_case(request.headers.host), request.path)",
+      "tokenize(request.path, '/')",
+      "tokenize(request.path, '/')[0]"
+    );
+    ExpressionGroup<JsonNode> group = new ExpressionGroup<>(runtime, expressions);
+    group.search(event);
+    assertThat(instrumentation.statistics("lower_case").callCount(), is(1L));
+    assertThat(instrumentation.statistics("tokenize").callCount(), is(1L));
+    group.search(event);
+    assertThat(instrumentation.statistics("lower_case").callCount(), is(2L));
+    assertSameResultsAsSeparateSearches(group);
+  }
+
+  @Test
+  public void namesResultsAfterTheExpressionsByDefault() {
+    ExpressionGroup<JsonNode> group = new ExpressionGroup<>(runtime, Arrays.asList("request.path", "request.headers.host"));
+    assertThat(group.search(event).get("request.path").textValue(), is("/api/v1/users"));
+    assertThat(group.names(), contains("request.path", "request.headers.host"));
+  }
+
+  @Test
+  public void sharesCommonPrefixesOfChains() {
+    ExpressionGroup<JsonNode> group = new ExpressionGroup<>(runtime, Arrays.asList(
+      "request.headers.host",
+      "request.headers.origin",
+      "lower_case(request.headers.host)"
+    ));
+    assertThat(group.sharedSubexpressionCount(), is(2));
+    assertSameResultsAsSeparateSearches(group);
+  }
+
+  @Test
+  public void sharesNothingWhenNothingIsRepeated() {
+    ExpressionGroup<JsonNode> group = new ExpressionGroup<>(runtime, Arrays.asList(
+      "a.b.c",
+      "x.b.c",
+      "lower_case(y)"
+    ));
+    assertThat(group.sharedSubexpressionCount(), is(0));
+  }
+
+  @Test
+  public void sharedSubexpressionsInProjectionsAreEvaluatedForEachElement() {
+    ExpressionGroup<JsonNode> group = new ExpressionGroup<>(runtime, Arrays.asList(
+      "items[*].lower_case(n)",
+      "map(&lower_case(n), items)",
+      "items[?lower_case(n) == 'b'].n",
+      "concat(lower_case(items[0].n), lower_case(items[1].n))"
+    ));
+    Map<String, JsonNode> results = group.search(event);
+    assertThat(results.get("items[*].lower_case(n)"), is(runtime.parseString("[\"a\", \"b\"]")));
+    assertThat(results.get("map(&lower_case(n), items)"), is(runtime.parseString("[\"a\", \"b\"]")));
+    assertThat(results.get("items[?lower_case(n) == 'b'].n"), is(runtime.parseString("[\"B\"]")));
+    assertThat(results.get("concat(lower_case(items[0].n), lower_case(items[1].n))").textValue(), is("ab"));
+    assertSameResultsAsSeparateSearches(group);
+  }
+
+  @Test
+  public void searchesDifferentDocumentsIndependently() {
+    ExpressionGroup<JsonNode> group = new ExpressionGroup<>(runtime, Arrays.asList(
+      "lower_case(request.headers.host)",
+      "concat(lower_case(request.headers.host), '!')"
+    ));
+    JsonNode otherEvent = runtime.parseString("{\"request\": {\"headers\": {\"host\": \"OTHER\"}}}");
+    assertThat(group.search(event).get("lower_case(request.headers.host)").textValue(), is("api.example.com"));
+    assertThat(group.search(otherEvent).get("lower_case(request.headers.host)").textValue(), is("other"));
+    assertThat(group.search(otherEvent).get("concat(lower_case(request.headers.host), '!')").textValue(), is("other!"));
+  }
+
+  @Test
+  public void compiledExpressionsWorkOnTheirOwn() {
+    ExpressionGroup<JsonNode> group = new ExpressionGroup<>(runtime, Arrays.asList(
+      "lower_case(request.headers.host)",
+      "concat(lower_case(request.headers.host), '!')"
+    ));
+    assertThat(group.expression("concat(lower_case(request.headers.host), '!')").search(event).textValue(), is("api.example.com!"));
+    assertThat(group.expression("foo"), is(nullValue()));
+  }
+
+  @Test
+  public void specializesLiteralArguments() {
+    thrown.expect(PatternSyntaxException.class);
+    new ExpressionGroup<>(runtime, Arrays.asList("matches(@, '?')"));
+  }
+
+  @Test
+  public void throwsWhenAnExpressionIsInvalid() {
+    thrown.expect(ParseException.class);
+    new ExpressionGroup<>(runtime, Arrays.asList("foo", "bar["));
+  }
+}
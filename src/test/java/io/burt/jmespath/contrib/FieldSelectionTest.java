@@ -0,0 +1,132 @@
+package io.burt.jmespath.contrib;
+
+import java.util.Arrays;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import io.burt.jmespath.Adapter;
+import io.burt.jmespath.RuntimeConfiguration;
+import io.burt.jmespath.contrib.function.ConcatFunction;
+import io.burt.jmespath.contrib.function.UpperCaseFunction;
+import io.burt.jmespath.function.FunctionRegistry;
+import io.burt.jmespath.jackson.JacksonRuntime;
+import io.burt.jmespath.parser.ParseException;
+
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.Assert.assertThat;
+
+public class FieldSelectionTest {
+  @Rule
+  public ExpectedException thrown = ExpectedException.none();
+
+  private final Adapter<JsonNode> runtime = new JacksonRuntime(RuntimeConfiguration.builder()
+    .withFunctionRegistry(FunctionRegistry.defaultRegistry().extend(new ConcatFunction(), new UpperCaseFunction()))
+    .build());
+
+  private FieldSelection select(String expression) {
+    return FieldSelection.of(runtime, expression);
+  }
+
+  @Test
+  public void selectsTheFieldsThatArePassedToFunctions() {
+    assertThat(select("concat(user.first, ' ', upper_case(user.last))").paths(), contains("user.first", "user.last"));
+  }
+
+  @Test
+  public void selectsEverythingForTheCurrentNode() {
+    assertThat(select("@"), is(sameInstance(FieldSelection.ALL)));
+    assertThat(select("@").paths(), contains("@"));
+    assertThat(select("sort_by(@, &a)").isAll(), is(true));
+    assertThat(select("foo || @").isAll(), is(true));
+  }
+
+  @Test
+  public void selectsNothingForLiterals() {
+    assertThat(select("'foo'").paths(), is(empty()));
+    assertThat(select("`{\"a\": 1}`.a").paths(), is(empty()));
+  }
+
+  @Test
+  public void selectsAllOfValuesThatAreReturned() {
+    assertThat(select("user").paths(), contains("user"));
+    assertThat(select("keys(user)").paths(), contains("user"));
+    assertThat(select("user.address.city").field("user").field("address").field("city").isAll(), is(true));
+  }
+
+  @Test
+  public void selectsThroughArrays() {
+    assertThat(select("items[*].name").paths(), contains("items.name"));
+    assertThat(select("items[0].name").paths(), contains("items.name"));
+    assertThat(select("items[1:3].tags[].id").paths(), contains("items.tags.id"));
+  }
+
+  @Test
+  public void selectsTheFieldsThatFiltersTest() {
+    assertThat(select("items[?price > `10`].name").paths(), contains("items.name", "items.price"));
+    assertThat(select("items[?in_stock].name").paths(), contains("items.in_stock", "items.name"));
+    assertThat(select("items[?price > `10`]").paths(), contains("items"));
+  }
+
+  @Test
+  public void selectsAllFieldsForWildcards() {
+    FieldSelection selection = select("users.*.name");
+    assertThat(selection.paths(), contains("users.*.name"));
+    assertThat(selection.field("users").field("anyone").field("name").isAll(), is(true));
+    assertThat(selection.field("users").field("anyone").field("age"), is(nullValue()));
+  }
+
+  @Test
+  public void mergesWildcardsWithNamedFields() {
+    FieldSelection selection = FieldSelection.of(runtime, Arrays.asList("users.*.name", "users.admin.email"));
+    assertThat(selection.paths(), contains("users.*.name", "users.admin.email", "users.admin.name"));
+    assertThat(selection.field("users").field("admin").field("name").isAll(), is(true));
+  }
+
+  @Test
+  public void selectsThroughPipes() {
+    assertThat(select("user | address.city").paths(), contains("user.address.city"));
+    assertThat(select("items[*].name | [0]").paths(), contains("items.name"));
+  }
+
+  @Test
+  public void selectsTheFieldsOfMultiSelects() {
+    assertThat(select("{name: user.name, tags: [tags[0], labels]}").paths(), contains("labels", "tags", "user.name"));
+    assertThat(select("user.[name, age]").paths(), contains("user.age", "user.name"));
+  }
+
+  @Test
+  public void selectsBothOperandsOfConditions() {
+    assertThat(select("a.b || c.d").paths(), contains("a.b", "c.d"));
+    assertThat(select("a && !b.c").paths(), contains("a", "b.c"));
+    assertThat(select("(a || b).c").paths(), contains("a", "b.c"));
+  }
+
+  @Test
+  public void selectsTheArgumentsOfFunctionsWithExpressionReferences() {
+    assertThat(select("max_by(people, &age).name").paths(), contains("people"));
+    assertThat(select("map(&name, people[*].details)").paths(), contains("people.details"));
+  }
+
+  @Test
+  public void combinesSelections() {
+    FieldSelection selection = FieldSelection.union(select("a.b"), select("a.c.d"));
+    assertThat(selection, is(FieldSelection.of(runtime, Arrays.asList("a.b", "a.c.d"))));
+    assertThat(selection.paths(), contains("a.b", "a.c.d"));
+    assertThat(FieldSelection.union(selection, FieldSelection.ALL), is(sameInstance(FieldSelection.ALL)));
+    assertThat(FieldSelection.union(FieldSelection.NONE, selection), is(selection));
+  }
+
+  @Test
+  public void throwsWhenTheExpressionIsInvalid() {
+    thrown.expect(ParseException.class);
+    select("foo[");
+  }
+}
@@ -0,0 +1,255 @@
+package io.burt.jmespath.contrib;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+import org.junit.rules.TemporaryFolder;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import io.burt.jmespath.RuntimeConfiguration;
+import io.burt.jmespath.contrib.function.ConcatFunction;
+import io.burt.jmespath.contrib.function.LowerCaseFunction;
+import io.burt.jmespath.contrib.jackson.ContribJacksonRuntime;
+import io.burt.jmespath.contrib.tape.TapeRuntime;
+import io.burt.jmespath.contrib.tape.TapeValue;
+import io.burt.jmespath.function.FunctionRegistry;
+import io.burt.jmespath.jackson.JacksonRuntime;
+
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+
+public class NdjsonSearchTest {
+  private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+  @Rule
+  public ExpectedException thrown = ExpectedException.none();
+
+  @Rule
+  public TemporaryFolder folder = new TemporaryFolder();
+
+  private final JacksonRuntime runtime = new JacksonRuntime(RuntimeConfiguration.builder()
+    .withFunctionRegistry(FunctionRegistry.defaultRegistry().extend(new ConcatFunction(), new LowerCaseFunction()))
+    .build());
+
+  private Path write(String content) throws IOException {
+    Path path = folder.newFile().toPath();
+    Files.write(path, content.getBytes(UTF_8));
+    return path;
+  }
+
+  private Path writeLines(int count) throws IOException {
+    StringBuilder content = new StringBuilder();
+    for (int i = 0; i < count; i++) {
+      content.append(String.format("{\"id\": %d, \"level\": \"%s\", \"host\": \"Host-%d\"}\n", i, i % 3 == 0 ? "error" : "info", i % 7));
+    }
+    return write(content.toString());
+  }
+
+  private List<String> expectedResults(int count) {
+    List<String> results = new ArrayList<>();
+    for (int i = 0; i < count; i++) {
+      if (i % 3 == 0) {
+        results.add(String.format("\"%d:host-%d\"", i, i % 7));
+      }
+    }
+    return results;
+  }
+
+  private static List<String> lines(ByteArrayOutputStream output) {
+    String str = new String(output.toByteArray(), UTF_8);
+    if (str.isEmpty()) {
+      return Collections.emptyList();
+    }
+    return Arrays.asList(str.split("\n"));
+  }
+
+  private static final String ERRORS = "level == 'error' && concat(to_string(id), ':', lower_case(host)) || null";
+
+  @Test
+  public void writesTheResultsInTheOrderOfTheLines() throws Exception {
+    Path input = writeLines(1000);
+    ByteArrayOutputStream output = new ByteArrayOutputStream();
+    NdjsonSearch<JsonNode> search = NdjsonSearch.builder(runtime, runtime.compile(ERRORS))
+      .withParallelism(4)
+      .withChunkSize(256)
+      .build();
+    NdjsonSearch.Statistics statistics = search.search(input, Channels.newChannel(output));
+    assertThat(lines(output), is(expectedResults(1000)));
+    assertThat(statistics.lineCount(), is(1000L));
+    assertThat(statistics.resultCount(), is(334L));
+    assertThat(statistics.bytesRead(), is(Files.size(input)));
+    assertThat(statistics.bytesWritten(), is((long) output.size()));
+    assertThat(statistics.megabytesPerSecond(), is(greaterThan(0.0)));
+  }
+
+  @Test
+  public void writesTheResultsInTheOrderTheChunksCompleteWhenUnordered() throws Exception {
+    Path input = writeLines(1000);
+    ByteArrayOutputStream output = new ByteArrayOutputStream();
+    NdjsonSearch<JsonNode> search = NdjsonSearch.builder(runtime, runtime.compile(ERRORS))
+      .withParallelism(4)
+      .withChunkSize(256)
+      .unordered()
+      .build();
+    search.search(input, Channels.newChannel(output));
+    List<String> results = new ArrayList<>(lines(output));
+    List<String> expected = new ArrayList<>(expectedResults(1000));
+    Collections.sort(results);
+    Collections.sort(expected);
+    assertThat(results, is(expected));
+  }
+
+  @Test
+  public void runsWithOneChunkInFlight() throws Exception {
+    Path input = writeLines(100);
+    ByteArrayOutputStream output = new ByteArrayOutputStream();
+    NdjsonSearch<JsonNode> search = NdjsonSearch.builder(runtime, runtime.compile(ERRORS))
+      .withChunkSize(100)
+      .withMaxChunksInFlight(1)
+      .build();
+    search.search(input, Channels.newChannel(output));
+    assertThat(lines(output), is(expectedResults(100)));
+  }
+
+  @Test
+  public void runsOnTheGivenExecutor() throws Exception {
+    ExecutorService executor = Executors.newFixedThreadPool(2);
+    try {
+      Path input = writeLines(100);
+      ByteArrayOutputStream output = new ByteArrayOutputStream();
+      NdjsonSearch<JsonNode> search = NdjsonSearch.builder(runtime, runtime.compile(ERRORS))
+        .withExecutor(executor)
+        .withParallelism(2)
+        .withChunkSize(300)
+        .build();
+      search.search(input, Channels.newChannel(output));
+      search.search(input, Channels.newChannel(output));
+      List<String> expected = new ArrayList<>(expectedResults(100));
+      expected.addAll(expectedResults(100));
+      assertThat(lines(output), is(expected));
+    } finally {
+      executor.shutdown();
+    }
+  }
+
+  @Test
+  public void writesNullsWhenAskedTo() throws Exception {
+    Path input = writeLines(4);
+    ByteArrayOutputStream output = new ByteArrayOutputStream();
+    NdjsonSearch.builder(runtime, runtime.compile(ERRORS)).writeNulls().build().search(input, Channels.newChannel(output));
+    assertThat(lines(output), is(Arrays.asList("\"0:host-0\"", "null", "null", "\"3:host-3\"")));
+  }
+
+  @Test
+  public void handlesBlankLinesCarriageReturnsAndNoFinalLineBreak() throws Exception {
+    Path input = write("{\"a\": 1}\r\n\r\n  \n{\"a\": \"åäö\"}\r\n\t{\"a\": 3}");
+    ByteArrayOutputStream output = new ByteArrayOutputStream();
+    NdjsonSearch.Statistics statistics = NdjsonSearch.builder(runtime, runtime.compile("a")).withChunkSize(8).build().search(input, Channels.newChannel(output));
+    assertThat(lines(output), is(Arrays.asList("1", "\"åäö\"", "3")));
+    assertThat(statistics.lineCount(), is(3L));
+  }
+
+  @Test
+  public void handlesLinesLongerThanTheChunkSize() throws Exception {
+    StringBuilder longString = new StringBuilder();
+    for (int i = 0; i < 10000; i++) {
+      longString.append('x');
+    }
+    Path input = write(String.format("{\"a\": \"%s\"}\n{\"a\": \"y\"}\n", longString));
+    ByteArrayOutputStream output = new ByteArrayOutputStream();
+    NdjsonSearch.builder(runtime, runtime.compile("length(a)")).withChunkSize(16).build().search(input, Channels.newChannel(output));
+    assertThat(lines(output), is(Arrays.asList("10000", "1")));
+  }
+
+  @Test
+  public void writesTheResultsAsJson() throws Exception {
+    Path input = write("{\"a\": \"say \\\"hi\\\"\\n\\\\\", \"b\": [1, {\"c\": true}]}\n");
+    ByteArrayOutputStream output = new ByteArrayOutputStream();
+    NdjsonSearch.builder(runtime, runtime.compile("[a, b]")).build().search(input, Channels.newChannel(output));
+    assertThat(runtime.parseString(lines(output).get(0)), is(runtime.parseString("[\"say \\\"hi\\\"\\n\\\\\", [1, {\"c\": true}]]")));
+    output.reset();
+    NdjsonSearch.builder(runtime, runtime.compile("a")).build().search(input, Channels.newChannel(output));
+    assertThat(runtime.parseString(lines(output).get(0)).textValue(), is("say \"hi\"\n\\"));
+  }
+
+  @Test
+  public void writesNothingForAnEmptyFile() throws Exception {
+    ByteArrayOutputStream output = new ByteArrayOutputStream();
+    NdjsonSearch.Statistics statistics = NdjsonSearch.builder(runtime, runtime.compile("a")).build().search(write(""), Channels.newChannel(output));
+    assertThat(output.size(), is(0));
+    assertThat(statistics.lineCount(), is(0L));
+  }
+
+  @Test
+  public void skipsInvalidLinesWhenAskedTo() throws Exception {
+    Path input = write("{\"a\": 1}\n{\"a\": \n{\"a\": 3}\n");
+    ByteArrayOutputStream output = new ByteArrayOutputStream();
+    NdjsonSearch.Statistics statistics = NdjsonSearch.builder(runtime, runtime.compile("a")).skipInvalidLines().build().search(input, Channels.newChannel(output));
+    assertThat(lines(output), is(Arrays.asList("1", "3")));
+    assertThat(statistics.invalidLineCount(), is(1L));
+  }
+
+  @Test
+  public void stopsAtInvalidLinesByDefault() throws Exception {
+    Path input = write("{\"a\": 1}\n{\"a\": \n{\"a\": 3}\n");
+    thrown.expect(RuntimeException.class);
+    NdjsonSearch.builder(runtime, runtime.compile("a")).build().search(input, Channels.newChannel(new ByteArrayOutputStream()));
+  }
+
+  @Test
+  public void parsesTheLinesFromBytesWhenTheRuntimeCan() throws Exception {
+    Path input = write("{\"a\": \"\u00e5\u00e4\u00f6\"}\r\n  \n{\"a\": \n{\"a\": \"\u2603\"}");
+    ContribJacksonRuntime jacksonRuntime = new ContribJacksonRuntime();
+    ByteArrayOutputStream output = new ByteArrayOutputStream();
+    NdjsonSearch.Statistics statistics = NdjsonSearch.builder(jacksonRuntime, jacksonRuntime.compile("a")).skipInvalidLines().build().search(input, Channels.newChannel(output));
+    assertThat(lines(output), is(Arrays.asList("\"\u00e5\u00e4\u00f6\"", "\"\u2603\"")));
+    assertThat(statistics.lineCount(), is(3L));
+    assertThat(statistics.invalidLineCount(), is(1L));
+  }
+
+  @Test
+  public void parsesLongLinesFromBytes() throws Exception {
+    StringBuilder content = new StringBuilder();
+    for (int i = 0; i < 100; i++) {
+      content.append("{\"id\": ").append(i).append(", \"padding\": \"");
+      for (int j = 0; j < i * 10; j++) {
+        content.append('x');
+      }
+      content.append("\"}\n");
+    }
+    Path input = write(content.toString());
+    TapeRuntime tapeRuntime = new TapeRuntime();
+    ByteArrayOutputStream output = new ByteArrayOutputStream();
+    NdjsonSearch<TapeValue> search = NdjsonSearch.builder(tapeRuntime, tapeRuntime.compile("id"))
+      .withParallelism(4)
+      .withChunkSize(4096)
+      .build();
+    search.search(input, Channels.newChannel(output));
+    List<String> expected = new ArrayList<>();
+    for (int i = 0; i < 100; i++) {
+      expected.add(String.valueOf(i));
+    }
+    assertThat(lines(output), is(expected));
+  }
+
+  @Test
+  public void parallelismMustBePositive() {
+    thrown.expect(IllegalArgumentException.class);
+    NdjsonSearch.builder(runtime, runtime.compile("a")).withParallelism(0);
+  }
+}
@@ -8,8 +8,15 @@ import com.google.gson.JsonElement;
 
 import io.burt.jmespath.Adapter;
 import io.burt.jmespath.RuntimeConfiguration;
+import io.burt.jmespath.contrib.gson.ContribGsonRuntime;
+import io.burt.jmespath.contrib.jackson.ContribJacksonRuntime;
+import io.burt.jmespath.contrib.node.SpecializingNodeFactory;
+import io.burt.jmespath.contrib.regex.LinearRegexEngine;
+import io.burt.jmespath.contrib.tape.TapeRuntime;
+import io.burt.jmespath.contrib.tape.TapeValue;
 import io.burt.jmespath.gson.GsonRuntime;
 import io.burt.jmespath.jackson.JacksonRuntime;
+import io.burt.jmespath.node.NodeFactory;
 
 @RunWith(Enclosed.class)
 public class JmesPathFunctionTest {
@@ -23,6 +30,122 @@ public class JmesPathFunctionTest {
     protected Adapter<JsonElement> createRuntime(RuntimeConfiguration configuration) { return new GsonRuntime(configuration); }
   }
 
+  public static class SpecializingJacksonStringFunctionTest extends JmesPathRuntimeWithStringFunctionTest<JsonNode> {
+    @Override
+    protected Adapter<JsonNode> createRuntime(RuntimeConfiguration configuration) {
+      return new JacksonRuntime(configuration) {
+        private final NodeFactory<JsonNode> nodeFactory = new SpecializingNodeFactory<>(this);
+
+        @Override
+        public NodeFactory<JsonNode> nodeFactory() { return nodeFactory; }
+      };
+    }
+  }
+
+  public static class SpecializingGsonStringFunctionTest extends JmesPathRuntimeWithStringFunctionTest<JsonElement> {
+    @Override
+    protected Adapter<JsonElement> createRuntime(RuntimeConfiguration configuration) {
+      return new GsonRuntime(configuration) {
+        private final NodeFactory<JsonElement> nodeFactory = new SpecializingNodeFactory<>(this);
+
+        @Override
+        public NodeFactory<JsonElement> nodeFactory() { return nodeFactory; }
+      };
+    }
+  }
+
+  public static class LinearRegexJacksonStringFunctionTest extends JmesPathRuntimeWithStringFunctionTest<JsonNode> {
+    @Override
+    protected Adapter<JsonNode> createRuntime(RuntimeConfiguration configuration) { return new JacksonRuntime(configuration); }
+
+    @Override
+    protected PatternCache createPatternCache() { return new PatternCache(PatternCache.DEFAULT_MAXIMUM_SIZE, new LinearRegexEngine(null)); }
+  }
+
+  public static class SpecializingLinearRegexGsonStringFunctionTest extends JmesPathRuntimeWithStringFunctionTest<JsonElement> {
+    @Override
+    protected Adapter<JsonElement> createRuntime(RuntimeConfiguration configuration) {
+      return new GsonRuntime(configuration) {
+        private final NodeFactory<JsonElement> nodeFactory = new SpecializingNodeFactory<>(this);
+
+        @Override
+        public NodeFactory<JsonElement> nodeFactory() { return nodeFactory; }
+      };
+    }
+
+    @Override
+    protected PatternCache createPatternCache() { return new PatternCache(PatternCache.DEFAULT_MAXIMUM_SIZE, new LinearRegexEngine(null)); }
+  }
+
+  public static class TapeStringFunctionTest extends JmesPathRuntimeWithStringFunctionTest<TapeValue> {
+    @Override
+    protected Adapter<TapeValue> createRuntime(RuntimeConfiguration configuration) { return new TapeRuntime(configuration); }
+  }
+
+  public static class SpecializingTapeStringFunctionTest extends JmesPathRuntimeWithStringFunctionTest<TapeValue> {
+    @Override
+    protected Adapter<TapeValue> createRuntime(RuntimeConfiguration configuration) {
+      return new TapeRuntime(configuration) {
+        private final NodeFactory<TapeValue> nodeFactory = new SpecializingNodeFactory<>(this);
+
+        @Override
+        public NodeFactory<TapeValue> nodeFactory() { return nodeFactory; }
+      };
+    }
+  }
+
+  public static class JacksonDateFunctionTest extends JmesPathRuntimeWithDateFunctionTest<JsonNode> {
+    @Override
+    protected Adapter<JsonNode> createRuntime(RuntimeConfiguration configuration) { return new JacksonRuntime(configuration); }
+  }
+
+  public static class GsonDateFunctionTest extends JmesPathRuntimeWithDateFunctionTest<JsonElement> {
+    @Override
+    protected Adapter<JsonElement> createRuntime(RuntimeConfiguration configuration) { return new GsonRuntime(configuration); }
+  }
+
+  public static class SpecializingJacksonDateFunctionTest extends JmesPathRuntimeWithDateFunctionTest<JsonNode> {
+    @Override
+    protected Adapter<JsonNode> createRuntime(RuntimeConfiguration configuration) {
+      return new JacksonRuntime(configuration) {
+        private final NodeFactory<JsonNode> nodeFactory = new SpecializingNodeFactory<>(this);
+
+        @Override
+        public NodeFactory<JsonNode> nodeFactory() { return nodeFactory; }
+      };
+    }
+  }
+
+  public static class TapeDateFunctionTest extends JmesPathRuntimeWithDateFunctionTest<TapeValue> {
+    @Override
+    protected Adapter<TapeValue> createRuntime(RuntimeConfiguration configuration) { return new TapeRuntime(configuration); }
+  }
+
+  public static class JacksonCollectionFunctionTest extends JmesPathRuntimeWithCollectionFunctionTest<JsonNode> {
+    @Override
+    protected Adapter<JsonNode> createRuntime(RuntimeConfiguration configuration) { return new JacksonRuntime(configuration); }
+  }
+
+  public static class GsonCollectionFunctionTest extends JmesPathRuntimeWithCollectionFunctionTest<JsonElement> {
+    @Override
+    protected Adapter<JsonElement> createRuntime(RuntimeConfiguration configuration) { return new GsonRuntime(configuration); }
+  }
+
+  public static class TapeCollectionFunctionTest extends JmesPathRuntimeWithCollectionFunctionTest<TapeValue> {
+    @Override
+    protected Adapter<TapeValue> createRuntime(RuntimeConfiguration configuration) { return new TapeRuntime(configuration); }
+  }
+
+  public static class ContribJacksonCollectionFunctionTest extends JmesPathRuntimeWithCollectionFunctionTest<JsonNode> {
+    @Override
+    protected Adapter<JsonNode> createRuntime(RuntimeConfiguration configuration) { return new ContribJacksonRuntime(configuration); }
+  }
+
+  public static class ContribGsonCollectionFunctionTest extends JmesPathRuntimeWithCollectionFunctionTest<JsonElement> {
+    @Override
+    protected Adapter<JsonElement> createRuntime(RuntimeConfiguration configuration) { return new ContribGsonRuntime(configuration); }
+  }
+
   public static class JacksonMathFunctionTest extends JmesPathRuntimeWithMathFunctionTest<JsonNode> {
     @Override
     protected Adapter<JsonNode> createRuntime(RuntimeConfiguration configuration) { return new JacksonRuntime(configuration); }
@@ -32,4 +155,19 @@ public class JmesPathFunctionTest {
     @Override
     protected Adapter<JsonElement> createRuntime(RuntimeConfiguration configuration) { return new GsonRuntime(configuration); }
   }
+
+  public static class TapeMathFunctionTest extends JmesPathRuntimeWithMathFunctionTest<TapeValue> {
+    @Override
+    protected Adapter<TapeValue> createRuntime(RuntimeConfiguration configuration) { return new TapeRuntime(configuration); }
+  }
+
+  public static class ContribJacksonMathFunctionTest extends JmesPathRuntimeWithMathFunctionTest<JsonNode> {
+    @Override
+    protected Adapter<JsonNode> createRuntime(RuntimeConfiguration configuration) { return new ContribJacksonRuntime(configuration); }
+  }
+
+  public static class ContribGsonMathFunctionTest extends JmesPathRuntimeWithMathFunctionTest<JsonElement> {
+    @Override
+    protected Adapter<JsonElement> createRuntime(RuntimeConfiguration configuration) { return new ContribGsonRuntime(configuration); }
+  }
 }
@@ -124,4 +124,28 @@ public abstract class JmesPathRuntimeTest<T> {
         }
       };
     }
+
+    protected Matcher<T> jsonArrayOfNumbers(final Number... numbers) {
+      return new BaseMatcher<T>() {
+        @Override
+        @SuppressWarnings("unchecked")
+        public boolean matches(final Object n) {
+          List<T> input = runtime().toList((T) n);
+          if (input.size() != numbers.length) {
+            return false;
+          }
+          for (int i = 0; i < numbers.length; i++) {
+            if (!jsonNumber(numbers[i]).matches(input.get(i))) {
+              return false;
+            }
+          }
+          return true;
+        }
+
+        @Override
+        public void describeTo(Description description) {
+          description.appendText("JSON array ").appendValue(numbers);
+        }
+      };
+    }
 }
@@ -0,0 +1,213 @@
+package io.burt.jmespath.contrib.function;
+
+import io.burt.jmespath.Adapter;
+import io.burt.jmespath.RuntimeConfiguration;
+import io.burt.jmespath.function.ArgumentTypeException;
+import io.burt.jmespath.function.FunctionRegistry;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+
+public abstract class JmesPathRuntimeWithCollectionFunctionTest<T> extends JmesPathRuntimeTest<T> {
+  private FunctionRegistry functionRegistry = FunctionRegistry.defaultRegistry()
+          .extend(new CountByFunction(),
+                  new DistinctByFunction(),
+                  new DistinctFunction(),
+                  new GroupByFunction(),
+                  new IndexByFunction());
+
+  private Adapter<T> runtime = createRuntime(RuntimeConfiguration.builder()
+          .withFunctionRegistry(functionRegistry)
+          .build());
+
+  @Override
+  protected Adapter<T> runtime() { return runtime; }
+
+  @Rule
+  public ExpectedException thrown = ExpectedException.none();
+
+  private static final String PEOPLE = "[" +
+    "{\"name\": \"Alice\", \"team\": \"red\", \"age\": 30}," +
+    "{\"name\": \"Bob\", \"team\": \"blue\", \"age\": 25}," +
+    "{\"name\": \"Carol\", \"team\": \"red\", \"age\": 35}," +
+    "{\"name\": \"Dave\", \"age\": 40}," +
+    "{\"name\": \"Eve\", \"team\": \"blue\", \"age\": 30.0}" +
+    "]";
+
+  private void assertJson(T actual, String expected) {
+    assertThat(runtime().toString(actual), is(runtime().toString(parse(expected))));
+  }
+
+  @Test
+  public void groupByGroupsElementsByTheKeyInTheOrderTheKeysFirstOccur() {
+    T result = search("group_by(@, &team)", parse(PEOPLE));
+    assertJson(result, "{" +
+      "\"red\": [{\"name\": \"Alice\", \"team\": \"red\", \"age\": 30}, {\"name\": \"Carol\", \"team\": \"red\", \"age\": 35}]," +
+      "\"blue\": [{\"name\": \"Bob\", \"team\": \"blue\", \"age\": 25}, {\"name\": \"Eve\", \"team\": \"blue\", \"age\": 30.0}]" +
+      "}");
+  }
+
+  @Test
+  public void groupByCanBeCombinedWithOtherExpressions() {
+    T result = search("group_by(@, &team).*[].name", parse(PEOPLE));
+    assertJson(result, "[\"Alice\", \"Carol\", \"Bob\", \"Eve\"]");
+  }
+
+  @Test
+  public void groupByReturnsAnEmptyObjectForAnEmptyArray() {
+    assertJson(check("group_by(`[]`, &a)"), "{}");
+  }
+
+  @Test
+  public void indexByReturnsTheLastElementForEachKey() {
+    T result = search("index_by(@, &team)", parse(PEOPLE));
+    assertJson(result, "{" +
+      "\"red\": {\"name\": \"Carol\", \"team\": \"red\", \"age\": 35}," +
+      "\"blue\": {\"name\": \"Eve\", \"team\": \"blue\", \"age\": 30.0}" +
+      "}");
+  }
+
+  @Test
+  public void countByCountsTheElementsForEachKey() {
+    T result = search("count_by(@, &team)", parse(PEOPLE));
+    assertJson(result, "{\"red\": 2, \"blue\": 2}");
+  }
+
+  @Test
+  public void elementsWithANullKeyAreLeftOut() {
+    T result = search("count_by(@, &nickname)", parse(PEOPLE));
+    assertJson(result, "{}");
+  }
+
+  @Test
+  public void numbersThatAreEqualHaveTheSameKey() {
+    T result = search("count_by(@, &age)", parse(PEOPLE));
+    assertJson(result, "{\"30\": 2, \"25\": 1, \"35\": 1, \"40\": 1}");
+  }
+
+  @Test
+  public void nonStringKeysAreNamedByTheirJsonRepresentation() {
+    T input = parse("[true, false, 1, [1, 2], {\"a\": 1}]");
+    T result = search("count_by(@, &@)", input);
+    assertJson(result, "{\"true\": 1, \"false\": 1, \"1\": 1, \"[1,2]\": 1, \"{\\\"a\\\":1}\": 1}");
+  }
+
+  @Test
+  public void keysWithTheSameRepresentationEndUpInTheSameGroup() {
+    T result = search("group_by(@, &@)", parse("[1, \"1\", 2, 1]"));
+    assertJson(result, "{\"1\": [1, \"1\", 1], \"2\": [2]}");
+  }
+
+  @Test
+  public void objectKeysAreEquivalentRegardlessOfPropertyOrder() {
+    T input = parse("[" +
+      "{\"id\": 1, \"key\": {\"a\": 1, \"b\": [1, 2.0]}}," +
+      "{\"id\": 2, \"key\": {\"b\": [1.0, 2], \"a\": 1.0}}," +
+      "{\"id\": 3, \"key\": {\"a\": 1, \"c\": [1, 2]}}," +
+      "{\"id\": 4, \"key\": {\"a\": 1, \"b\": null}}," +
+      "{\"id\": 5, \"key\": {\"a\": 1, \"c\": null}}" +
+      "]");
+    T result = search("values(group_by(@, &key))[*][*].id", input);
+    assertJson(result, "[[1, 2], [3], [4], [5]]");
+  }
+
+  @Test
+  public void distinctKeepsTheFirstOccurrenceOfEachElement() {
+    assertJson(check("distinct(`[\"b\", \"a\", \"b\", \"c\", \"a\"]`)"), "[\"b\", \"a\", \"c\"]");
+    assertJson(check("distinct(`[3, 1, 3, 2, 1]`)"), "[3, 1, 2]");
+    assertJson(check("distinct(`[]`)"), "[]");
+    assertJson(check("distinct(`[null, null]`)"), "[null]");
+  }
+
+  @Test
+  public void distinctComparesElementsStructurally() {
+    T input = parse("[1, 1.0, \"1\", true, true, [1, 2], [1.0, 2], [2, 1], {\"a\": 1, \"b\": 2}, {\"b\": 2.0, \"a\": 1}, null]");
+    T result = search("distinct(@)", input);
+    assertJson(result, "[1, \"1\", true, [1, 2], [2, 1], {\"a\": 1, \"b\": 2}, null]");
+  }
+
+  @Test
+  public void distinctHandlesArraysThatStartWithOneKindOfElementAndContinueWithAnother() {
+    StringBuilder strings = new StringBuilder("[");
+    StringBuilder numbers = new StringBuilder("[");
+    for (int i = 0; i < 100; i++) {
+      strings.append(String.format("\"%d\", ", i % 40));
+      numbers.append(String.format("%d, ", i % 30));
+    }
+    String mixed = "1, \"1\", 2.5, 2.5, 29.0, {\"a\": [1]}, {\"a\": [1.0]}]";
+    T distinctStrings = search("distinct(@)", parse(strings + mixed));
+    T distinctNumbers = search("distinct(@)", parse(numbers + mixed));
+    assertThat(runtime().toList(distinctStrings).size(), is(40 + 4));
+    assertJson(search("[:2]", distinctStrings), "[\"0\", \"1\"]");
+    assertJson(search("[-4:]", distinctStrings), "[1, 2.5, 29.0, {\"a\": [1]}]");
+    assertThat(runtime().toList(distinctNumbers).size(), is(30 + 3));
+    assertJson(search("[:2]", distinctNumbers), "[0, 1]");
+    assertJson(search("[-3:]", distinctNumbers), "[\"1\", 2.5, {\"a\": [1]}]");
+  }
+
+  @Test
+  public void distinctOfManyElements() {
+    StringBuilder json = new StringBuilder("[");
+    for (int i = 0; i < 10000; i++) {
+      json.append(i % 1000).append(',');
+    }
+    json.append("0]");
+    T result = search("distinct(@)", parse(json.toString()));
+    assertThat(runtime().toList(result).size(), is(1000));
+    assertJson(search("distinct(@)[-1]", parse(json.toString())), "999");
+  }
+
+  @Test
+  public void distinctByKeepsTheFirstElementForEachKey() {
+    T result = search("distinct_by(@, &team)[*].name", parse(PEOPLE));
+    assertJson(result, "[\"Alice\", \"Bob\", \"Dave\"]");
+  }
+
+  @Test
+  public void distinctByComparesKeysStructurally() {
+    T result = search("distinct_by(@, &age)[*].name", parse(PEOPLE));
+    assertJson(result, "[\"Alice\", \"Bob\", \"Carol\", \"Dave\"]");
+  }
+
+  @Test
+  public void distinctRequiresAnArray() {
+    thrown.expect(ArgumentTypeException.class);
+    check("distinct('foo')");
+  }
+
+  @Test
+  public void requiresAnArray() {
+    thrown.expect(ArgumentTypeException.class);
+    check("group_by('foo', &a)");
+  }
+
+  @Test
+  public void requiresAnExpression() {
+    thrown.expect(ArgumentTypeException.class);
+    check("count_by(`[]`, 'a')");
+  }
+
+  @Test
+  public void repeatedKeysAreOnlyCountedOnce() {
+    T input = parse("{\"a\": 1, \"b\": 2, \"a\": 1}");
+    assertJson(search("keys(@)", input), "[\"a\", \"b\"]");
+    assertJson(search("length(@)", input), "2");
+    assertJson(search("length(values(@))", input), "2");
+  }
+
+  @Test
+  public void repeatedKeysAreOnlyCountedOnceInLargeObjects() {
+    StringBuilder json = new StringBuilder("{");
+    for (int i = 0; i < 40; i++) {
+      json.append(String.format("\"k%d\": %d, ", i % 30, i % 30));
+    }
+    json.append("\"last\": true}");
+    T input = parse(json.toString());
+    assertJson(search("length(@)", input), "31");
+    assertJson(search("length(values(@))", input), "31");
+    assertJson(search("keys(@)[-2:]", input), "[\"k29\", \"last\"]");
+  }
+}
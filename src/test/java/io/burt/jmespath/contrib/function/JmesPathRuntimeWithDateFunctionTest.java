@@ -0,0 +1,201 @@
+package io.burt.jmespath.contrib.function;
+
+import io.burt.jmespath.Adapter;
+import io.burt.jmespath.RuntimeConfiguration;
+import io.burt.jmespath.function.ArgumentTypeException;
+import io.burt.jmespath.function.FunctionRegistry;
+import io.burt.jmespath.parser.ParseException;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+
+public abstract class JmesPathRuntimeWithDateFunctionTest<T> extends JmesPathRuntimeTest<T> {
+  private DateFormatCache formatCache = new DateFormatCache(DateFormatCache.DEFAULT_MAXIMUM_SIZE);
+
+  private FunctionRegistry functionRegistry = FunctionRegistry.defaultRegistry()
+          .extend(new DateTruncFunction(),
+                  new FormatDateFunction(formatCache),
+                  new ParseDateFunction(formatCache),
+                  new ToEpochMillisFunction());
+
+  private Adapter<T> runtime = createRuntime(RuntimeConfiguration.builder()
+          .withFunctionRegistry(functionRegistry)
+          .build());
+
+  @Override
+  protected Adapter<T> runtime() { return runtime; }
+
+  @Rule
+  public ExpectedException thrown = ExpectedException.none();
+
+  @Test
+  public void parseDateNormalizesIsoDateTimesToUtc() {
+    assertThat(check("parse_date('2019-06-03T12:34:56.789+02:00')"), is(jsonString("2019-06-03T10:34:56.789Z")));
+    assertThat(check("parse_date('2019-06-03t12:34:56.123456789z')"), is(jsonString("2019-06-03T12:34:56.123Z")));
+    assertThat(check("parse_date('2019-06-03 12:34-0130')"), is(jsonString("2019-06-03T14:04:00.000Z")));
+    assertThat(check("parse_date('2019-06-03')"), is(jsonString("2019-06-03T00:00:00.000Z")));
+    assertThat(check("parse_date('2016-12-31T23:59:60Z')"), is(jsonString("2017-01-01T00:00:00.000Z")));
+  }
+
+  @Test
+  public void parseDateReturnsNullForStringsThatAreNotDateTimes() {
+    assertThat(check("parse_date('')"), is(jsonNull()));
+    assertThat(check("parse_date('yesterday')"), is(jsonNull()));
+    assertThat(check("parse_date('2019-02-29')"), is(jsonNull()));
+    assertThat(check("parse_date('2019-06-03T24:00:00Z')"), is(jsonNull()));
+    assertThat(check("parse_date('2019-06-03T12:34:56.Z')"), is(jsonNull()));
+    assertThat(check("parse_date('2019-06-03T12:34:56Z ')"), is(jsonNull()));
+    assertThat(check("parse_date('2019-6-3')"), is(jsonNull()));
+  }
+
+  @Test
+  public void parseDateWithAPattern() {
+    T result1 = check("parse_date('03/Jun/2019:12:34:56 +0200', 'dd/MMM/yyyy:HH:mm:ss Z')");
+    T result2 = check("parse_date('2019-06-03 12:34', 'yyyy-MM-dd HH:mm', 'Europe/Stockholm')");
+    T result3 = check("parse_date('2019-06-03', 'dd/MMM/yyyy')");
+    T result4 = check("parse_date('1 Jun 2019 trailing', 'd MMM yyyy')");
+    assertThat(result1, is(jsonString("2019-06-03T10:34:56.000Z")));
+    assertThat(result2, is(jsonString("2019-06-03T10:34:00.000Z")));
+    assertThat(result3, is(jsonNull()));
+    assertThat(result4, is(jsonNull()));
+  }
+
+  @Test
+  public void parseDateWithAPatternFromTheInput() {
+    T input = parse("{\"time\": \"2019-06-03 12:34\", \"pattern\": \"yyyy-MM-dd HH:mm\", \"zone\": \"America/New_York\"}");
+    assertThat(search("parse_date(time, pattern, zone)", input), is(jsonString("2019-06-03T16:34:00.000Z")));
+  }
+
+  @Test
+  public void parseDateIsStrict() {
+    assertThat(check("parse_date('2019-02-30', 'yyyy-MM-dd')"), is(jsonNull()));
+  }
+
+  @Test
+  public void parseDateThrowsOnInvalidPatterns() {
+    thrown.expect(IllegalArgumentException.class);
+    thrown.expectMessage("Illegal pattern character");
+    check("parse_date('2019', 'qqqq')");
+  }
+
+  @Test
+  public void parseDateThrowsOnUnknownTimeZones() {
+    thrown.expect(IllegalArgumentException.class);
+    thrown.expectMessage("Unknown time zone: Mars/Olympus_Mons");
+    check("parse_date('2019', 'yyyy', 'Mars/Olympus_Mons')");
+  }
+
+  @Test
+  public void parseDateRequiresAString() {
+    thrown.expect(ArgumentTypeException.class);
+    thrown.expectMessage(containsString("expected string but was number"));
+    check("parse_date(`1559565296000`)");
+  }
+
+  @Test
+  public void parseDateRequiresOneToThreeArguments() {
+    thrown.expect(ParseException.class);
+    check("parse_date('2019', 'yyyy', 'UTC', 'UTC')");
+  }
+
+  @Test
+  public void formatDateFormatsMillisecondsAsIso() {
+    assertThat(check("format_date(`0`)"), is(jsonString("1970-01-01T00:00:00.000Z")));
+    assertThat(check("format_date(`1559565296789`)"), is(jsonString("2019-06-03T12:34:56.789Z")));
+    assertThat(check("format_date(`-1`)"), is(jsonString("1969-12-31T23:59:59.999Z")));
+    assertThat(check("format_date(`1559565296789.9`)"), is(jsonString("2019-06-03T12:34:56.789Z")));
+    assertThat(check("format_date(`-62198755200000`)"), is(jsonString("-0001-01-01T00:00:00.000Z")));
+    assertThat(check("format_date(`253402300800000`)"), is(jsonString("+10000-01-01T00:00:00.000Z")));
+  }
+
+  @Test
+  public void formatDateWithAPattern() {
+    T result1 = check("format_date(`1559565296789`, 'EEE, d MMM yyyy HH:mm:ss.SSS Z')");
+    T result2 = check("format_date('2019-06-03T12:34:56Z', 'yyyy-MM-dd HH:mm z', 'Europe/Stockholm')");
+    T result3 = check("format_date('not a date', 'yyyy')");
+    assertThat(result1, is(jsonString("Mon, 3 Jun 2019 12:34:56.789 +0000")));
+    assertThat(result2, is(jsonString("2019-06-03 14:34 CEST")));
+    assertThat(result3, is(jsonNull()));
+  }
+
+  @Test
+  public void formatDateAndParseDateUseTheProlepticGregorianCalendar() {
+    T result1 = check("format_date('1500-03-01', 'yyyy-MM-dd')");
+    T result2 = check("parse_date('1500-03-01', 'yyyy-MM-dd')");
+    assertThat(result1, is(jsonString("1500-03-01")));
+    assertThat(result2, is(jsonString("1500-03-01T00:00:00.000Z")));
+  }
+
+  @Test
+  public void formatDateRequiresANumberOrAString() {
+    thrown.expect(ArgumentTypeException.class);
+    thrown.expectMessage(containsString("expected number or string but was boolean"));
+    check("format_date(`true`)");
+  }
+
+  @Test
+  public void toEpochMillisConvertsDateTimes() {
+    assertThat(check("to_epoch_millis('2019-06-03T12:34:56.789Z')"), is(jsonNumber(1559565296789L)));
+    assertThat(check("to_epoch_millis('1969-12-31T23:59:59.999Z')"), is(jsonNumber(-1)));
+    assertThat(check("to_epoch_millis('-0001-01-01')"), is(jsonNumber(-62198755200000L)));
+    assertThat(check("to_epoch_millis(`1559565296789.5`)"), is(jsonNumber(1559565296789L)));
+    assertThat(check("to_epoch_millis('1559565296789')"), is(jsonNull()));
+  }
+
+  @Test
+  public void toEpochMillisRoundTripsWithFormatDate() {
+    T result = check("to_epoch_millis(format_date(`1559565296789`))");
+    assertThat(runtime().toString(result), is("1559565296789"));
+  }
+
+  @Test
+  public void dateTruncTruncatesIsoDateTimes() {
+    T input = parse("{\"time\": \"2019-08-14T12:34:56.789+02:00\"}");
+    assertThat(search("date_trunc(time, 'year')", input), is(jsonString("2019-01-01T00:00:00.000Z")));
+    assertThat(search("date_trunc(time, 'quarter')", input), is(jsonString("2019-07-01T00:00:00.000Z")));
+    assertThat(search("date_trunc(time, 'month')", input), is(jsonString("2019-08-01T00:00:00.000Z")));
+    assertThat(search("date_trunc(time, 'week')", input), is(jsonString("2019-08-12T00:00:00.000Z")));
+    assertThat(search("date_trunc(time, 'day')", input), is(jsonString("2019-08-14T00:00:00.000Z")));
+    assertThat(search("date_trunc(time, 'HOUR')", input), is(jsonString("2019-08-14T10:00:00.000Z")));
+    assertThat(search("date_trunc(time, 'minute')", input), is(jsonString("2019-08-14T10:34:00.000Z")));
+    assertThat(search("date_trunc(time, 'second')", input), is(jsonString("2019-08-14T10:34:56.000Z")));
+  }
+
+  @Test
+  public void dateTruncTruncatesMilliseconds() {
+    assertThat(check("date_trunc(`1559565296789`, 'day')"), is(jsonNumber(1559520000000L)));
+    assertThat(check("date_trunc(`-1`, 'week')"), is(jsonNumber(-259200000L)));
+    assertThat(check("date_trunc(`-1`, 'year')"), is(jsonNumber(-31536000000L)));
+  }
+
+  @Test
+  public void dateTruncWithAUnitFromTheInput() {
+    T input = parse("{\"time\": 1559565296789, \"unit\": \"hour\"}");
+    assertThat(search("date_trunc(time, unit)", input), is(jsonNumber(1559563200000L)));
+  }
+
+  @Test
+  public void dateTruncReturnsNullForStringsThatAreNotDateTimes() {
+    assertThat(check("date_trunc('today', 'day')"), is(jsonNull()));
+  }
+
+  @Test
+  public void dateTruncThrowsOnUnknownUnits() {
+    thrown.expect(IllegalArgumentException.class);
+    thrown.expectMessage("Unknown date unit: fortnight");
+    check("date_trunc(`0`, 'fortnight')");
+  }
+
+  @Test
+  public void patternsAreCached() {
+    T input = parse("[\"2019-06-01\", \"2019-06-02\", \"2019-06-03\"]");
+    search("[*].parse_date(@, 'yyyy-MM-dd')", input);
+    search("[*].format_date(@, 'yyyy-MM-dd', 'UTC')", input);
+    assertThat(formatCache.size(), is(1));
+    assertThat(formatCache.missCount(), is(1L));
+  }
+}
@@ -2,6 +2,7 @@ package io.burt.jmespath.contrib.function;
 
 import io.burt.jmespath.Adapter;
 import io.burt.jmespath.RuntimeConfiguration;
+import io.burt.jmespath.contrib.sketch.InvalidSketchException;
 import io.burt.jmespath.function.ArgumentTypeException;
 import io.burt.jmespath.function.FunctionRegistry;
 import io.burt.jmespath.parser.ParseException;
@@ -9,6 +10,7 @@ import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.ExpectedException;
 
+import static org.hamcrest.Matchers.closeTo;
 import static org.hamcrest.Matchers.containsString;
 import static org.hamcrest.Matchers.is;
 import static org.junit.Assert.assertThat;
@@ -19,7 +21,18 @@ public abstract class JmesPathRuntimeWithMathFunctionTest<T> extends JmesPathRun
                     new AddFunction(),
                     new SubtractFunction(),
                     new MultiplyFunction(),
-                    new DivideFunction());
+                    new DivideFunction(),
+                    new SumOfFunction(),
+                    new ProductOfFunction(),
+                    new MinMaxFunction(),
+                    new MeanFunction(),
+                    new StddevFunction(),
+                    new ApproxDistinctFunction(),
+                    new ApproxPercentileFunction(),
+                    new ApproxTopKFunction(3),
+                    new MergeSketchesFunction(),
+                    new DistinctFunction(),
+                    new PowerFunction());
 
     private Adapter<T> runtime = createRuntime(RuntimeConfiguration.builder()
             .withFunctionRegistry(functionRegistry)
@@ -51,9 +64,9 @@ public abstract class JmesPathRuntimeWithMathFunctionTest<T> extends JmesPathRun
     }
 
     @Test
-    public void addRequiresTwoArgument() {
+    public void addRequiresAtLeastTwoArguments() {
         thrown.expect(ParseException.class);
-        thrown.expectMessage(containsString("invalid arity calling \"add\" (expected 2 but was 1)"));
+        thrown.expectMessage(containsString("invalid arity calling \"add\" (expected at least 2 but was 1)"));
         check("add(@)");
     }
 
@@ -115,9 +128,9 @@ public abstract class JmesPathRuntimeWithMathFunctionTest<T> extends JmesPathRun
     }
 
     @Test
-    public void multiplyRequiresTwoArgument() {
+    public void multiplyRequiresAtLeastTwoArguments() {
         thrown.expect(ParseException.class);
-        thrown.expectMessage(containsString("invalid arity calling \"multiply\" (expected 2 but was 1)"));
+        thrown.expectMessage(containsString("invalid arity calling \"multiply\" (expected at least 2 but was 1)"));
         check("multiply(@)");
     }
 
@@ -165,4 +178,358 @@ public abstract class JmesPathRuntimeWithMathFunctionTest<T> extends JmesPathRun
         T result = check("divide(`5`, `0`)");
         assertThat(result, is(jsonNull()));
     }
+
+    @Test
+    public void addReturnsAnIntegerForIntegers() {
+        T result = check("add(`1`, `2`)");
+        assertThat(runtime().toString(result), is("3"));
+    }
+
+    @Test
+    public void addIsExactForLargeIntegers() {
+        T result = check("add(`9007199254740993`, `2`)");
+        assertThat(runtime().toString(result), is("9007199254740995"));
+    }
+
+    @Test
+    public void addFallsBackToDoublesOnOverflow() {
+        T result = check("add(`9223372036854775807`, `1`)");
+        assertThat(result, is(jsonNumber(9.223372036854775807E18)));
+    }
+
+    @Test
+    public void addReturnsADoubleWhenEitherArgumentIsNotAnInteger() {
+        T result = check("add(`1`, `1.5`)");
+        assertThat(result, is(jsonNumber(2.5)));
+    }
+
+    @Test
+    public void subtractIsExactForLargeIntegers() {
+        T result = check("subtract(`-9223372036854775807`, `1`)");
+        assertThat(runtime().toString(result), is("-9223372036854775808"));
+    }
+
+    @Test
+    public void subtractFallsBackToDoublesOnOverflow() {
+        T result = check("subtract(`-9223372036854775807`, `2`)");
+        assertThat(result, is(jsonNumber(-9.223372036854775809E18)));
+    }
+
+    @Test
+    public void multiplyIsExactForLargeIntegers() {
+        T result = check("multiply(`3037000499`, `3037000499`)");
+        assertThat(runtime().toString(result), is("9223372030926249001"));
+    }
+
+    @Test
+    public void multiplyFallsBackToDoublesOnOverflow() {
+        T result = check("multiply(`4294967296`, `4294967296`)");
+        assertThat(result, is(jsonNumber(1.8446744073709552E19)));
+    }
+
+    @Test
+    public void divideReturnsAnIntegerWhenTheQuotientIsAnInteger() {
+        T result = check("divide(`6`, `3`)");
+        assertThat(runtime().toString(result), is("2"));
+    }
+
+    @Test
+    public void divideReturnsADoubleWhenTheQuotientIsNotAnInteger() {
+        T result = check("divide(`7`, `2`)");
+        assertThat(result, is(jsonNumber(3.5)));
+    }
+
+    @Test
+    public void functionsWithoutAnExactOperationPerformItOnDoubles() {
+        T result = check("power(`2`, `10`)");
+        assertThat(result, is(jsonNumber(1024.0)));
+    }
+
+    private static class PowerFunction extends MathBiFunction {
+        @Override
+        protected double performMathOperation(double x, double y) {
+            return Math.pow(x, y);
+        }
+    }
+
+    @Test
+    public void addManyArguments() {
+        T result = search("add(a, b, c, `4`)", parse("{\"a\": 1, \"b\": 2, \"c\": 3}"));
+        assertThat(runtime().toString(result), is("10"));
+    }
+
+    @Test
+    public void addManyArgumentsFallsBackToDoublesOnOverflow() {
+        T result = check("add(`9223372036854775807`, `1`, `-1`)");
+        assertThat(result, is(jsonNumber(9.223372036854775807E18)));
+    }
+
+    @Test
+    public void addManyArgumentsRequiresNumericArguments() {
+        thrown.expect(ArgumentTypeException.class);
+        thrown.expectMessage(containsString("expected number but was string"));
+        check("add(`1`, `2`, 'foo')");
+    }
+
+    @Test
+    public void multiplyManyArguments() {
+        T result = check("multiply(`2`, `3`, `4`, `0.5`)");
+        assertThat(result, is(jsonNumber(12)));
+    }
+
+    @Test
+    public void sumOfIntegers() {
+        T result = search("sum_of(@)", parse("[1, 2, 3, 4]"));
+        assertThat(runtime().toString(result), is("10"));
+    }
+
+    @Test
+    public void sumOfIsExactForLargeIntegers() {
+        T result = search("sum_of(@)", parse("[9007199254740993, 2, 4]"));
+        assertThat(runtime().toString(result), is("9007199254740999"));
+    }
+
+    @Test
+    public void sumOfUsesCompensatedSummation() {
+        T result = search("sum_of(@)", parse("[0.1, 0.1, 0.1, 0.1, 0.1, 0.1, 0.1, 0.1, 0.1, 0.1]"));
+        assertThat(runtime().toNumber(result).doubleValue(), is(1.0));
+    }
+
+    @Test
+    public void sumOfKeepsSmallTermsNextToLargeOnes() {
+        T result = search("sum_of(@)", parse("[1.0, 1e100, 1.0, -1e100]"));
+        assertThat(runtime().toNumber(result).doubleValue(), is(2.0));
+    }
+
+    @Test
+    public void sumOfAnEmptyArrayIsZero() {
+        T result = search("sum_of(@)", parse("[]"));
+        assertThat(result, is(jsonNumber(0)));
+    }
+
+    @Test
+    public void sumOfRequiresAnArrayOfNumbers() {
+        thrown.expect(ArgumentTypeException.class);
+        thrown.expectMessage(containsString("expected array of number"));
+        search("sum_of(@)", parse("[1, \"2\"]"));
+    }
+
+    @Test
+    public void productOfIntegers() {
+        T result = search("product_of(@)", parse("[1, 2, 3, 4]"));
+        assertThat(runtime().toString(result), is("24"));
+    }
+
+    @Test
+    public void productOfMixedNumbers() {
+        T result = search("product_of(@)", parse("[2, 2.5, 3]"));
+        assertThat(result, is(jsonNumber(15)));
+    }
+
+    @Test
+    public void productOfAnEmptyArrayIsOne() {
+        T result = search("product_of(@)", parse("[]"));
+        assertThat(result, is(jsonNumber(1)));
+    }
+
+    @Test
+    public void minMaxReturnsTheSmallestAndLargestNumbers() {
+        T result = search("min_max(@)", parse("[3, -1.5, 7, 2, 7.0]"));
+        assertThat(result, is(parse("[-1.5, 7]")));
+    }
+
+    @Test
+    public void minMaxComparesLargeIntegersExactly() {
+        T result = search("min_max(@)", parse("[9007199254740993, 9007199254740992]"));
+        assertThat(result, is(parse("[9007199254740992, 9007199254740993]")));
+    }
+
+    @Test
+    public void minMaxOfAnEmptyArrayIsNull() {
+        T result = search("min_max(@)", parse("[]"));
+        assertThat(result, is(jsonNull()));
+    }
+
+    @Test
+    public void meanOfNumbers() {
+        T result = search("mean(@)", parse("[1, 2, 3, 4]"));
+        assertThat(result, is(jsonNumber(2.5)));
+    }
+
+    @Test
+    public void meanOfAnEmptyArrayIsNull() {
+        T result = search("mean(@)", parse("[]"));
+        assertThat(result, is(jsonNull()));
+    }
+
+    @Test
+    public void stddevOfNumbers() {
+        T result = search("stddev(@)", parse("[2, 4, 4, 4, 5, 5, 7, 9]"));
+        assertThat(result, is(jsonNumber(2)));
+    }
+
+    @Test
+    public void stddevIsAccurateForLargeNumbersWithSmallDeviations() {
+        T result = search("stddev(@)", parse("[1000000004, 1000000007, 1000000013, 1000000016]"));
+        assertThat(result, is(jsonNumber(4.743416490252569)));
+    }
+
+    @Test
+    public void stddevOfASingleNumberIsZero() {
+        T result = search("stddev(@)", parse("[42]"));
+        assertThat(result, is(jsonNumber(0)));
+    }
+
+    @Test
+    public void stddevOfAnEmptyArrayIsNull() {
+        T result = search("stddev(@)", parse("[]"));
+        assertThat(result, is(jsonNull()));
+    }
+
+    private String numbers(int from, int to) {
+        StringBuilder json = new StringBuilder("[");
+        for (int i = from; i < to; i++) {
+            json.append(i == from ? "" : ",").append(i);
+        }
+        return json.append("]").toString();
+    }
+
+    private double toDouble(T value) {
+        return runtime().toNumber(value).doubleValue();
+    }
+
+    @Test
+    public void approxDistinctCountsSmallArraysExactly() {
+        T result = search("approx_distinct(@)", parse("[\"a\", \"b\", \"a\", 1, 1.0, 2, true, null, null, [1], {\"a\": 1}, \"1\"]"));
+        assertThat(result, is(jsonNumber(9)));
+    }
+
+    @Test
+    public void approxDistinctAgreesWithDistinct() {
+        T input = parse("[1, 1.0, \"1\", {\"x\": 1, \"y\": [2]}, {\"y\": [2.0], \"x\": 1.0}, 1, 2, 2, \"z\"]");
+        assertThat(search("approx_distinct(@)", input), is(jsonNumber(5)));
+        assertThat(search("length(distinct(@))", input), is(jsonNumber(5)));
+    }
+
+    @Test
+    public void approxDistinctEstimatesLargeArrays() {
+        T result = search("approx_distinct(@)", parse(numbers(0, 100000)));
+        assertThat(toDouble(result), is(closeTo(100000, 3000)));
+    }
+
+    @Test
+    public void approxDistinctOfAnEmptyArrayIsZero() {
+        T result = search("approx_distinct(@)", parse("[]"));
+        assertThat(result, is(jsonNumber(0)));
+    }
+
+    @Test
+    public void approxDistinctOfMergedSketches() {
+        T input = parse(String.format("{\"a\": %s, \"b\": %s}", numbers(0, 3000), numbers(2000, 5000)));
+        T result = search("approx_distinct(merge_sketches([approx_distinct(a, `true`), approx_distinct(b, `true`)]))", input);
+        assertThat(toDouble(result), is(closeTo(5000, 150)));
+    }
+
+    @Test
+    public void approxPercentileOfNumbers() {
+        T result = search("approx_percentile(@, `0.5`)", parse(numbers(1, 1001)));
+        assertThat(toDouble(result), is(closeTo(500.5, 5)));
+    }
+
+    @Test
+    public void approxPercentileOfSmallArraysIsExactAtTheExtremes() {
+        T input = parse("[5, 1, 4, 2, 3]");
+        assertThat(search("approx_percentile(@, `0`)", input), is(jsonNumber(1)));
+        assertThat(search("approx_percentile(@, `1`)", input), is(jsonNumber(5)));
+        assertThat(search("approx_percentile(@, `0.5`)", input), is(jsonNumber(3)));
+    }
+
+    @Test
+    public void approxPercentileWithAnArrayOfPercentiles() {
+        T result = search("approx_percentile(@, `[0.01, 0.99]`)", parse(numbers(0, 10000)));
+        assertThat(toDouble(runtime().toList(result).get(0)), is(closeTo(100, 2)));
+        assertThat(toDouble(runtime().toList(result).get(1)), is(closeTo(9900, 2)));
+    }
+
+    @Test
+    public void approxPercentileOfAnEmptyArrayIsNull() {
+        T result = search("approx_percentile(@, `0.5`)", parse("[]"));
+        assertThat(result, is(jsonNull()));
+    }
+
+    @Test
+    public void approxPercentileRequiresAPercentileBetweenZeroAndOne() {
+        thrown.expect(IllegalArgumentException.class);
+        thrown.expectMessage(containsString("between 0 and 1"));
+        search("approx_percentile(@, `99`)", parse("[1, 2, 3]"));
+    }
+
+    @Test
+    public void approxPercentileRequiresNumbers() {
+        thrown.expect(ArgumentTypeException.class);
+        thrown.expectMessage(containsString("expected array of number but was array containing number and string"));
+        search("approx_percentile(@, `0.5`)", parse("[1, \"2\"]"));
+    }
+
+    @Test
+    public void approxPercentileOfMergedSketches() {
+        T input = parse(String.format("[{\"latencies\": %s}, {\"latencies\": %s}]", numbers(0, 5000), numbers(5000, 10000)));
+        T result = search("approx_percentile(merge_sketches(map(&approx_percentile(latencies, `0.5`, `true`), @)), `0.9`)", input);
+        assertThat(toDouble(result), is(closeTo(9000, 50)));
+    }
+
+    @Test
+    public void approxTopKReturnsTheMostFrequentValues() {
+        T result = search("approx_top_k(@, `2`)", parse("[\"a\", \"b\", 1, \"a\", 1.0, \"c\", \"a\", 1]"));
+        assertThat(runtime().toString(result), is("[{\"value\":\"a\",\"count\":3,\"error\":0},{\"value\":1,\"count\":3,\"error\":0}]"));
+    }
+
+    @Test
+    public void approxTopKCountsEquivalentObjectsAsTheSameValue() {
+        T result = search("approx_top_k(@, `1`)", parse("[{\"x\": 1, \"y\": 2}, {\"y\": 2.0, \"x\": 1}, {\"x\": 2}]"));
+        assertThat(runtime().toString(result), is("[{\"value\":{\"x\":1,\"y\":2},\"count\":2,\"error\":0}]"));
+    }
+
+    @Test
+    public void approxTopKFindsFrequentValuesAmongMoreValuesThanItsCapacity() {
+        StringBuilder json = new StringBuilder("[");
+        for (int i = 0; i < 1000; i++) {
+            json.append(String.format("\"rare%d\", \"frequent\", ", i));
+        }
+        json.append("\"last\"]");
+        T result = search("approx_top_k(@, `1`)[0].value", parse(json.toString()));
+        assertThat(result, is(jsonString("frequent")));
+    }
+
+    @Test
+    public void approxTopKOfMergedSketches() {
+        T input = parse("{\"a\": [\"x\", \"y\", \"x\"], \"b\": [\"z\", \"z\", \"x\"]}");
+        T result = search("approx_top_k(merge_sketches([approx_top_k(a, `1`, `true`), approx_top_k(b, `1`, `true`)]), `1`)", input);
+        assertThat(runtime().toString(result), is("[{\"value\":\"x\",\"count\":3,\"error\":0}]"));
+    }
+
+    @Test
+    public void mergeSketchesSkipsNulls() {
+        T result = search("merge_sketches([null])", parse("{}"));
+        assertThat(result, is(jsonNull()));
+    }
+
+    @Test
+    public void mergeSketchesRequiresSketchesOfTheSameKind() {
+        thrown.expect(InvalidSketchException.class);
+        search("merge_sketches([approx_distinct(@, `true`), approx_percentile(@, `0.5`, `true`)])", parse("[1]"));
+    }
+
+    @Test
+    public void approxDistinctRequiresASketchOfTheRightKind() {
+        thrown.expect(InvalidSketchException.class);
+        thrown.expectMessage(containsString("Expected a HyperLogLog but was a TDigest"));
+        search("approx_distinct(approx_percentile(@, `0.5`, `true`))", parse("[1]"));
+    }
+
+    @Test
+    public void approxDistinctRejectsStringsThatAreNotSketches() {
+        thrown.expect(InvalidSketchException.class);
+        search("approx_distinct('not a sketch')", parse("[1]"));
+    }
 }
@@ -9,24 +9,38 @@ import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.ExpectedException;
 
+import java.util.Locale;
 import java.util.regex.PatternSyntaxException;
 
 import static org.hamcrest.Matchers.containsString;
 import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.sameInstance;
 import static org.junit.Assert.assertThat;
 
 public abstract class JmesPathRuntimeWithStringFunctionTest<T> extends JmesPathRuntimeTest<T> {
+  private PatternCache patternCache = createPatternCache();
+
   private FunctionRegistry functionRegistry = FunctionRegistry.defaultRegistry()
           .extend(new ConcatFunction(),
+                  new ContainsAnyFunction(),
+                  new FirstOfFunction(),
                   new LowerCaseFunction(),
-                  new MatchesFunction(),
+                  new MatchesFunction(patternCache),
+                  new Md5Function(),
+                  new Murmur3x128Function(),
+                  new MatchesAnyFunction(patternCache),
                   new NormalizeSpaceFunction(),
-                  new ReplaceFunction(),
+                  new ReplaceFunction(patternCache),
+                  new Sha256Function(),
                   new SubstringAfterFunction(),
+                  new SubstringAfterAnyFunction(),
                   new SubstringBeforeFunction(),
-                  new TokenizeFunction(),
+                  new SubstringBeforeAnyFunction(),
+                  new TokenizeFunction(patternCache),
                   new TranslateFunction(),
-                  new UpperCaseFunction());
+                  new UpperCaseFunction(),
+                  new WhichMatchesFunction(patternCache),
+                  new XxHash64Function());
 
   private Adapter<T> runtime = createRuntime(RuntimeConfiguration.builder()
           .withFunctionRegistry(functionRegistry)
@@ -35,6 +49,8 @@ public abstract class JmesPathRuntimeWithStringFunctionTest<T> extends JmesPathR
   @Override
   protected Adapter<T> runtime() { return runtime; }
 
+  protected PatternCache createPatternCache() { return PatternCache.defaultCache(); }
+
   @Rule
   public ExpectedException thrown = ExpectedException.none();
 
@@ -110,6 +126,48 @@ public abstract class JmesPathRuntimeWithStringFunctionTest<T> extends JmesPathR
     check("upper_case(@)");
   }
 
+  @Test
+  public void lowerCaseTranslatesNonAsciiLetters() {
+    T result = check("lower_case('\u00c4RGER \u00dcBER \u0394')");
+    assertThat(result, is(jsonString("\u00e4rger \u00fcber \u03b4")));
+  }
+
+  @Test
+  public void lowerCaseReturnsTheInputWhenItIsAlreadyLowerCase() {
+    T input = parse("{ \"ascii\" : \"already lower-case 123\", \"nonAscii\" : \"stra\u00dfe\"}");
+    assertThat(search("lower_case(ascii)", input), is(sameInstance(search("ascii", input))));
+    assertThat(search("lower_case(nonAscii)", input), is(sameInstance(search("nonAscii", input))));
+  }
+
+  @Test
+  public void upperCaseTranslatesNonAsciiLetters() {
+    T result = check("upper_case('stra\u00dfe \u00e5')");
+    assertThat(result, is(jsonString("STRASSE \u00c5")));
+  }
+
+  @Test
+  public void upperCaseReturnsTheInputWhenItIsAlreadyUpperCase() {
+    T input = parse("{ \"str\" : \"GET /API/V2 200\"}");
+    T result = search("upper_case(str)", input);
+    assertThat(result, is(sameInstance(search("str", input))));
+  }
+
+  @Test
+  public void caseConversionUsesTheLocaleOfTheFunction() {
+    Locale turkish = new Locale("tr");
+    Adapter<T> turkishRuntime = createRuntime(RuntimeConfiguration.builder()
+            .withFunctionRegistry(FunctionRegistry.defaultRegistry().extend(new LowerCaseFunction(turkish), new UpperCaseFunction(turkish)))
+            .build());
+    Adapter<T> rootRuntime = createRuntime(RuntimeConfiguration.builder()
+            .withFunctionRegistry(FunctionRegistry.defaultRegistry().extend(new LowerCaseFunction(Locale.ROOT), new UpperCaseFunction(Locale.ROOT)))
+            .build());
+    T input = parse("\"Izmir ili\"");
+    assertThat(turkishRuntime.compile("lower_case(@)").search(input), is(jsonString("\u0131zmir ili")));
+    assertThat(turkishRuntime.compile("upper_case(@)").search(input), is(jsonString("IZM\u0130R \u0130L\u0130")));
+    assertThat(rootRuntime.compile("lower_case(@)").search(input), is(jsonString("izmir ili")));
+    assertThat(rootRuntime.compile("upper_case(@)").search(input), is(jsonString("IZMIR ILI")));
+  }
+
   @Test
   public void normalizeSpaceRemovesLeadingWhitespaces() {
     T result = search("normalize_space(str)", parse("{ \"str\" : \"\\n\\t \\tend\"}"));
@@ -128,6 +186,25 @@ public abstract class JmesPathRuntimeWithStringFunctionTest<T> extends JmesPathR
     assertThat(result, is(jsonString("begin end")));
   }
 
+  @Test
+  public void normalizeSpaceCollapsesAllKindsOfWhitespace() {
+    T result = search("normalize_space(str)", parse("{ \"str\" : \"a \\u000b\\f\\rb\\n  c\"}"));
+    assertThat(result, is(jsonString("a b c")));
+  }
+
+  @Test
+  public void normalizeSpaceRemovesLeadingAndTrailingControlCharacters() {
+    T result = search("normalize_space(str)", parse("{ \"str\" : \"\\u0001 a\\u0001b \\u0002\"}"));
+    assertThat(result, is(jsonString("a\u0001b")));
+  }
+
+  @Test
+  public void normalizeSpaceReturnsTheInputWhenItIsAlreadyNormalized() {
+    T input = parse("{ \"str\" : \"begin middle end\"}");
+    T result = search("normalize_space(str)", input);
+    assertThat(result, is(sameInstance(search("str", input))));
+  }
+
   @Test
   public void normalizeSpaceRequiresASingleArgument() {
     thrown.expect(ParseException.class);
@@ -172,6 +249,35 @@ public abstract class JmesPathRuntimeWithStringFunctionTest<T> extends JmesPathR
     assertThat(result, is(jsonString("AAA")));
   }
 
+  @Test
+  public void translateReturnsTheInputWhenNoCharacterIsTranslated() {
+    T input = parse("{\"str\": \"foo.xyz\"}");
+    T result = search("translate(str, 'abc', 'ABC')", input);
+    assertThat(result, is(sameInstance(search("str", input))));
+  }
+
+  @Test
+  public void translateUsesMapAndReplacementStringsFromTheInput() {
+    T result = search("translate(sku, map, trans)", parse("{\"sku\": \"ab-12_x y\", \"map\": \"-_ x\", \"trans\": \"X\"}"));
+    assertThat(result, is(jsonString("abX12y")));
+  }
+
+  @Test
+  public void translateHandlesSupplementaryCharacters() {
+    T result1 = check("translate('a\ud83d\ude00b\ud83d\ude01', '\ud83d\ude00b', 'x')");
+    T result2 = check("translate('abc', 'b', '\ud83d\ude00')");
+    assertThat(result1, is(jsonString("ax\ud83d\ude01")));
+    assertThat(result2, is(jsonString("a\ud83d\ude00c")));
+  }
+
+  @Test
+  public void translateHandlesSupplementaryCharactersWhenTheTranslatedCharactersSpanTheSurrogates() {
+    T result1 = check("translate('x\ud83d\ude00y', 'a\uff01\ud83d\ude00', 'bcd')");
+    T result2 = check("translate('a\ud83d\ude00\uff01', 'a\uff01\ud83d\ude00', 'bc')");
+    assertThat(result1, is(jsonString("xdy")));
+    assertThat(result2, is(jsonString("bc")));
+  }
+
   @Test
   public void translateRequiresAStringAsFirstArgument() {
     thrown.expect(ArgumentTypeException.class);
@@ -290,6 +396,79 @@ public abstract class JmesPathRuntimeWithStringFunctionTest<T> extends JmesPathR
     check("substring_before('foo', &foo)");
   }
 
+  @Test
+  public void containsAnyReturnsTrueWhenAnyNeedleOccurs() {
+    T result1 = check("contains_any('Mozilla/5.0 (compatible; Googlebot/2.1)', ['bingbot', 'Googlebot', 'Slurp'])");
+    T result2 = check("contains_any('Mozilla/5.0 (Windows NT 10.0)', ['bingbot', 'Googlebot', 'Slurp'])");
+    T result3 = check("contains_any('abc', `[]`)");
+    assertThat(result1, is(jsonBoolean(true)));
+    assertThat(result2, is(jsonBoolean(false)));
+    assertThat(result3, is(jsonBoolean(false)));
+  }
+
+  @Test
+  public void containsAnyIgnoresEmptyNeedles() {
+    T result1 = check("contains_any('abc', [''])");
+    T result2 = check("contains_any(`null`, ['a'])");
+    assertThat(result1, is(jsonBoolean(false)));
+    assertThat(result2, is(jsonBoolean(false)));
+  }
+
+  @Test
+  public void containsAnyAcceptsNeedlesThatAreNotLiterals() {
+    T input = parse("{\"needles\": [\"x\", \"c\"], \"str\": \"abc\"}");
+    assertThat(search("contains_any(str, needles)", input), is(jsonBoolean(true)));
+    assertThat(search("contains_any('xyz', needles)", input), is(jsonBoolean(true)));
+    assertThat(search("contains_any('yz', needles)", input), is(jsonBoolean(false)));
+  }
+
+  @Test
+  public void containsAnyRequiresAnArrayOfStrings() {
+    thrown.expect(ArgumentTypeException.class);
+    thrown.expectMessage(containsString("expected array of string but was array"));
+    check("contains_any('foo', ['bar', `1`])");
+  }
+
+  @Test
+  public void firstOfReturnsTheNeedleThatOccursFirst() {
+    T result1 = check("first_of('the error was a warning', ['warning', 'error', 'fatal'])");
+    T result2 = check("first_of('all is well', ['warning', 'error', 'fatal'])");
+    assertThat(result1, is(jsonString("error")));
+    assertThat(result2, is(jsonNull()));
+  }
+
+  @Test
+  public void firstOfPrefersTheEarlierNeedleWhenTwoStartAtTheSamePosition() {
+    T result1 = check("first_of('abcd', ['bc', 'b', 'bcd'])");
+    T result2 = check("first_of('abcd', ['bcd', 'abcde', 'cd'])");
+    assertThat(result1, is(jsonString("bc")));
+    assertThat(result2, is(jsonString("bcd")));
+  }
+
+  @Test
+  public void substringBeforeAnyReturnsThePartBeforeTheFirstNeedle() {
+    T result1 = check("substring_before_any('key=value;other', ['=', ';'])");
+    T result2 = check("substring_before_any('key:value=other', ['=', ':'])");
+    T result3 = check("substring_before_any('key', ['=', ':'])");
+    T result4 = check("substring_before_any('key', ['', 'y'])");
+    assertThat(result1, is(jsonString("key")));
+    assertThat(result2, is(jsonString("key")));
+    assertThat(result3, is(jsonString("")));
+    assertThat(result4, is(jsonString("ke")));
+  }
+
+  @Test
+  public void substringAfterAnyReturnsThePartAfterTheFirstNeedle() {
+    T result1 = check("substring_after_any('GET /index.html HTTP/1.1', [' HTTP/', ' '])");
+    T result2 = check("substring_after_any('a--b-c', ['-', '--'])");
+    T result3 = check("substring_after_any('a--b-c', ['--', '-'])");
+    T result4 = check("substring_after_any('abc', ['x', 'y'])");
+    assertThat(result1, is(jsonString("/index.html HTTP/1.1")));
+    assertThat(result2, is(jsonString("-b-c")));
+    assertThat(result3, is(jsonString("b-c")));
+    assertThat(result4, is(jsonString("")));
+  }
+
   @Test
   public void matchesExamplesFromXPathSpec() {
     T result1 = check("matches('abracadabra', 'bra')");
@@ -374,6 +553,78 @@ public abstract class JmesPathRuntimeWithStringFunctionTest<T> extends JmesPathR
     check("matches('foo', 'bar', &baz)");
   }
 
+  @Test
+  public void matchesAnyReturnsTrueWhenAnyPatternMatches() {
+    T result1 = check("matches_any('abracadabra', ['^bra', 'cad'])");
+    T result2 = check("matches_any('abracadabra', ['^bra', 'x+'])");
+    T result3 = check("matches_any('abracadabra', `[]`)");
+    assertThat(result1, is(jsonBoolean(true)));
+    assertThat(result2, is(jsonBoolean(false)));
+    assertThat(result3, is(jsonBoolean(false)));
+  }
+
+  @Test
+  public void matchesAnyMatchesLiteralPatterns() {
+    T result1 = check("matches_any('abracadabra', ['dab', 'xyz'])");
+    T result2 = check("matches_any('abracadabra', ['DAB', 'xyz'])");
+    T result3 = check("matches_any('abracadabra', ['DAB', 'xyz'], 'i')");
+    assertThat(result1, is(jsonBoolean(true)));
+    assertThat(result2, is(jsonBoolean(false)));
+    assertThat(result3, is(jsonBoolean(true)));
+  }
+
+  @Test
+  public void matchesAnyAppliesTheFlagsToAllPatterns() {
+    T withFlags = check("matches_any('a\nB\nc', ['^x$', '^b$'], 'mi')");
+    T otherwise = check("matches_any('a\nB\nc', ['^x$', '^b$'])");
+    assertThat(withFlags, is(jsonBoolean(true)));
+    assertThat(otherwise, is(jsonBoolean(false)));
+  }
+
+  @Test
+  public void matchesAnyAcceptsPatternsThatAreNotLiterals() {
+    T input = parse("{\"patterns\": [\"^a.c\", \"^b\"], \"str\": \"abc\"}");
+    assertThat(search("matches_any(str, patterns)", input), is(jsonBoolean(true)));
+    assertThat(search("matches_any('bcd', patterns)", input), is(jsonBoolean(true)));
+    assertThat(search("matches_any('cde', patterns)", input), is(jsonBoolean(false)));
+  }
+
+  @Test
+  public void matchesAnyThrowsPatternSyntaxExceptionOnInvalidPattern() {
+    thrown.expect(PatternSyntaxException.class);
+    check("matches_any('abba', ['a', '?'])");
+  }
+
+  @Test
+  public void matchesAnyThrowsPatternSyntaxExceptionOnZeroMatchingPattern() {
+    thrown.expect(PatternSyntaxException.class);
+    thrown.expectMessage("pattern matches zero-length string");
+    check("matches_any('abba', ['a', '.?'])");
+  }
+
+  @Test
+  public void matchesAnyRequiresAnArrayOfStrings() {
+    thrown.expect(ArgumentTypeException.class);
+    thrown.expectMessage(containsString("expected array of string but was array"));
+    check("matches_any('foo', ['bar', `1`])");
+  }
+
+  @Test
+  public void whichMatchesReturnsTheIndexesOfTheMatchingPatterns() {
+    T result1 = check("which_matches('abracadabra', ['^bra', 'cad', 'a$', 'x+'])");
+    T result2 = check("which_matches('abracadabra', ['dab', 'xyz', 'ABRA'], 'i')");
+    T result3 = check("which_matches('abracadabra', ['x', 'y'])");
+    assertThat(result1, is(jsonArrayOfNumbers(1, 2)));
+    assertThat(result2, is(jsonArrayOfNumbers(0, 2)));
+    assertThat(result3, is(jsonArrayOfNumbers()));
+  }
+
+  @Test
+  public void whichMatchesReturnsEachIndexOnce() {
+    T result = check("which_matches('aaaa', ['a', 'a+', 'a'])");
+    assertThat(result, is(jsonArrayOfNumbers(0, 1, 2)));
+  }
+
   @Test
   public void replaceReplacesAllOccurrences() {
     T result1 = check("replace('abracadabra', 'bra', '*')");
@@ -582,4 +833,99 @@ public abstract class JmesPathRuntimeWithStringFunctionTest<T> extends JmesPathR
     thrown.expectMessage(containsString("expected string but was expression"));
     check("tokenize('foo', 'bar', &baz)");
   }
+
+  @Test
+  public void tokenizeWithLiteralPatternKeepsEmptyParts() {
+    T result = check("tokenize(',a,,b,', ',')");
+    assertThat(result, is(jsonArrayOfStrings("", "a", "", "b", "")));
+  }
+
+  @Test
+  public void tokenizeWithMultiCharacterLiteralPattern() {
+    T result = check("tokenize('a::b:c::', '::')");
+    assertThat(result, is(jsonArrayOfStrings("a", "b:c", "")));
+  }
+
+  @Test
+  public void tokenizeWithoutPatternSplitsAtAllWhitespace() {
+    T result = check("tokenize('\ta\r\nb  \u000bc\f')");
+    assertThat(result, is(jsonArrayOfStrings("a", "b", "c")));
+  }
+
+  @Test
+  public void tokenizeWithoutPatternReturnsAnEmptyArrayForBlankInput() {
+    T result = check("tokenize('   ')");
+    assertThat(result, is(jsonArrayOfStrings()));
+  }
+
+  @Test
+  public void tokenizeWithLimitStopsAfterThatManyTokens() {
+    T result = check("tokenize('a,b,c,d,e', ',', '', `3`)");
+    assertThat(result, is(jsonArrayOfStrings("a", "b", "c")));
+  }
+
+  @Test
+  public void tokenizeWithLimitStopsAfterThatManyRegexTokens() {
+    T result = check("tokenize('a1b22c333d', '\\d+', '', `2`)");
+    assertThat(result, is(jsonArrayOfStrings("a", "b")));
+  }
+
+  @Test
+  public void tokenizeWithLimitLargerThanTheNumberOfTokens() {
+    T result = check("tokenize('a,b,', ',', '', `10`)");
+    assertThat(result, is(jsonArrayOfStrings("a", "b", "")));
+  }
+
+  @Test
+  public void tokenizeWithLimitLessThanOneDoesNotLimit() {
+    T result = check("tokenize('a,b,c', ',', '', `0`)");
+    assertThat(result, is(jsonArrayOfStrings("a", "b", "c")));
+  }
+
+  @Test
+  public void tokenizeRequiresANumberLimit() {
+    thrown.expect(ArgumentTypeException.class);
+    thrown.expectMessage(containsString("expected number but was string"));
+    check("tokenize('foo', 'bar', '', '3')");
+  }
+
+  @Test
+  public void tokenizeAcceptsAtMostFourArguments() {
+    thrown.expect(ParseException.class);
+    thrown.expectMessage(containsString("invalid arity calling \"tokenize\" (expected at most 4 but was 5)"));
+    check("tokenize('foo', 'bar', '', `3`, `4`)");
+  }
+
+  @Test
+  public void hashFunctionsHashTheUtf8BytesOfAString() {
+    assertThat(check("md5('')"), is(jsonString("d41d8cd98f00b204e9800998ecf8427e")));
+    assertThat(check("sha256('abc')"), is(jsonString("ba7816bf8f01cfea414140de5dae2223b00361a396177a9cb410ff61f20015ad")));
+    assertThat(check("murmur3_128('hello')"), is(jsonString("029bbd41b3a7d8cb191dae486a901e5b")));
+    assertThat(runtime().toString(check("xxhash64('abc')")), is(String.valueOf(0x44bc2cf5ad770999L)));
+    assertThat(check("md5('\u00e5')"), is(jsonString("e726cc85f77337c9816323749b573281")));
+  }
+
+  @Test
+  public void hashFunctionsHashSeveralValuesLikeConcat() {
+    T input = parse("{\"a\": \"user-1\", \"b\": 42, \"c\": [1, {\"d\": null}]}");
+    String[] functions = {"md5", "sha256", "murmur3_128", "xxhash64"};
+    for (String function : functions) {
+      T separate = search(String.format("%s(a, '|', b, '|', c, missing)", function), input);
+      T concatenated = search(String.format("%s(concat(a, '|', b, '|', c))", function), input);
+      assertThat(function, separate, is(concatenated));
+    }
+  }
+
+  @Test
+  public void hashFunctionsDependOnTheOrderOfTheValues() {
+    T input = parse("{\"a\": \"x\", \"b\": \"y\"}");
+    assertThat(search("sha256(a, b) == sha256(b, a)", input), is(jsonBoolean(false)));
+  }
+
+  @Test
+  public void hashFunctionsRequireAtLeastOneArgument() {
+    thrown.expect(ParseException.class);
+    thrown.expectMessage(containsString("invalid arity calling \"xxhash64\""));
+    check("xxhash64()");
+  }
 }
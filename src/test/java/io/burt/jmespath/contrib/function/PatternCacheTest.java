@@ -0,0 +1,97 @@
+package io.burt.jmespath.contrib.function;
+
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import io.burt.jmespath.Expression;
+import io.burt.jmespath.RuntimeConfiguration;
+import io.burt.jmespath.contrib.regex.CompiledRegex;
+import io.burt.jmespath.contrib.regex.LinearRegexEngine;
+import io.burt.jmespath.contrib.regex.UnsupportedRegexException;
+import io.burt.jmespath.function.FunctionRegistry;
+import io.burt.jmespath.jackson.JacksonRuntime;
+
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.Assert.assertThat;
+
+public class PatternCacheTest {
+  @Rule
+  public ExpectedException thrown = ExpectedException.none();
+
+  @Test
+  public void compilesEachPatternOnce() {
+    PatternCache cache = new PatternCache(8);
+    CompiledRegex pattern1 = cache.get("a+", 0);
+    CompiledRegex pattern2 = cache.get("a+", 0);
+    assertThat(pattern1, is(sameInstance(pattern2)));
+    assertThat(cache.missCount(), is(1L));
+    assertThat(cache.hitCount(), is(1L));
+  }
+
+  @Test
+  public void distinguishesPatternsByFlags() {
+    PatternCache cache = new PatternCache(8);
+    CompiledRegex pattern1 = cache.get("a+", 0);
+    CompiledRegex pattern2 = cache.get("a+", Pattern.CASE_INSENSITIVE);
+    assertThat(pattern1.flags(), is(0));
+    assertThat(pattern2.flags(), is(Pattern.CASE_INSENSITIVE));
+    assertThat(cache.size(), is(2));
+  }
+
+  @Test
+  public void evictsWhenFull() {
+    PatternCache cache = new PatternCache(1);
+    cache.get("a+", 0);
+    cache.get("b+", 0);
+    assertThat(cache.size(), is(1));
+    assertThat(cache.evictionCount(), is(1L));
+  }
+
+  @Test
+  public void remembersThatAPatternMatchesTheEmptyString() {
+    PatternCache cache = new PatternCache(8);
+    try {
+      cache.get("a*", 0);
+    } catch (PatternSyntaxException pse) {
+    }
+    thrown.expect(PatternSyntaxException.class);
+    thrown.expectMessage("pattern matches zero-length string");
+    try {
+      cache.get("a*", 0);
+    } finally {
+      assertThat(cache.hitCount(), is(1L));
+    }
+  }
+
+  @Test
+  public void isSharedByTheFunctionsItIsGivenTo() {
+    PatternCache cache = new PatternCache(8);
+    FunctionRegistry functionRegistry = FunctionRegistry.defaultRegistry().extend(
+      new MatchesFunction(cache),
+      new ReplaceFunction(cache),
+      new TokenizeFunction(cache)
+    );
+    JacksonRuntime runtime = new JacksonRuntime(RuntimeConfiguration.builder().withFunctionRegistry(functionRegistry).build());
+    Expression<JsonNode> expression = runtime.compile("[matches(@, 'b'), replace(@, 'b', 'c'), tokenize(@, 'b')]");
+    expression.search(runtime.parseString("\"abc\""));
+    expression.search(runtime.parseString("\"bcd\""));
+    assertThat(cache.size(), is(1));
+    assertThat(cache.missCount(), is(1L));
+    assertThat(cache.hitCount(), is(5L));
+  }
+
+  @Test
+  public void compilesWithTheEngineItIsGiven() {
+    PatternCache cache = new PatternCache(8, new LinearRegexEngine(null));
+    assertThat(cache.get("(a+)+$", 0).find("aaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaa!"), is(false));
+    thrown.expect(UnsupportedRegexException.class);
+    cache.get("(a)\\1", 0);
+  }
+}
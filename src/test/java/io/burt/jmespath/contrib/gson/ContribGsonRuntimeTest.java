@@ -0,0 +1,41 @@
+package io.burt.jmespath.contrib.gson;
+
+import org.junit.Test;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonPrimitive;
+
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+
+public class ContribGsonRuntimeTest {
+  private final ContribGsonRuntime runtime = new ContribGsonRuntime();
+
+  @Test
+  public void parsedIntegersAreReadAsLongs() {
+    String[] integers = {"0", "-0", "7", "-42", "9223372036854775807", "-9223372036854775808", "1234567890123456789"};
+    for (String integer : integers) {
+      JsonElement value = runtime.parseString(integer);
+      assertThat(integer, runtime.isIntegralNumber(value), is(true));
+      assertThat(integer, runtime.toLong(value), is(Long.parseLong(integer)));
+    }
+  }
+
+  @Test
+  public void parsedNumbersThatAreNotIntegersInTheRangeOfLongAreReadAsDoubles() {
+    String[] numbers = {"1.0", "1e3", "-2.5E-3", "9223372036854775808", "-9223372036854775809", "99999999999999999999"};
+    for (String number : numbers) {
+      JsonElement value = runtime.parseString(number);
+      assertThat(number, runtime.isIntegralNumber(value), is(false));
+      assertThat(number, runtime.toDouble(value), is(Double.parseDouble(number)));
+    }
+  }
+
+  @Test
+  public void createdNumbersAreReadByTheirType() {
+    assertThat(runtime.isIntegralNumber(new JsonPrimitive(3L)), is(true));
+    assertThat(runtime.toLong(new JsonPrimitive(3L)), is(3L));
+    assertThat(runtime.isIntegralNumber(new JsonPrimitive(3.0)), is(false));
+    assertThat(runtime.toDouble(new JsonPrimitive(3.5)), is(3.5));
+  }
+}
@@ -0,0 +1,119 @@
+package io.burt.jmespath.contrib.hash;
+
+import java.nio.charset.Charset;
+import java.util.Random;
+
+import org.junit.Test;
+
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+
+public class StreamingHashTest {
+  private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+  private static final String FOX = "The quick brown fox jumps over the lazy dog";
+
+  private static String hex(StreamingHash hash, String input) {
+    hash.update(input);
+    return hash.hexDigest();
+  }
+
+  @Test
+  public void murmur3x128MatchesReferenceValues() {
+    assertThat(hex(new Murmur3x128(), ""), is("00000000000000000000000000000000"));
+    assertThat(hex(new Murmur3x128(), "hello"), is("029bbd41b3a7d8cb191dae486a901e5b"));
+    assertThat(hex(new Murmur3x128(), "0123456789abcdef"), is("a7d14acf946de04bda08a7635c5bc387"));
+    assertThat(hex(new Murmur3x128(), "0123456789abcdef0"), is("75c0a58587ae24ebca283131b368fb73"));
+    assertThat(hex(new Murmur3x128(), FOX), is("6c1b07bc7bbc4be347939ac4a93c437a"));
+  }
+
+  @Test
+  public void xxHash64MatchesReferenceValues() {
+    XxHash64 hash = new XxHash64();
+    assertThat(hex(hash, ""), is("ef46db3751d8e999"));
+    assertThat(hex(hash, "abc"), is("44bc2cf5ad770999"));
+    assertThat(hex(hash, "Nobody inspects the spammish repetition"), is("fbcea83c8a378bf1"));
+    hash.update("abc");
+    assertThat(hash.digestAsLong(), is(0x44bc2cf5ad770999L));
+  }
+
+  @Test
+  public void messageDigestsMatchReferenceValues() {
+    assertThat(hex(new MessageDigestHash("MD5"), ""), is("d41d8cd98f00b204e9800998ecf8427e"));
+    assertThat(hex(new MessageDigestHash("SHA-256"), "abc"), is("ba7816bf8f01cfea414140de5dae2223b00361a396177a9cb410ff61f20015ad"));
+  }
+
+  @Test
+  public void hashingInPiecesGivesTheSameHash() {
+    Random random = new Random(1);
+    byte[] bytes = new byte[1000];
+    random.nextBytes(bytes);
+    StreamingHash[] hashes = {new Murmur3x128(), new XxHash64(), new MessageDigestHash("SHA-256")};
+    for (StreamingHash hash : hashes) {
+      hash.update(bytes);
+      String expected = hash.hexDigest();
+      for (int i = 0; i < 100; i++) {
+        int offset = 0;
+        while (offset < bytes.length) {
+          int length = Math.min(random.nextInt(40), bytes.length - offset);
+          hash.update(bytes, offset, length);
+          offset += length;
+        }
+        assertThat(hash.hexDigest(), is(expected));
+      }
+    }
+  }
+
+  @Test
+  public void stringsAreHashedAsUtf8() {
+    StringBuilder s = new StringBuilder();
+    Random random = new Random(1);
+    for (int i = 0; i < 3000; i++) {
+      switch (random.nextInt(5)) {
+        case 0:
+          s.append((char) ('a' + random.nextInt(26)));
+          break;
+        case 1:
+          s.append('\u00e5');
+          break;
+        case 2:
+          s.append('\u20ac');
+          break;
+        case 3:
+          s.append("\ud83d\ude00");
+          break;
+        default:
+          s.append(random.nextBoolean() ? '\ud800' : '\udc00');
+      }
+    }
+    assertHashedAsUtf8(s.toString());
+  }
+
+  @Test
+  public void charactersThatStraddleTheInternalBuffersAreHashedAsUtf8() {
+    StringBuilder s = new StringBuilder();
+    for (int i = 0; i < 1100; i++) {
+      assertHashedAsUtf8(s + "\ud83d\ude00\u20ac");
+      assertHashedAsUtf8(s + "\u20ac\ud83d\ude00");
+      assertHashedAsUtf8(s + "\ud83d");
+      s.append('a');
+    }
+  }
+
+  private static void assertHashedAsUtf8(String string) {
+    StreamingHash expected = new XxHash64();
+    expected.update(string.getBytes(UTF_8));
+    assertThat(hex(new XxHash64(), string), is(expected.hexDigest()));
+  }
+
+  @Test
+  public void digestingResetsTheState() {
+    Murmur3x128 hash = new Murmur3x128();
+    hash.update("something else");
+    hash.digest();
+    assertThat(hex(hash, FOX), is("6c1b07bc7bbc4be347939ac4a93c437a"));
+    hash.update("something else");
+    hash.reset();
+    assertThat(hex(hash, FOX), is("6c1b07bc7bbc4be347939ac4a93c437a"));
+  }
+}
@@ -0,0 +1,172 @@
+package io.burt.jmespath.contrib.jackson;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.Charset;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.BigIntegerNode;
+import com.fasterxml.jackson.databind.node.DoubleNode;
+import com.fasterxml.jackson.databind.node.IntNode;
+import com.fasterxml.jackson.databind.node.LongNode;
+
+import io.burt.jmespath.Adapter;
+import io.burt.jmespath.RuntimeConfiguration;
+import io.burt.jmespath.contrib.FieldSelection;
+import io.burt.jmespath.contrib.function.ConcatFunction;
+import io.burt.jmespath.contrib.function.LowerCaseFunction;
+import io.burt.jmespath.contrib.function.MatchesFunction;
+import io.burt.jmespath.contrib.function.SumOfFunction;
+import io.burt.jmespath.contrib.function.UpperCaseFunction;
+import io.burt.jmespath.function.FunctionRegistry;
+import io.burt.jmespath.jackson.JacksonRuntime;
+
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+
+public class FieldPruningParserTest {
+  private static final String DOCUMENT =
+    "{" +
+      "\"user\": {\"first\": \"Ada\", \"last\": \"Lovelace\", \"age\": 36, \"address\": {\"city\": \"London\", \"zip\": null}, \"tags\": []}," +
+      "\"items\": [" +
+        "{\"name\": \"a\", \"price\": 12.5, \"in_stock\": true, \"tags\": [{\"id\": 1}, {\"id\": 2}]}," +
+        "{\"name\": \"B\", \"price\": 3, \"in_stock\": false, \"tags\": [[{\"id\": 3}]]}," +
+        "{\"name\": \"c\", \"price\": 99, \"extra\": {\"deep\": [1, 2, {\"x\": \"y\"}]}}" +
+      "]," +
+      "\"users\": {\"admin\": {\"name\": \"root\", \"email\": \"root@example.com\"}, \"guest\": {\"name\": \"nobody\"}}," +
+      "\"payload\": {\"blob\": \"" + repeat("x", 1000) + "\", \"numbers\": [1, 2, 3, 4, 5]}," +
+      "\"empty\": {}," +
+      "\"flag\": true" +
+    "}";
+
+  private static final List<String> EXPRESSIONS = Arrays.asList(
+    "concat(user.first, ' ', upper_case(user.last))",
+    "user.address.city",
+    "user",
+    "user.tags || 'none'",
+    "empty || 'none'",
+    "empty.missing || flag",
+    "items[*].name",
+    "items[0].name",
+    "items[-1].extra.deep[2].x",
+    "items[:2].tags[].id",
+    "items[].tags[][].id",
+    "items[?price > `10`].name",
+    "items[?in_stock].name",
+    "items[?!in_stock]",
+    "items[?lower_case(name) == 'b'].price",
+    "sort_by(items, &price)[*].name",
+    "max_by(items, &price).name",
+    "map(&lower_case(name), items)",
+    "users.*.name",
+    "users.* | [?email].name",
+    "keys(users)",
+    "length(payload.numbers)",
+    "sum_of(payload.numbers)",
+    "{first: user.first, city: user.address.city, count: length(items)}",
+    "[user.age, flag, items[1].price]",
+    "user.age > `30` && user.first",
+    "!flag",
+    "matches(user.last, '^love', 'i')",
+    "items | [1].tags",
+    "not_null(missing, user.address).city",
+    "to_string(user.address)",
+    "type(empty)",
+    "@",
+    "'literal'"
+  );
+
+  private final Adapter<JsonNode> runtime = new JacksonRuntime(RuntimeConfiguration.builder()
+    .withFunctionRegistry(FunctionRegistry.defaultRegistry().extend(
+      new ConcatFunction(),
+      new LowerCaseFunction(),
+      new MatchesFunction(),
+      new SumOfFunction(),
+      new UpperCaseFunction()
+    ))
+    .build());
+
+  @Rule
+  public ExpectedException thrown = ExpectedException.none();
+
+  private static String repeat(String str, int n) {
+    StringBuilder repeated = new StringBuilder();
+    for (int i = 0; i < n; i++) {
+      repeated.append(str);
+    }
+    return repeated.toString();
+  }
+
+  @Test
+  public void searchingAPrunedDocumentGivesTheSameResult() {
+    JsonNode document = runtime.parseString(DOCUMENT);
+    for (String expression : EXPRESSIONS) {
+      FieldPruningParser parser = FieldPruningParser.forExpression(runtime, expression);
+      JsonNode pruned = parser.parse(DOCUMENT);
+      assertThat(expression, runtime.compile(expression).search(pruned), is(runtime.compile(expression).search(document)));
+    }
+  }
+
+  @Test
+  public void leavesOutTheFieldsThatAreNotSelected() {
+    FieldPruningParser parser = FieldPruningParser.forExpression(runtime, "concat(user.first, ' ', upper_case(user.last))");
+    assertThat(parser.parse(DOCUMENT), is(runtime.parseString("{\"user\": {\"first\": \"Ada\", \"last\": \"Lovelace\"}}")));
+  }
+
+  @Test
+  public void keepsAllElementsOfArrays() {
+    FieldPruningParser parser = FieldPruningParser.forExpression(runtime, "items[*].name");
+    assertThat(parser.parse(DOCUMENT), is(runtime.parseString("{\"items\": [{\"name\": \"a\"}, {\"name\": \"B\"}, {\"name\": \"c\"}]}")));
+  }
+
+  @Test
+  public void parsesEverythingLikeTheRuntimeWhenEverythingIsSelected() {
+    FieldPruningParser parser = new FieldPruningParser(FieldSelection.ALL);
+    assertThat(parser.parse(DOCUMENT), is(runtime.parseString(DOCUMENT)));
+  }
+
+  @Test
+  public void createsTheSameKindsOfNumbersAsTheRuntime() {
+    JsonNode numbers = new FieldPruningParser(FieldSelection.ALL).parse("[1, 10000000000, 100000000000000000000, 1.5, -2e3]");
+    assertThat(numbers.get(0), is(instanceOf(IntNode.class)));
+    assertThat(numbers.get(1), is(instanceOf(LongNode.class)));
+    assertThat(numbers.get(2), is(instanceOf(BigIntegerNode.class)));
+    assertThat(numbers.get(3), is(instanceOf(DoubleNode.class)));
+    assertThat(numbers, is(runtime.parseString("[1, 10000000000, 100000000000000000000, 1.5, -2e3]")));
+  }
+
+  @Test
+  public void parsesScalars() {
+    FieldPruningParser parser = FieldPruningParser.forExpression(runtime, "a");
+    assertThat(parser.parse("\"str\""), is(runtime.parseString("\"str\"")));
+    assertThat(parser.parse("null"), is(runtime.parseString("null")));
+  }
+
+  @Test
+  public void parsesBytesAndStreams() throws Exception {
+    FieldPruningParser parser = FieldPruningParser.forExpression(runtime, "user.first");
+    byte[] bytes = ("  " + DOCUMENT).getBytes(Charset.forName("UTF-8"));
+    JsonNode expected = runtime.parseString("{\"user\": {\"first\": \"Ada\"}}");
+    assertThat(parser.parse(bytes), is(expected));
+    assertThat(parser.parse(bytes, 2, bytes.length - 2), is(expected));
+    assertThat(parser.parse(new ByteArrayInputStream(bytes)), is(expected));
+  }
+
+  @Test
+  public void throwsWhenTheJsonIsInvalid() {
+    thrown.expect(IllegalStateException.class);
+    FieldPruningParser.forExpression(runtime, "a").parse("{\"a\": 1, \"b\": [1, }");
+  }
+
+  @Test
+  public void throwsWhenTheJsonIsInvalidInASkippedField() {
+    thrown.expect(IllegalStateException.class);
+    FieldPruningParser.forExpression(runtime, "a").parse("{\"a\": 1, \"b\": {\"c\": ]}}");
+  }
+}
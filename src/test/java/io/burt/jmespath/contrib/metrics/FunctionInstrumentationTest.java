@@ -0,0 +1,208 @@
+package io.burt.jmespath.contrib.metrics;
+
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+import java.util.regex.PatternSyntaxException;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import io.burt.jmespath.Adapter;
+import io.burt.jmespath.RuntimeConfiguration;
+import io.burt.jmespath.contrib.function.ConcatFunction;
+import io.burt.jmespath.contrib.function.LowerCaseFunction;
+import io.burt.jmespath.contrib.function.MatchesFunction;
+import io.burt.jmespath.contrib.node.SpecializingNodeFactory;
+import io.burt.jmespath.function.ArgumentTypeException;
+import io.burt.jmespath.function.Function;
+import io.burt.jmespath.function.FunctionRegistry;
+import io.burt.jmespath.jackson.JacksonRuntime;
+import io.burt.jmespath.node.NodeFactory;
+
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.Assert.assertThat;
+
+public class FunctionInstrumentationTest {
+  @Rule
+  public ExpectedException thrown = ExpectedException.none();
+
+  private static Adapter<JsonNode> createRuntime(FunctionRegistry functionRegistry) {
+    RuntimeConfiguration configuration = RuntimeConfiguration.builder().withFunctionRegistry(functionRegistry).build();
+    return new JacksonRuntime(configuration) {
+      private final NodeFactory<JsonNode> nodeFactory = new SpecializingNodeFactory<>(this);
+
+      @Override
+      public NodeFactory<JsonNode> nodeFactory() { return nodeFactory; }
+    };
+  }
+
+  private static FunctionRegistry contribFunctions() {
+    return FunctionRegistry.defaultRegistry().extend(new LowerCaseFunction(), new ConcatFunction(), new MatchesFunction());
+  }
+
+  @Test
+  public void countsCallsOfTheFunctionsInTheRegistry() {
+    FunctionInstrumentation instrumentation = new FunctionInstrumentation();
+    Adapter<JsonNode> runtime = createRuntime(instrumentation.instrument(contribFunctions()));
+    JsonNode input = runtime.parseString("[\"A\", \"B\", \"C\"]");
+    runtime.compile("map(&lower_case(@), @)").search(input);
+    FunctionStatistics statistics = instrumentation.statistics("lower_case");
+    assertThat(statistics.functionName(), is("lower_case"));
+    assertThat(statistics.callCount(), is(3L));
+    assertThat(statistics.errorCount(), is(0L));
+    assertThat(statistics.sampledCallCount(), is(3L));
+    assertThat(statistics.latency().max(), is(greaterThan(0L)));
+    assertThat(statistics.allocatedBytesPerCall(), is(-1.0));
+  }
+
+  @Test
+  public void instrumentsTheBuiltInFunctionsToo() {
+    FunctionInstrumentation instrumentation = new FunctionInstrumentation();
+    Adapter<JsonNode> runtime = createRuntime(instrumentation.instrument(contribFunctions()));
+    runtime.compile("length(map(&lower_case(@), @))").search(runtime.parseString("[\"A\"]"));
+    assertThat(instrumentation.functionNames(), is(Arrays.asList("length", "lower_case", "map")));
+    assertThat(instrumentation.statistics("length").callCount(), is(1L));
+  }
+
+  @Test
+  public void returnsNoStatisticsForFunctionsThatHaveNotBeenInstrumented() {
+    FunctionInstrumentation instrumentation = new FunctionInstrumentation();
+    instrumentation.instrument(contribFunctions());
+    assertThat(instrumentation.statistics("lower_case"), is(nullValue()));
+  }
+
+  @Test
+  public void countsErrors() {
+    FunctionInstrumentation instrumentation = new FunctionInstrumentation();
+    Adapter<JsonNode> runtime = createRuntime(instrumentation.instrument(contribFunctions()));
+    try {
+      runtime.compile("lower_case(@)").search(runtime.parseString("3"));
+    } catch (ArgumentTypeException ate) {
+      // expected
+    }
+    FunctionStatistics statistics = instrumentation.statistics("lower_case");
+    assertThat(statistics.callCount(), is(1L));
+    assertThat(statistics.errorCount(), is(1L));
+  }
+
+  @Test
+  public void samplesOneCallInEachInterval() {
+    FunctionInstrumentation instrumentation = new FunctionInstrumentation(4, false);
+    Adapter<JsonNode> runtime = createRuntime(instrumentation.instrument(contribFunctions()));
+    runtime.compile("map(&lower_case(@), @)").search(runtime.parseString("[\"A\", \"B\", \"C\", \"D\", \"E\", \"F\", \"G\", \"H\", \"I\"]"));
+    FunctionStatistics statistics = instrumentation.statistics("lower_case");
+    assertThat(statistics.callCount(), is(9L));
+    assertThat(statistics.sampledCallCount(), is(2L));
+  }
+
+  @Test
+  public void recordsAllocatedBytes() {
+    FunctionInstrumentation instrumentation = new FunctionInstrumentation(1, true);
+    Adapter<JsonNode> runtime = createRuntime(instrumentation.instrument(contribFunctions()));
+    runtime.compile("concat(@, @, @)").search(runtime.parseString("\"foo\""));
+    if (instrumentation.recordsAllocatedBytes()) {
+      assertThat(instrumentation.statistics("concat").allocatedBytesPerCall(), is(greaterThan(0.0)));
+    } else {
+      assertThat(instrumentation.statistics("concat").allocatedBytesPerCall(), is(-1.0));
+    }
+  }
+
+  @Test
+  public void resetStartsOver() {
+    FunctionInstrumentation instrumentation = new FunctionInstrumentation();
+    Adapter<JsonNode> runtime = createRuntime(instrumentation.instrument(contribFunctions()));
+    JsonNode input = runtime.parseString("[\"A\", \"B\"]");
+    runtime.compile("map(&lower_case(@), @)").search(input);
+    instrumentation.reset();
+    runtime.compile("lower_case(@[0])").search(input);
+    FunctionStatistics statistics = instrumentation.statistics("lower_case");
+    assertThat(statistics.callCount(), is(1L));
+    assertThat(statistics.sampledCallCount(), is(1L));
+  }
+
+  @Test
+  public void keepsTheCountsOfThreadsThatHaveTerminated() throws Exception {
+    FunctionInstrumentation instrumentation = new FunctionInstrumentation();
+    Function lowerCase = instrumentation.instrument(new LowerCaseFunction());
+    final Adapter<JsonNode> runtime = createRuntime(FunctionRegistry.defaultRegistry().extend(lowerCase));
+    final JsonNode input = runtime.parseString("[\"A\", \"B\"]");
+    for (int i = 0; i < 20; i++) {
+      Thread thread = new Thread(new Runnable() {
+        @Override
+        public void run() {
+          runtime.compile("map(&lower_case(@), @)").search(input);
+        }
+      });
+      thread.start();
+      thread.join();
+    }
+    FunctionRecorder recorder = ((InstrumentedFunction) lowerCase).recorder();
+    assertThat(recorder.threadCount(), is(0));
+    assertThat(instrumentation.statistics("lower_case").callCount(), is(40L));
+    instrumentation.reset();
+    runtime.compile("lower_case(@[0])").search(input);
+    assertThat(recorder.threadCount(), is(1));
+    assertThat(instrumentation.statistics("lower_case").callCount(), is(1L));
+  }
+
+  @Test
+  public void extendedRegistriesAreInstrumentedToo() {
+    FunctionInstrumentation instrumentation = new FunctionInstrumentation();
+    FunctionRegistry registry = instrumentation.instrument(FunctionRegistry.defaultRegistry()).extend(new LowerCaseFunction());
+    Adapter<JsonNode> runtime = createRuntime(registry);
+    runtime.compile("lower_case('A')").search(runtime.parseString("{}"));
+    assertThat(instrumentation.statistics("lower_case").callCount(), is(1L));
+  }
+
+  @Test
+  public void instrumentingAnInstrumentedFunctionReturnsTheSameFunction() {
+    FunctionInstrumentation instrumentation = new FunctionInstrumentation();
+    Function function = instrumentation.instrument(new LowerCaseFunction());
+    assertThat(instrumentation.instrument(function), is(sameInstance(function)));
+    assertThat(function.name(), is("lower_case"));
+  }
+
+  @Test
+  public void specializableFunctionsAreStillSpecialized() {
+    FunctionInstrumentation instrumentation = new FunctionInstrumentation();
+    Adapter<JsonNode> runtime = createRuntime(instrumentation.instrument(contribFunctions()));
+    JsonNode result = runtime.compile("matches(@, '^f.o$')").search(runtime.parseString("\"foo\""));
+    assertThat(result.booleanValue(), is(true));
+    assertThat(instrumentation.statistics("matches").callCount(), is(1L));
+    thrown.expect(PatternSyntaxException.class);
+    runtime.compile("matches(@, '?')");
+  }
+
+  @Test
+  public void exposesTheMetricsOverJmx() throws Exception {
+    MBeanServer mbeanServer = ManagementFactory.getPlatformMBeanServer();
+    FunctionInstrumentation instrumentation = new FunctionInstrumentation();
+    Adapter<JsonNode> runtime = createRuntime(instrumentation.instrument(contribFunctions()));
+    JsonNode input = runtime.parseString("[\"A\", \"B\"]");
+    runtime.compile("lower_case(@[0])").search(input);
+    instrumentation.registerMBeans(mbeanServer, "io.burt.jmespath.test");
+    try {
+      runtime.compile("concat(@[0], @[1])").search(input);
+      ObjectName lowerCase = new ObjectName("io.burt.jmespath.test:type=FunctionMetrics,name=lower_case");
+      ObjectName concat = new ObjectName("io.burt.jmespath.test:type=FunctionMetrics,name=concat");
+      assertThat((Long) mbeanServer.getAttribute(lowerCase, "CallCount"), is(1L));
+      assertThat((Long) mbeanServer.getAttribute(concat, "CallCount"), is(1L));
+      assertThat(mbeanServer.getAttribute(concat, "LatencyP99Nanos"), is(instanceOf(Long.class)));
+      mbeanServer.invoke(concat, "reset", new Object[0], new String[0]);
+      assertThat((Long) mbeanServer.getAttribute(concat, "CallCount"), is(0L));
+    } finally {
+      instrumentation.unregisterMBeans();
+    }
+    assertThat(mbeanServer.queryNames(new ObjectName("io.burt.jmespath.test:*"), null).isEmpty(), is(true));
+  }
+}
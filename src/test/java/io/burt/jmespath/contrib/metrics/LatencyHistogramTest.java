@@ -0,0 +1,96 @@
+package io.burt.jmespath.contrib.metrics;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+import static org.hamcrest.Matchers.closeTo;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+import static org.junit.Assert.assertThat;
+
+public class LatencyHistogramTest {
+  @Test
+  public void bucketsCoverAllValuesWithoutGaps() {
+    for (int i = 1; i < LatencyHistogram.BUCKET_COUNT; i++) {
+      assertThat(LatencyHistogram.lowestValue(i), is(LatencyHistogram.highestValue(i - 1) + 1));
+    }
+    for (long value : new long[] {0, 1, 31, 32, 63, 64, 65, 1000, 123456789, (1L << 36) - 1}) {
+      int index = LatencyHistogram.bucketIndex(value);
+      assertThat(LatencyHistogram.lowestValue(index), is(lessThanOrEqualTo(value)));
+      assertThat(LatencyHistogram.highestValue(index), is(greaterThanOrEqualTo(value)));
+    }
+  }
+
+  @Test
+  public void valuesLargerThanTheRangeEndUpInTheLastBucket() {
+    assertThat(LatencyHistogram.bucketIndex(1L << 36), is(LatencyHistogram.BUCKET_COUNT - 1));
+    assertThat(LatencyHistogram.bucketIndex(Long.MAX_VALUE), is(LatencyHistogram.BUCKET_COUNT - 1));
+  }
+
+  @Test
+  public void emptySnapshot() {
+    HistogramSnapshot snapshot = new LatencyHistogram().snapshot();
+    assertThat(snapshot.count(), is(0L));
+    assertThat(snapshot.min(), is(0L));
+    assertThat(snapshot.max(), is(0L));
+    assertThat(snapshot.mean(), is(0.0));
+    assertThat(snapshot.valueAtPercentile(99), is(0L));
+  }
+
+  @Test
+  public void percentilesAreWithinThreePercent() {
+    LatencyHistogram histogram = new LatencyHistogram();
+    for (long i = 1; i <= 100000; i++) {
+      histogram.record(i * 10);
+    }
+    HistogramSnapshot snapshot = histogram.snapshot();
+    assertThat(snapshot.count(), is(100000L));
+    assertThat(snapshot.min(), is(10L));
+    assertThat(snapshot.max(), is(1000000L));
+    assertThat(snapshot.mean(), is(500005.0));
+    assertThat((double) snapshot.valueAtPercentile(50), is(closeTo(500000, 500000 * 0.03)));
+    assertThat((double) snapshot.valueAtPercentile(99), is(closeTo(990000, 990000 * 0.03)));
+    assertThat((double) snapshot.valueAtPercentile(99.9), is(closeTo(999000, 999000 * 0.03)));
+    assertThat(snapshot.valueAtPercentile(100), is(1000000L));
+  }
+
+  @Test
+  public void resetRemovesAllValues() {
+    LatencyHistogram histogram = new LatencyHistogram();
+    histogram.record(100);
+    histogram.reset();
+    histogram.record(3);
+    HistogramSnapshot snapshot = histogram.snapshot();
+    assertThat(snapshot.count(), is(1L));
+    assertThat(snapshot.min(), is(3L));
+    assertThat(snapshot.max(), is(3L));
+  }
+
+  @Test
+  public void recordsFromManyThreadsAtOnce() throws Exception {
+    final LatencyHistogram histogram = new LatencyHistogram();
+    List<Thread> threads = new ArrayList<>();
+    for (int i = 0; i < 8; i++) {
+      final Random random = new Random(i);
+      threads.add(new Thread() {
+        @Override
+        public void run() {
+          for (int j = 0; j < 10000; j++) {
+            histogram.record(random.nextInt(1000000));
+          }
+        }
+      });
+    }
+    for (Thread thread : threads) {
+      thread.start();
+    }
+    for (Thread thread : threads) {
+      thread.join();
+    }
+    assertThat(histogram.snapshot().count(), is(80000L));
+  }
+}
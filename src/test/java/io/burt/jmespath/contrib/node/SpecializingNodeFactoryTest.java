@@ -0,0 +1,149 @@
+package io.burt.jmespath.contrib.node;
+
+import java.util.regex.PatternSyntaxException;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+
+import io.burt.jmespath.Expression;
+import io.burt.jmespath.JmesPath;
+import io.burt.jmespath.RuntimeConfiguration;
+import io.burt.jmespath.contrib.function.ContainsAnyFunction;
+import io.burt.jmespath.contrib.function.MatchesAnyFunction;
+import io.burt.jmespath.contrib.function.MatchesFunction;
+import io.burt.jmespath.contrib.function.NeedleSetCache;
+import io.burt.jmespath.contrib.function.PatternCache;
+import io.burt.jmespath.contrib.function.RegularExpressionFunction;
+import io.burt.jmespath.contrib.function.ReplaceFunction;
+import io.burt.jmespath.contrib.function.TokenizeFunction;
+import io.burt.jmespath.function.FunctionRegistry;
+import io.burt.jmespath.jackson.JacksonRuntime;
+import io.burt.jmespath.node.NodeFactory;
+
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+
+public class SpecializingNodeFactoryTest {
+  @Rule
+  public ExpectedException thrown = ExpectedException.none();
+
+  private final PatternCache patternCache = new PatternCache(8);
+
+  private final NeedleSetCache needleSetCache = new NeedleSetCache(8);
+
+  private final JmesPath<JsonNode> runtime = createRuntime(FunctionRegistry.defaultRegistry().extend(
+    new MatchesFunction(patternCache),
+    new MatchesAnyFunction(patternCache),
+    new ContainsAnyFunction(needleSetCache),
+    new ReplaceFunction(patternCache),
+    new TokenizeFunction(patternCache)
+  ));
+
+  private static JmesPath<JsonNode> createRuntime(FunctionRegistry functionRegistry) {
+    RuntimeConfiguration configuration = RuntimeConfiguration.builder().withFunctionRegistry(functionRegistry).build();
+    return new JacksonRuntime(configuration) {
+      private final NodeFactory<JsonNode> nodeFactory = new SpecializingNodeFactory<>(this);
+
+      @Override
+      public NodeFactory<JsonNode> nodeFactory() { return nodeFactory; }
+    };
+  }
+
+  private JsonNode parse(String json) {
+    return ((JacksonRuntime) runtime).parseString(json);
+  }
+
+  @Test
+  public void literalPatternsAreCompiledWithTheExpression() {
+    runtime.compile("matches(@, 'a+', 'i')");
+    assertThat(patternCache.missCount(), is(1L));
+  }
+
+  @Test
+  public void literalPatternsAreNotLookedUpWhenSearching() {
+    Expression<JsonNode> expression = runtime.compile("[matches(@, 'b'), replace(@, 'b', 'c'), tokenize(@, 'b')]");
+    long lookups = patternCache.hitCount() + patternCache.missCount();
+    JsonNode result = expression.search(parse("\"abc\""));
+    assertThat(patternCache.hitCount() + patternCache.missCount(), is(lookups));
+    assertThat(result, is(parse("[true, \"acc\", [\"a\", \"c\"]]")));
+  }
+
+  @Test
+  public void multiSelectListsOfLiteralPatternsAreCompiledWithTheExpression() {
+    Expression<JsonNode> expression = runtime.compile("matches_any(@, ['^a', 'c$'])");
+    assertThat(patternCache.missCount(), is(1L));
+    JsonNode result = expression.search(parse("\"abc\""));
+    assertThat(patternCache.missCount() + patternCache.hitCount(), is(1L));
+    assertThat(result.asBoolean(), is(true));
+  }
+
+  @Test
+  public void literalNeedlesAreBuiltIntoAnAutomatonWithTheExpression() {
+    Expression<JsonNode> expression = runtime.compile("contains_any(@, ['x', 'c'])");
+    assertThat(needleSetCache.missCount(), is(1L));
+    JsonNode result = expression.search(parse("\"abc\""));
+    assertThat(needleSetCache.missCount() + needleSetCache.hitCount(), is(1L));
+    assertThat(result.asBoolean(), is(true));
+  }
+
+  @Test
+  public void multiSelectListsOfLiteralsStillEvaluateToNullOnNull() {
+    Expression<JsonNode> expression = runtime.compile("foo.['a', 'b']");
+    assertThat(expression.search(parse("{}")), is(parse("null")));
+    assertThat(expression.search(parse("{\"foo\": 1}")), is(parse("[\"a\", \"b\"]")));
+  }
+
+  @Test
+  public void multiSelectListsOfLiteralsReturnANewArrayFromEachSearch() {
+    Expression<JsonNode> expression = runtime.compile("['a', 'b']");
+    ((ArrayNode) expression.search(parse("{}"))).add("injected");
+    assertThat(expression.search(parse("{\"foo\": 1}")), is(parse("[\"a\", \"b\"]")));
+  }
+
+  @Test
+  public void patternsThatAreNotLiteralsAreCompiledWhenSearching() {
+    Expression<JsonNode> expression = runtime.compile("matches(str, pattern)");
+    assertThat(patternCache.missCount(), is(0L));
+    JsonNode result = expression.search(parse("{\"str\": \"abc\", \"pattern\": \"^a\"}"));
+    assertThat(patternCache.missCount(), is(1L));
+    assertThat(result.asBoolean(), is(true));
+  }
+
+  @Test
+  public void flagsThatAreNotLiteralsAreParsedWhenSearching() {
+    Expression<JsonNode> expression = runtime.compile("matches(str, 'A', flags)");
+    JsonNode result = expression.search(parse("{\"str\": \"abc\", \"flags\": \"i\"}"));
+    assertThat(result.asBoolean(), is(true));
+  }
+
+  @Test
+  public void invalidLiteralPatternsFailToCompile() {
+    thrown.expect(PatternSyntaxException.class);
+    runtime.compile("replace(@, '?', '')");
+  }
+
+  @Test
+  public void literalPatternsMatchingTheEmptyStringFailToCompile() {
+    thrown.expect(PatternSyntaxException.class);
+    thrown.expectMessage("pattern matches zero-length string");
+    runtime.compile("tokenize(@, 'a*')");
+  }
+
+  @Test
+  public void unknownLiteralFlagsFailToCompile() {
+    thrown.expect(RegularExpressionFunction.InvalidRegexFlagException.class);
+    thrown.expectMessage("Unknown regex flag: z in iz");
+    runtime.compile("matches(@, 'a', 'iz')");
+  }
+
+  @Test
+  public void argumentTypesAreStillCheckedWhenSearching() {
+    Expression<JsonNode> expression = runtime.compile("matches(@, `1`)");
+    thrown.expectMessage("expected string but was number");
+    expression.search(parse("\"1\""));
+  }
+}
@@ -0,0 +1,168 @@
+package io.burt.jmespath.contrib.regex;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThan;
+import static org.hamcrest.Matchers.not;
+import static org.junit.Assert.assertThat;
+
+public class LinearRegexEngineTest {
+  @Rule
+  public ExpectedException thrown = ExpectedException.none();
+
+  private static final List<String> PATTERNS = Arrays.asList(
+    "a", "abc", "a|b", "ab|a", "a|ab", "a*", "a+", "a?", "a*?", "a+?", "a??",
+    "a{2}", "a{2,}", "a{1,3}", "a{1,3}?", "a{0}", "(a)(b)?", "(a|b)*c", "(a|ab)(c|bcd)(d*)",
+    "(a*)b", "(a*?)(a*)", "(?:ab)+", "(?:a|)*", "(?:|a)*", "(?:a?)*b", "(?:a*)+", "(?<x>\\w+)@(?<y>\\w+)",
+    ".", ".*", ".+?x", "[abc]", "[^abc]", "[a-c]+", "[a-]", "[-a]", "[\\d.]+", "[^\\s]+", "[\\w-]+",
+    "\\d+", "\\D+", "\\s+", "\\S+", "\\w+", "\\W+", "\\.", "\\t", "\\x41", "\\x{1F600}", "\\u00e9",
+    "^a", "a$", "^$", "^", "$", "\\Aa", "a\\z", "a\\Z", "\\bfoo\\b", "\\Bo", "\\b",
+    "(foo|bar)baz", "(\\d{1,3})\\.(\\d{1,3})", "([a-z]+)(?:-([a-z]+))*", "x*y*z*", "(x?)(y)",
+    "\u00e9", "\ud83d\ude00", "[\ud83d\ude00a]", "[^\ud83d\ude00]", "]", "}", "a{,", "[a-z&&[aeiou]]", "(?=a)", "a++"
+  );
+
+  private static final List<String> INPUTS = Arrays.asList(
+    "", "a", "aa", "aaa", "ab", "abc", "abcd", "abbcd", "b", "ba", "xyz", "zzz", "foo bar", "foobaz barbaz",
+    "foo\nbar\n", "a\r\n", "a\n", "\na", "a b", "a1-2.3 b_c", "192.168.1.1", "john@example", "x-y-z",
+    "\u00e9t\u00e9", "\u00c9T\u00c9", "a\ud83d\ude00", "\ud83d\ude00b", "caf\u00e9 \u00e9", "tab\there", "AbC", "A"
+  );
+
+  private static final int[] FLAGS = {
+    0,
+    Pattern.CASE_INSENSITIVE,
+    Pattern.CASE_INSENSITIVE | Pattern.UNICODE_CASE,
+    Pattern.MULTILINE,
+    Pattern.DOTALL,
+    Pattern.LITERAL,
+  };
+
+  private final LinearRegexEngine engine = new LinearRegexEngine(null);
+  private final JavaRegexEngine javaEngine = new JavaRegexEngine();
+
+  private static List<String> findAll(RegexMatcher matcher) {
+    List<String> matches = new ArrayList<>();
+    while (matcher.find()) {
+      StringBuilder match = new StringBuilder();
+      for (int group = 0; group <= matcher.groupCount(); group++) {
+        match.append(String.format("%d:%d:%d:%s ", group, matcher.start(group), matcher.end(group), matcher.group(group)));
+      }
+      matches.add(match.toString());
+    }
+    return matches;
+  }
+
+  @Test
+  public void findsTheSameMatchesAsJavaRegex() {
+    int supported = 0;
+    for (String pattern : PATTERNS) {
+      for (int flags : FLAGS) {
+        if (!engine.supports(pattern, flags)) {
+          continue;
+        }
+        supported++;
+        CompiledRegex linear = engine.compile(pattern, flags);
+        CompiledRegex java = javaEngine.compile(pattern, flags);
+        for (String input : INPUTS) {
+          String description = String.format("/%s/%d on \"%s\"", pattern, flags, input);
+          assertThat(description, linear.find(input), is(java.find(input)));
+          assertThat(description, linear.matcher(input).matches(), is(java.matcher(input).matches()));
+          if (java.find("") && input.length() != input.codePointCount(0, input.length())) {
+            // java.util.regex finds empty matches inside surrogate pairs
+            continue;
+          }
+          assertThat(description, findAll(linear.matcher(input)), is(findAll(java.matcher(input))));
+          assertThat(description, linear.matcher(input).replaceAll("<$0>"), is(java.matcher(input).replaceAll("<$0>")));
+        }
+      }
+    }
+    assertThat(supported, is(not(0)));
+  }
+
+  @Test
+  public void supportsTheCommonSyntax() {
+    assertThat(engine.supports("^(?<user>[\\w.+-]+)@([a-z0-9-]+\\.)+[a-z]{2,}$", 0), is(true));
+    assertThat(engine.supports("(a+)+$", 0), is(true));
+    assertThat(engine.supports("\\d{4}-\\d{2}-\\d{2}", Pattern.CASE_INSENSITIVE), is(true));
+  }
+
+  @Test
+  public void doesNotSupportSyntaxThatNeedsBacktracking() {
+    assertThat(engine.supports("(a)\\1", 0), is(false));
+    assertThat(engine.supports("a(?=b)", 0), is(false));
+    assertThat(engine.supports("(?<!a)b", 0), is(false));
+    assertThat(engine.supports("a++", 0), is(false));
+    assertThat(engine.supports("(?i)a", 0), is(false));
+    assertThat(engine.supports("\\p{L}", 0), is(false));
+    assertThat(engine.supports("a b", Pattern.COMMENTS), is(false));
+    assertThat(engine.supports("(a*)*b", 0), is(false));
+  }
+
+  @Test
+  public void doesNotSupportProgramsThatAreTooLarge() {
+    assertThat(engine.supports("(?:a{1000}){1000}", 0), is(false));
+  }
+
+  @Test
+  public void fallsBackForUnsupportedSyntax() {
+    CompiledRegex regex = new LinearRegexEngine().compile("(a)\\1", 0);
+    assertThat(regex.find("xaa"), is(true));
+    assertThat(regex, is(not(instanceOf(LinearRegex.class))));
+  }
+
+  @Test
+  public void rejectsUnsupportedSyntaxWithoutAFallback() {
+    thrown.expect(UnsupportedRegexException.class);
+    engine.compile("(a)\\1", 0);
+  }
+
+  @Test
+  public void reportsInvalidSyntaxLikeJavaRegex() {
+    thrown.expect(PatternSyntaxException.class);
+    thrown.expect(not(instanceOf(UnsupportedRegexException.class)));
+    engine.compile("(a", 0);
+  }
+
+  @Test
+  public void matchesPathologicalExpressionsInLinearTime() {
+    StringBuilder input = new StringBuilder();
+    for (int i = 0; i < 10000; i++) {
+      input.append('a');
+    }
+    input.append('!');
+    long start = System.nanoTime();
+    assertThat(engine.compile("(a+)+$", 0).find(input), is(false));
+    assertThat(engine.compile("(?:a|a)*b", 0).find(input), is(false));
+    assertThat(engine.compile("(a|aa)+b", 0).matcher(input).find(), is(false));
+    assertThat(System.nanoTime() - start, is(lessThan(5000000000L)));
+  }
+
+  @Test
+  public void doesNotSplitSurrogatePairs() {
+    RegexMatcher matcher = engine.compile("x*", 0).matcher("\ud83d\ude00");
+    assertThat(matcher.replaceAll("-"), is("-\ud83d\ude00-"));
+  }
+
+  @Test
+  public void throwsLikeJavaRegexForInvalidReplacements() {
+    RegexMatcher matcher = engine.compile("(a)", 0).matcher("a");
+    thrown.expect(IndexOutOfBoundsException.class);
+    thrown.expectMessage("No group 2");
+    matcher.replaceAll("$2");
+  }
+
+  @Test
+  public void replacesNamedGroups() {
+    RegexMatcher matcher = engine.compile("(?<first>\\w+) (?<last>\\w+)", 0).matcher("john smith");
+    assertThat(matcher.replaceAll("${last}, ${first} \\$1"), is("smith, john $1"));
+  }
+}
@@ -0,0 +1,157 @@
+package io.burt.jmespath.contrib.regex;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThan;
+import static org.hamcrest.Matchers.not;
+import static org.junit.Assert.assertThat;
+
+public class RegexSetTest {
+  @Rule
+  public ExpectedException thrown = ExpectedException.none();
+
+  private static final List<String> PATTERNS = Arrays.asList(
+    "a", "ab", "b+c", "^a", "c$", "\\bfoo\\b", "[0-9]{2,}", "x|yz", "(a|b)*c", "a.?c", "\u00e9", "(a)\\1", "a(?=b)", "^$", "a*"
+  );
+
+  private static final List<String> INPUTS = Arrays.asList(
+    "", "a", "ab", "abc", "bbc", "ca", "foo bar", "foobar", "12", "1", "xyz", "y", "aa", "\u00c9t\u00e9", "a\nc\n", "AB"
+  );
+
+  private static final int[] FLAGS = {
+    0,
+    Pattern.CASE_INSENSITIVE,
+    Pattern.CASE_INSENSITIVE | Pattern.UNICODE_CASE,
+    Pattern.MULTILINE,
+    Pattern.DOTALL,
+  };
+
+  private final RegexEngine engine = new LinearRegexEngine();
+
+  private static int[] findAllOneByOne(List<String> regexes, int flags, CharSequence input) {
+    List<Integer> found = new ArrayList<>();
+    for (int i = 0; i < regexes.size(); i++) {
+      if (Pattern.compile(regexes.get(i), flags).matcher(input).find()) {
+        found.add(i);
+      }
+    }
+    int[] indexes = new int[found.size()];
+    for (int i = 0; i < indexes.length; i++) {
+      indexes[i] = found.get(i);
+    }
+    return indexes;
+  }
+
+  @Test
+  public void findsTheSamePatternsAsMatchingEachOne() {
+    Random random = new Random(1);
+    for (int round = 0; round < 300; round++) {
+      List<String> regexes = new ArrayList<>();
+      for (int i = random.nextInt(5); i >= 0; i--) {
+        regexes.add(PATTERNS.get(random.nextInt(PATTERNS.size())));
+      }
+      int flags = FLAGS[random.nextInt(FLAGS.length)];
+      RegexSet set = RegexSet.compile(regexes, flags, engine);
+      for (String input : INPUTS) {
+        String description = String.format("%s/%d on \"%s\"", regexes, flags, input);
+        int[] expected = findAllOneByOne(regexes, flags, input);
+        assertThat(description, set.findAll(input), is(expected));
+        assertThat(description, set.findAny(input), is(expected.length > 0));
+      }
+    }
+  }
+
+  @Test
+  public void usesAhoCorasickForLiteralPatterns() {
+    assertThat(RegexSet.compile(Arrays.asList("foo", "bar"), 0, engine), is(instanceOf(LiteralRegexSet.class)));
+    assertThat(RegexSet.compile(Arrays.asList("foo", "b.r"), Pattern.LITERAL, engine), is(instanceOf(LiteralRegexSet.class)));
+    assertThat(RegexSet.compile(Arrays.asList("foo", "b\u00e9r"), Pattern.CASE_INSENSITIVE | Pattern.UNICODE_CASE, engine), is(instanceOf(LiteralRegexSet.class)));
+    assertThat(RegexSet.compile(Arrays.asList("foo", "b.r"), 0, engine), is(not(instanceOf(LiteralRegexSet.class))));
+    assertThat(RegexSet.compile(Arrays.asList("foo", "bar"), Pattern.CASE_INSENSITIVE, engine), is(not(instanceOf(LiteralRegexSet.class))));
+  }
+
+  @Test
+  public void matchesLiteralPatternsLikeJavaRegex() {
+    List<String> regexes = Arrays.asList("ab", "b.c", "\u00e9t\u00e9", "A");
+    int[] flags = {Pattern.LITERAL, Pattern.LITERAL | Pattern.CASE_INSENSITIVE | Pattern.UNICODE_CASE};
+    for (int f : flags) {
+      RegexSet set = RegexSet.compile(regexes, f, engine);
+      for (String input : Arrays.asList("xabx", "ab.c", "abc", "\u00c9T\u00c9", "a", "")) {
+        assertThat(regexes + " on " + input, set.findAll(input), is(findAllOneByOne(regexes, f, input)));
+      }
+    }
+  }
+
+  @Test
+  public void matchesAnEmptySetOfPatterns() {
+    RegexSet set = RegexSet.compile(Collections.<String>emptyList(), 0, engine);
+    assertThat(set.size(), is(0));
+    assertThat(set.findAny("abc"), is(false));
+    assertThat(set.findAll("abc"), is(new int[0]));
+  }
+
+  @Test
+  public void matchesPathologicalPatternsInLinearTime() {
+    StringBuilder input = new StringBuilder();
+    for (int i = 0; i < 10000; i++) {
+      input.append('a');
+    }
+    input.append('!');
+    long start = System.nanoTime();
+    RegexSet set = RegexSet.compile(Arrays.asList("(a+)+$", "(a|aa)+b", "x"), 0, engine);
+    assertThat(set.findAny(input), is(false));
+    assertThat(set.findAll(input), is(new int[0]));
+    assertThat(System.nanoTime() - start, is(lessThan(5000000000L)));
+  }
+
+  @Test
+  public void compilesPatternsThatAreTooLargeToCombineOneByOne() {
+    List<String> regexes = new ArrayList<>();
+    for (int i = 0; i < 10; i++) {
+      regexes.add(i + "|(?:a{1000}){9}");
+    }
+    RegexSet set = RegexSet.compile(regexes, 0, engine);
+    assertThat(set, is(instanceOf(LinearRegexSet.class)));
+    assertThat(set.findAll("27"), is(new int[] {2, 7}));
+  }
+
+  @Test
+  public void matchesWhenTheAutomatonHasTooManyStatesToCache() {
+    List<String> regexes = Arrays.asList("a[ab]{12}c", "b[ab]{12}d", "x");
+    RegexSet set = RegexSet.compile(regexes, 0, engine);
+    Random random = new Random(1);
+    for (int round = 0; round < 20; round++) {
+      StringBuilder input = new StringBuilder();
+      for (int i = 0; i < 2000; i++) {
+        input.append("ab".charAt(random.nextInt(2)));
+      }
+      input.append("abcd".charAt(random.nextInt(4)));
+      assertThat(set.findAll(input), is(findAllOneByOne(regexes, 0, input)));
+    }
+  }
+
+  @Test
+  public void reportsInvalidSyntaxLikeJavaRegex() {
+    thrown.expect(PatternSyntaxException.class);
+    thrown.expect(not(instanceOf(UnsupportedRegexException.class)));
+    RegexSet.compile(Arrays.asList("a", "(a"), 0, engine);
+  }
+
+  @Test
+  public void rejectsUnsupportedSyntaxWhenTheEngineDoes() {
+    thrown.expect(UnsupportedRegexException.class);
+    RegexSet.compile(Arrays.asList("a", "(a)\\1"), 0, new LinearRegexEngine(null));
+  }
+}
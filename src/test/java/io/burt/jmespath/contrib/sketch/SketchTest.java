@@ -0,0 +1,188 @@
+package io.burt.jmespath.contrib.sketch;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import static org.hamcrest.Matchers.closeTo;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+import static org.junit.Assert.assertThat;
+
+public class SketchTest {
+  @Rule
+  public ExpectedException thrown = ExpectedException.none();
+
+  private static HyperLogLog hyperLogLog(long seed, int n) {
+    Random random = new Random(seed);
+    HyperLogLog hll = new HyperLogLog();
+    for (int i = 0; i < n; i++) {
+      hll.add(random.nextLong());
+    }
+    return hll;
+  }
+
+  @Test
+  public void hyperLogLogEstimatesSmallAndLargeCardinalities() {
+    for (int n : new int[] {0, 1, 10, 1000, 20000, 100000, 1000000}) {
+      assertThat(String.valueOf(n), (double) hyperLogLog(n, n).estimate(), is(closeTo(n, Math.max(1, 0.03 * n))));
+    }
+  }
+
+  @Test
+  public void hyperLogLogIgnoresDuplicates() {
+    HyperLogLog hll = hyperLogLog(1, 5000);
+    long estimate = hll.estimate();
+    hll.merge(hyperLogLog(1, 5000));
+    assertThat(hll.estimate(), is(estimate));
+  }
+
+  @Test
+  public void mergedHyperLogLogsEstimateTheUnion() {
+    HyperLogLog hll = hyperLogLog(1, 50000);
+    hll.merge(hyperLogLog(2, 50000));
+    assertThat((double) hll.estimate(), is(closeTo(100000, 3000)));
+  }
+
+  @Test
+  public void hyperLogLogsOfDifferentPrecisionsCanNotBeMerged() {
+    thrown.expect(InvalidSketchException.class);
+    thrown.expectMessage("precisions 14 and 12");
+    new HyperLogLog().merge(new HyperLogLog(12));
+  }
+
+  @Test
+  public void tDigestEstimatesQuantilesWithSmallErrorsAtTheExtremes() {
+    List<Integer> values = new ArrayList<>();
+    for (int i = 0; i < 100000; i++) {
+      values.add(i);
+    }
+    Collections.shuffle(values, new Random(1));
+    TDigest digest = new TDigest();
+    for (int value : values) {
+      digest.add(value);
+    }
+    assertThat(digest.count(), is(100000L));
+    assertThat(digest.quantile(0), is(0.0));
+    assertThat(digest.quantile(1), is(99999.0));
+    assertThat(digest.quantile(0.001), is(closeTo(100, 20)));
+    assertThat(digest.quantile(0.01), is(closeTo(1000, 60)));
+    assertThat(digest.quantile(0.5), is(closeTo(50000, 500)));
+    assertThat(digest.quantile(0.99), is(closeTo(99000, 60)));
+    assertThat(digest.quantile(0.999), is(closeTo(99900, 20)));
+  }
+
+  @Test
+  public void tDigestKeepsTheNumberOfCentroidsBounded() {
+    TDigest digest = new TDigest();
+    Random random = new Random(1);
+    for (int i = 0; i < 1000000; i++) {
+      digest.add(random.nextGaussian());
+    }
+    assertThat(digest.serializedSize(), is(lessThanOrEqualTo(8 * 3 + 4 + 16 * 2 * 100)));
+    assertThat(digest.quantile(0.5), is(closeTo(0, 0.01)));
+    assertThat(digest.quantile(0.975), is(closeTo(1.96, 0.02)));
+  }
+
+  @Test
+  public void mergedTDigestsEstimateQuantilesOfAllNumbers() {
+    TDigest merged = new TDigest();
+    for (int shard = 0; shard < 10; shard++) {
+      TDigest digest = new TDigest();
+      for (int i = shard; i < 100000; i += 10) {
+        digest.add(i);
+      }
+      merged.merge(digest);
+    }
+    assertThat(merged.count(), is(100000L));
+    assertThat(merged.quantile(0.5), is(closeTo(50000, 500)));
+    assertThat(merged.quantile(0.99), is(closeTo(99000, 50)));
+  }
+
+  @Test
+  public void spaceSavingCountsAreUpperBoundsWithinTheError() {
+    Random random = new Random(1);
+    Map<String, Long> exact = new HashMap<>();
+    SpaceSaving sketch = new SpaceSaving(50);
+    for (int i = 0; i < 100000; i++) {
+      String key = String.valueOf((int) Math.floor(Math.pow(1000, random.nextDouble())));
+      Long count = exact.get(key);
+      exact.put(key, count == null ? 1 : count + 1);
+      sketch.add(key);
+    }
+    assertThat(sketch.total(), is(100000L));
+    assertThat(sketch.top(1).get(0).key(), is("1"));
+    for (SpaceSaving.Item item : sketch.top(50)) {
+      long count = exact.get(item.key());
+      assertThat(item.count(), is(greaterThanOrEqualTo(count)));
+      assertThat(item.count() - item.error(), is(lessThanOrEqualTo(count)));
+      assertThat(item.error(), is(lessThanOrEqualTo(100000L / 50)));
+    }
+  }
+
+  @Test
+  public void mergedSpaceSavingSketchesKeepTheGuarantees() {
+    SpaceSaving a = new SpaceSaving(3);
+    SpaceSaving b = new SpaceSaving(3);
+    for (String key : "a a a a b b c d".split(" ")) {
+      a.add(key);
+    }
+    for (String key : "a e e e f g".split(" ")) {
+      b.add(key);
+    }
+    a.merge(b);
+    assertThat(a.total(), is(14L));
+    List<SpaceSaving.Item> top = a.top(3);
+    assertThat(top.get(0).key(), is("a"));
+    assertThat(top.get(0).count(), is(greaterThanOrEqualTo(5L)));
+    assertThat(top.get(0).count() - top.get(0).error(), is(lessThanOrEqualTo(5L)));
+    assertThat(top.get(1).key(), is("e"));
+    assertThat(top.get(1).count(), is(greaterThanOrEqualTo(3L)));
+    assertThat(top.get(1).count() - top.get(1).error(), is(lessThanOrEqualTo(3L)));
+  }
+
+  @Test
+  public void sketchesSurviveSerialization() {
+    HyperLogLog hll = (HyperLogLog) Sketch.deserialize(hyperLogLog(1, 3000).serialize());
+    assertThat(hll.estimate(), is(hyperLogLog(1, 3000).estimate()));
+    TDigest digest = new TDigest(50);
+    for (int i = 0; i < 1000; i++) {
+      digest.add(i * 0.5);
+    }
+    TDigest copy = (TDigest) Sketch.deserialize(digest.serialize());
+    assertThat(copy.compression(), is(50.0));
+    assertThat(copy.count(), is(1000L));
+    assertThat(copy.quantile(0.3), is(digest.quantile(0.3)));
+    SpaceSaving sketch = new SpaceSaving(10);
+    for (String key : "\u00e5 b \u00e5 \"c\"".split(" ")) {
+      sketch.add(key);
+    }
+    SpaceSaving sketchCopy = (SpaceSaving) Sketch.deserialize(sketch.serialize());
+    assertThat(sketchCopy.top(1).get(0).key(), is("\u00e5"));
+    assertThat(sketchCopy.top(1).get(0).count(), is(2L));
+    assertThat(sketchCopy.total(), is(4L));
+    assertThat(Sketch.deserialize(new TDigest().serialize()), is(instanceOf(TDigest.class)));
+  }
+
+  @Test
+  public void rejectsStringsThatAreNotSketches() {
+    String valid = new SpaceSaving(10).serialize();
+    for (String invalid : new String[] {"", "abc", "!!!!", "AAAA", valid.substring(0, valid.length() - 4), valid + "AAAA", "WAE="}) {
+      try {
+        Sketch.deserialize(invalid);
+        throw new AssertionError(String.format("Expected %s to be rejected", invalid));
+      } catch (InvalidSketchException ise) {
+        // expected
+      }
+    }
+  }
+}
@@ -0,0 +1,238 @@
+package io.burt.jmespath.contrib.tape;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.burt.jmespath.JmesPathType;
+import io.burt.jmespath.RuntimeConfiguration;
+import io.burt.jmespath.contrib.function.ConcatFunction;
+import io.burt.jmespath.contrib.function.LowerCaseFunction;
+import io.burt.jmespath.contrib.function.SumOfFunction;
+import io.burt.jmespath.contrib.function.TokenizeFunction;
+import io.burt.jmespath.function.FunctionRegistry;
+import io.burt.jmespath.jackson.JacksonRuntime;
+
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.nullValue;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.Assert.assertThat;
+
+public class TapeRuntimeTest {
+  private static final String DOCUMENT =
+    "{" +
+      "\"name\": \"Alice Smith\"," +
+      "\"age\": 42," +
+      "\"score\": 3.25," +
+      "\"active\": true," +
+      "\"manager\": null," +
+      "\"tags\": [\"admin\", \"ops\", \"\"]," +
+      "\"address\": {\"city\": \"G\\u00f6teborg\", \"zip\": \"41101\", \"lines\": []}," +
+      "\"reports\": [" +
+        "{\"name\": \"Bob\", \"age\": 31, \"scores\": [1, 2, 3]}," +
+        "{\"name\": \"Carol\", \"age\": 29, \"scores\": [4.5, -1e2]}," +
+        "{\"name\": \"Dave\", \"age\": 35, \"scores\": []}" +
+      "]," +
+      "\"path\": \"/api/v1/users/42\"," +
+      "\"empty\": {}" +
+    "}";
+
+  private static final List<String> EXPRESSIONS = Arrays.asList(
+    "@", "name", "age", "score", "active", "manager", "missing", "tags", "tags[1]", "tags[-1]",
+    "address.city", "address.*", "address.lines", "reports[*].name", "reports[?age > `30`].name",
+    "reports[].scores[]", "sort_by(reports, &age)[*].name", "max_by(reports, &age).name",
+    "keys(@)", "values(address)", "length(name)", "length(tags)", "length(@)", "to_string(address)",
+    "to_number('12.5')", "type(score)", "contains(tags, 'ops')", "reports[?contains(name, 'a')] | length(@)",
+    "{n: name, c: address.city}", "[name, age, missing]", "tags[?@]", "!active", "empty || 'none'",
+    "address == `{\"zip\": \"41101\", \"lines\": [], \"city\": \"G\u00f6teborg\"}`", "age == `42.0`",
+    "lower_case(name)", "concat(name, ' (', address.city, ')')", "tokenize(path, '/')[2]",
+    "sum_of(reports[0].scores)", "sum_of(reports[1].scores)", "reports[*].age | sum(@)", "merge(address, empty)",
+    "not_null(manager, missing, name)", "join(',', tags)", "reverse(tags)", "starts_with(path, '/api')"
+  );
+
+  @Rule
+  public ExpectedException thrown = ExpectedException.none();
+
+  private final FunctionRegistry functions = FunctionRegistry.defaultRegistry().extend(
+    new ConcatFunction(),
+    new LowerCaseFunction(),
+    new SumOfFunction(),
+    new TokenizeFunction()
+  );
+  private final TapeRuntime runtime = new TapeRuntime(RuntimeConfiguration.builder().withFunctionRegistry(functions).build());
+  private final JacksonRuntime jackson = new JacksonRuntime(RuntimeConfiguration.builder().withFunctionRegistry(functions).build());
+
+  private static JsonNode readTree(String json) {
+    try {
+      return new ObjectMapper().readTree(json);
+    } catch (java.io.IOException ioe) {
+      throw new IllegalStateException(ioe);
+    }
+  }
+
+  @Test
+  public void searchesLikeTheJacksonRuntime() {
+    TapeValue document = runtime.parseString(DOCUMENT);
+    JsonNode jacksonDocument = jackson.parseString(DOCUMENT);
+    for (String expression : EXPRESSIONS) {
+      TapeValue result = runtime.compile(expression).search(document);
+      JsonNode expected = jackson.compile(expression).search(jacksonDocument);
+      assertThat(expression, runtime.parseString(result.toString()), is(runtime.parseString(expected.toString())));
+      assertThat(expression, readTree(result.toString()).toString(), is(readTree(expected.toString()).toString()));
+    }
+  }
+
+  @Test
+  public void parsesAllKindsOfValues() {
+    TapeValue value = runtime.parseString(" [null, true, false, 0, -7, 1.5e3, \"s\", [], {}, [[1]], {\"a\": {\"b\": 2}}] ");
+    List<TapeValue> elements = runtime.toList(value);
+    assertThat(elements.size(), is(11));
+    assertThat(runtime.typeOf(elements.get(0)), is(JmesPathType.NULL));
+    assertThat(runtime.isTruthy(elements.get(1)), is(true));
+    assertThat(runtime.isTruthy(elements.get(2)), is(false));
+    assertThat(runtime.toNumber(elements.get(3)), is((Number) 0L));
+    assertThat(runtime.toNumber(elements.get(4)), is((Number) (-7L)));
+    assertThat(runtime.toNumber(elements.get(5)), is((Number) 1500.0));
+    assertThat(runtime.toString(elements.get(6)), is("s"));
+    assertThat(runtime.isTruthy(elements.get(7)), is(false));
+    assertThat(runtime.isTruthy(elements.get(8)), is(false));
+    assertThat(value.toString(), is("[null,true,false,0,-7,1.5e3,\"s\",[],{},[[1]],{\"a\":{\"b\":2}}]"));
+  }
+
+  @Test
+  public void keepsIntegersThatFitInALongExact() {
+    List<TapeValue> numbers = runtime.toList(runtime.parseString("[9223372036854775807, -9223372036854775808, 9223372036854775808, 9007199254740993]"));
+    assertThat(runtime.isIntegralNumber(numbers.get(0)), is(true));
+    assertThat(runtime.toLong(numbers.get(0)), is(Long.MAX_VALUE));
+    assertThat(runtime.toLong(numbers.get(1)), is(Long.MIN_VALUE));
+    assertThat(runtime.isIntegralNumber(numbers.get(2)), is(false));
+    assertThat(runtime.toDouble(numbers.get(2)), is(9223372036854775808.0));
+    assertThat(runtime.toLong(numbers.get(3)), is(9007199254740993L));
+    assertThat(numbers.get(3), is(not(runtime.createNumber(9007199254740992L))));
+  }
+
+  @Test
+  public void decodesEscapesAndUnicode() {
+    TapeValue value = runtime.parseString("\"a\\\"b\\\\c\\/d\\b\\f\\n\\r\\t\\u00e9\\ud83d\\ude00\\ud800x \u00e5\ud83d\ude00\"");
+    assertThat(runtime.toString(value), is("a\"b\\c/d\b\f\n\r\t\u00e9\ud83d\ude00\ufffdx \u00e5\ud83d\ude00"));
+    assertThat(runtime.parseString(value.toString()), is(value));
+  }
+
+  @Test
+  public void showsOnlyTheFirstOfRepeatedKeys() {
+    TapeValue value = runtime.parseString("{\"a\": 1, \"b\": 2, \"a\": 3}");
+    assertThat(value.toString(), is("{\"a\":1,\"b\":2}"));
+    assertThat(runtime.toList(value), is(Arrays.asList(runtime.createNumber(1L), runtime.createNumber(2L))));
+    assertThat(value, is(runtime.parseString("{\"b\": 2, \"a\": 1}")));
+  }
+
+  @Test
+  public void findsPropertiesWithNonAsciiKeys() {
+    TapeValue value = runtime.parseString("{\"stra\u00dfe\": 1, \"strasse\": 2, \"\ud83d\ude00\": 3}");
+    assertThat(runtime.getProperty(value, runtime.createString("stra\u00dfe")), is(runtime.createNumber(1L)));
+    assertThat(runtime.getProperty(value, runtime.createString("strasse")), is(runtime.createNumber(2L)));
+    assertThat(runtime.getProperty(value, runtime.createString("\ud83d\ude00")), is(runtime.createNumber(3L)));
+    assertThat(runtime.typeOf(runtime.getProperty(value, runtime.createString("stras"))), is(JmesPathType.NULL));
+  }
+
+  @Test
+  public void returnsTheSameNodeForTheSameValue() {
+    TapeValue value = runtime.parseString("{\"a\": {\"b\": \"c\"}}");
+    assertThat(runtime.getProperty(value, runtime.createString("a")), is(sameInstance(runtime.getProperty(value, runtime.createString("a")))));
+    assertThat(runtime.toList(value).get(0), is(sameInstance(runtime.getProperty(value, runtime.createString("a")))));
+  }
+
+  @Test
+  public void parsedAndCreatedValuesAreEqual() {
+    Map<TapeValue, TapeValue> members = new LinkedHashMap<>();
+    members.put(runtime.createString("b"), runtime.createArray(Arrays.asList(runtime.createNumber(1L), runtime.createNumber(2.5))));
+    members.put(runtime.createString("a"), runtime.createString("x"));
+    TapeValue created = runtime.createObject(members);
+    TapeValue parsed = runtime.parseString("{\"a\": \"x\", \"b\": [1.0, 2.5]}");
+    assertThat(created, is(parsed));
+    assertThat(parsed, is(created));
+    assertThat(created.hashCode(), is(parsed.hashCode()));
+    assertThat(runtime.compare(created, parsed), is(0));
+    assertThat(runtime.parseString("[]"), is(runtime.createArray(Collections.<TapeValue>emptyList())));
+    assertThat(runtime.parseString("null"), is(runtime.createNull()));
+  }
+
+  @Test
+  public void parsesDeeplyNestedDocuments() {
+    StringBuilder json = new StringBuilder();
+    for (int i = 0; i < 100000; i++) {
+      json.append("[");
+    }
+    for (int i = 0; i < 100000; i++) {
+      json.append("]");
+    }
+    assertThat(runtime.typeOf(runtime.parseString(json.toString())), is(JmesPathType.ARRAY));
+  }
+
+  @Test
+  public void countsLargeArrays() {
+    StringBuilder json = new StringBuilder("[0");
+    for (int i = 1; i < TapeDocument.MAX_COUNT + 10; i++) {
+      json.append(",1");
+    }
+    json.append("]");
+    assertThat(runtime.toList(runtime.parseString(json.toString())).size(), is(TapeDocument.MAX_COUNT + 10));
+  }
+
+  @Test
+  public void parsesLargeStrings() {
+    char[] chars = new char[TapeDocument.MAX_STRING_LENGTH + 10];
+    Arrays.fill(chars, 'x');
+    String large = new String(chars);
+    TapeValue value = runtime.parseString(String.format("{\"a\": \"%s\", \"b\": \"c\"}", large));
+    assertThat(runtime.toString(runtime.getProperty(value, runtime.createString("a"))), is(large));
+    assertThat(runtime.toString(runtime.getProperty(value, runtime.createString("b"))), is("c"));
+  }
+
+  @Test
+  public void parsesUtf8Bytes() throws Exception {
+    byte[] json = "xx{\"a\": \"\u00e5\u00e4\u00f6\"}yy".getBytes("UTF-8");
+    TapeValue value = runtime.parse(json, 2, json.length - 4);
+    assertThat(runtime.toString(runtime.getProperty(value, runtime.createString("a"))), is("\u00e5\u00e4\u00f6"));
+  }
+
+  @Test
+  public void hasNoPropertiesOrElementsForScalars() {
+    TapeValue value = runtime.parseString("\"abc\"");
+    assertThat(runtime.getPropertyNames(value), is(empty()));
+    assertThat(runtime.toList(value), is(empty()));
+    assertThat(runtime.toNumber(value), is(nullValue()));
+    assertThat(runtime.getPropertyNames(runtime.parseString("{\"a\": 1, \"b\": 2}")), contains(runtime.createString("a"), runtime.createString("b")));
+  }
+
+  @Test
+  public void rejectsTrailingContent() {
+    thrown.expect(IllegalStateException.class);
+    thrown.expectMessage("after the document");
+    runtime.parseString("{} {}");
+  }
+
+  @Test
+  public void rejectsInvalidJson() {
+    for (String json : Arrays.asList("", "[", "[1,]", "{\"a\"}", "{\"a\": 1,}", "{1: 2}", "01", "1.", "-", "1e", "tru", "\"a", "\"\\x\"", "\"\\u12\"", "[1 2]", "\"a\tb\"")) {
+      try {
+        runtime.parseString(json);
+        throw new AssertionError(String.format("Expected %s to be rejected", json));
+      } catch (IllegalStateException ise) {
+        // expected
+      }
+    }
+  }
+}
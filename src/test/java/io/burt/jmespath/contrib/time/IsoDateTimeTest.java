@@ -0,0 +1,105 @@
+package io.burt.jmespath.contrib.time;
+
+import java.util.Calendar;
+import java.util.Date;
+import java.util.GregorianCalendar;
+import java.util.Random;
+import java.util.TimeZone;
+
+import org.junit.Test;
+
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+
+public class IsoDateTimeTest {
+  private static GregorianCalendar utcCalendar(long millis) {
+    GregorianCalendar calendar = new GregorianCalendar(TimeZone.getTimeZone("UTC"));
+    calendar.setGregorianChange(new Date(Long.MIN_VALUE));
+    calendar.setTimeInMillis(millis);
+    return calendar;
+  }
+
+  @Test
+  public void agreesWithGregorianCalendar() {
+    Random random = new Random(1);
+    for (int i = 0; i < 10000; i++) {
+      long millis = -62167219200000L + (long) (random.nextDouble() * (253402300800000L + 62167219200000L));
+      GregorianCalendar calendar = utcCalendar(millis);
+      String expected = String.format("%04d-%02d-%02dT%02d:%02d:%02d.%03dZ",
+        calendar.get(Calendar.ERA) == GregorianCalendar.BC ? 1 - calendar.get(Calendar.YEAR) : calendar.get(Calendar.YEAR),
+        calendar.get(Calendar.MONTH) + 1,
+        calendar.get(Calendar.DAY_OF_MONTH),
+        calendar.get(Calendar.HOUR_OF_DAY),
+        calendar.get(Calendar.MINUTE),
+        calendar.get(Calendar.SECOND),
+        calendar.get(Calendar.MILLISECOND));
+      assertThat(IsoDateTime.format(millis), is(expected));
+      assertThat(IsoDateTime.parse(expected), is(millis));
+    }
+  }
+
+  @Test
+  public void formatsAndParsesYearsOutsideFourDigits() {
+    for (long millis : new long[] {9000000000000000000L, -62167219200001L, -62198755200000L, 253402300800000L, -9000000000000000L}) {
+      assertThat(IsoDateTime.parse(IsoDateTime.format(millis)), is(millis));
+    }
+    assertThat(IsoDateTime.format(-62167219200001L), is("-0001-12-31T23:59:59.999Z"));
+  }
+
+  @Test
+  public void parsesOffsetsAndPartialTimes() {
+    long expected = IsoDateTime.parse("2019-06-03T10:34:00.000Z");
+    assertThat(IsoDateTime.parse("2019-06-03T12:34+02:00"), is(expected));
+    assertThat(IsoDateTime.parse("2019-06-03T12:34+0200"), is(expected));
+    assertThat(IsoDateTime.parse("2019-06-03T12:34+02"), is(expected));
+    assertThat(IsoDateTime.parse("2019-06-03T08:04:00-02:30"), is(expected));
+    assertThat(IsoDateTime.parse("2019-06-03T10:34:00,0001Z"), is(expected));
+  }
+
+  @Test
+  public void rejectsInvalidDateTimes() {
+    String[] invalid = {
+      "", "2019", "2019-06", "2019-06-3", "2019-13-01", "2019-00-01", "1900-02-29", "2019-06-31",
+      "2019-06-03T", "2019-06-03T12", "2019-06-03T12:3", "2019-06-03T12:60", "2019-06-03T12:34:61",
+      "2019-06-03X12:34", "2019-06-03T12:34:56.", "2019-06-03T12:34+2", "2019-06-03T12:34+02:0",
+      "2019-06-03T12:34+24:00", "2019-06-03T12:34ZZ", "+2019-06-03T12:34Z0", "+999999999-01-01", "20190603"
+    };
+    for (String s : invalid) {
+      assertThat(s, IsoDateTime.parse(s), is(IsoDateTime.INVALID));
+    }
+  }
+
+  @Test
+  public void truncatesToUnits() {
+    Random random = new Random(1);
+    for (int i = 0; i < 1000; i++) {
+      long millis = (long) ((random.nextDouble() * 2 - 1) * 10000000000000L);
+      GregorianCalendar calendar = utcCalendar(millis);
+      calendar.set(Calendar.MILLISECOND, 0);
+      assertThat(DateUnit.SECOND.truncate(millis), is(calendar.getTimeInMillis()));
+      calendar.set(Calendar.SECOND, 0);
+      assertThat(DateUnit.MINUTE.truncate(millis), is(calendar.getTimeInMillis()));
+      calendar.set(Calendar.MINUTE, 0);
+      assertThat(DateUnit.HOUR.truncate(millis), is(calendar.getTimeInMillis()));
+      calendar.set(Calendar.HOUR_OF_DAY, 0);
+      assertThat(DateUnit.DAY.truncate(millis), is(calendar.getTimeInMillis()));
+      GregorianCalendar week = (GregorianCalendar) calendar.clone();
+      week.setFirstDayOfWeek(Calendar.MONDAY);
+      week.set(Calendar.DAY_OF_WEEK, Calendar.MONDAY);
+      assertThat(DateUnit.WEEK.truncate(millis), is(week.getTimeInMillis()));
+      calendar.set(Calendar.DAY_OF_MONTH, 1);
+      assertThat(DateUnit.MONTH.truncate(millis), is(calendar.getTimeInMillis()));
+      calendar.set(Calendar.MONTH, calendar.get(Calendar.MONTH) / 3 * 3);
+      assertThat(DateUnit.QUARTER.truncate(millis), is(calendar.getTimeInMillis()));
+      calendar.set(Calendar.MONTH, Calendar.JANUARY);
+      assertThat(DateUnit.YEAR.truncate(millis), is(calendar.getTimeInMillis()));
+    }
+  }
+
+  @Test
+  public void findsUnitsByName() {
+    assertThat(DateUnit.fromName("week"), is(DateUnit.WEEK));
+    assertThat(DateUnit.fromName("Quarter"), is(DateUnit.QUARTER));
+    assertThat(DateUnit.fromName("weeks"), is((DateUnit) null));
+  }
+}
@@ -0,0 +1,121 @@
+package io.burt.jmespath.contrib.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.Assert.assertThat;
+
+public class AhoCorasickTest {
+  private static int[] naiveFindAll(List<String> needles, String input) {
+    List<Integer> found = new ArrayList<>();
+    for (int i = 0; i < needles.size(); i++) {
+      if (input.contains(needles.get(i))) {
+        found.add(i);
+      }
+    }
+    int[] indexes = new int[found.size()];
+    for (int i = 0; i < indexes.length; i++) {
+      indexes[i] = found.get(i);
+    }
+    return indexes;
+  }
+
+  private static int naiveFirstStart(List<String> needles, String input) {
+    int first = -1;
+    for (String needle : needles) {
+      int start = input.indexOf(needle);
+      if (start != -1 && (first == -1 || start < first)) {
+        first = start;
+      }
+    }
+    return first;
+  }
+
+  @Test
+  public void findsTheNeedlesThatOccurInTheInput() {
+    AhoCorasick automaton = new AhoCorasick(Arrays.asList("he", "she", "his", "hers"));
+    assertThat(automaton.findAll("ushers"), is(new int[] {0, 1, 3}));
+    assertThat(automaton.findAll("this"), is(new int[] {2}));
+    assertThat(automaton.findAll("hs"), is(new int[0]));
+    assertThat(automaton.containsAny("ushers"), is(true));
+    assertThat(automaton.containsAny("hs"), is(false));
+  }
+
+  @Test
+  public void findsNeedlesThatAreSuffixesOfOtherMatches() {
+    AhoCorasick automaton = new AhoCorasick(Arrays.asList("abcd", "bc", "c"));
+    assertThat(automaton.findAll("xabcx"), is(new int[] {1, 2}));
+    assertThat(automaton.containsAny("xbx"), is(false));
+    assertThat(automaton.containsAny("xcx"), is(true));
+  }
+
+  @Test
+  public void handlesDuplicateAndEmptyNeedles() {
+    AhoCorasick automaton = new AhoCorasick(Arrays.asList("ab", "", "ab"));
+    assertThat(automaton.findAll("xaby"), is(new int[] {0, 1, 2}));
+    assertThat(automaton.findAll(""), is(new int[] {1}));
+    assertThat(automaton.containsAny(""), is(true));
+  }
+
+  @Test
+  public void findsTheLeftmostOccurrence() {
+    AhoCorasick automaton = new AhoCorasick(Arrays.asList("bcd", "abcdef", "cd", "bc"));
+    AhoCorasick.Match match = automaton.findFirst("xabcdex");
+    assertThat(match.needle(), is(0));
+    assertThat(match.start(), is(2));
+    assertThat(match.end(), is(5));
+    assertThat(automaton.findFirst("xabcdefx").needle(), is(1));
+    assertThat(automaton.findFirst("xxx"), is(nullValue()));
+  }
+
+  @Test
+  public void findsNothingWithoutNeedles() {
+    AhoCorasick automaton = new AhoCorasick(Collections.<String>emptyList());
+    assertThat(automaton.size(), is(0));
+    assertThat(automaton.findAll("abc"), is(new int[0]));
+    assertThat(automaton.containsAny("abc"), is(false));
+  }
+
+  @Test
+  public void ignoresCaseLikeUnicodeCaseInsensitiveRegex() {
+    AhoCorasick automaton = new AhoCorasick(Arrays.asList("stra\u00dfe", "\u00c9T\u00c9", "ks"), true);
+    assertThat(automaton.findAll("STRA\u00dfE"), is(new int[] {0}));
+    assertThat(automaton.findAll("\u00e9t\u00e9"), is(new int[] {1}));
+    assertThat(automaton.findAll("\u212a\u017f"), is(new int[] {2}));
+  }
+
+  @Test
+  public void findsTheSameNeedlesAsAScanForEach() {
+    Random random = new Random(1);
+    for (int round = 0; round < 200; round++) {
+      List<String> needles = new ArrayList<>();
+      for (int i = random.nextInt(8); i >= 0; i--) {
+        needles.add(randomString(random, 1 + random.nextInt(4)));
+      }
+      AhoCorasick automaton = new AhoCorasick(needles);
+      for (int i = 0; i < 20; i++) {
+        String input = randomString(random, random.nextInt(30));
+        int[] expected = naiveFindAll(needles, input);
+        assertThat(needles + " in " + input, automaton.findAll(input), is(expected));
+        assertThat(needles + " in " + input, automaton.containsAny(input), is(expected.length > 0));
+        AhoCorasick.Match match = automaton.findFirst(input);
+        assertThat(needles + " in " + input, match == null ? -1 : match.start(), is(naiveFirstStart(needles, input)));
+      }
+    }
+  }
+
+  private static String randomString(Random random, int length) {
+    StringBuilder string = new StringBuilder();
+    for (int i = 0; i < length; i++) {
+      string.append("abc\u00e9".charAt(random.nextInt(4)));
+    }
+    return string.toString();
+  }
+}
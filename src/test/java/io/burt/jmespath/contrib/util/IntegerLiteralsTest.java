@@ -0,0 +1,40 @@
+package io.burt.jmespath.contrib.util;
+
+import org.junit.Test;
+
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+
+public class IntegerLiteralsTest {
+  @Test
+  public void recognizesIntegersInTheRangeOfLong() {
+    assertThat(IntegerLiterals.isIntegerLiteral("0"), is(true));
+    assertThat(IntegerLiterals.isIntegerLiteral("-42"), is(true));
+    assertThat(IntegerLiterals.isIntegerLiteral("9223372036854775807"), is(true));
+    assertThat(IntegerLiterals.isIntegerLiteral("-9223372036854775808"), is(true));
+  }
+
+  @Test
+  public void rejectsIntegersOutsideTheRangeOfLong() {
+    assertThat(IntegerLiterals.isIntegerLiteral("9223372036854775808"), is(false));
+    assertThat(IntegerLiterals.isIntegerLiteral("-9223372036854775809"), is(false));
+    assertThat(IntegerLiterals.isIntegerLiteral("100000000000000000000"), is(false));
+  }
+
+  @Test
+  public void rejectsStringsThatAreNotIntegers() {
+    assertThat(IntegerLiterals.isIntegerLiteral(""), is(false));
+    assertThat(IntegerLiterals.isIntegerLiteral("-"), is(false));
+    assertThat(IntegerLiterals.isIntegerLiteral("1.0"), is(false));
+    assertThat(IntegerLiterals.isIntegerLiteral("1e3"), is(false));
+    assertThat(IntegerLiterals.isIntegerLiteral("+1"), is(false));
+  }
+
+  @Test
+  public void parsesIntegerLiterals() {
+    assertThat(IntegerLiterals.parseIntegerLiteral("0"), is(0L));
+    assertThat(IntegerLiterals.parseIntegerLiteral("-42"), is(-42L));
+    assertThat(IntegerLiterals.parseIntegerLiteral("9223372036854775807"), is(Long.MAX_VALUE));
+    assertThat(IntegerLiterals.parseIntegerLiteral("-9223372036854775808"), is(Long.MIN_VALUE));
+  }
+}
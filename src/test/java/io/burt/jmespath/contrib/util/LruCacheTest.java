@@ -0,0 +1,55 @@
+package io.burt.jmespath.contrib.util;
+
+import org.junit.Test;
+
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.Assert.assertThat;
+
+public class LruCacheTest {
+  @Test
+  public void returnsCachedValues() {
+    LruCache<String, Integer> cache = new LruCache<>(4);
+    cache.put("one", 1);
+    cache.put("two", 2);
+    assertThat(cache.get("one"), is(1));
+    assertThat(cache.get("two"), is(2));
+    assertThat(cache.get("three"), is(nullValue()));
+  }
+
+  @Test
+  public void countsHitsAndMisses() {
+    LruCache<String, Integer> cache = new LruCache<>(4);
+    cache.put("one", 1);
+    cache.get("one");
+    cache.get("one");
+    cache.get("two");
+    assertThat(cache.hitCount(), is(2L));
+    assertThat(cache.missCount(), is(1L));
+  }
+
+  @Test
+  public void evictsTheLeastRecentlyUsedEntry() {
+    LruCache<String, Integer> cache = new LruCache<>(1);
+    cache.put("one", 1);
+    cache.put("two", 2);
+    assertThat(cache.get("one"), is(nullValue()));
+    assertThat(cache.get("two"), is(2));
+    assertThat(cache.evictionCount(), is(1L));
+  }
+
+  @Test
+  public void neverHoldsMoreThanTheMaximumSize() {
+    LruCache<Integer, Integer> cache = new LruCache<>(100);
+    for (int i = 0; i < 1000; i++) {
+      cache.put(i, i);
+    }
+    assertThat(cache.size() <= 100, is(true));
+    assertThat(cache.evictionCount(), is(1000L - cache.size()));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void requiresAPositiveMaximumSize() {
+    new LruCache<String, String>(0);
+  }
+}